@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved. 
+ * 
+ * This file is part of jnum.
+ * 
+ *     kovacs.util is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * 
+ *     kovacs.util is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ * 
+ *     You should have received a copy of the GNU General Public License
+ *     along with kovacs.util.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+package test.bench;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jnum.data.Referenced;
+import jnum.data.RegularData;
+import jnum.data.image.Image2D;
+import jnum.data.image.Index2D;
+import jnum.math.Vector2D;
+import jnum.parallel.ParallelTask;
+
+/**
+ * Smoothing and resampling of a square image with a fraction of blanked pixels.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class DataBenchmark {
+    
+    @Param({ "256", "1024" })
+    public int size;
+    
+    @Param({ "1", "4" })
+    public int threads;
+    
+    /** The FWHM of the Gaussian smoothing beam, in pixels */
+    @Param({ "3.0", "10.0" })
+    public double fwhm;
+    
+    private ExecutorService executor;
+    
+    private Image2D image, resampled;
+    
+    private Referenced<Index2D, Vector2D> beam;
+    
+    private Index2D step;
+    
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = ParallelTask.newDefaultParallelExecutor();
+        
+        final Random random = new Random(size);
+        
+        image = Image2D.createType(Double.class, size, size);
+        image.setExecutor(executor);
+        image.setParallel(threads);
+        
+        for(int i=size; --i >= 0; ) for(int j=size; --j >= 0; ) {
+            if(random.nextDouble() < 0.05) image.discard(i, j);
+            else image.setDouble(i, j, random.nextGaussian());
+        }
+        
+        resampled = Image2D.createType(Double.class, 3 * size / 4, 3 * size / 4);
+        resampled.copyParallel(image);
+        
+        beam = image.getGaussianBeam(new Vector2D(fwhm, fwhm));
+        
+        final int n = Math.max(1, (int) Math.floor(0.2 * fwhm));
+        step = new Index2D(n, n);
+    }
+    
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    
+    @Benchmark
+    public RegularData<Index2D, Vector2D> smooth() {
+        return image.getSmoothed(beam, null, null);
+    }
+    
+    @Benchmark
+    public RegularData<Index2D, Vector2D> fastSmooth() {
+        return image.getFastSmoothed(beam, step, null, null);
+    }
+    
+    @Benchmark
+    public Image2D resample() {
+        resampled.resampleFrom(image);
+        return resampled;
+    }
+    
+}
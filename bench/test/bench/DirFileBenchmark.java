@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved. 
+ * 
+ * This file is part of jnum.
+ * 
+ *     kovacs.util is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * 
+ *     kovacs.util is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ * 
+ *     You should have received a copy of the GNU General Public License
+ *     along with kovacs.util.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+package test.bench;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jnum.io.dirfile.RawStore;
+
+/**
+ * Reads of a raw dirfile field, both in bulk and sample-by-sample, for different field types 
+ * (as specified in dirfile format files). The field is backed by a temporary file of random bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class DirFileBenchmark {
+    
+    @Param({ "float64", "float32", "int16", "uint32" })
+    public String type;
+    
+    @Param({ "1000000" })
+    public int samples;
+    
+    private File dir;
+    
+    private RawStore<?> store;
+    
+    private double[] data;
+    
+    
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = File.createTempFile("jnum-bench", ".dirfile");
+        dir.delete();
+        dir.mkdir();
+        
+        // Large enough for the widest (8-byte) types...
+        final byte[] bytes = new byte[8 * samples];
+        new Random(samples).nextBytes(bytes);
+        
+        FileOutputStream out = new FileOutputStream(new File(dir, "field"));
+        out.write(bytes);
+        out.close();
+        
+        store = RawStore.forSpec(dir.getPath(), "field", type, 1);
+        store.open();
+        
+        data = new double[samples];
+    }
+    
+    @TearDown(Level.Trial)
+    public void cleanup() throws IOException {
+        store.close();
+        store.getFile().delete();
+        dir.delete();
+    }
+    
+    @Benchmark
+    public double[] bulkRead() throws IOException {
+        store.read(0, data);
+        return data;
+    }
+    
+    @Benchmark
+    public double[] sampleRead() throws IOException {
+        for(int i=samples; --i >= 0; ) data[i] = store.get(i).doubleValue();
+        return data;
+    }
+    
+}
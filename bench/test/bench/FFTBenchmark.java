@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved. 
+ * 
+ * This file is part of jnum.
+ * 
+ *     kovacs.util is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * 
+ *     kovacs.util is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ * 
+ *     You should have received a copy of the GNU General Public License
+ *     along with kovacs.util.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+package test.bench;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jnum.fft.ComplexFFT;
+import jnum.fft.DoubleFFT;
+import jnum.fft.FloatFFT;
+import jnum.fft.MultiFFT;
+import jnum.math.Complex;
+import jnum.parallel.ParallelTask;
+
+/**
+ * Forward/backward complex transforms of the FFT implementations, at different sizes and 
+ * thread counts. Successive invocations alternate direction, s.t. the data stays bounded.
+ * 
+ * A thread count of 0 selects the automatic parallelism of the FFT.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class FFTBenchmark {
+    
+    @Param({ "1024", "65536", "1048576" })
+    public int size;
+    
+    @Param({ "1", "2", "4", "0" })
+    public int threads;
+    
+    private ExecutorService executor;
+    
+    private DoubleFFT doubleFFT;
+    private FloatFFT floatFFT;
+    private ComplexFFT complexFFT;
+    private MultiFFT multiFFT;
+    
+    private double[] doubleData;
+    private float[] floatData;
+    private Complex[] complexData;
+    private double[][] multiData;
+    
+    private boolean isForward;
+    
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = ParallelTask.newDefaultParallelExecutor();
+        
+        doubleFFT = new DoubleFFT(executor);
+        floatFFT = new FloatFFT(executor);
+        complexFFT = new ComplexFFT(executor);
+        multiFFT = new MultiFFT(executor);
+        
+        doubleFFT.setParallel(threads);
+        floatFFT.setParallel(threads);
+        complexFFT.setParallel(threads);
+        multiFFT.setParallel(threads);
+        
+        final Random random = new Random(size);
+        
+        doubleData = new double[size];
+        floatData = new float[size];
+        for(int i=size; --i >= 0; ) {
+            doubleData[i] = random.nextGaussian();
+            floatData[i] = (float) random.nextGaussian();
+        }
+        
+        complexData = new Complex[size >>> 1];
+        for(int i=complexData.length; --i >= 0; ) complexData[i] = new Complex(random.nextGaussian(), random.nextGaussian());
+        
+        final int cols = Math.min(size, 1024);
+        multiData = new double[size / cols][cols];
+        for(int i=multiData.length; --i >= 0; ) for(int j=cols; --j >= 0; ) multiData[i][j] = random.nextGaussian();
+    }
+    
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    
+    @Benchmark
+    public double[] doubleFFT() {
+        isForward = !isForward;
+        doubleFFT.complexTransform(doubleData, isForward);
+        return doubleData;
+    }
+    
+    @Benchmark
+    public float[] floatFFT() {
+        isForward = !isForward;
+        floatFFT.complexTransform(floatData, isForward);
+        return floatData;
+    }
+    
+    @Benchmark
+    public Complex[] complexFFT() {
+        isForward = !isForward;
+        complexFFT.complexTransform(complexData, isForward);
+        return complexData;
+    }
+    
+    @Benchmark
+    public double[][] multiFFT() {
+        isForward = !isForward;
+        multiFFT.complexTransform(multiData, isForward);
+        return multiData;
+    }
+    
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2013 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved. 
+ * 
+ * This file is part of jnum.
+ * 
+ *     kovacs.util is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * 
+ *     kovacs.util is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ * 
+ *     You should have received a copy of the GNU General Public License
+ *     along with kovacs.util.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+package test.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jnum.Unit;
+import jnum.math.SphericalCoordinates;
+import jnum.math.Vector2D;
+import jnum.projection.SphericalProjection;
+
+/**
+ * Projection and deprojection of a field of positions within a few degrees of the reference, 
+ * for a selection of spherical projections (by FITS ID).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class ProjectionBenchmark {
+    
+    @Param({ "TAN", "SIN", "SFL", "AIT", "ZEA" })
+    public String type;
+    
+    @Param({ "10000" })
+    public int points;
+    
+    private SphericalProjection projection;
+    
+    private SphericalCoordinates[] coords;
+    
+    private Vector2D[] offsets;
+    
+    
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final Random random = new Random(points);
+        
+        projection = SphericalProjection.forName(type);
+        projection.setReference(new SphericalCoordinates(30.0 * Unit.deg, 40.0 * Unit.deg));
+        
+        coords = new SphericalCoordinates[points];
+        offsets = new Vector2D[points];
+        
+        for(int i=points; --i >= 0; ) {
+            coords[i] = new SphericalCoordinates(
+                    (30.0 + 5.0 * random.nextGaussian()) * Unit.deg, 
+                    (40.0 + 5.0 * random.nextGaussian()) * Unit.deg
+            );
+            offsets[i] = new Vector2D();
+            projection.project(coords[i], offsets[i]);
+        }
+    }
+    
+    @Benchmark
+    public Vector2D[] project() {
+        for(int i=points; --i >= 0; ) projection.project(coords[i], offsets[i]);
+        return offsets;
+    }
+    
+    @Benchmark
+    public SphericalCoordinates[] deproject() {
+        for(int i=points; --i >= 0; ) projection.deproject(offsets[i], coords[i]);
+        return coords;
+    }
+    
+}
@@ -152,7 +152,7 @@ public class AstroTime implements Serializable, Comparable<AstroTime> {
 
     // Terrestrial Time (based on Atomic Time TAI) in seconds
     public double getTT() {
-        return (MJD - (int)Math.floor(MJD)) * Unit.day;
+        return getTT(MJD);
     }
 
 
@@ -193,7 +193,7 @@ public class AstroTime implements Serializable, Comparable<AstroTime> {
 
 
     public final double getUTC() {
-        return 1e-3 * getUTCMillis() % DayMillis;
+        return getUTC(MJD);
     }
 
 
@@ -203,14 +203,24 @@ public class AstroTime implements Serializable, Comparable<AstroTime> {
      * @return the Greenwich Mean Solar Time (GMST). 
      */	
     public final double getGMST0() {
+        return getGMST0(MJD);
+    }
+
+    /**
+     * Gets the Greenwich Mean Solar Time (GMST) at UT1 = 0h for a given date.
+     *
+     * @param MJD      the modified Julian date (TT)
+     * @return         (s) the Greenwich Mean Solar Time (GMST).
+     * 
+     * @see #getGMST0()
+     */
+    public static double getGMST0(double MJD) {
         // Ratio of mLST to UT1 = 0.997269566329084 − 5.8684×10−11T + 5.9×10−15T², 
         // where T is the number of Julian centuries of 36525 days each that have elapsed since JD 2451545.0 (J2000).[1]
 
         // From http://www.cv.nrao.edu/~rfisher/Ephemerides/times.html
         final double T = (MJD - MJDJ2000) / JulianCenturyDays;
         return (24110.54841 + T * (8640184.812866 + T * (0.093104 - T * 0.0000062))) * Unit.s;
-
-
     }
 
     // Greenwich Sidereal Time
@@ -223,7 +233,11 @@ public class AstroTime implements Serializable, Comparable<AstroTime> {
      * @return         (s) the GMST
      */
     public final double getGMST(double dUT1) {
-        return getGMST0() + dSTdUT * (getUTC() + dUT1);    // ~366.242189 / 365.242189
+        return getGMST(MJD, dUT1);
+    }
+
+    public static double getGMST(double MJD, double dUT1) {
+        return getGMST0(MJD) + dSTdUT * (getUTC(MJD) + dUT1);    // ~366.242189 / 365.242189
     }
 
     /**
@@ -234,7 +248,11 @@ public class AstroTime implements Serializable, Comparable<AstroTime> {
      * @return             (s) the LMST
      */
     public final double getLMST(double longitude, double dUT1) {
-        double LST = Math.IEEEremainder(getGMST(dUT1) + longitude / Unit.timeAngle, Unit.day);
+        return getLMST(MJD, longitude, dUT1);
+    }
+
+    public static double getLMST(double MJD, double longitude, double dUT1) {
+        double LST = Math.IEEEremainder(getGMST(MJD, dUT1) + longitude / Unit.timeAngle, Unit.day);
         if(LST < 0.0) LST += Unit.day;
         return LST;
     }
@@ -339,6 +357,71 @@ public class AstroTime implements Serializable, Comparable<AstroTime> {
         return TAI - 1000L * LeapSeconds.get(UTC0);
     }
 
+    // Terrestrial Time (based on Atomic Time TAI) in seconds
+    public static double getTT(double MJD) {
+        return (MJD - (int)Math.floor(MJD)) * Unit.day;
+    }
+
+    public static double getUTC(double MJD) {
+        return 1e-3 * getUTCMillis(MJD) % DayMillis;
+    }
+
+
+    // Array conversions, e.g. for the timestamps of data streams. These use no shared mutable state, and
+    // so different ranges of the same arrays may be converted in parallel threads...
+
+    public static void getMJD(final long[] millis, final double[] MJD, final int from, final int to) {
+        for(int i=from; i<to; i++) MJD[i] = getMJD(millis[i]);
+    }
+
+    public static void getMJD(final double[] millis, final double[] MJD, final int from, final int to) {
+        for(int i=from; i<to; i++) MJD[i] = getMJD(millis[i]);
+    }
+
+    public static void getUTCMillis(final double[] MJD, final long[] millis, final int from, final int to) {
+        for(int i=from; i<to; i++) millis[i] = getUTCMillis(MJD[i]);
+    }
+
+    public static void getTAIMillis(final double[] MJD, final long[] millis, final int from, final int to) {
+        for(int i=from; i<to; i++) millis[i] = getTAIMillis(MJD[i]);
+    }
+
+    public static void getTTMillis(final double[] MJD, final long[] millis, final int from, final int to) {
+        for(int i=from; i<to; i++) millis[i] = getTTMillis(MJD[i]);
+    }
+
+    public static void getGPSMillis(final double[] MJD, final long[] millis, final int from, final int to) {
+        for(int i=from; i<to; i++) millis[i] = getGPSMillis(MJD[i]);
+    }
+
+    public static void getTT(final double[] MJD, final double[] TT, final int from, final int to) {
+        for(int i=from; i<to; i++) TT[i] = getTT(MJD[i]);
+    }
+
+    public static void getTAI(final double[] MJD, final double[] TAI, final int from, final int to) {
+        for(int i=from; i<to; i++) TAI[i] = getTT(MJD[i]) - TAI2TT;
+    }
+
+    public static void getGPSTime(final double[] MJD, final double[] GPST, final int from, final int to) {
+        for(int i=from; i<to; i++) GPST[i] = getTT(MJD[i]) - TAI2TT - GPS2TAI;
+    }
+
+    /**
+     * Calculates the Local Mean Sidereal Time for an array of dates.
+     * 
+     * @param MJD          the modified Julian dates (TT)
+     * @param longitude    (radian) The geodetic longitude of the observer
+     * @param dUT1         (s) UT1 - UT time difference (-0.5s < dUT1 < 0.5s)
+     * @param LMST         (s) the array into which to write the LMST values.
+     * @param from         the index of the first date to convert
+     * @param to           the index after the last date to convert
+     * 
+     * @see #getLMST(double, double)
+     */
+    public static void getLMST(final double[] MJD, final double longitude, final double dUT1, final double[] LMST, final int from, final int to) {
+        for(int i=from; i<to; i++) LMST[i] = getLMST(MJD[i], longitude, dUT1);
+    }
+
 
 
     public static AstroTime forISOTimeStamp(String text) throws ParseException {
@@ -0,0 +1,362 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved. 
+ * 
+ * This file is part of jnum.
+ * 
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * 
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ * 
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+
+package jnum.astro;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jnum.Util;
+import jnum.math.SphericalCoordinates;
+
+
+/**
+ * The rotation between two celestial coordinate systems (e.g. equatorial, ecliptic, galactic or super-galactic), 
+ * including the precession between the epochs of equatorial (or ecliptic) coordinates, as a single 3x3 matrix. 
+ * The matrix is calculated once, when the rotation is created, after which it converts any number of coordinates 
+ * without further trigonometry of the poles, and without allocating objects. Rotations for the same pair of systems 
+ * and epochs are cached, and can be obtained via {@link #getInstance(Class, CoordinateEpoch, Class, CoordinateEpoch)}.
+ * <p>
+ * Coordinates are given as native spherical coordinates (as in {@link SphericalCoordinates#x()} and 
+ * {@link SphericalCoordinates#y()}) in radians, or as Cartesian unit vectors.
+ * <p>
+ * As with {@link CelestialCoordinates#convert(CelestialCoordinates, CelestialCoordinates)}, ecliptic coordinates are 
+ * always referred to the fixed ecliptic of their pole (J2000), whatever their epoch, so the epoch of ecliptic 
+ * coordinates does not change the rotation. In particular, the rotation between ecliptic coordinates of two epochs 
+ * is the identity, which agrees with {@link EclipticCoordinates#precess(CoordinateEpoch)} from J2000, but not from 
+ * other epochs, for which the latter applies the precession from that epoch to J2000 to the values.
+ * 
+ * @author Attila Kovacs <attila[AT]sigmyne.com>
+ *
+ */
+public class CelestialRotation implements Serializable {
+
+    private static final long serialVersionUID = 6309521417743286117L;
+
+    private Class<? extends CelestialCoordinates> fromType, toType;
+    private CoordinateEpoch fromEpoch, toEpoch;
+    private double[][] R;
+
+
+    /**
+     * Instantiates a new rotation from one celestial system (and epoch) to another. 
+     *
+     * @param fromType the type of the original coordinates.
+     * @param fromEpoch the epoch of the original coordinates, or null if not applicable.
+     * @param toType the type of the converted coordinates.
+     * @param toEpoch the epoch of the converted coordinates, or null if not applicable.
+     * @throws IllegalArgumentException if the coordinate types cannot be instantiated.
+     */
+    public CelestialRotation(Class<? extends CelestialCoordinates> fromType, CoordinateEpoch fromEpoch, 
+            Class<? extends CelestialCoordinates> toType, CoordinateEpoch toEpoch) throws IllegalArgumentException {
+        this.fromType = fromType;
+        this.toType = toType;
+        this.fromEpoch = fromEpoch;
+        this.toEpoch = toEpoch;
+
+        final CelestialCoordinates from = newInstance(fromType);
+        final CelestialCoordinates to = newInstance(toType);
+
+        // from --> equatorial (at the from epoch) --> equatorial (at the to epoch) --> to
+        final double[][] A = getEquatorialMatrix(from);
+        final double[][] B = getEquatorialMatrix(to);
+
+        final CoordinateEpoch epochA = getEquatorialEpoch(from, fromEpoch);
+        final CoordinateEpoch epochB = getEquatorialEpoch(to, toEpoch);
+        
+        double[][] M = A;
+        if(epochA != null && epochB != null && !epochA.equals(epochB)) M = product(getNativePrecessionMatrix(epochA, epochB), M);
+        
+        R = product(transpose(B), M);
+    }
+
+    public final Class<? extends CelestialCoordinates> getFromType() { return fromType; }
+
+    public final Class<? extends CelestialCoordinates> getToType() { return toType; }
+
+    public final CoordinateEpoch getFromEpoch() { return fromEpoch; }
+
+    public final CoordinateEpoch getToEpoch() { return toEpoch; }
+
+    /**
+     * Gets the rotation matrix, which converts unit vectors from the original system to the new one.
+     *
+     * @return a copy of the 3x3 rotation matrix.
+     */
+    public double[][] getMatrix() {
+        final double[][] M = new double[3][];
+        for(int i=3; --i >= 0; ) M[i] = R[i].clone();
+        return M;
+    }
+
+    /**
+     * Converts a single set of coordinates.
+     *
+     * @param from the coordinates in the original system.
+     * @param to the coordinates in the new system, to which the result is written. If these are precessing coordinates, 
+     *      their epoch is set to that of the rotation.
+     */
+    public void convert(final SphericalCoordinates from, final SphericalCoordinates to) {
+        final double x = from.cosLat() * Math.cos(from.x());
+        final double y = from.cosLat() * Math.sin(from.x());
+        final double z = from.sinLat();
+
+        final double tx = R[0][0] * x + R[0][1] * y + R[0][2] * z;
+        final double ty = R[1][0] * x + R[1][1] * y + R[1][2] * z;
+        final double tz = R[2][0] * x + R[2][1] * y + R[2][2] * z;
+
+        to.setNativeLongitude(Math.atan2(ty, tx));
+        to.setNativeLatitude(Math.atan2(tz, Math.sqrt(tx * tx + ty * ty)));
+        
+        if(to instanceof PrecessingCoordinates && toEpoch != null) ((PrecessingCoordinates) to).setEpoch(toEpoch);
+    }
+
+    /**
+     * Converts a range of spherical coordinates. The arrays of the converted coordinates may be the same as the 
+     * original ones, for converting in place.
+     *
+     * @param lon the native longitudes (radians) in the original system.
+     * @param lat the native latitudes (radians) in the original system.
+     * @param toLon the array into which to write the longitudes in the new system, in the -pi:pi range.
+     * @param toLat the array into which to write the latitudes in the new system.
+     * @param from the index of the first coordinate to convert.
+     * @param to the index after the last coordinate to convert.
+     */
+    public void convert(final double[] lon, final double[] lat, final double[] toLon, final double[] toLat, final int from, final int to) {
+        final double r00 = R[0][0], r01 = R[0][1], r02 = R[0][2];
+        final double r10 = R[1][0], r11 = R[1][1], r12 = R[1][2];
+        final double r20 = R[2][0], r21 = R[2][1], r22 = R[2][2];
+
+        for(int k=from; k<to; k++) {
+            final double cosLat = Math.cos(lat[k]);
+            final double x = cosLat * Math.cos(lon[k]);
+            final double y = cosLat * Math.sin(lon[k]);
+            final double z = Math.sin(lat[k]);
+
+            final double tx = r00 * x + r01 * y + r02 * z;
+            final double ty = r10 * x + r11 * y + r12 * z;
+            final double tz = r20 * x + r21 * y + r22 * z;
+
+            toLon[k] = Math.atan2(ty, tx);
+            toLat[k] = Math.atan2(tz, Math.sqrt(tx * tx + ty * ty));
+        }
+    }
+
+    /**
+     * Converts a range of Cartesian unit vectors, in place.
+     *
+     * @param x the x components of the unit vectors.
+     * @param y the y components of the unit vectors.
+     * @param z the z components of the unit vectors.
+     * @param from the index of the first vector to convert.
+     * @param to the index after the last vector to convert.
+     */
+    public void convert(final double[] x, final double[] y, final double[] z, final int from, final int to) {
+        final double r00 = R[0][0], r01 = R[0][1], r02 = R[0][2];
+        final double r10 = R[1][0], r11 = R[1][1], r12 = R[1][2];
+        final double r20 = R[2][0], r21 = R[2][1], r22 = R[2][2];
+
+        for(int k=from; k<to; k++) {
+            final double vx = x[k], vy = y[k], vz = z[k];
+            x[k] = r00 * vx + r01 * vy + r02 * vz;
+            y[k] = r10 * vx + r11 * vy + r12 * vz;
+            z[k] = r20 * vx + r21 * vy + r22 * vz;
+        }
+    }
+
+    /**
+     * Gets the inverse rotation, from the new system back to the original.
+     *
+     * @return the inverse rotation.
+     */
+    public CelestialRotation getInverse() {
+        return getInstance(toType, toEpoch, fromType, fromEpoch);
+    }
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return fromType.getSimpleName() + (fromEpoch == null ? "" : " (" + fromEpoch + ")") + " --> " + 
+                toType.getSimpleName() + (toEpoch == null ? "" : " (" + toEpoch + ")");
+    }
+
+
+    private static CelestialCoordinates newInstance(Class<? extends CelestialCoordinates> type) throws IllegalArgumentException {
+        try { return type.getConstructor().newInstance(); }
+        catch(Exception e) { throw new IllegalArgumentException("Cannot instantiate " + type.getSimpleName(), e); }
+    }
+
+    // The epoch of the equatorial coordinates, which the coordinates of the given type (and epoch) convert to
+    // via their equatorial pole. Only equatorial coordinates are referred to the equator of their own epoch. All 
+    // other systems, including ecliptic coordinates of any epoch, are tied to the epoch of their pole, as in 
+    // CelestialCoordinates.toEquatorial() and fromEquatorial()...
+    private static CoordinateEpoch getEquatorialEpoch(CelestialCoordinates coords, CoordinateEpoch epoch) {
+        if(coords instanceof EquatorialCoordinates && epoch != null) return epoch;
+        return coords.getEquatorialPole().epoch;
+    }
+
+    // The matrix that converts unit vectors of the given type to equatorial, obtained by converting the unit vectors
+    // along the axes. Equatorial coordinates are never converted via their own pole (see CelestialCoordinates.convert)...
+    private static double[][] getEquatorialMatrix(CelestialCoordinates coords) {
+        if(coords instanceof EquatorialCoordinates) return transpose(IDENTITY);
+        
+        final EquatorialCoordinates pole = coords.getEquatorialPole();
+        final double phi0 = coords.getZeroLongitude();
+
+        final SphericalCoordinates axis = new SphericalCoordinates();
+        final SphericalCoordinates equatorial = new SphericalCoordinates();
+        final double[][] M = new double[3][3];
+
+        for(int j=3; --j >= 0; ) {
+            if(j == 2) axis.setNative(0.0, 0.5 * Math.PI);
+            else axis.setNative(0.5 * Math.PI * j, 0.0);
+
+            CelestialCoordinates.inverseTransform(axis, pole, phi0, equatorial);
+
+            M[0][j] = equatorial.cosLat() * Math.cos(equatorial.x());
+            M[1][j] = equatorial.cosLat() * Math.sin(equatorial.x());
+            M[2][j] = equatorial.sinLat();
+        }
+
+        return M;
+    }
+
+    // The precession matrix acts on RA, whereas the native equatorial longitude is -RA. Hence, the precession
+    // of native unit vectors is S P S, where S = diag(1, -1, 1)...
+    private static double[][] getNativePrecessionMatrix(CoordinateEpoch from, CoordinateEpoch to) {
+        final double[][] P = new Precession(from, to).getMatrix();
+        P[0][1] *= -1.0;
+        P[1][0] *= -1.0;
+        P[1][2] *= -1.0;
+        P[2][1] *= -1.0;
+        return P;
+    }
+
+    private static double[][] product(double[][] A, double[][] B) {
+        final double[][] C = new double[3][3];
+        for(int i=3; --i >= 0; ) for(int j=3; --j >= 0; ) for(int k=3; --k >= 0; ) C[i][j] += A[i][k] * B[k][j];
+        return C;
+    }
+
+    private static double[][] transpose(double[][] A) {
+        final double[][] T = new double[3][3];
+        for(int i=3; --i >= 0; ) for(int j=3; --j >= 0; ) T[i][j] = A[j][i];
+        return T;
+    }
+
+
+    /**
+     * Gets the rotation from one celestial system (and epoch) to another, reusing a previously calculated one if 
+     * available.
+     *
+     * @param fromType the type of the original coordinates.
+     * @param fromEpoch the epoch of the original coordinates, or null if not applicable.
+     * @param toType the type of the converted coordinates.
+     * @param toEpoch the epoch of the converted coordinates, or null if not applicable.
+     * @return the rotation between the two systems.
+     * @throws IllegalArgumentException if the coordinate types cannot be instantiated.
+     */
+    public static CelestialRotation getInstance(Class<? extends CelestialCoordinates> fromType, CoordinateEpoch fromEpoch, 
+            Class<? extends CelestialCoordinates> toType, CoordinateEpoch toEpoch) throws IllegalArgumentException {
+        if(!PrecessingCoordinates.class.isAssignableFrom(fromType)) fromEpoch = null;
+        if(!PrecessingCoordinates.class.isAssignableFrom(toType)) toEpoch = null;
+        
+        final Key key = new Key(fromType, fromEpoch, toType, toEpoch);
+
+        synchronized(cache) {
+            CelestialRotation rotation = cache.get(key);
+            if(rotation != null) return rotation;
+        }
+
+        final CelestialRotation rotation = new CelestialRotation(fromType, fromEpoch, toType, toEpoch);
+
+        synchronized(cache) { cache.put(key, rotation); }
+
+        return rotation;
+    }
+
+    /**
+     * Gets the rotation between the systems (and epochs) of the two coordinates.
+     *
+     * @param from coordinates in the original system (and epoch).
+     * @param to coordinates in the new system (and epoch).
+     * @return the rotation between the two systems.
+     * 
+     * @see #getInstance(Class, CoordinateEpoch, Class, CoordinateEpoch)
+     */
+    public static CelestialRotation getInstance(CelestialCoordinates from, CelestialCoordinates to) {
+        return getInstance(from.getClass(), getEpoch(from), to.getClass(), getEpoch(to));
+    }
+
+    private static CoordinateEpoch getEpoch(CelestialCoordinates coords) {
+        return coords instanceof PrecessingCoordinates ? ((PrecessingCoordinates) coords).getEpoch() : null;
+    }
+
+
+    private static class Key {
+        private Class<?> fromType, toType;
+        private CoordinateEpoch fromEpoch, toEpoch;
+
+        private Key(Class<?> fromType, CoordinateEpoch fromEpoch, Class<?> toType, CoordinateEpoch toEpoch) {
+            this.fromType = fromType;
+            this.fromEpoch = fromEpoch;
+            this.toType = toType;
+            this.toEpoch = toEpoch;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(o == this) return true;
+            if(!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            if(!fromType.equals(key.fromType) || !toType.equals(key.toType)) return false;
+            return Util.equals(fromEpoch, key.fromEpoch) && Util.equals(toEpoch, key.toEpoch);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = fromType.hashCode() ^ (31 * toType.hashCode());
+            if(fromEpoch != null) hash ^= fromEpoch.hashCode();
+            if(toEpoch != null) hash ^= 17 * toEpoch.hashCode();
+            return hash;
+        }
+    }
+
+    private static final double[][] IDENTITY = { { 1.0, 0.0, 0.0 }, { 0.0, 1.0, 0.0 }, { 0.0, 0.0, 1.0 } };
+
+    /** The largest number of rotations retained in the cache. */
+    public static final int CACHE_SIZE = 64;
+
+    private static final Map<Key, CelestialRotation> cache = new LinkedHashMap<Key, CelestialRotation>(16, 0.75F, true) {
+        private static final long serialVersionUID = -2781469326540087815L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, CelestialRotation> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+}
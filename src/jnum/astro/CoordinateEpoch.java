@@ -60,7 +60,7 @@ public abstract class CoordinateEpoch implements Serializable, Comparable<Coordi
 	 */
 	@Override
 	public int hashCode() {
-		return super.hashCode() ^ HashCode.from(year);
+		return getClass().hashCode() ^ HashCode.from(year);
 	}
 	
 	/* (non-Javadoc)
@@ -203,8 +203,8 @@ public class EquatorialCoordinates extends PrecessingCoordinates {
 	@Override
 	public void precessUnchecked(CoordinateEpoch newEpoch) {
 	    if(epoch.equals(newEpoch)) return;
-		Precession precession = new Precession(epoch, newEpoch);
-		precession.precess(this);
+		Precession.getInstance(epoch, newEpoch).precess(this);
+		epoch = newEpoch;
 	}
 	
 	/* (non-Javadoc)
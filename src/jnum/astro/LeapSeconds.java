@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.TimeZone;
 
@@ -54,34 +55,37 @@ import jnum.text.SmartTokenizer;
  */
 public final class LeapSeconds {
 
-	private static ArrayList<Datum> list;
+	private static volatile Table table = new Table(null, null, 37, 
+			millis1900() + 1000L * 3550089600L, 
+			3676924800L,     // 8 July 2016 -- seconds since 1900
+			3739132800L);    // 28 Jul 2017 -- seconds since 1900
 
-	public final static long millis1900 = -2208988800000L; // "1900-01-01T00:00:00.000" UTC
+	public final static long millis1900 = millis1900(); // "1900-01-01T00:00:00.000" UTC
 
 	public static String dataFile = null;
 
 	public static boolean verbose = false;
 
-	private static int currentLeap = 37;
-
-	private static long releaseEpoch = 3676924800L;        // 8 July 2016 -- seconds since 1900
-
-	private static long expirationEpoch = 3739132800L;     // 28 Jul 2017 -- seconds since 1900
-
-	private static long expirationMillis = millis1900 + 1000L * expirationEpoch;
-
-	private static long currentSinceMillis = millis1900 + 1000L * 3550089600L; 
-
 	private final static long firstLeapMillis = millis1900 + 1000L * 2272060800L;	// 1 January 1972
 
 	private static boolean isVerbose = true;
 	
+	private static volatile boolean isExpiryReported = false;
+	
+	private static final String NOT_ATTEMPTED = new String("none");
+	
+	// The data file that was last tried (or null), or NOT_ATTEMPTED before the first attempt...
+	private static volatile String attemptedFile = NOT_ATTEMPTED;
+	
+	
+	private static long millis1900() { return -2208988800L * 1000L; }
+	
 	/**
 	 * Gets the current leap seconds.
 	 *
 	 * @return the current leap seconds.
 	 */
-	public static int getCurrentLeap() { return currentLeap; }
+	public static int getCurrentLeap() { return table.currentLeap; }
 	
 	/**
 	 * Sets the verbosity for warning messages if the leap-second data is incomplete or out-of-date.
@@ -91,59 +95,39 @@ public final class LeapSeconds {
 	public static void setVerbose(boolean value) { isVerbose = value; }
 	
 	/**
-	 * Gets the leap seconds for a given {@link java.util.Date}
+	 * Gets the leap seconds for a given {@link java.util.Date}. The lookup is thread-safe, and for times in the
+	 * current leap-second segment (i.e. after the latest leap), it takes a single comparison.
 	 *
 	 * @param timestamp    the standatd UNIX/Java timestamp (millisecs since 1970)
 	 * @return             the historical leap seconds at the time.
 	 */
 	public static int get(long timestamp) {
-	
-		if(timestamp >= currentSinceMillis) return currentLeap;
-		if(timestamp < firstLeapMillis) return 0;
-		
-		if(list == null) {
-			if(dataFile == null) {
-				if(isVerbose) Util.warning(LeapSeconds.class, "No historical leap-seconds data. Will use: " + currentLeap + " s.");
-				return currentLeap;
-			}
-			
-			try { read(dataFile); }
-			catch(IOException e) {
-				if(isVerbose) {
-					Util.warning(LeapSeconds.class, "Could not real leap seconds data: " + dataFile + "\n"
-					        + "Problem: " + e.getMessage() + "\n"
-					        + "Will use current default value: " + currentLeap + " s.");
-				}
-				return currentLeap;
-			}
-			
-			if(timestamp >= expirationMillis) if(isVerbose) {
-				Util.warning(LeapSeconds.class, "Leap seconds data is no longer current. To fix it, update '" + dataFile + "'.");
-			}
-		}
+		Table t = table;
 		
+		// Times past the expiry of the data at hand may yet be covered by a data file that was not read...
+		if(timestamp > t.expirationMillis && isLoadPending()) t = load();
 		
-		if(timestamp > expirationMillis) if(isVerbose) {
-			Util.warning(LeapSeconds.class, "Leap data expired: " + dataFile 
-			        + ". Will use the current default value: " + currentLeap + " s");
+		if(timestamp >= t.currentSinceMillis) {
+			if(timestamp > t.expirationMillis && !isExpiryReported) reportExpired();
+			return t.currentLeap;
 		}
+		if(timestamp < firstLeapMillis) return 0;
 		
-		int lower = 0, upper = list.size()-1;
-		
-		if(timestamp < list.get(lower).timestamp)
-			return 0;
-		
-		if(timestamp > list.get(upper).timestamp) 
-			return list.get(upper).leap;
+		if(isLoadPending()) t = load();
 		
-		while(upper - lower > 1) {
-			int i = (upper + lower) >> 1;
-			long t = list.get(i).timestamp;
-			if(timestamp >= t) lower = i;
-			if(timestamp <= t) upper = i;
-		}
-		
-		return list.get(lower).leap;
+		return t.get(timestamp);
+	}
+	
+	/**
+	 * Gets the leap seconds for an array of timestamps.
+	 *
+	 * @param timestamps   the standard UNIX/Java timestamps (millisecs since 1970)
+	 * @param leaps        the array into which to write the historical leap seconds at the times.
+	 * @param from         the index of the first timestamp.
+	 * @param to           the index after the last timestamp.
+	 */
+	public static void get(final long[] timestamps, final int[] leaps, final int from, final int to) {
+		for(int k=from; k<to; k++) leaps[k] = get(timestamps[k]);
 	}
 	
 	/**
@@ -152,7 +136,50 @@ public final class LeapSeconds {
 	 * @return true, if the current value is valid, false if it's out-dated.
 	 */
 	public static boolean isCurrent() {
-		return System.currentTimeMillis() < expirationMillis;
+		return System.currentTimeMillis() < table.expirationMillis;
+	}
+	
+	private static synchronized void reportExpired() {
+		if(isExpiryReported) return;
+		isExpiryReported = true;
+		if(isVerbose) Util.warning(LeapSeconds.class, "Leap data expired: " + dataFile 
+		        + ". Will use the current default value: " + table.currentLeap + " s");
+	}
+	
+	// Whether the current data file has yet to be tried (e.g. because it was set or changed since the last attempt).
+	// A single reference comparison, since load() records the very reference it was given...
+	private static boolean isLoadPending() {
+		return dataFile != attemptedFile;
+	}
+	
+	// Reads the data file, if it has not been tried before...
+	private static synchronized Table load() {
+		final String fileName = dataFile;
+		
+		// Same file, or an equal name assigned anew...
+		if(attemptedFile != NOT_ATTEMPTED && Util.equals(fileName, attemptedFile)) {
+			attemptedFile = fileName;
+			return table;
+		}
+		
+		attemptedFile = fileName;
+		
+		if(fileName == null) {
+			if(table.timestamps == null && isVerbose) 
+				Util.warning(LeapSeconds.class, "No historical leap-seconds data. Will use: " + table.currentLeap + " s.");
+			return table;
+		}
+		
+		try { read(fileName); }
+		catch(IOException e) {
+			if(isVerbose) {
+				Util.warning(LeapSeconds.class, "Could not real leap seconds data: " + fileName + "\n"
+				        + "Problem: " + e.getMessage() + "\n"
+				        + "Will use current default value: " + table.currentLeap + " s.");
+			}
+		}
+		
+		return table;
 	}
 	
 	/**
@@ -171,9 +198,8 @@ public final class LeapSeconds {
 	 * @throws IOException Signals that an I/O exception has occurred.
 	 */
 	public static void read(String fileName) throws IOException {
-			
-		if(list == null) list = new ArrayList<Datum>();
-		else list.clear();
+		final ArrayList<Datum> list = new ArrayList<Datum>();
+		final long[] epochs = { table.releaseEpoch, table.expirationEpoch };
 		
 		if(verbose) Util.info(LeapSeconds.class, "Reading leap seconds table from " + fileName);
 		
@@ -182,11 +208,8 @@ public final class LeapSeconds {
             protected boolean parseComment(String line) throws Exception {
 		        SmartTokenizer tokens = new SmartTokenizer(line);
 		        tokens.nextToken();
-                if(line.charAt(0) == '$') releaseEpoch = tokens.nextLong();
-                else if(line.charAt(0) == '@') {
-                    expirationEpoch = tokens.nextLong();
-                    expirationMillis = 1000L * expirationEpoch + millis1900;
-                }
+                if(line.charAt(0) == '$') epochs[0] = tokens.nextLong();
+                else if(line.charAt(0) == '@') epochs[1] = tokens.nextLong();
 		        return true;
 		    }
 		    
@@ -203,22 +226,62 @@ public final class LeapSeconds {
 		    
 		}.read(fileName);
 	
+		if(list.isEmpty()) throw new IOException("No leap-second entries in " + fileName);
+		
 		Collections.sort(list);
 		
-		Datum current = list.get(list.size() - 1);
-		currentLeap = current.leap;
-		currentSinceMillis = current.timestamp;
+		final long[] timestamps = new long[list.size()];
+		final int[] leaps = new int[list.size()];
+		for(int i=list.size(); --i >= 0; ) {
+			timestamps[i] = list.get(i).timestamp;
+			leaps[i] = list.get(i).leap;
+		}
+		
+		final Table t = new Table(timestamps, leaps, leaps[leaps.length - 1], timestamps[timestamps.length - 1], epochs[0], epochs[1]);
+		
+		synchronized(LeapSeconds.class) {
+			table = t;
+			isExpiryReported = false;
+		}
 		
 		if(verbose) {
 			DateFormat tf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS");
 			tf.setTimeZone(TimeZone.getTimeZone("UTC"));
 			Util.detail(LeapSeconds.class, "--> Found " + list.size() + " leap-second entries.\n"
-			        + "--> Released: " + tf.format(1000L * releaseEpoch + millis1900) + "\n"
-			        + "--> Expires: " + tf.format(expirationMillis));
+			        + "--> Released: " + tf.format(1000L * t.releaseEpoch + millis1900) + "\n"
+			        + "--> Expires: " + tf.format(t.expirationMillis));
 		}
 		
 	}	
 	
+	
+	// An immutable snapshot of the leap-second data, which is replaced as a whole when new data is read...
+	private static final class Table {
+		private final long[] timestamps;
+		private final int[] leaps;
+		private final int currentLeap;
+		private final long currentSinceMillis;
+		private final long releaseEpoch, expirationEpoch, expirationMillis;
+		
+		private Table(long[] timestamps, int[] leaps, int currentLeap, long currentSinceMillis, long releaseEpoch, long expirationEpoch) {
+			this.timestamps = timestamps;
+			this.leaps = leaps;
+			this.currentLeap = currentLeap;
+			this.currentSinceMillis = currentSinceMillis;
+			this.releaseEpoch = releaseEpoch;
+			this.expirationEpoch = expirationEpoch;
+			this.expirationMillis = millis1900() + 1000L * expirationEpoch;
+		}
+		
+		private int get(long timestamp) {
+			if(timestamps == null) return currentLeap;
+			
+			int i = Arrays.binarySearch(timestamps, timestamp);
+			if(i < 0) i = -i - 2;
+			return i < 0 ? 0 : leaps[i];
+		}
+	}
+	
 	private static class Datum implements Comparable<Datum> {
 	    long timestamp;
 	    int leap;
@@ -230,5 +293,3 @@ public final class LeapSeconds {
 	    }
 	}
 }
-
-
@@ -25,11 +25,12 @@
 package jnum.astro;
 
 import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import jnum.ExtraMath;
 import jnum.Unit;
 import jnum.Util;
-import jnum.util.SimpleMatrix;
 
 
 //TODO precess with proper motion...
@@ -42,11 +43,11 @@ public class Precession implements Serializable {
 
 	private CoordinateEpoch fromEpoch, toEpoch;
 
-	private float[][] P = new float[3][3];
+	private double[][] P;
 
-	private static float year2Century = (float) (Unit.year / Unit.julianCentury);
+	private static double year2Century = Unit.year / Unit.julianCentury;
 
-	private static float arcsec = (float) Unit.arcsec;
+	private static double arcsec = Unit.arcsec;
 	
 
 	public Precession(double fromJulianEpoch, double toJulianEpoch) {
@@ -58,7 +59,7 @@ public class Precession implements Serializable {
 		fromEpoch = from;
 		toEpoch = to;
 		if(fromEpoch.equals(toEpoch)) P = null;
-		else calcMatrix();
+		else P = getMatrix(fromEpoch.getJulianYear(), toEpoch.getJulianYear());
 	}
 
 	/* (non-Javadoc)
@@ -88,36 +89,30 @@ public class Precession implements Serializable {
 		return true;
 	}
 	
-	//  Precession from Lederle & Schwan, Astronomy and Astrophysics, 134, 1-6 (1984)
-	private void calcMatrix() {
-		final float fromJulianYear = (float) fromEpoch.getJulianYear();
-		final float toJulianYear = (float) toEpoch.getJulianYear();
-		
-		final float tau = (fromJulianYear - 2000.0F) * year2Century;
-		final float t = (toJulianYear - fromJulianYear) * year2Century;
-
-		final float eta = (2305.6997F + (1.39744F + 0.000060F * tau) * tau 
-				+ (0.30201F - 0.000270F * tau + 0.017996F * t) * t) * t * arcsec;
-
-		final float z = (2305.6997F + (1.39744F + 0.000060F * tau) * tau 
-				+ (1.09543F + 0.000390F * tau + 0.018326F * t) * t) * t * arcsec;
-
-		final float theta = (2003.8746F - (0.85405F + 0.000370F * tau) * tau
-				- (0.42707F + 0.000370F * tau + 0.041803F * t) * t) * t * arcsec;	
-
-		P = R3(-z).dot(R2(theta)).dot(R3(-eta)).value;
+	/**
+	 * Gets the precession matrix, which rotates the equatorial unit vectors of the original epoch to those of the new epoch.
+	 *
+	 * @return a new 3x3 array with the rotation matrix (the identity if the two epochs are the same).
+	 */
+	public double[][] getMatrix() {
+		final double[][] M = new double[3][3];
+		for(int i=3; --i >= 0; ) for(int j=3; --j >= 0; ) M[i][j] = P == null ? (i == j ? 1.0 : 0.0) : P[i][j];
+		return M;
 	}
 	
+	public final CoordinateEpoch getFromEpoch() { return fromEpoch; }
+	
+	public final CoordinateEpoch getToEpoch() { return toEpoch; }
+	
 	
 	public void precess(final EquatorialCoordinates equatorial) {		
 		if(P == null) return;
 		
-		
-		final float v0 = (float) (equatorial.cosLat() * Math.cos(equatorial.RA())); 
-		final float v1 = (float) (equatorial.cosLat() * Math.sin(equatorial.RA()));
-		final float v2 = (float) equatorial.sinLat();
+		final double v0 = equatorial.cosLat() * Math.cos(equatorial.RA()); 
+		final double v1 = equatorial.cosLat() * Math.sin(equatorial.RA());
+		final double v2 = equatorial.sinLat();
 
-		float[] R = P[0];
+		double[] R = P[0];
 		final double l0 = R[0] * v0 + R[1] *  v1 + R[2] * v2;
 		R = P[1];
 		final double l1 = R[0] * v0 + R[1] *  v1 + R[2] * v2;
@@ -129,29 +124,81 @@ public class Precession implements Serializable {
 
 		equatorial.epoch = toEpoch;
 	}
+	
+	/**
+	 * Precesses a range of equatorial coordinates, given as arrays of right ascensions and declinations. The arrays 
+	 * are changed in place.
+	 *
+	 * @param RA the right ascensions (radians) 
+	 * @param DEC the declinations (radians)
+	 * @param from the index of the first coordinate to precess.
+	 * @param to the index after the last coordinate to precess.
+	 */
+	public void precess(final double[] RA, final double[] DEC, final int from, final int to) {
+		if(P == null) return;
+		
+		final double p00 = P[0][0], p01 = P[0][1], p02 = P[0][2];
+		final double p10 = P[1][0], p11 = P[1][1], p12 = P[1][2];
+		final double p20 = P[2][0], p21 = P[2][1], p22 = P[2][2];
+		
+		for(int k=from; k<to; k++) {
+			final double cosDEC = Math.cos(DEC[k]);
+			final double v0 = cosDEC * Math.cos(RA[k]);
+			final double v1 = cosDEC * Math.sin(RA[k]);
+			final double v2 = Math.sin(DEC[k]);
+			
+			final double l0 = p00 * v0 + p01 * v1 + p02 * v2;
+			final double l1 = p10 * v0 + p11 * v1 + p12 * v2;
+			final double l2 = p20 * v0 + p21 * v1 + p22 * v2;
+			
+			RA[k] = Math.atan2(l1, l0);
+			DEC[k] = Math.atan2(l2, Math.sqrt(l0 * l0 + l1 * l1));
+		}
+	}
+	
+	//  Precession from Lederle & Schwan, Astronomy and Astrophysics, 134, 1-6 (1984)
+	static double[][] getMatrix(final double fromJulianYear, final double toJulianYear) {
+		final double tau = (fromJulianYear - 2000.0) * year2Century;
+		final double t = (toJulianYear - fromJulianYear) * year2Century;
 
+		final double eta = (2305.6997 + (1.39744 + 0.000060 * tau) * tau 
+				+ (0.30201 - 0.000270 * tau + 0.017996 * t) * t) * t * arcsec;
+
+		final double z = (2305.6997 + (1.39744 + 0.000060 * tau) * tau 
+				+ (1.09543 + 0.000390 * tau + 0.018326 * t) * t) * t * arcsec;
+
+		final double theta = (2003.8746 - (0.85405 + 0.000370 * tau) * tau
+				- (0.42707 + 0.000370 * tau + 0.041803 * t) * t) * t * arcsec;	
+
+		return product(product(R3(-z), R2(theta)), R3(-eta));
+	}
+	
 
-	private SimpleMatrix R2(final double phi) {
-		final float c = (float) Math.cos(phi);
-		final float s = (float) Math.sin(phi);
+	private static double[][] R2(final double phi) {
+		final double c = Math.cos(phi);
+		final double s = Math.sin(phi);
 
-		float[][] R = { {  c, 0,-s }, 
+		return new double[][] { 
+				{  c, 0,-s }, 
 				{  0, 1, 0 },
 				{  s, 0, c } };	
-		
-		return new SimpleMatrix(R);
 	}
 
 
-	private SimpleMatrix R3(double phi) {
-		final float c = (float) Math.cos(phi);
-		final float s = (float) Math.sin(phi);
+	private static double[][] R3(final double phi) {
+		final double c = Math.cos(phi);
+		final double s = Math.sin(phi);
 
-		float[][] R = { {  c, s, 0 }, 
+		return new double[][] { 
+				{  c, s, 0 }, 
 				{ -s, c, 0 },
 				{  0, 0, 1 } };	
-		
-		return new SimpleMatrix(R);		
+	}
+	
+	private static double[][] product(final double[][] A, final double[][] B) {
+		final double[][] C = new double[3][3];
+		for(int i=3; --i >= 0; ) for(int j=3; --j >= 0; ) for(int k=3; --k >= 0; ) C[i][j] += A[i][k] * B[k][j];
+		return C;
 	}
 	
 	/* (non-Javadoc)
@@ -162,4 +209,71 @@ public class Precession implements Serializable {
 	    return fromEpoch + " --> " + toEpoch;
 	}
 	
+	
+	/**
+	 * Gets a precession between the specified epochs, from a cache of recently used precessions. The epochs are 
+	 * quantized to {@link #EPOCH_QUANTUM} Julian years, s.t. all epochs within the same quantum share the same 
+	 * precession matrix (calculated for the quantized epochs). The error from the quantization is below 
+	 * 0.001 arcseconds. Thus, the precession of samples with slowly drifting epochs (e.g. apparent coordinates
+	 * during an observation) requires only a few distinct matrices.
+	 *
+	 * @param from the original epoch
+	 * @param to the new epoch
+	 * @return the precession from (approximately) the original epoch to (approximately) the new epoch.
+	 */
+	public static Precession getInstance(CoordinateEpoch from, CoordinateEpoch to) {
+		final long i = Math.round(from.getJulianYear() / EPOCH_QUANTUM);
+		final long j = Math.round(to.getJulianYear() / EPOCH_QUANTUM);
+		final EpochPair key = new EpochPair(i, j);
+		
+		synchronized(cache) {
+			Precession precession = cache.get(key);
+			if(precession != null) return precession;
+		}
+		
+		final Precession precession = i == j ? new Precession(from, from) : new Precession(i * EPOCH_QUANTUM, j * EPOCH_QUANTUM);
+		
+		synchronized(cache) { cache.put(key, precession); }
+		
+		return precession;
+	}
+	
+	
+	private static final class EpochPair {
+		private long from, to;
+		
+		private EpochPair(long from, long to) {
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			if(!(o instanceof EpochPair)) return false;
+			EpochPair pair = (EpochPair) o;
+			return pair.from == from && pair.to == to;
+		}
+		
+		@Override
+		public int hashCode() {
+			return (int) (from ^ (from >>> 32)) ^ (31 * (int) (to ^ (to >>> 32)));
+		}
+	}
+	
+	
+	/** The resolution (in Julian years) of epochs for which precessions are cached. */
+	public static final double EPOCH_QUANTUM = 1e-6;
+	
+	/** The largest number of precessions retained in the cache. */
+	public static final int CACHE_SIZE = 256;
+	
+	private static final Map<EpochPair, Precession> cache = new LinkedHashMap<EpochPair, Precession>(16, 0.75F, true) {
+		private static final long serialVersionUID = 4432891606138151392L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<EpochPair, Precession> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+	
 }
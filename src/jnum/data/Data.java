@@ -414,7 +414,7 @@ extends ParallelObject implements Verbosity, IndexedValues<IndexType>, Iterable<
         smartFork(new ParallelPointOp.Simple<IndexType>() {
             @Override
             public void process(IndexType index) { 
-                if(discard.contains(get(index).doubleValue())) discard(index);
+                if(discard.contains(getDouble(index))) discard(index);
             }
         });
     }
@@ -423,7 +423,7 @@ extends ParallelObject implements Verbosity, IndexedValues<IndexType>, Iterable<
         smartFork(new ParallelPointOp.Simple<IndexType>() {
             @Override
             public void process(IndexType index) { 
-                if(!keep.contains(get(index).doubleValue())) discard(index);
+                if(!keep.contains(getDouble(index))) discard(index);
             }
         });
     }
@@ -643,7 +643,7 @@ extends ParallelObject implements Verbosity, IndexedValues<IndexType>, Iterable<
             public void process(IndexType index) {
                 if(!isValid(index)) return;
                 if(compare(get(index), max) <= 0) return;
-                max = Math.abs(get(index).doubleValue());
+                max = Math.abs(getDouble(index));
                 maxIndex = copyOfIndex(index);
                 
             }
@@ -657,7 +657,7 @@ extends ParallelObject implements Verbosity, IndexedValues<IndexType>, Iterable<
             public void mergeResult(IndexType localMaxIndex) {
                 if(maxIndex == null) maxIndex = localMaxIndex;
                 if(localMaxIndex == null) return;
-                if(Math.abs(get(localMaxIndex).doubleValue()) > Math.abs(get(maxIndex).doubleValue())) maxIndex = localMaxIndex; 
+                if(Math.abs(getDouble(localMaxIndex)) > Math.abs(getDouble(maxIndex))) maxIndex = localMaxIndex; 
             }            
         });
     }
@@ -686,13 +686,13 @@ extends ParallelObject implements Verbosity, IndexedValues<IndexType>, Iterable<
         return smartFork(new ParallelPointOp.Average<IndexType>() {
             @Override
             public final double getValue(IndexType index) {
-                return get(index).doubleValue();
+                return getDouble(index);
             }
 
             @Override
             public final double getWeight(IndexType index) {
                 if(!isValid(index)) return 0.0;
-                return weights.get(index).doubleValue();
+                return weights.getDouble(index);
             }  
         });
     }
@@ -709,6 +709,40 @@ extends ParallelObject implements Verbosity, IndexedValues<IndexType>, Iterable<
         return Statistics.Inplace.median(temp, 0, temp.length);      
     }
     
+    /**
+     * Gets a streaming summary of the valid values, from which quantiles (such as the median) can be estimated 
+     * approximately, without storing and sorting the values. The summary is accumulated in parallel.
+     *
+     * @return the quantile sketch of the valid values.
+     */
+    public final QuantileSketch getQuantileSketch() {
+        return getQuantileSketch(QuantileSketch.DEFAULT_CAPACITY);
+    }
+    
+    public QuantileSketch getQuantileSketch(int capacity) {
+        return smartForkValid(new ParallelPointOp.Quantiles<Number>(capacity) {
+            @Override
+            public final double getValue(Number point) {
+                return point.doubleValue();
+            }
+        });
+    }
+    
+    /**
+     * Gets the histogram of the valid values, accumulated in parallel.
+     *
+     * @param binSize the histogram resolution.
+     * @return the histogram of the valid values.
+     */
+    public Histogram getHistogram(double binSize) {
+        return smartForkValid(new ParallelPointOp.Histogramming<Number>(binSize) {
+            @Override
+            public final double getValue(Number point) {
+                return point.doubleValue();
+            }
+        });
+    }
+    
     public double select(double fraction) {
         if(fraction == 0.0) return getMin().doubleValue();
         else if(fraction == 1.0) return getMax().doubleValue();
@@ -757,7 +791,7 @@ extends ParallelObject implements Verbosity, IndexedValues<IndexType>, Iterable<
             @Override
             public void process(IndexType index) {
                 if(!isValid(index)) return;
-                sorter[k++] = new WeightedPoint(get(index).doubleValue(), weights.get(index).doubleValue());
+                sorter[k++] = new WeightedPoint(getDouble(index), weights.getDouble(index));
             }   
         });
            
@@ -846,7 +880,7 @@ extends ParallelObject implements Verbosity, IndexedValues<IndexType>, Iterable<
         smartFork(new ParallelPointOp.Simple<IndexType>() {
             @Override
             public void process(IndexType index) {
-                if(data.isValid(index)) add(index, scaling * data.get(index).doubleValue());
+                if(data.isValid(index)) addDouble(index, scaling * data.getDouble(index));
             }      
         });
        
@@ -868,10 +902,10 @@ extends ParallelObject implements Verbosity, IndexedValues<IndexType>, Iterable<
          @Override
          public void process(IndexType index) {
              if(isValid(index)) {
-                 final double noiseValue = noise.get(index).doubleValue();
-                 final double target = model == null ? 0.0 : model.get(index).doubleValue();
-                 final double memValue = ExtraMath.hypot(get(index).doubleValue(), noiseValue) / ExtraMath.hypot(target, noiseValue);
-                 add(index, -Math.signum(get(index).doubleValue()) * lambda * noiseValue * Math.log(memValue));
+                 final double noiseValue = noise.getDouble(index);
+                 final double target = model == null ? 0.0 : model.getDouble(index);
+                 final double memValue = ExtraMath.hypot(getDouble(index), noiseValue) / ExtraMath.hypot(target, noiseValue);
+                 addDouble(index, -Math.signum(getDouble(index)) * lambda * noiseValue * Math.log(memValue));
              }
          }            
         });          
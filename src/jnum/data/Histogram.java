@@ -23,15 +23,29 @@
 
 package jnum.data;
 
-import java.util.Hashtable;
+import java.util.Arrays;
+import java.util.HashMap;
 
 import jnum.ExtraMath;
 import jnum.Util;
 
 
+/**
+ * A histogram of values in bins of uniform width, centered on integer multiples of the resolution. The counts
+ * are kept in a dense primitive array, which grows automatically to cover the range of values added. Only if that
+ * range would become excessively large (more than {@link #MAX_DENSE_BINS} bins), does the histogram revert to storing
+ * its non-empty bins in a hash map.
+ * <p>
+ * Histograms are not thread-safe. To build histograms in parallel, each thread should accumulate its own, which are
+ * then summed via {@link #add(Histogram)} (see {@link jnum.parallel.ParallelPointOp.Histogramming}).
+ *
+ */
 public class Histogram implements Cloneable {
 
-	private Hashtable<Integer, RealValue> bins = new Hashtable<Integer, RealValue>();
+	private double[] dense;
+	private long offset;
+	
+	private HashMap<Integer, RealValue> sparse;
 
 	private double resolution;
 	
@@ -47,36 +61,144 @@ public class Histogram implements Cloneable {
 	 */
 	@Override
 	public Histogram clone() {
-		try { return (Histogram) super.clone(); }
+		try { 
+			Histogram clone = (Histogram) super.clone(); 
+			if(dense != null) clone.dense = Arrays.copyOf(dense, dense.length);
+			if(sparse != null) {
+				clone.sparse = new HashMap<Integer, RealValue>(sparse.size());
+				for(Integer bin : sparse.keySet()) clone.sparse.put(bin, new RealValue(sparse.get(bin).value()));
+			}
+			return clone;
+		}
 		catch(CloneNotSupportedException e) { return null; }		
 	}
 	
 
     public double getResolution() { return resolution; }
 	
+    public boolean isDense() { return sparse == null; }
+    
 
 	public void add(double value) {
-		add(value, 1.0);
+		addToBin(binFor(value), 1.0);
 	}
 	
 
 	public void add(double value, double counts) {
-		int binValue = binFor(value);
-		if(bins.containsKey(binValue)) bins.get(binValue).add(counts);
-		else bins.put(binValue, new RealValue(counts));
+		addToBin(binFor(value), counts);
+	}
+	
+	private void addToBin(final int bin, final double counts) {
+		if(sparse == null) {
+			if(dense != null) {
+				final long i = bin - offset;
+				if(i >= 0 && i < dense.length) {
+					dense[(int) i] += counts;
+					return;
+				}
+			}
+			include(bin, bin);
+			if(sparse == null) {
+				dense[(int) (bin - offset)] += counts;
+				return;
+			}
+		}
+		
+		RealValue binCounts = sparse.get(bin);
+		if(binCounts != null) binCounts.add(counts);
+		else sparse.put(bin, new RealValue(counts));
+	}
+	
+	private double getBinCounts(final int bin) {
+		if(sparse != null) {
+			RealValue binCounts = sparse.get(bin);
+			return binCounts == null ? 0.0 : binCounts.value();
+		}
+		if(dense == null) return 0.0;
+		final long i = bin - offset;
+		return (i >= 0 && i < dense.length) ? dense[(int) i] : 0.0;
+	}
+	
+	// Grows the dense range (with headroom) to cover the specified bins, or reverts to sparse storage, if the
+	// range would become too large...
+	private void include(final int fromBin, final int toBin) {
+		if(sparse != null) return;
+		
+		if(dense == null) {
+			final long span = (long) toBin - fromBin + 1;
+			final long size = Math.max(MIN_DENSE_BINS, span);
+			if(size > MAX_DENSE_BINS) { toSparse(); return; }
+			// Center the range, rounding the padding down (never toward zero) so both ends are covered...
+			offset = fromBin - (size - span) / 2;
+			dense = new double[(int) size];
+			assert offset <= fromBin && toBin < offset + dense.length;
+			return;
+		}
+		
+		final long from = Math.min(offset, fromBin);
+		final long to = Math.max(offset + dense.length, (long) toBin + 1);
+		if(from == offset && to == offset + dense.length) return;
+		
+		final long span = to - from;
+		if(span > MAX_DENSE_BINS) { toSparse(); return; }
+		
+		// Double the size, with the extra room on the side(s) of the growth...
+		final long size = Math.min(MAX_DENSE_BINS, Math.max(span, dense.length << 1));
+		long newOffset = from;
+		if(from < offset) newOffset = to > offset + dense.length ? from - (size - span) / 2 : to - size;
+		
+		final double[] grown = new double[(int) size];
+		System.arraycopy(dense, 0, grown, (int) (offset - newOffset), dense.length);
+		dense = grown;
+		offset = newOffset;
+		assert offset <= fromBin && toBin < offset + dense.length;
+	}
+	
+	private void toSparse() {
+		sparse = new HashMap<Integer, RealValue>();
+		if(dense != null) for(int i=dense.length; --i >= 0; ) if(dense[i] != 0.0) sparse.put((int) (offset + i), new RealValue(dense[i]));
+		dense = null;
+	}
+	
+	// The sorted indices of the non-empty bins...
+	private int[] getBins() {
+		if(sparse != null) {
+			int[] bins = new int[sparse.size()];
+			int k = 0;
+			for(int bin : sparse.keySet()) bins[k++] = bin;
+			Arrays.sort(bins);
+			return bins;
+		}
+		
+		int n = 0;
+		if(dense != null) for(int i=dense.length; --i >= 0; ) if(dense[i] != 0.0) n++;
+		
+		int[] bins = new int[n];
+		for(int i=0, k=0; k < n; i++) if(dense[i] != 0.0) bins[k++] = (int) (offset + i);
+		return bins;
+	}
+	
+	private int firstDenseIndex() {
+		for(int i=0; i < dense.length; i++) if(dense[i] != 0.0) return i;
+		return -1;
 	}
 	
+	private int lastDenseIndex() {
+		for(int i=dense.length; --i >= 0; ) if(dense[i] != 0.0) return i;
+		return -1;
+	}
+	
+	
 	public double totalCounts() {
 		double totalCounts = 0.0;
-		for(int bin : bins.keySet()) totalCounts += bins.get(bin).value(); 
+		if(sparse != null) for(RealValue binCounts : sparse.values()) totalCounts += binCounts.value();
+		else if(dense != null) for(int i=dense.length; --i >= 0; ) totalCounts += dense[i];
 		return totalCounts;
 	}
 	
 
 	public double countsFor(double value) {
-		int binValue = binFor(value);
-		if(bins.containsKey(binValue)) return bins.get(binValue).value();
-		return 0;
+		return getBinCounts(binFor(value));
 	}
 	
 
@@ -85,25 +207,45 @@ public class Histogram implements Cloneable {
 	}
 	
 
-	public int size() { return bins.size(); }
+	public int size() { 
+		if(sparse != null) return sparse.size();
+		if(dense == null) return 0;
+		int n = 0;
+		for(int i=dense.length; --i >= 0; ) if(dense[i] != 0.0) n++;
+		return n;
+	}
 	
 
-	public void clear() { bins.clear(); }
+	public void clear() { 
+		dense = null;
+		sparse = null;
+	}
 	
 
-	public boolean isEmpty() { return bins.isEmpty(); }
+	public boolean isEmpty() { 
+		if(sparse != null) return sparse.isEmpty();
+		return dense == null || firstDenseIndex() < 0; 
+	}
 	
 
 	public double getMinBinValue() {
 		double min = Double.POSITIVE_INFINITY;
-		for(int bin : bins.keySet()) if(bin < min) min = bin;
+		if(sparse != null) { for(int bin : sparse.keySet()) if(bin < min) min = bin; }
+		else if(dense != null) {
+			final int i = firstDenseIndex();
+			if(i >= 0) min = offset + i;
+		}
 		return resolution * min;
 	}
 	
 
 	public double getMaxBinValue() {
 		double max = Double.NEGATIVE_INFINITY;
-		for(int bin : bins.keySet()) if(bin > max) max = bin;
+		if(sparse != null) { for(int bin : sparse.keySet()) if(bin > max) max = bin; }
+		else if(dense != null) {
+			final int i = lastDenseIndex();
+			if(i >= 0) max = offset + i;
+		}
 		return resolution * max;		
 	}
 
@@ -113,15 +255,19 @@ public class Histogram implements Cloneable {
 	 */
 	@Override
 	public String toString() {
-		String text = "# value\tcounts\terr\n";
-		double min = getMinBinValue();
-		double max = getMaxBinValue() + 0.5 * resolution;
+		StringBuffer text = new StringBuffer("# value\tcounts\terr\n");
+		
+		if(isEmpty()) return new String(text);
 		
-		for(double binValue = min; binValue < max; binValue += resolution) {
-			text += binValue + "\t" + Util.e3.format(countsFor(binValue)) + "\t" + Util.e3.format(Math.sqrt(countsFor(binValue))) + "\n";
+		final int min = binFor(getMinBinValue());
+		final int max = binFor(getMaxBinValue());
+		
+		for(int bin = min; bin <= max; bin++) {
+			final double counts = getBinCounts(bin);
+			text.append(bin * resolution + "\t" + Util.e3.format(counts) + "\t" + Util.e3.format(Math.sqrt(counts)) + "\n");
 		}
 		
-		return text;
+		return new String(text);
 	}
 	
 
@@ -134,11 +280,35 @@ public class Histogram implements Cloneable {
 		if(a.resolution != b.resolution) 
 			throw new IllegalArgumentException("Incompatible bin resolutions");
 		
-		Histogram product = a.clone();
-		product.bins = new Hashtable<Integer, RealValue>();
+		Histogram product = new Histogram(a.resolution);
+		
+		if(a.isEmpty() || b.isEmpty()) return product;
+		
+		if(a.isDense() && b.isDense()) {
+			final int fromA = a.firstDenseIndex(), toA = a.lastDenseIndex() + 1;
+			final int fromB = b.firstDenseIndex(), toB = b.lastDenseIndex() + 1;
+			final long from = a.offset + fromA + b.offset + fromB;
+			final long size = (toA - fromA) + (toB - fromB) - 1;
+			
+			if(size <= MAX_DENSE_BINS && from >= Integer.MIN_VALUE && from + size <= Integer.MAX_VALUE) {
+				final double[] A = a.dense, B = b.dense;
+				final double[] C = product.dense = new double[(int) size];
+				product.offset = from;
+				
+				for(int i=fromA; i < toA; i++) if(A[i] != 0.0) {
+					final double ai = A[i];
+					for(int j=fromB, k=i-fromA; j < toB; j++, k++) C[k] += ai * B[j];
+				}
+				return product;
+			}
+		}
+		
+		final int[] binsA = a.getBins();
+		final int[] binsB = b.getBins();
 		
-		for(int binA : a.bins.keySet()) for(int binB : b.bins.keySet()) {
-			product.add((binA + binB)*product.resolution, a.bins.get(binA).value() * b.bins.get(binB).value());	
+		for(int binA : binsA) {
+			final double countsA = a.getBinCounts(binA);
+			for(int binB : binsB) product.addToBin(binA + binB, countsA * b.getBinCounts(binB));
 		}
 		
 		return product;
@@ -154,7 +324,22 @@ public class Histogram implements Cloneable {
 		if(histogram.resolution != resolution) 
 			throw new IllegalArgumentException("Incompatible bin resolutions");
 		
-		for(int bin : histogram.bins.keySet()) add(bin*resolution, factor*histogram.countsFor(bin*resolution));
+		if(histogram.isEmpty()) return;
+		
+		if(histogram.isDense()) {
+			final double[] B = histogram.dense;
+			final int from = histogram.firstDenseIndex(), to = histogram.lastDenseIndex() + 1;
+			
+			include((int) (histogram.offset + from), (int) (histogram.offset + to - 1));
+			
+			if(isDense()) {
+				final int shift = (int) (histogram.offset - offset);
+				for(int i=from; i < to; i++) dense[i + shift] += factor * B[i];
+				return;
+			}
+		}
+		
+		for(int bin : histogram.getBins()) addToBin(bin, factor * histogram.getBinCounts(bin));
 	}
 	
 
@@ -168,8 +353,15 @@ public class Histogram implements Cloneable {
 		
 		double[] data = new double[N];
 		
-		for(int bin : bins.keySet()) {
-			double value = bins.get(bin).value();
+		if(isDense()) {
+			if(dense != null) for(int i=dense.length; --i >= 0; ) if(dense[i] != 0.0) {
+				int bin = (int) (offset + i);
+				if(bin < 0) bin = N + bin;
+				data[bin] = dense[i];
+			}
+		}
+		else for(int bin : sparse.keySet()) {
+			double value = sparse.get(bin).value();
 			if(bin < 0) bin = N + bin;
 			data[bin] = value;
 		}
@@ -224,4 +416,11 @@ public class Histogram implements Cloneable {
         return histogram;
     }
     
+    
+    /** The initial number of bins for dense histograms */
+    public static final int MIN_DENSE_BINS = 64;
+    
+    /** The largest number of bins stored densely, beyond which histograms use sparse storage */
+    public static final int MAX_DENSE_BINS = 1 << 24;
+    
 }
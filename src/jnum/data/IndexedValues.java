@@ -37,6 +37,12 @@ public interface IndexedValues<IndexType> extends Values {
     
     public void set(IndexType index, Number value);
     
+    public double getDouble(IndexType index);
+    
+    public void addDouble(IndexType index, double value);
+    
+    public void setDouble(IndexType index, double value);
+    
     public IndexType getIndexInstance();
     
     public abstract IndexType copyOfIndex(IndexType index);
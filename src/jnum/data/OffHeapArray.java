@@ -0,0 +1,277 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved.
+ *
+ * This file is part of jnum.
+ *
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+
+package jnum.data;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+
+
+/**
+ * A flat array of primitive elements stored outside of the Java heap, either in direct memory or in a memory-mapped
+ * file. Because a single NIO buffer is limited to 2 GB, the storage is split into segments of 2<sup>27</sup> elements,
+ * s.t. arrays may hold up to 2<sup>58</sup> elements in total. Element access is by absolute index, and so it is safe
+ * for concurrent use by threads that access different elements.
+ *
+ *
+ * @author Attila Kovacs <attila[AT]sigmyne.com>
+ *
+ */
+public abstract class OffHeapArray implements Serializable {
+    /**
+     *
+     */
+    private static final long serialVersionUID = 4094431627004734081L;
+
+    /** The number of elements per storage segment, as a power of 2. */
+    protected static final int SEGMENT_BITS = 27;
+
+    /** The mask for the element index within a segment. */
+    protected static final int SEGMENT_MASK = (1 << SEGMENT_BITS) - 1;
+
+    private long size;
+
+    private transient ByteBuffer[] segments;
+
+
+    private OffHeapArray(long size, int elementBytes) {
+        this.size = size;
+        allocate(elementBytes);
+    }
+
+    private OffHeapArray(FileChannel channel, FileChannel.MapMode mode, long position, long size, int elementBytes, ByteOrder order) throws IOException {
+        this.size = size;
+
+        segments = new ByteBuffer[countSegments()];
+        for(int i=0; i<segments.length; i++) {
+            final long bytes = (long) getSegmentSize(i) * elementBytes;
+            segments[i] = channel.map(mode, position, bytes).order(order);
+            position += bytes;
+        }
+    }
+
+    private void allocate(int elementBytes) {
+        segments = new ByteBuffer[countSegments()];
+        for(int i=0; i<segments.length; i++)
+            segments[i] = ByteBuffer.allocateDirect(getSegmentSize(i) * elementBytes).order(ByteOrder.nativeOrder());
+    }
+
+    private int countSegments() {
+        return (int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS);
+    }
+
+    private int getSegmentSize(int segment) {
+        return (int) Math.min(size - ((long) segment << SEGMENT_BITS), 1 << SEGMENT_BITS);
+    }
+
+    /**
+     * Gets the number of elements in this array.
+     *
+     * @return the number of elements.
+     */
+    public final long size() { return size; }
+
+    /**
+     * Gets the underlying storage, which may be used for bulk I/O via NIO channels. Each segment holds
+     * 2<sup>27</sup> elements, except possibly the last one. The returned buffers share content with this array.
+     *
+     * @return duplicates of the underlying byte buffers, in order.
+     */
+    public ByteBuffer[] getBuffers() {
+        ByteBuffer[] copy = new ByteBuffer[segments.length];
+        for(int i=0; i<segments.length; i++) copy[i] = segments[i].duplicate().order(segments[i].order());
+        return copy;
+    }
+
+    protected final ByteBuffer getSegment(int i) { return segments[i]; }
+
+    protected final int getSegmentCount() { return segments.length; }
+
+    protected abstract int getElementBytes();
+
+    protected abstract void createViews();
+
+    protected abstract void writeElements(ObjectOutputStream out) throws IOException;
+
+    protected abstract void readElements(ObjectInputStream in) throws IOException;
+
+
+    // The content is serialized element by element, and is deserialized into direct memory...
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        writeElements(out);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        allocate(getElementBytes());
+        createViews();
+        readElements(in);
+    }
+
+
+
+
+    public static class Doubles extends OffHeapArray {
+        /**
+         *
+         */
+        private static final long serialVersionUID = -2914850624711592151L;
+
+        private transient DoubleBuffer[] view;
+
+        /**
+         * Allocates a new array of doubles in direct memory, initialized to zeroes.
+         *
+         * @param size the number of elements.
+         */
+        public Doubles(long size) {
+            super(size, 8);
+            createViews();
+        }
+
+        /**
+         * Maps a region of a file as an array of doubles.
+         *
+         * @param channel the file channel to map.
+         * @param mode the mapping mode, e.g. read-only, or read-write.
+         * @param position the byte offset of the first element in the file.
+         * @param size the number of elements.
+         * @param order the byte order of the data in the file, e.g. big endian for FITS.
+         * @throws IOException if the file region could not be mapped.
+         */
+        public Doubles(FileChannel channel, FileChannel.MapMode mode, long position, long size, ByteOrder order) throws IOException {
+            super(channel, mode, position, size, 8, order);
+            createViews();
+        }
+
+        @Override
+        protected final int getElementBytes() { return 8; }
+
+        @Override
+        protected void createViews() {
+            view = new DoubleBuffer[getSegmentCount()];
+            for(int i=view.length; --i >= 0; ) view[i] = getSegment(i).asDoubleBuffer();
+        }
+
+        public final double get(long index) {
+            return view[(int) (index >>> SEGMENT_BITS)].get((int) index & SEGMENT_MASK);
+        }
+
+        public final void set(long index, double value) {
+            view[(int) (index >>> SEGMENT_BITS)].put((int) index & SEGMENT_MASK, value);
+        }
+
+        public final void add(long index, double value) {
+            final DoubleBuffer buffer = view[(int) (index >>> SEGMENT_BITS)];
+            final int i = (int) index & SEGMENT_MASK;
+            buffer.put(i, buffer.get(i) + value);
+        }
+
+        @Override
+        protected void writeElements(ObjectOutputStream out) throws IOException {
+            for(long i=0; i<size(); i++) out.writeDouble(get(i));
+        }
+
+        @Override
+        protected void readElements(ObjectInputStream in) throws IOException {
+            for(long i=0; i<size(); i++) set(i, in.readDouble());
+        }
+    }
+
+
+    public static class Floats extends OffHeapArray {
+        /**
+         *
+         */
+        private static final long serialVersionUID = 2617209146938107331L;
+
+        private transient FloatBuffer[] view;
+
+        /**
+         * Allocates a new array of floats in direct memory, initialized to zeroes.
+         *
+         * @param size the number of elements.
+         */
+        public Floats(long size) {
+            super(size, 4);
+            createViews();
+        }
+
+        /**
+         * Maps a region of a file as an array of floats.
+         *
+         * @param channel the file channel to map.
+         * @param mode the mapping mode, e.g. read-only, or read-write.
+         * @param position the byte offset of the first element in the file.
+         * @param size the number of elements.
+         * @param order the byte order of the data in the file, e.g. big endian for FITS.
+         * @throws IOException if the file region could not be mapped.
+         */
+        public Floats(FileChannel channel, FileChannel.MapMode mode, long position, long size, ByteOrder order) throws IOException {
+            super(channel, mode, position, size, 4, order);
+            createViews();
+        }
+
+        @Override
+        protected final int getElementBytes() { return 4; }
+
+        @Override
+        protected void createViews() {
+            view = new FloatBuffer[getSegmentCount()];
+            for(int i=view.length; --i >= 0; ) view[i] = getSegment(i).asFloatBuffer();
+        }
+
+        public final float get(long index) {
+            return view[(int) (index >>> SEGMENT_BITS)].get((int) index & SEGMENT_MASK);
+        }
+
+        public final void set(long index, float value) {
+            view[(int) (index >>> SEGMENT_BITS)].put((int) index & SEGMENT_MASK, value);
+        }
+
+        public final void add(long index, float value) {
+            final FloatBuffer buffer = view[(int) (index >>> SEGMENT_BITS)];
+            final int i = (int) index & SEGMENT_MASK;
+            buffer.put(i, buffer.get(i) + value);
+        }
+
+        @Override
+        protected void writeElements(ObjectOutputStream out) throws IOException {
+            for(long i=0; i<size(); i++) out.writeFloat(get(i));
+        }
+
+        @Override
+        protected void readElements(ObjectInputStream in) throws IOException {
+            for(long i=0; i<size(); i++) set(i, in.readFloat());
+        }
+    }
+
+}
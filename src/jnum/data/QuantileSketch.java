@@ -0,0 +1,335 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved.
+ *
+ * This file is part of jnum.
+ *
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+
+package jnum.data;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import jnum.Copiable;
+
+
+/**
+ * A mergeable streaming summary of the distribution of values, for estimating quantiles (such as medians) in a single
+ * pass, and in bounded memory, without storing the values themselves. It follows the KLL sketch (Karnin, Lang &amp;
+ * Liberty 2016): values are collected in a hierarchy of buffers (compactors), where items in level <i>h</i> stand for
+ * 2<sup><i>h</i></sup> values each. When a buffer fills up, it is sorted and every other item (alternating between odd
+ * and even offsets) is promoted to the next level. Buffer capacities shrink geometrically (by 2/3) towards the lower
+ * levels, s.t. the sketch retains at most ~3k items, for a rank error of order 2/k, regardless of the number of values.
+ * <p>
+ * Sketches of separate subsets can be merged into a sketch of the union, e.g. for accumulating the quantiles of large
+ * datasets in parallel (see {@link jnum.parallel.ParallelPointOp.Quantiles}). A sketch itself is not thread-safe, and
+ * so each thread should feed its own sketch, with the results merged at the end.
+ *
+ * @author Attila Kovacs <attila[AT]sigmyne.com>
+ *
+ */
+public class QuantileSketch implements Serializable, Cloneable, Copiable<QuantileSketch> {
+    /**
+     *
+     */
+    private static final long serialVersionUID = -2406291599011003624L;
+
+    private int k;
+    private double[][] levels;
+    private int[] sizes;
+    private boolean[] isOddOffset;
+    private int height = 0;
+
+    private long n = 0L;
+    private double min = Double.NaN, max = Double.NaN;
+
+    private transient double[] sortedValues;
+    private transient long[] sortedRanks;
+
+
+    /**
+     * Instantiates a new quantile sketch with the default capacity, for a typical rank error of ~1%.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Instantiates a new quantile sketch with the specified capacity for the top level. The typical rank error of
+     * the quantiles is of order 2/k.
+     *
+     * @param k the capacity of the top level (at least 8).
+     */
+    public QuantileSketch(int k) {
+        this.k = Math.max(MIN_CAPACITY, k);
+        levels = new double[0][];
+        sizes = new int[0];
+        isOddOffset = new boolean[0];
+    }
+
+    @Override
+    public QuantileSketch clone() {
+        try { return (QuantileSketch) super.clone(); }
+        catch(CloneNotSupportedException e) { return null; }
+    }
+
+    /* (non-Javadoc)
+     * @see jnum.Copiable#copy()
+     */
+    @Override
+    public QuantileSketch copy() {
+        QuantileSketch copy = clone();
+        copy.levels = new double[height][];
+        for(int h=height; --h >= 0; ) copy.levels[h] = Arrays.copyOf(levels[h], levels[h].length);
+        copy.sizes = Arrays.copyOf(sizes, sizes.length);
+        copy.isOddOffset = Arrays.copyOf(isOddOffset, isOddOffset.length);
+        copy.sortedValues = null;
+        copy.sortedRanks = null;
+        return copy;
+    }
+
+    public final int getCapacity() { return k; }
+
+    /**
+     * Gets the number of values summarized by this sketch.
+     *
+     * @return the number of values added (including via merging).
+     */
+    public final long count() { return n; }
+
+    public final boolean isEmpty() { return n == 0L; }
+
+    public final double getMin() { return min; }
+
+    public final double getMax() { return max; }
+
+    /**
+     * Gets the number of items retained by the sketch, which determines its memory footprint.
+     *
+     * @return the number of retained items.
+     */
+    public int getRetainedItems() {
+        int items = 0;
+        for(int h=height; --h >= 0; ) items += sizes[h];
+        return items;
+    }
+
+    public void clear() {
+        levels = new double[0][];
+        sizes = new int[0];
+        isOddOffset = new boolean[0];
+        height = 0;
+        n = 0L;
+        min = max = Double.NaN;
+        sortedValues = null;
+        sortedRanks = null;
+    }
+
+    /**
+     * Adds a value to the sketch. NaN values are ignored.
+     *
+     * @param value the value to add.
+     */
+    public void add(final double value) {
+        if(Double.isNaN(value)) return;
+
+        if(n == 0L) min = max = value;
+        else if(value < min) min = value;
+        else if(value > max) max = value;
+        n++;
+
+        if(height == 0) grow();
+
+        append(0, value);
+        sortedValues = null;
+
+        if(sizes[0] >= getCapacity(0)) compress();
+    }
+
+    /**
+     * Merges another sketch into this one, s.t. this sketch summarizes the values of both.
+     *
+     * @param other the sketch to merge into this one. It is not changed.
+     */
+    public void merge(final QuantileSketch other) {
+        if(other == null || other.n == 0L) return;
+
+        if(n == 0L) { min = other.min; max = other.max; }
+        else {
+            if(other.min < min) min = other.min;
+            if(other.max > max) max = other.max;
+        }
+        n += other.n;
+
+        while(height < other.height) grow();
+
+        for(int h=other.height; --h >= 0; ) {
+            final double[] items = other.levels[h];
+            for(int i=other.sizes[h]; --i >= 0; ) append(h, items[i]);
+        }
+
+        sortedValues = null;
+        compress();
+    }
+
+    /**
+     * Gets the approximate value at the given quantile, i.e. the value below which the specified fraction of the values lie.
+     *
+     * @param fraction the quantile, between 0 and 1.
+     * @return the approximate value at the quantile, or NaN if the sketch is empty.
+     */
+    public double quantile(final double fraction) {
+        if(n == 0L) return Double.NaN;
+        if(fraction <= 0.0) return min;
+        if(fraction >= 1.0) return max;
+
+        sort();
+
+        final double target = fraction * n;
+        int i = Arrays.binarySearch(sortedRanks, (long) Math.ceil(target));
+        if(i < 0) i = -i - 1;
+        return sortedValues[Math.min(i, sortedValues.length - 1)];
+    }
+
+    /**
+     * Gets the approximate median of the values.
+     *
+     * @return the median, or NaN if the sketch is empty.
+     */
+    public final double median() { return quantile(0.5); }
+
+    /**
+     * Gets the approximate fraction of the values that are less than or equal to the specified value.
+     *
+     * @param value the value
+     * @return the approximate normalized rank of the value (0 to 1), or NaN if the sketch is empty.
+     */
+    public double rank(final double value) {
+        if(n == 0L) return Double.NaN;
+        if(value < min) return 0.0;
+        if(value >= max) return 1.0;
+
+        sort();
+
+        // The number of retained items less than or equal to the value...
+        int lo = 0, hi = sortedValues.length;
+        while(lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if(sortedValues[mid] <= value) lo = mid + 1;
+            else hi = mid;
+        }
+
+        return lo == 0 ? 0.0 : (double) sortedRanks[lo-1] / n;
+    }
+
+
+    private int getCapacity(final int h) {
+        // The top level has capacity k, with the levels below shrinking by 2/3 each...
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(2.0 / 3.0, height - 1 - h)));
+    }
+
+    private void grow() {
+        levels = Arrays.copyOf(levels, height + 1);
+        sizes = Arrays.copyOf(sizes, height + 1);
+        isOddOffset = Arrays.copyOf(isOddOffset, height + 1);
+        levels[height] = new double[MIN_CAPACITY];
+        height++;
+    }
+
+    private void append(final int h, final double value) {
+        if(sizes[h] == levels[h].length) levels[h] = Arrays.copyOf(levels[h], levels[h].length << 1);
+        levels[h][sizes[h]++] = value;
+    }
+
+    private void compress() {
+        for(int h=0; h < height; h++) if(sizes[h] >= getCapacity(h)) {
+            if(h + 1 == height) grow();
+            compact(h);
+        }
+    }
+
+    // Promotes every other item from level h to level h+1, keeping one item in level h if the count is odd...
+    private void compact(final int h) {
+        final double[] items = levels[h];
+        int size = sizes[h];
+
+        Arrays.sort(items, 0, size);
+
+        // Keep the largest item in place if the count is odd...
+        final int pairs = size >>> 1;
+        final int offset = isOddOffset[h] ? 1 : 0;
+        isOddOffset[h] = !isOddOffset[h];
+
+        for(int i=0; i<pairs; i++) append(h + 1, items[(i << 1) + offset]);
+
+        if((size & 1) != 0) {
+            items[0] = items[size - 1];
+            sizes[h] = 1;
+        }
+        else sizes[h] = 0;
+    }
+
+    // Sorts the retained items, with their cumulative weights...
+    private void sort() {
+        if(sortedValues != null) return;
+
+        final int m = getRetainedItems();
+        final double[] values = new double[m];
+        final long[] weights = new long[m];
+
+        for(int h=0, i=0; h < height; h++) {
+            System.arraycopy(levels[h], 0, values, i, sizes[h]);
+            Arrays.fill(weights, i, i + sizes[h], 1L << h);
+            i += sizes[h];
+        }
+
+        final Integer[] order = new Integer[m];
+        for(int i=m; --i >= 0; ) order[i] = i;
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) { return Double.compare(values[a], values[b]); }
+        });
+
+        sortedValues = new double[m];
+        sortedRanks = new long[m];
+
+        long sum = 0L;
+        for(int i=0; i<m; i++) {
+            final int j = order[i];
+            sortedValues[i] = values[j];
+            sum += weights[j];
+            sortedRanks[i] = sum;
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " (k=" + k + ", n=" + n + ", retained=" + getRetainedItems() + ")";
+    }
+
+
+    /** The default capacity of the top level, for a rank error of ~1% */
+    public static final int DEFAULT_CAPACITY = 200;
+
+    /** The smallest capacity of any level */
+    public static final int MIN_CAPACITY = 8;
+
+}
@@ -31,11 +31,13 @@ import jnum.math.TrueVector;
 import jnum.parallel.ParallelPointOp;
 
 public abstract class RegularData<IndexType extends Index<IndexType>, VectorType extends TrueVector<Double>> extends Data<IndexType> {
-    protected SplineSet<VectorType> reuseIpolData;
+    private transient ThreadLocal<SplineSet<VectorType>> localSplines;
+    private boolean recursiveSmoothing = false;
+    private boolean isInterpolationCaching = false;
 
 
     public RegularData() {
-        reuseIpolData = new SplineSet<VectorType>(dimension());
+        localSplines = createLocalSplines();
         setInterpolationType(SPLINE);
     }
     
@@ -43,9 +45,29 @@ public abstract class RegularData<IndexType extends Index<IndexType>, VectorType
     @Override
     public RegularData<IndexType, VectorType> clone() {
         RegularData<IndexType, VectorType> clone = (RegularData<IndexType, VectorType>) super.clone();
-        clone.reuseIpolData = new SplineSet<VectorType>(dimension());  
+        clone.localSplines = clone.createLocalSplines();  
+        clone.invalidateInterpolationCache();
         return clone;
     }
+    
+    private ThreadLocal<SplineSet<VectorType>> createLocalSplines() {
+        return new ThreadLocal<SplineSet<VectorType>>() {
+            @Override
+            protected SplineSet<VectorType> initialValue() { return new SplineSet<VectorType>(dimension()); }
+        };
+    }
+    
+    /**
+     * Gets the spline interpolation state of the calling thread, for interpolating without a caller-supplied
+     * {@link SplineSet}. Since each thread has its own, interpolations from concurrent threads do not contend.
+     * 
+     * @return the spline set of the calling thread, for interpolating in this object.
+     */
+    protected final SplineSet<VectorType> getLocalSplines() {
+        // The thread-local is not serialized, and so it is recreated as needed after deserialization...
+        if(localSplines == null) localSplines = createLocalSplines();
+        return localSplines.get();
+    }
 
 
     @Override
@@ -73,14 +95,55 @@ public abstract class RegularData<IndexType extends Index<IndexType>, VectorType
 
     public abstract double quadraticAtIndex(VectorType index);
 
+    /**
+     * Checks whether interpolated values are served from a cached copy of the data (where supported).
+     * 
+     * @return true if interpolation caching is enabled.
+     */
+    public final boolean isInterpolationCaching() { return isInterpolationCaching; }
+
+    /**
+     * Enables or disables the caching of the data for interpolation, for objects that are interpolated many
+     * times between changes (e.g. when fitting models to a map). When enabled, the valid data are copied once into
+     * a flat primitive array, from which subsequent interpolations are calculated, without element-wise access. The
+     * cache is recreated after any change to the data, whether by element writes, bulk operations, or new data
+     * (including changes to the data underneath overlays). Only direct changes to the underlying storage (e.g.
+     * the arrays of the core) go unnoticed, and should be followed by a call to {@link #invalidateInterpolationCache()}.
+     * 
+     * @param value true to enable interpolation caching, or false to disable it.
+     */
+    public void setInterpolationCaching(boolean value) { 
+        isInterpolationCaching = value;
+        invalidateInterpolationCache();
+    }
+
+    /**
+     * Discards the cached copy of the data used for interpolation (if any), s.t. it is recreated from the current
+     * data when next needed.
+     */
+    public void invalidateInterpolationCache() {}
+
+    @Override
+    public void addHistory(String entry) {
+        invalidateInterpolationCache();
+        super.addHistory(entry);
+    }
+
+    @Override
+    protected void recordNewData(String detail) {
+        invalidateInterpolationCache();
+        super.recordNewData(detail);
+    }
+
+
     public final double splineAtIndex(VectorType index) {
-        synchronized(reuseIpolData) { return valueAtIndex(index, reuseIpolData); }
+        return splineAtIndex(index, getLocalSplines());
     }
 
     public abstract double splineAtIndex(VectorType index, SplineSet<VectorType> splines);
 
     public final double valueAtIndex(VectorType index) {
-        synchronized(reuseIpolData) { return valueAtIndex(index, reuseIpolData); }
+        return valueAtIndex(index, getLocalSplines());
     }
 
     protected abstract double valueAtIndex(VectorType index, SplineSet<VectorType> splines);
@@ -95,6 +158,26 @@ public abstract class RegularData<IndexType extends Index<IndexType>, VectorType
 
     public RegularData<IndexType, VectorType> newImage() { return newImage(getSize(), getElementType()); }
 
+    /**
+     * Checks if separable Gaussian smoothing may use recursive (IIR) filters, instead of direct convolution.
+     *
+     * @return true if recursive Gaussian filtering is enabled.
+     * 
+     * @see SeparableKernel
+     */
+    public final boolean isRecursiveSmoothing() { return recursiveSmoothing; }
+
+    /**
+     * Enables or disables the use of recursive (IIR) filters for smoothing with separable Gaussian beams. Recursive
+     * filters have a cost that is independent of the beam size, but they approximate the (untruncated) Gaussian
+     * to ~1% only, rather than convolving with the sampled beam exactly.
+     *
+     * @param value true to enable recursive Gaussian filtering, or false (default) to convolve directly.
+     * 
+     * @see SeparableKernel
+     */
+    public void setRecursiveSmoothing(boolean value) { recursiveSmoothing = value; }
+
     public abstract RegularData<IndexType, VectorType> newImage(IndexType size, Class<? extends Number> elementType);
 
     public final synchronized void smooth(Referenced<IndexType, VectorType> beam) {
@@ -144,12 +227,12 @@ public abstract class RegularData<IndexType extends Index<IndexType>, VectorType
             @Override
             public void process(IndexType i1) { 
                 if(!isValid(i1)) return;
-                final double w = (weight == null ? 1.0 : weight.get(i1).doubleValue());
+                final double w = (weight == null ? 1.0 : weight.getDouble(i1));
 
                 for(int i=dimension(); --i >= 0; ) delta.setComponent(i, i1.getValue(i) - i0.getComponent(i));
 
                 final double wB = w * beam.valueAtIndex(delta, splines);
-                result.add(wB * get(i1).doubleValue());
+                result.add(wB * getDouble(i1));
                 result.addWeight(Math.abs(wB));   
             }
         };
@@ -171,6 +254,12 @@ public abstract class RegularData<IndexType extends Index<IndexType>, VectorType
     public final RegularData<IndexType, VectorType> getSmoothed(final RegularData<IndexType, VectorType> beam, final VectorType refIndex, 
             final IndexedValues<IndexType> weight, final IndexedValues<IndexType> smoothedWeights) {
         
+        RegularData<IndexType, VectorType> fast = getSeparableSmoothed(beam, refIndex, weight, smoothedWeights);
+        if(fast != null) return fast;
+        
+        fast = getFFTSmoothed(beam, refIndex, weight, smoothedWeights);
+        if(fast != null) return fast;
+        
         final RegularData<IndexType, VectorType> convolved = newImage();
 
         Interpolation op = new Interpolation() {
@@ -188,8 +277,8 @@ public abstract class RegularData<IndexType extends Index<IndexType>, VectorType
                 if(!isValid(index)) return;
                 index.toVector(v);
                 getSmoothedValueAtIndex(v, beam, refIndex, weight, getSplines(), result);  
-                convolved.set(index, result.value());
-                if(smoothedWeights != null) smoothedWeights.set(index, result.weight());
+                convolved.setDouble(index, result.value());
+                if(smoothedWeights != null) smoothedWeights.setDouble(index, result.weight());
             }
             @Override
             public int numberOfOperations() {
@@ -205,6 +294,39 @@ public abstract class RegularData<IndexType extends Index<IndexType>, VectorType
     }
 
 
+    /**
+     * Smooths with a beam that is the product of 1D profiles along the data dimensions, one dimension at a time,
+     * producing the same result as {@link #getSmoothed(RegularData, TrueVector, IndexedValues, IndexedValues)}
+     * at a fraction of the cost. 
+     * 
+     * @param beam the smoothing beam
+     * @param refIndex the beam's reference index.
+     * @param weight the data weights, or null for uniform weights.
+     * @param smoothedWeights the values into which to write the smoothed weights, or null.
+     * @return the smoothed data, or null if the beam is not separable (or if the data type does not support 
+     *          separable smoothing).
+     */
+    protected RegularData<IndexType, VectorType> getSeparableSmoothed(final RegularData<IndexType, VectorType> beam, final VectorType refIndex,
+            final IndexedValues<IndexType> weight, final IndexedValues<IndexType> smoothedWeights) {
+        return null;
+    }
+
+    /**
+     * Smooths via FFTs, producing the same result as {@link #getSmoothed(RegularData, TrueVector, IndexedValues, IndexedValues)}
+     * to within round-off errors, if it is expected to be faster than direct convolution.
+     * 
+     * @param beam the smoothing beam
+     * @param refIndex the beam's reference index.
+     * @param weight the data weights, or null for uniform weights.
+     * @param smoothedWeights the values into which to write the smoothed weights, or null.
+     * @return the smoothed data, or null if direct convolution is preferred (or if the data type does not support 
+     *          FFT smoothing).
+     */
+    protected RegularData<IndexType, VectorType> getFFTSmoothed(final RegularData<IndexType, VectorType> beam, final VectorType refIndex,
+            final IndexedValues<IndexType> weight, final IndexedValues<IndexType> smoothedWeights) {
+        return null;
+    }
+
     public final RegularData<IndexType, VectorType> getFastSmoothed(final Referenced<IndexType, VectorType> beam,
             final IndexType step, final IndexedValues<IndexType> weight, final IndexedValues<IndexType> smoothedWeights) {
         return getFastSmoothed(beam.getData(), beam.getReferenceIndex(), step, weight, smoothedWeights);
@@ -239,8 +361,8 @@ public abstract class RegularData<IndexType extends Index<IndexType>, VectorType
                 scaled.setProduct(index, step);
                 scaled.toVector(v);
                 getSmoothedValueAtIndex(v, beam, refIndex, weight, getSplines(), result);
-                coarseSignal.set(index, result.value());
-                if(coarseWeight != null) coarseWeight.set(index, result.weight());
+                coarseSignal.setDouble(index, result.value());
+                if(coarseWeight != null) coarseWeight.setDouble(index, result.weight());
                 if(result.weight() <= 0.0) coarseSignal.discard(index);
             }   
 
@@ -264,8 +386,8 @@ public abstract class RegularData<IndexType extends Index<IndexType>, VectorType
                 final double value = coarseSignal.valueAtIndex(index, step, getSplines());
 
                 if(!Double.isNaN(value)) {      
-                    convolved.set(index, value);
-                    if(smoothedWeights != null) smoothedWeights.set(index, coarseWeight.valueAtIndex(index, step, getSplines()));
+                    convolved.setDouble(index, value);
+                    if(smoothedWeights != null) smoothedWeights.setDouble(index, coarseWeight.valueAtIndex(index, step, getSplines()));
                 }
                 else {
                     convolved.discard(index);
@@ -320,11 +442,11 @@ public abstract class RegularData<IndexType extends Index<IndexType>, VectorType
                 else if(beam == null) {
                     double value = image.valueAtIndex(v, getSplines());
                     if(Double.isNaN(value)) discard(index);
-                    else set(index, value);
+                    else setDouble(index, value);
                 }
                 else {
                     image.getSmoothedValueAtIndex(v, beam, refIndex, weight, getSplines(), smoothedValue);          
-                    if(smoothedValue.weight() > 0.0) set(index, smoothedValue.value());
+                    if(smoothedValue.weight() > 0.0) setDouble(index, smoothedValue.value());
                     else discard(index);
                 }
             }
@@ -372,7 +494,7 @@ public abstract class RegularData<IndexType extends Index<IndexType>, VectorType
             public void process(IndexType i0) {
                 for(int i=dimension(); --i >= 0; ) d.setComponent(i, i0.getValue(i) - index.getComponent(i));
                 double patchValue = patch.valueAtIndex(d, iPolData);
-                if(!Double.isNaN(patchValue)) add(i0, scaling * patchValue);
+                if(!Double.isNaN(patchValue)) addDouble(i0, scaling * patchValue);
             }
         };
 
@@ -387,7 +509,7 @@ public abstract class RegularData<IndexType extends Index<IndexType>, VectorType
         int components = 0;
 
         IndexType peakIndex = indexOfMaxDev();
-        double peakValue = get(peakIndex).doubleValue();
+        double peakValue = getDouble(peakIndex);
 
         VectorType offset = getVectorInstance();
 
@@ -402,7 +524,7 @@ public abstract class RegularData<IndexType extends Index<IndexType>, VectorType
             components++;
 
             peakIndex = indexOfMaxDev();
-            peakValue = get(peakIndex).doubleValue();
+            peakValue = getDouble(peakIndex);
         }
 
         // Scale cleaned components by the beam area...
@@ -439,8 +561,8 @@ public abstract class RegularData<IndexType extends Index<IndexType>, VectorType
             public void process(IndexType index) {
                 if(!isValid(index)) return;
 
-                point.setValue(get(index).doubleValue());
-                point.setWeight(noiseWeight == null ? 1.0 : noiseWeight.get(index).doubleValue());
+                point.setValue(getDouble(index));
+                point.setWeight(noiseWeight == null ? 1.0 : noiseWeight.getDouble(index));
 
                 index.toVector(v);
                 getSmoothedValueAtIndex(v, neighbours.getData(), neighbours.getReferenceIndex(), noiseWeight, getSplines(), surrounding);
@@ -512,7 +634,7 @@ public abstract class RegularData<IndexType extends Index<IndexType>, VectorType
             public void process(IndexType index) {
                 if(index.equals(center)) return;
                 double d = index.distanceTo(center);
-                neighbors.set(index, 1.0 / (d*d));
+                neighbors.setDouble(index, 1.0 / (d*d));
             }
         };
 
@@ -568,7 +690,7 @@ public abstract class RegularData<IndexType extends Index<IndexType>, VectorType
                 index.toVector(v);
                 v.subtract(center);
                 for(int i=dimension(); --i >= 0; ) v.setComponent(i, v.getComponent(i) / pixelFWHMs.getComponent(i));
-                beam.set(index, Math.exp(-0.5 * v.absSquared()));
+                beam.setDouble(index, Math.exp(-0.5 * v.absSquared()));
             }
         };
 
@@ -629,7 +751,7 @@ public abstract class RegularData<IndexType extends Index<IndexType>, VectorType
             public void process(IndexType index) {
                 if(!isValid(index)) return; 
                 VectorType c = localResult.centroid;
-                final double w = Math.abs(get(index).doubleValue());
+                final double w = Math.abs(getDouble(index));
                 for(int i=dimension(); --i >= 0; ) c.setComponent(i, c.getComponent(i) + w * index.getValue(i));
                 localResult.sumw += w;
             }
@@ -704,10 +826,43 @@ public abstract class RegularData<IndexType extends Index<IndexType>, VectorType
     }   
 
 
+    // Interpolates at a batch of locations, in parallel for large batches, with a spline set for every task...
+    protected abstract class BatchInterpolation extends Task<Void> {
+        private int n;
+        private SplineSet<VectorType> splines;
+
+        protected BatchInterpolation(int n) { this.n = n; }
+
+        @Override
+        protected void init() {
+            super.init();
+            splines = new SplineSet<VectorType>(dimension());
+        }
+
+        @Override
+        protected void processChunk(int k, int split) {
+            final int from = (int) ((long) n * k / split);
+            final int to = (int) ((long) n * (k + 1) / split);
+            for(int i=from; i < to; i++) process(i, splines);
+        }
+
+        protected abstract void process(int i, SplineSet<VectorType> splines);
+
+        @Override
+        public void process() {
+            final int chunks = Math.max(1, Math.min(getParallel(), n / MIN_BATCH_CHUNK));
+            process(chunks, chunks > 1 ? getTaskExecutor() : null);
+        }
+    }
+
+
 
 
     public final static int NEAREST = 0;
     public final static int LINEAR = 1;
     public final static int QUADRATIC = 2;
     public final static int SPLINE = 3;
+
+    /** The smallest number of locations interpolated by a thread in batch interpolations */
+    protected final static int MIN_BATCH_CHUNK = 1024;
 }
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved.
+ *
+ * This file is part of jnum.
+ *
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+
+package jnum.data;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+
+/**
+ * A convolution kernel (beam) that is the product of 1D profiles along each dimension, such as an axis-aligned
+ * Gaussian. Convolving with such a kernel is done one dimension at a time, along lines of data, at a cost that
+ * scales with the sum, rather than the product, of the kernel sizes. Profiles that are Gaussian may optionally be
+ * applied as recursive (IIR) filters (Young &amp; van Vliet 1995), whose cost does not depend on the kernel size
+ * at all. Unlike the sampled kernel, the recursive filters are not truncated, and so they differ slightly from the
+ * direct convolution in the far wings of the beam.
+ *
+ * @author Attila Kovacs <attila[AT]sigmyne.com>
+ *
+ */
+public class SeparableKernel implements Serializable {
+    /**
+     *
+     */
+    private static final long serialVersionUID = 2866513811431893602L;
+
+    private double[][] profile;
+    private int[] center;
+    private double[] sigma;
+    private double[] sum;
+    private boolean allowRecursive;
+
+
+    /**
+     * Instantiates a new separable kernel from its 1D profiles. The kernel value at offset <i>d</i> (from the
+     * profile's center index) along each dimension is the product of the profile values at those offsets.
+     *
+     * @param profile the profiles along each of the dimensions.
+     * @param center the indices in the profiles, which correspond to zero offset.
+     * @param allowRecursive whether profiles that are Gaussian may be applied via recursive filters.
+     */
+    public SeparableKernel(double[][] profile, int[] center, boolean allowRecursive) {
+        this.profile = profile;
+        this.center = center;
+        this.allowRecursive = allowRecursive;
+
+        sigma = new double[profile.length];
+        sum = new double[profile.length];
+
+        for(int i=profile.length; --i >= 0; ) {
+            for(double value : profile[i]) sum[i] += value;
+            sigma[i] = getGaussianSigma(profile[i], center[i]);
+        }
+    }
+
+    public final int dimension() { return profile.length; }
+
+    public final int size(int dim) { return profile[dim].length; }
+
+    /**
+     * Checks if the profile along a dimension is applied by a recursive filter.
+     *
+     * @param dim the dimension
+     * @return true if the convolution along the dimension uses a recursive Gaussian filter.
+     */
+    public final boolean isRecursive(int dim) {
+        return allowRecursive && sigma[dim] >= MIN_RECURSIVE_SIGMA;
+    }
+
+    /**
+     * Gets the number of operations per data point for the convolution along a dimension.
+     *
+     * @param dim the dimension
+     * @return the approximate operation count per point.
+     */
+    public final int getPointOps(int dim) {
+        return isRecursive(dim) ? 20 : 2 * profile[dim].length + 4;
+    }
+
+    /**
+     * Gets the size of the work array needed for convolving lines of data along a dimension.
+     *
+     * @param dim the dimension
+     * @param n the number of elements on the lines.
+     * @return the required size of the work array passed to {@link #convolve(int, double[], int, int, int, double[])}.
+     */
+    public final int getBufferSize(int dim, int n) {
+        return n + (isRecursive(dim) ? getRecursivePadding(dim) : n);
+    }
+
+    // The recursive filter's response to the data extends past the end of the line, where it is followed
+    // for the anti-causal pass for 5 sigmas, beyond which it is negligible...
+    private int getRecursivePadding(int dim) {
+        return (int) Math.ceil(5.0 * sigma[dim]);
+    }
+
+    /**
+     * Convolves a line of data with the profile along the given dimension, in place. Data outside the line are
+     * considered to be zero.
+     *
+     * @param dim the dimension whose profile to use.
+     * @param data the data array
+     * @param from the array index of the first element on the line
+     * @param stride the array index increment between consecutive elements of the line
+     * @param n the number of elements on the line
+     * @param buffer a work array of at least {@link #getBufferSize(int, int)} elements
+     */
+    public void convolve(int dim, double[] data, int from, int stride, int n, double[] buffer) {
+        for(int k=0, i=from; k<n; k++, i+=stride) buffer[k] = data[i];
+
+        if(isRecursive(dim)) recursiveConvolve(dim, buffer, n);
+        else directConvolve(dim, buffer, n);
+
+        for(int k=0, i=from; k<n; k++, i+=stride) data[i] = buffer[k];
+    }
+
+    // result[k] = sum_d profile[d] * data[k + d - c], for the input in buffer[0:n], using buffer[n:2n] for the result.
+    private void directConvolve(int dim, double[] buffer, int n) {
+        final double[] p = profile[dim];
+        final int c = center[dim];
+
+        for(int k=n; --k >= 0; ) {
+            final int dmin = Math.max(0, c - k);
+            final int dmax = Math.min(p.length, n + c - k);
+            final int offset = k - c;
+
+            double sum = 0.0;
+            for(int d=dmin; d<dmax; d++) sum += p[d] * buffer[offset + d];
+            buffer[n + k] = sum;
+        }
+
+        System.arraycopy(buffer, n, buffer, 0, n);
+    }
+
+    // Young & van Vliet (1995), Signal Processing 44, 139
+    private void recursiveConvolve(int dim, double[] buffer, int n) {
+        final double s = sigma[dim];
+        final double q = s >= 2.5 ? 0.98711 * s - 0.96330 : 3.97156 - 4.14554 * Math.sqrt(1.0 - 0.26891 * s);
+        final double q2 = q * q;
+        final double q3 = q2 * q;
+
+        final double b0 = 1.57825 + 2.44413 * q + 1.4281 * q2 + 0.422205 * q3;
+        final double b1 = (2.44413 * q + 2.85619 * q2 + 1.26661 * q3) / b0;
+        final double b2 = -(1.4281 * q2 + 1.26661 * q3) / b0;
+        final double b3 = 0.422205 * q3 / b0;
+        final double B = 1.0 - (b1 + b2 + b3);
+
+        // Zeroes after the end of the line...
+        final int m = n + getRecursivePadding(dim);
+        Arrays.fill(buffer, n, m, 0.0);
+
+        // Causal pass, with zeroes before the start...
+        double w1 = 0.0, w2 = 0.0, w3 = 0.0;
+        for(int k=0; k<m; k++) {
+            final double w = B * buffer[k] + b1 * w1 + b2 * w2 + b3 * w3;
+            buffer[k] = w;
+            w3 = w2; w2 = w1; w1 = w;
+        }
+
+        // Anti-causal pass, from past the response to the end of the line...
+        w1 = w2 = w3 = 0.0;
+        for(int k=m; --k >= 0; ) {
+            final double w = B * buffer[k] + b1 * w1 + b2 * w2 + b3 * w3;
+            buffer[k] = w;
+            w3 = w2; w2 = w1; w1 = w;
+        }
+
+        // The filters have unit gain, whereas the direct convolution sums the profile...
+        final double norm = sum[dim];
+        for(int k=n; --k >= 0; ) buffer[k] *= norm;
+    }
+
+
+    /**
+     * Gets the Gaussian width of a profile, if it is a (sampled) Gaussian centered on the specified index.
+     *
+     * @param p the profile
+     * @param c the center index
+     * @return the Gaussian sigma (in samples), or NaN if the profile is not Gaussian.
+     */
+    private static double getGaussianSigma(double[] p, int c) {
+        if(c < 0 || c >= p.length) return Double.NaN;
+        if(!(p[c] > 0.0)) return Double.NaN;
+
+        final int k = c + 1 < p.length ? c + 1 : c - 1;
+        if(k < 0) return Double.NaN;
+
+        final double r = p[k] / p[c];
+        if(!(r > 0.0 && r < 1.0)) return Double.NaN;
+
+        final double A = Math.log(r);
+
+        for(int d=p.length; --d >= 0; ) {
+            final double x = d - c;
+            if(Math.abs(p[d] - p[c] * Math.exp(A * x * x)) > GAUSSIAN_TOLERANCE * p[c]) return Double.NaN;
+        }
+
+        return Math.sqrt(-0.5 / A);
+    }
+
+
+    /** The relative deviation tolerated for kernels considered Gaussian or separable. */
+    public static final double GAUSSIAN_TOLERANCE = 1e-6;
+
+    /** The smallest Gaussian sigma (in samples), for which recursive filtering is used, when enabled. */
+    public static final double MIN_RECURSIVE_SIGMA = 2.0;
+
+}
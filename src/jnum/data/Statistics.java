@@ -456,16 +456,20 @@ public final class Statistics {
 
 
         public static double median(final double[] data, final int fromIndex, int toIndex) {
-            Arrays.sort(data, fromIndex, toIndex);
-            
             // NaN values go to the end. Skip these when calculating the median
-            for(; --toIndex >= fromIndex; ) if(!Double.isNaN(data[toIndex])) break;
-            toIndex++;
+            toIndex = skipNaNs(data, fromIndex, toIndex);
             
             int n = toIndex - fromIndex;
             if(n < 1) return Double.NaN;
             
-            return n % 2 == 0 ? 0.5 * (data[fromIndex + (n>>>1)-1] + data[fromIndex + (n>>>1)]) : data[fromIndex + ((n-1)>>>1)];
+            final int k = fromIndex + (n>>>1);
+            select(data, fromIndex, toIndex, k);
+            if(n % 2 != 0) return data[k];
+            
+            // The lower middle value is the largest of those below the upper middle...
+            double lower = data[fromIndex];
+            for(int i=k; --i > fromIndex; ) if(data[i] > lower) lower = data[i];
+            return 0.5 * (lower + data[k]);
         }
         
         
@@ -473,16 +477,20 @@ public final class Statistics {
 
 
         public static float median(final float[] data, final int fromIndex, int toIndex) {
-            Arrays.sort(data, fromIndex, toIndex);
-            
             // NaN values go to the end. Skip these when calculating the median
-            for(; --toIndex >= fromIndex; ) if(!Float.isNaN(data[toIndex])) break;
-            toIndex++;
+            toIndex = skipNaNs(data, fromIndex, toIndex);
             
             int n = toIndex - fromIndex;
             if(n < 1) return Float.NaN;
             
-            return n % 2 == 0 ? 0.5F * (data[fromIndex + (n>>>1)-1] + data[fromIndex + (n>>>1)]) : data[fromIndex + ((n-1)>>>1)];
+            final int k = fromIndex + (n>>>1);
+            select(data, fromIndex, toIndex, k);
+            if(n % 2 != 0) return data[k];
+            
+            // The lower middle value is the largest of those below the upper middle...
+            float lower = data[fromIndex];
+            for(int i=k; --i > fromIndex; ) if(data[i] > lower) lower = data[i];
+            return 0.5F * (lower + data[k]);
         }
         
         public static <T extends Number> double median(List<T> data) {
@@ -541,26 +549,24 @@ public final class Statistics {
                 result.copy(data[from]);
                 return;
             }
-        
-            Arrays.sort(data, from, to);
          
             // wt is the sum of all weights
             // wi is the integral sum including the current point.
             double wt = 0.0, wmax = 0.0;
             
+            // The lowest value, which the sorted walk starts from, regardless of weight...
+            int ifirst = -1;
+            
             for(int i=to; --i >= from; ) {
-                if(data[i].isNaN()) continue;
-                final double w = data[i].weight();
+                final WeightedPoint x = data[i];
+                if(!Double.isNaN(x.value())) if(ifirst < 0 || x.value() <= data[ifirst].value()) ifirst = i;
+                if(x.isNaN()) continue;
+                final double w = x.weight();
               
                 wt += w;
                 if(w > wmax) wmax = w;
             }
             
-            // NaN values go to the end. Skip these when calculating the median
-            for(; --to >= from; ) if(!data[to].isNaN()) break;
-            to++;
-   
-        
             // If a single datum dominates, then return the weighted mean...
             if(wmax >= maxDependence * wt) {
                 calcMean(data, from, to, result);
@@ -576,18 +582,69 @@ public final class Statistics {
             }
               
         
-            final double midw = 0.5 * wt; 
-            int ig = from; 
+            double midw = 0.5 * wt; 
             
-            WeightedPoint last = WeightedPoint.NaN;
-            WeightedPoint point = data[from];
-        
-            double wi = point.weight();
+            // Select on a copy of the references, so the original order remains at hand for resolving ties...
+            final int n = to - from;
+            final WeightedPoint[] work = getWorkBuffer(n);
+            System.arraycopy(data, from, work, 0, n);
             
-            while(wi < midw) if(data[++ig].weight() > 0.0) {
-                last = point;
-                point = data[ig];       
-                wi += 0.5 * (last.weight() + point.weight());    
+            // Start from the lowest value...
+            swap(work, 0, ifirst - from);
+            
+            // NaN values go to the end. Skip these when calculating the median
+            final int m = skipNaNs(work, 1, n);
+            
+            final WeightedPoint first = work[0];
+            final WeightedPoint[] bracket = new WeightedPoint[] { WeightedPoint.NaN, first };
+            double wi = first.weight();
+            
+            // Walking up in value from the lowest point, the cumulative weight wi at each subsequent point of positive 
+            // weight increases by the average of its weight and that of the prior point. Rather than sorting, find the 
+            // point where it reaches half of the total weight by weighted selection.
+            if(wi < midw) {
+                int k = 1;
+                for(int i=1; i<m; i++) if(work[i].weight() > 0.0) swap(work, k++, i);
+              
+                final double w0 = first.weight();
+                bracket[0] = first;
+                final double sum = selectWeighted(work, 1, k, midw - 1.5 * w0, bracket);
+                wi = 1.5 * w0 + sum + 0.5 * bracket[1].weight();
+            }
+            
+            // Which of several tied points comes first, or brackets the crossing, is decided by their original order. 
+            // In that case, walk through the tied values in their original order...
+            if(isTied(work, m, first, bracket[0], bracket[1])) wi = walkTies(data, from, to, first, midw, bracket);
+            
+            Arrays.fill(work, 0, n, null);
+            
+            WeightedPoint last = bracket[0];
+            WeightedPoint point = bracket[1];
+            
+            // Summed in another order, the cumulative weight may fall on the other side of the midpoint, if it is 
+            // within rounding errors of it. Unless the weights add up exactly in any order, walk up the sorted data 
+            // then, so the result is the same as that of the sorted walk...
+            final double tolerance = 4.0 * n * Math.ulp(wt);
+            final boolean isMarginal = wi - midw <= tolerance || (last != WeightedPoint.NaN && midw - (wi - 0.5 * (last.weight() + point.weight())) <= tolerance);
+            
+            if(isMarginal && !isExactSum(data, from, to, wt)) {
+                Arrays.sort(data, from, to);
+                
+                // Sum the weights in sorted order also, for a consistent comparison against the cumulative sums...
+                wt = 0.0;
+                for(int i=to; --i >= from; ) if(!data[i].isNaN()) wt += data[i].weight();
+                midw = 0.5 * wt;
+                
+                int ig = from;
+                last = WeightedPoint.NaN;
+                point = data[from];
+                wi = point.weight();
+                
+                while(wi < midw) if(data[++ig].weight() > 0.0) {
+                    last = point;
+                    point = data[ig];       
+                    wi += 0.5 * (last.weight() + point.weight());    
+                }
             }
             
             final double wplus = wi;
@@ -603,9 +660,25 @@ public final class Statistics {
         }
         
         public static double select(double[] data, double fraction, int fromIndex, int toIndex) {
-            Arrays.sort(data, fromIndex, toIndex);
-            while(Double.isNaN(data[toIndex - 1]) && toIndex > fromIndex) toIndex--;
-            return data[fromIndex + (int)Math.round(fraction * (toIndex - fromIndex - 1))];
+            toIndex = skipNaNs(data, fromIndex, toIndex);
+            if(toIndex == fromIndex) return Double.NaN;
+            return selectRank(data, (int)Math.round(fraction * (toIndex - fromIndex - 1)), fromIndex, toIndex);
+        }
+        
+        /**
+         * Gets the k<sup>th</sup> smallest value in a range of data, in linear time. The data in the range is reordered
+         * s.t. the k<sup>th</sup> smallest value is at index <code>fromIndex + k</code>, with no larger values before it 
+         * and no smaller values after it. NaN values should be excluded beforehand.
+         *
+         * @param data the data array
+         * @param k the rank of the value (0-based) within the range.
+         * @param fromIndex the starting index of the range (inclusive).
+         * @param toIndex the ending index of the range (exclusive).
+         * @return the k<sup>th</sup> smallest value.
+         */
+        public static double selectRank(double[] data, int k, int fromIndex, int toIndex) {
+            select(data, fromIndex, toIndex, fromIndex + k);
+            return data[fromIndex + k];
         }
 
         public static float select(float[] data, double fraction) {
@@ -613,9 +686,25 @@ public final class Statistics {
         }
         
         public static float select(float[] data, double fraction, int fromIndex, int toIndex) {
-            Arrays.sort(data, fromIndex, toIndex);
-            while(Float.isNaN(data[toIndex - 1]) && toIndex > fromIndex) toIndex--;
-            return data[fromIndex + (int)Math.floor(fraction * (toIndex - fromIndex - 1))];
+            toIndex = skipNaNs(data, fromIndex, toIndex);
+            if(toIndex == fromIndex) return Float.NaN;
+            return selectRank(data, (int)Math.floor(fraction * (toIndex - fromIndex - 1)), fromIndex, toIndex);
+        }
+        
+        /**
+         * Gets the k<sup>th</sup> smallest value in a range of data, in linear time. The data in the range is reordered
+         * s.t. the k<sup>th</sup> smallest value is at index <code>fromIndex + k</code>, with no larger values before it 
+         * and no smaller values after it. NaN values should be excluded beforehand.
+         *
+         * @param data the data array
+         * @param k the rank of the value (0-based) within the range.
+         * @param fromIndex the starting index of the range (inclusive).
+         * @param toIndex the ending index of the range (exclusive).
+         * @return the k<sup>th</sup> smallest value.
+         */
+        public static float selectRank(float[] data, int k, int fromIndex, int toIndex) {
+            select(data, fromIndex, toIndex, fromIndex + k);
+            return data[fromIndex + k];
         }
         
         
@@ -624,8 +713,10 @@ public final class Statistics {
         }
         
         public static <T extends Comparable<? super T>> T select(T[] data, double fraction, int fromIndex, int toIndex) {
-            Arrays.sort(data, fromIndex, toIndex);
-            return data[fromIndex + (int)Math.floor(fraction * (toIndex - fromIndex - 1))];
+            return select(data, fraction, fromIndex, toIndex, new Comparator<T>() {
+                @Override
+                public int compare(T a, T b) { return a.compareTo(b); }
+            });
         }
         
         public static <T> T select(T[] data, double fraction, Comparator<? super T> comparator) {
@@ -633,8 +724,9 @@ public final class Statistics {
         }
         
         public static <T> T select(T[] data, double fraction, int fromIndex, int toIndex, Comparator<? super T> comparator) {
-            Arrays.sort(data, fromIndex, toIndex, comparator);
-            return data[fromIndex + (int)Math.floor(fraction * (toIndex - fromIndex - 1))];
+            final int k = fromIndex + (int)Math.floor(fraction * (toIndex - fromIndex - 1));
+            select(data, fromIndex, toIndex, k, comparator);
+            return data[k];
         }
         
         public static <T extends Comparable<? super T>> T select(List<T> data, double fraction) {
@@ -653,15 +745,17 @@ public final class Statistics {
         
 
         public static float robustMean(final float[] data, int from, int to, final double tails) {
-            Arrays.sort(data, from, to);
-            
             // NaN values go to the end. Skip these when calculating the median
-            for(; --to >= from; ) if(!Float.isNaN(data[to])) break;
-            to++;
+            to = skipNaNs(data, from, to);
 
             // Ignore the tails on both sides of the distribution...
             final int dn = (int) Math.round(tails * (to - from));
         
+            if(dn > 0 && from + dn < to - dn) {
+                select(data, from, to, from + dn);
+                select(data, from + dn, to, to - dn - 1);
+            }
+            
             to -= dn;
             from += dn;
             if(from >= to) return Float.NaN;
@@ -679,15 +773,17 @@ public final class Statistics {
         
 
         public static double robustMean(final double[] data, int from, int to, final double tails) {
-            Arrays.sort(data, from, to);
-            
             // NaN values go to the end. Skip these when calculating the median
-            for(; --to >= from; ) if(!Double.isNaN(data[to])) break;
-            to++;
+            to = skipNaNs(data, from, to);
             
             // Ignore the tails on both sides of the distribution...
             final int dn = (int) Math.round(tails * (to - from));
         
+            if(dn > 0 && from + dn < to - dn) {
+                select(data, from, to, from + dn);
+                select(data, from + dn, to, to - dn - 1);
+            }
+            
             to -= dn;
             from += dn;
             if(from >= to) return Double.NaN;
@@ -756,6 +852,269 @@ public final class Statistics {
         }
 
         
+        // Moves NaN values to the end of the range, and returns the end of the remaining (non-NaN) range...
+        private static int skipNaNs(final double[] data, final int from, int to) {
+            for(int i=from; i<to; ) {
+                final double x = data[i];
+                if(Double.isNaN(x)) { data[i] = data[--to]; data[to] = x; }
+                else i++;
+            }
+            return to;
+        }
+        
+        private static int skipNaNs(final float[] data, final int from, int to) {
+            for(int i=from; i<to; ) {
+                final float x = data[i];
+                if(Float.isNaN(x)) { data[i] = data[--to]; data[to] = x; }
+                else i++;
+            }
+            return to;
+        }
+        
+        private static int skipNaNs(final WeightedPoint[] data, final int from, int to) {
+            for(int i=from; i<to; ) {
+                if(Double.isNaN(data[i].value())) swap(data, i, --to);
+                else i++;
+            }
+            return to;
+        }
+        
+        private static <T> void swap(final T[] data, final int i, final int j) {
+            final T temp = data[i]; data[i] = data[j]; data[j] = temp;
+        }
+        
+        
+        // Introselect: quickselect with median-of-3 pivots and 3-way partitioning, which places the k-th element 
+        // in its sorted position in linear time on average. In the unlikely case that the partitions keep shrinking 
+        // too slowly, it falls back to sorting, and so the worst case is O(N log N).
+        private static void select(final double[] a, int from, int to, final int k) {
+            for(int depth = 2 * (32 - Integer.numberOfLeadingZeros(to - from)); to - from > MIN_SELECT_SIZE; depth--) {
+                if(depth < 0) break;
+                
+                final double pivot = medianOf3(a[from], a[(from + to) >>> 1], a[to - 1]);
+                
+                int lt = from, gt = to;
+                for(int i=from; i<gt; ) {
+                    final double x = a[i];
+                    if(x < pivot) { a[i++] = a[lt]; a[lt++] = x; }
+                    else if(x > pivot) { a[i] = a[--gt]; a[gt] = x; }
+                    else i++;
+                }
+                
+                if(k < lt) to = lt;
+                else if(k >= gt) from = gt;
+                else return;
+            }
+            Arrays.sort(a, from, to);
+        }
+        
+        private static void select(final float[] a, int from, int to, final int k) {
+            for(int depth = 2 * (32 - Integer.numberOfLeadingZeros(to - from)); to - from > MIN_SELECT_SIZE; depth--) {
+                if(depth < 0) break;
+                
+                final float pivot = (float) medianOf3(a[from], a[(from + to) >>> 1], a[to - 1]);
+                
+                int lt = from, gt = to;
+                for(int i=from; i<gt; ) {
+                    final float x = a[i];
+                    if(x < pivot) { a[i++] = a[lt]; a[lt++] = x; }
+                    else if(x > pivot) { a[i] = a[--gt]; a[gt] = x; }
+                    else i++;
+                }
+                
+                if(k < lt) to = lt;
+                else if(k >= gt) from = gt;
+                else return;
+            }
+            Arrays.sort(a, from, to);
+        }
+        
+        private static <T> void select(final T[] a, int from, int to, final int k, final Comparator<? super T> comparator) {
+            for(int depth = 2 * (32 - Integer.numberOfLeadingZeros(to - from)); to - from > MIN_SELECT_SIZE; depth--) {
+                if(depth < 0) break;
+                
+                final T pivot = medianOf3(a[from], a[(from + to) >>> 1], a[to - 1], comparator);
+                
+                int lt = from, gt = to;
+                for(int i=from; i<gt; ) {
+                    final int c = comparator.compare(a[i], pivot);
+                    if(c < 0) swap(a, i++, lt++);
+                    else if(c > 0) swap(a, i, --gt);
+                    else i++;
+                }
+                
+                if(k < lt) to = lt;
+                else if(k >= gt) from = gt;
+                else return;
+            }
+            Arrays.sort(a, from, to, comparator);
+        }
+        
+        private static double medianOf3(final double a, final double b, final double c) {
+            if(a < b) return b < c ? b : Math.max(a, c);
+            return a < c ? a : Math.max(b, c);
+        }
+        
+        private static <T> T medianOf3(final T a, final T b, final T c, final Comparator<? super T> comparator) {
+            if(comparator.compare(a, b) < 0) {
+                if(comparator.compare(b, c) < 0) return b;
+                return comparator.compare(a, c) < 0 ? c : a;
+            }
+            if(comparator.compare(a, c) < 0) return a;
+            return comparator.compare(b, c) < 0 ? c : b;
+        }
+        
+        
+        // Finds the first point p, in ascending order of value, for which sum(w_i) + 0.5 w_p >= target, where the sum is 
+        // over the points below p in the range. On input bracket[0] is the point preceding the range. On return 
+        // bracket[0] is the point preceding p, and bracket[1] is p. The return value is the sum of the weights below p.
+        private static double selectWeighted(final WeightedPoint[] a, int from, int to, final double target, final WeightedPoint[] bracket) {
+            double sum = 0.0;
+            WeightedPoint last = bracket[0], next = null;
+
+            while(to - from > MIN_SELECT_SIZE) {
+                final double pivot = medianOf3(a[from].value(), a[(from + to) >>> 1].value(), a[to - 1].value());
+
+                int lt = from, gt = to;
+                double sumBelow = 0.0;
+                for(int i=from; i<gt; ) {
+                    final double x = a[i].value();
+                    if(x < pivot) { sumBelow += a[i].weight(); swap(a, i++, lt++); }
+                    else if(x > pivot) swap(a, i, --gt);
+                    else i++;
+                }
+
+                // The crossing is below the pivot, or else at the first point equal to it...
+                if(sum + sumBelow >= target) {
+                    next = a[lt];
+                    to = lt;
+                    continue;
+                }
+
+                sum += sumBelow;
+                if(lt > from) {
+                    last = a[from];
+                    for(int i=from+1; i<lt; i++) if(a[i].value() > last.value()) last = a[i];
+                }
+
+                for(int i=lt; i<gt; i++) {
+                    final WeightedPoint point = a[i];
+                    if(sum + 0.5 * point.weight() >= target) return setBracket(bracket, last, point, sum);
+                    sum += point.weight();
+                    last = point;
+                }
+
+                from = gt;
+            }
+
+            Arrays.sort(a, from, to);
+            for(int i=from; i<to; i++) {
+                final WeightedPoint point = a[i];
+                if(sum + 0.5 * point.weight() >= target) return setBracket(bracket, last, point, sum);
+                sum += point.weight();
+                last = point;
+            }
+
+            // The crossing is at the point following the range, or the last point if there is no such point...
+            if(next != null) return setBracket(bracket, last, next, sum);
+            return setBracket(bracket, last, last, sum - last.weight());
+        }
+        
+        private static double setBracket(final WeightedPoint[] bracket, final WeightedPoint last, final WeightedPoint point, final double sum) {
+            bracket[0] = last;
+            bracket[1] = point;
+            return sum;
+        }
+        
+        // Whether any of the specified points shares its value with another point in the range, or with one another...
+        private static boolean isTied(final WeightedPoint[] a, final int to, final WeightedPoint first, final WeightedPoint last, final WeightedPoint point) {
+            if(first != point && first.value() == point.value()) return true;
+            if(last != point && last.value() == point.value()) return true;
+            if(last != first && last.value() == first.value()) return true;
+            
+            for(int i=to; --i >= 0; ) {
+                final WeightedPoint x = a[i];
+                if(x == first || x == last || x == point) continue;
+                final double value = x.value();
+                if(value == first.value() || value == last.value() || value == point.value()) return true;
+            }
+            return false;
+        }
+        
+        // Walks up the tied values of the bracket in their original order, as the sorted walk does, and places the
+        // points bracketing the crossing into the bracket. The crossing cannot be below the bracket found by selection, 
+        // and is at the first point above it, if not among its values. The return value is the cumulative weight at 
+        // the crossing.
+        private static double walkTies(final WeightedPoint[] data, final int from, final int to, final WeightedPoint first, final double midw, final WeightedPoint[] bracket) {
+            final double low = bracket[0] == WeightedPoint.NaN ? bracket[1].value() : bracket[0].value();
+            final double high = bracket[1].value();
+            
+            // The cumulative weight at a point is half the first weight, plus the weights below the point, plus half
+            // of its own weight...
+            double sum = 0.5 * first.weight();
+            WeightedPoint last = WeightedPoint.NaN, next = null;
+            
+            for(int i=from; i<to; i++) {
+                final WeightedPoint x = data[i];
+                if(x != first && !(x.weight() > 0.0)) continue;
+                
+                final double value = x.value();
+                if(value < low) {
+                    sum += x.weight();
+                    if(last == WeightedPoint.NaN || value >= last.value()) last = x;
+                }
+                else if(value > high) if(next == null || value < next.value()) next = x;
+            }
+            
+            for(double value = low; ; value = high) {
+                for(int i=from; i<to; i++) {
+                    final WeightedPoint x = data[i];
+                    if(x.value() != value) continue;
+                    if(x != first && !(x.weight() > 0.0)) continue;
+                    
+                    final double wi = sum + 0.5 * x.weight();
+                    if(wi >= midw) return setBracket(bracket, last, x, wi);
+                    sum += x.weight();
+                    last = x;
+                }
+                if(value == high) break;
+            }
+            
+            if(next != null) return setBracket(bracket, last, next, sum + 0.5 * next.weight());
+            return setBracket(bracket, last, last, sum - 0.5 * last.weight());
+        }
+        
+        // Whether the weights add up exactly in any order, i.e. all are multiples of the finest binary digit among them,
+        // and the sums (up to twice the total) fit within the precision of a double...
+        private static boolean isExactSum(final WeightedPoint[] data, final int from, final int to, final double wt) {
+            int lsb = Integer.MAX_VALUE;
+            
+            for(int i=to; --i >= from; ) {
+                if(data[i].isNaN()) continue;
+                final double w = Math.abs(data[i].weight());
+                if(w < Double.MIN_NORMAL || Double.isInfinite(w)) return false;
+                
+                final long mantissa = (Double.doubleToRawLongBits(w) & 0xFFFFFFFFFFFFFL) | 0x10000000000000L;
+                lsb = Math.min(lsb, Math.getExponent(w) - 52 + Long.numberOfTrailingZeros(mantissa));
+            }
+            
+            return Math.getExponent(wt) + 2 <= lsb + 53;
+        }
+        
+        // A work array of at least the specified size, reused by the calling thread. Callers should clear the 
+        // references they placed in it when done...
+        private static WeightedPoint[] getWorkBuffer(final int size) {
+            WeightedPoint[] buffer = workBuffer.get();
+            if(buffer == null || buffer.length < size) {
+                buffer = new WeightedPoint[size];
+                workBuffer.set(buffer);
+            }
+            return buffer;
+        }
+        
+        private static final ThreadLocal<WeightedPoint[]> workBuffer = new ThreadLocal<WeightedPoint[]>();
+        
+        private static final int MIN_SELECT_SIZE = 16;
         
     }
     
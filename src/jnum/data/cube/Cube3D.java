@@ -443,6 +443,30 @@ public abstract class Cube3D extends Data3D implements Image<Index3D> {
         public final void add(int i, int j, int k, Number value) {
            data[i][j][k] += value.doubleValue();
         }
+
+        @Override
+        public final double getDouble(int i, int j, int k) {
+            return data[i][j][k];
+        }
+
+        @Override
+        public final void setDouble(int i, int j, int k, double value) {
+            data[i][j][k] = value;
+        }
+        
+        @Override
+        public final void addDouble(int i, int j, int k, double value) {
+           data[i][j][k] += value;
+        }
+
+        @Override
+        public final boolean isValid(int i, int j, int k) {
+            final double value = data[i][j][k];
+            if(Double.isNaN(value)) return false;
+            final Number blanking = getBlankingValue();
+            if(!(blanking instanceof Double)) return true;
+            return Double.doubleToLongBits(value) != Double.doubleToLongBits(blanking.doubleValue());
+        }
             
         @Override
         public final boolean isValid(Number value) {
@@ -525,6 +549,45 @@ public abstract class Cube3D extends Data3D implements Image<Index3D> {
         public final void add(int i, int j, int k, Number value) {
            data[i][j][k] += value.floatValue();
         }
+
+        @Override
+        public final double getDouble(int i, int j, int k) {
+            return data[i][j][k];
+        }
+
+        @Override
+        public final void setDouble(int i, int j, int k, double value) {
+            data[i][j][k] = (float) value;
+        }
+        
+        @Override
+        public final void addDouble(int i, int j, int k, double value) {
+           data[i][j][k] += (float) value;
+        }
+
+        @Override
+        public final float getFloat(int i, int j, int k) {
+            return data[i][j][k];
+        }
+
+        @Override
+        public final void setFloat(int i, int j, int k, float value) {
+            data[i][j][k] = value;
+        }
+        
+        @Override
+        public final void addFloat(int i, int j, int k, float value) {
+           data[i][j][k] += value;
+        }
+
+        @Override
+        public final boolean isValid(int i, int j, int k) {
+            final float value = data[i][j][k];
+            if(Float.isNaN(value)) return false;
+            final Number blanking = getBlankingValue();
+            if(!(blanking instanceof Float)) return true;
+            return Float.floatToIntBits(value) != Float.floatToIntBits(blanking.floatValue());
+        }
         
            
         @Override
@@ -598,6 +661,21 @@ public abstract class Cube3D extends Data3D implements Image<Index3D> {
         public final void add(int i, int j, int k, Number value) {
            data[i][j][k] += value.longValue();
         }
+
+        @Override
+        public final double getDouble(int i, int j, int k) {
+            return data[i][j][k];
+        }
+
+        @Override
+        public final void setDouble(int i, int j, int k, double value) {
+            data[i][j][k] = (long) value;
+        }
+        
+        @Override
+        public final void addDouble(int i, int j, int k, double value) {
+           data[i][j][k] += (long) value;
+        }
         
   
     }
@@ -663,6 +741,36 @@ public abstract class Cube3D extends Data3D implements Image<Index3D> {
         public final void add(int i, int j, int k, Number value) {
            data[i][j][k] += value.intValue();
         }
+
+        @Override
+        public final double getDouble(int i, int j, int k) {
+            return data[i][j][k];
+        }
+
+        @Override
+        public final void setDouble(int i, int j, int k, double value) {
+            data[i][j][k] = (int) value;
+        }
+        
+        @Override
+        public final void addDouble(int i, int j, int k, double value) {
+           data[i][j][k] += (int) value;
+        }
+
+        @Override
+        public final int getInt(int i, int j, int k) {
+            return data[i][j][k];
+        }
+
+        @Override
+        public final void setInt(int i, int j, int k, int value) {
+            data[i][j][k] = value;
+        }
+        
+        @Override
+        public final void addInt(int i, int j, int k, int value) {
+           data[i][j][k] += value;
+        }
            
  
    
@@ -729,6 +837,21 @@ public abstract class Cube3D extends Data3D implements Image<Index3D> {
         public final void add(int i, int j, int k, Number value) {
            data[i][j][k] += value.shortValue();
         }
+
+        @Override
+        public final double getDouble(int i, int j, int k) {
+            return data[i][j][k];
+        }
+
+        @Override
+        public final void setDouble(int i, int j, int k, double value) {
+            data[i][j][k] = (short) value;
+        }
+        
+        @Override
+        public final void addDouble(int i, int j, int k, double value) {
+           data[i][j][k] += (short) value;
+        }
         
     }
     
@@ -795,6 +918,21 @@ public abstract class Cube3D extends Data3D implements Image<Index3D> {
            data[i][j][k] += value.byteValue();
         }
 
+        @Override
+        public double getDouble(int i, int j, int k) {
+            return data[i][j][k];
+        }
+
+        @Override
+        public void setDouble(int i, int j, int k, double value) {
+            data[i][j][k] = (byte) value;
+        }
+        
+        @Override
+        public void addDouble(int i, int j, int k, double value) {
+           data[i][j][k] += (byte) value;
+        }
+
         
     }
     
@@ -31,7 +31,9 @@ import jnum.PointOp;
 import jnum.Util;
 import jnum.data.CubicSpline;
 import jnum.data.DataCrawler;
+import jnum.data.IndexedValues;
 import jnum.data.RegularData;
+import jnum.data.SeparableKernel;
 import jnum.data.SplineSet;
 import jnum.data.WeightedPoint;
 import jnum.math.IntRange;
@@ -158,6 +160,36 @@ public abstract class Data3D extends RegularData<Index3D, Vector3D> implements V
     @Override
     public final void add(Index3D index, Number value) { add(index.i(), index.j(), index.k(), value); }
 
+    @Override
+    public final double getDouble(Index3D index) { return getDouble(index.i(), index.j(), index.k()); }
+
+    @Override
+    public final void setDouble(Index3D index, double value) { setDouble(index.i(), index.j(), index.k(), value); }
+
+    @Override
+    public final void addDouble(Index3D index, double value) { addDouble(index.i(), index.j(), index.k(), value); }
+
+    @Override
+    public double getDouble(int i, int j, int k) { return get(i, j, k).doubleValue(); }
+
+    @Override
+    public void setDouble(int i, int j, int k, double value) { set(i, j, k, value); }
+
+    @Override
+    public void addDouble(int i, int j, int k, double value) { add(i, j, k, value); }
+
+    public float getFloat(int i, int j, int k) { return (float) getDouble(i, j, k); }
+
+    public void setFloat(int i, int j, int k, float value) { setDouble(i, j, k, value); }
+
+    public void addFloat(int i, int j, int k, float value) { addDouble(i, j, k, value); }
+
+    public int getInt(int i, int j, int k) { return get(i, j, k).intValue(); }
+
+    public void setInt(int i, int j, int k, int value) { set(i, j, k, value); }
+
+    public void addInt(int i, int j, int k, int value) { add(i, j, k, value); }
+
     @Override
     public final void scale(Index3D index, double factor) { scale(index.i(), index.j(), index.k(), factor); }
 
@@ -176,7 +208,7 @@ public abstract class Data3D extends RegularData<Index3D, Vector3D> implements V
     public void clear(int i, int j, int k) { set(i, j, k, 0); }
 
     public void scale(int i, int j, int k, double factor) {
-        set(i, j, k, get(i, j, k).doubleValue() * factor);
+        setDouble(i, j, k, getDouble(i, j, k) * factor);
     }
 
     @Override
@@ -184,6 +216,23 @@ public abstract class Data3D extends RegularData<Index3D, Vector3D> implements V
         return valueAtIndex(ic, jc, kc, null);
     }
 
+    /**
+     * Interpolates the data at a batch of (fractional) indices, in parallel for large batches.
+     * 
+     * @param ic the fractional indices along the first dimension.
+     * @param jc the fractional indices along the second dimension.
+     * @param kc the fractional indices along the third dimension.
+     * @param values the array into which to write the interpolated values (NaN outside of the valid data).
+     */
+    public void valueAtIndex(final double[] ic, final double[] jc, final double[] kc, final double[] values) {
+        new BatchInterpolation(values.length) {
+            @Override
+            protected void process(int i, SplineSet<Vector3D> splines) {
+                values[i] = valueAtIndex(ic[i], jc[i], kc[i], splines);
+            }
+        }.process();
+    }
+
 
     @Override
     public final double valueAtIndex(Vector3D index, SplineSet<Vector3D> splines) {
@@ -211,10 +260,10 @@ public abstract class Data3D extends RegularData<Index3D, Vector3D> implements V
 
         if(!isValid(i, j, k)) return Double.NaN;
 
-        if(i == ic) if(j == jc) if(k == kc) return get(i, j, k).doubleValue();
+        if(i == ic) if(j == jc) if(k == kc) return getDouble(i, j, k);
 
         switch(getInterpolationType()) {
-        case NEAREST : return get(i, j, k).doubleValue();
+        case NEAREST : return getDouble(i, j, k);
         case LINEAR : return linearAtIndex(ic, jc, kc);
         case QUADRATIC : return quadraticAtIndex(ic, jc, kc);
         case SPLINE : return splines == null ? splineAtIndex(ic, jc, kc) : splineAtIndex(ic, jc, kc, splines);
@@ -259,7 +308,7 @@ public abstract class Data3D extends RegularData<Index3D, Vector3D> implements V
 
         for(int k=tok; --k >= k0; ) for(int j=toj; --j >= j0; ) for(int i=toi; --i >= i0; ) if(isValid(i, j, k)) {
             double w = (i == i0 ? (1.0 - di) : di) * (j == j0 ? (1.0 - dj) : dj) * (k == k0 ? (1.0 - dk) : dk);
-            sum += w * get(i, j, k).doubleValue();
+            sum += w * getDouble(i, j, k);
             sumw += w;          
         }
 
@@ -281,7 +330,7 @@ public abstract class Data3D extends RegularData<Index3D, Vector3D> implements V
 
 
     public double splineAtIndex(double ic, double jc, double kc) {
-        synchronized(reuseIpolData) { return splineAtIndex(ic, jc, kc, reuseIpolData); }
+        return splineAtIndex(ic, jc, kc, getLocalSplines());
     }
 
     @Override
@@ -313,7 +362,7 @@ public abstract class Data3D extends RegularData<Index3D, Vector3D> implements V
                 final double wxy = wx * splineY.coefficientAt(j);
                 for(int k=tok; --k >= fromk; ) if(isValid(i, j, k)) {
                     final double w = wxy * splineZ.coefficientAt(k);         
-                    sum += w * get(i, j, k).doubleValue();
+                    sum += w * getDouble(i, j, k);
                     sumw += w;
                 }
             }
@@ -334,6 +383,204 @@ public abstract class Data3D extends RegularData<Index3D, Vector3D> implements V
     }
 
 
+    /**
+     * Gets the separable representation of a beam, if it has one. The beam must be sampled on the same grid as 
+     * this cube, with its reference on a pixel whose value is positive, and be the product of profiles along
+     * <i>x</i>, <i>y</i>, and <i>z</i> (e.g. a Gaussian whose axes are aligned to the grid).
+     * 
+     * @param beam the smoothing beam.
+     * @param refIndex the beam's reference index.
+     * @return the separable beam, or null if the beam is not separable on this grid.
+     */
+    public SeparableKernel getSeparableKernel(final RegularData<Index3D, Vector3D> beam, final Vector3D refIndex) {
+        if(!(beam instanceof Data3D)) return null;
+        final Data3D B = (Data3D) beam;
+
+        final double rx = refIndex.x();
+        final double ry = refIndex.y();
+        final double rz = refIndex.z();
+        final int ci = (int) rx;
+        final int cj = (int) ry;
+        final int ck = (int) rz;
+        if(ci != rx || cj != ry || ck != rz) return null;
+        if(!B.containsIndex(ci, cj, ck)) return null;
+        if(!B.isValid(ci, cj, ck)) return null;
+
+        final double peak = B.getDouble(ci, cj, ck);
+        if(!(peak > 0.0)) return null;
+
+        final double[] px = new double[B.sizeX()];
+        final double[] py = new double[B.sizeY()];
+        final double[] pz = new double[B.sizeZ()];
+
+        for(int i=px.length; --i >= 0; ) px[i] = B.getDouble(i, cj, ck);
+        for(int j=py.length; --j >= 0; ) py[j] = B.getDouble(ci, j, ck) / peak;
+        for(int k=pz.length; --k >= 0; ) pz[k] = B.getDouble(ci, cj, k) / peak;
+
+        final double tolerance = SeparableKernel.GAUSSIAN_TOLERANCE * peak;
+
+        for(int i=px.length; --i >= 0; ) for(int j=py.length; --j >= 0; ) for(int k=pz.length; --k >= 0; ) {
+            if(!B.isValid(i, j, k)) return null;
+            final double value = B.getDouble(i, j, k);
+            if(value < 0.0) return null;
+            if(Math.abs(value - px[i] * py[j] * pz[k]) > tolerance) return null;
+        }
+
+        return new SeparableKernel(new double[][] { px, py, pz }, new int[] { ci, cj, ck }, isRecursiveSmoothing());
+    }
+
+
+    @Override
+    protected Cube3D getSeparableSmoothed(final RegularData<Index3D, Vector3D> beam, final Vector3D refIndex,
+            final IndexedValues<Index3D> weight, final IndexedValues<Index3D> smoothedWeights) {
+
+        if((long) sizeX() * sizeY() * sizeZ() > Integer.MAX_VALUE) return null;
+
+        final SeparableKernel kernel = getSeparableKernel(beam, refIndex);
+        if(kernel == null) return null;
+
+        final int sizeX = sizeX();
+        final int sizeY = sizeY();
+        final int sizeZ = sizeZ();
+        final int sizeYZ = sizeY * sizeZ;
+
+        // The weighted data (u) and the weights (v), with k running fastest...
+        final double[] u = new double[sizeX * sizeYZ];
+        final double[] v = new double[sizeX * sizeYZ];
+
+        final Values3D w = (weight instanceof Values3D) ? (Values3D) weight : null;
+
+        new Fork<Void>() {
+            private Index3D index;
+
+            @Override
+            protected void init() {
+                super.init();
+                if(w == null) index = new Index3D();
+            }
+
+            @Override
+            protected void process(int i, int j, int k) {
+                if(!isValid(i, j, k)) return;
+
+                double wk = 1.0;
+                if(w != null) wk = w.getDouble(i, j, k);
+                else if(weight != null) {
+                    index.set(i, j, k);
+                    wk = weight.getDouble(index);
+                }
+
+                final int l = i * sizeYZ + j * sizeZ + k;
+                u[l] = wk * getDouble(i, j, k);
+                v[l] = Math.abs(wk);
+            }
+        }.process();
+
+        // Convolve along z...
+        new Fork<Void>() {
+            private double[] buffer;
+
+            @Override
+            protected void init() {
+                super.init();
+                buffer = new double[kernel.getBufferSize(2, sizeZ)];
+            }
+
+            @Override
+            protected void process(int i, int j) {
+                final int from = i * sizeYZ + j * sizeZ;
+                kernel.convolve(2, u, from, 1, sizeZ, buffer);
+                kernel.convolve(2, v, from, 1, sizeZ, buffer);
+            }
+
+            @Override
+            protected void process(int i, int j, int k) {}
+
+            @Override
+            protected int getPointOps() { return 2 * kernel.getPointOps(2); }
+        }.process();
+
+        // Convolve along y...
+        new Fork<Void>() {
+            private double[] buffer;
+
+            @Override
+            protected void init() {
+                super.init();
+                buffer = new double[kernel.getBufferSize(1, sizeY)];
+            }
+
+            @Override
+            protected void processX(int i) {
+                for(int k=sizeZ; --k >= 0; ) {
+                    final int from = i * sizeYZ + k;
+                    kernel.convolve(1, u, from, sizeZ, sizeY, buffer);
+                    kernel.convolve(1, v, from, sizeZ, sizeY, buffer);
+                }
+            }
+
+            @Override
+            protected void process(int i, int j, int k) {}
+
+            @Override
+            protected int getPointOps() { return 2 * kernel.getPointOps(1); }
+        }.process();
+
+        // Convolve along x (forking over j)...
+        new Fork<Void>(new Index3D(0, 0, 0), new Index3D(sizeY, 1, 1)) {
+            private double[] buffer;
+
+            @Override
+            protected void init() {
+                super.init();
+                buffer = new double[kernel.getBufferSize(0, sizeX)];
+            }
+
+            @Override
+            protected void processX(int j) {
+                for(int k=sizeZ; --k >= 0; ) {
+                    final int from = j * sizeZ + k;
+                    kernel.convolve(0, u, from, sizeYZ, sizeX, buffer);
+                    kernel.convolve(0, v, from, sizeYZ, sizeX, buffer);
+                }
+            }
+
+            @Override
+            protected void process(int i, int j, int k) {}
+
+            @Override
+            protected int getPointOps() { return 2 * kernel.getPointOps(0); }
+        }.process();
+
+        final Cube3D convolved = newImage();
+
+        new Fork<Void>() {
+            private Index3D index;
+
+            @Override
+            protected void init() {
+                super.init();
+                if(smoothedWeights != null) index = new Index3D();
+            }
+
+            @Override
+            protected void process(int i, int j, int k) {
+                if(!isValid(i, j, k)) return;
+                final int l = i * sizeYZ + j * sizeZ + k;
+                convolved.setDouble(i, j, k, u[l] / v[l]);
+                if(smoothedWeights != null) {
+                    index.set(i, j, k);
+                    smoothedWeights.setDouble(index, v[l]);
+                }
+            }
+        }.process();
+
+        convolved.addHistory("smoothed copy");
+
+        return convolved;
+    }
+
+
     @Override
     protected int getInterpolationOps(int type) {
         switch(type) {
@@ -157,6 +157,6 @@ public class Index3D extends AbstractIndex<Index3D> {
         if(v.size() != dimension()) throw new NonConformingException("Size mismatch " + v.size() + " vs. " + dimension());  
         v.setComponent(0, (double) i);
         v.setComponent(1, (double) j);
-        v.setComponent(3, (double) k);
+        v.setComponent(2, (double) k);
     }
 }
@@ -39,6 +39,12 @@ public interface Values3D extends IndexedValues<Index3D>, Validating3D {
     
     public void set(int i, int j, int k, Number value);
     
+    public double getDouble(int i, int j, int k);
+    
+    public void addDouble(int i, int j, int k, double value);
+    
+    public void setDouble(int i, int j, int k, double value);
+    
     public double valueAtIndex(double i, double j, double k);
    
  
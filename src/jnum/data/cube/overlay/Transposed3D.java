@@ -68,6 +68,21 @@ public class Transposed3D extends Overlay3D {
         super.set(k, j, i, value);
     }
 
+    @Override
+    public double getDouble(int i, int j, int k) {
+        return super.getDouble(k, j, i);
+    }
+
+    @Override
+    public void addDouble(int i, int j, int k, double value) {
+        super.addDouble(k, j, i, value);
+    }
+
+    @Override
+    public void setDouble(int i, int j, int k, double value) {
+        super.setDouble(k, j, i, value);
+    }
+
     @Override
     public double valueAtIndex(double i, double j, double k) {
        return super.valueAtIndex(k, j, i);
@@ -214,6 +214,11 @@ public abstract class AbstractMap2D1<MapType extends Map2D> extends Resizable2D1
     public void smoothXYTo(Gaussian2D psf) {
         for(Map2D plane : getPlanes()) plane.smoothTo(psf);
     }
+
+    // Large beams are applied via FFTs, whose beam spectra are calculated once and reused for all planes...
+    public void smoothXY(Referenced<Index2D, Vector2D> beam) {
+        for(Map2D plane : getPlanes()) plane.smooth(beam);
+    }
     
     public void filterXYAbove(double FWHM) {
         for(Map2D plane : getPlanes()) plane.filterAbove(FWHM);
@@ -248,6 +248,23 @@ public abstract class Data2D1<ImageType extends Data2D> extends Data3D {
         getPlane(k).add(i, j, value);
     }
 
+    @Override
+    public double getDouble(int i, int j, int k) {
+        return getPlane(k).getDouble(i, j);
+    }
+
+
+    @Override
+    public void setDouble(int i, int j, int k, double value) {
+        getPlane(k).setDouble(i, j, value);
+    }
+
+
+    @Override
+    public void addDouble(int i, int j, int k, double value) {
+        getPlane(k).addDouble(i, j, value);
+    }
+
     @Override
     public void scale(int i, int j, int k, double factor) { 
         getPlane(k).scale(i, j, factor);
@@ -398,7 +415,7 @@ public abstract class Data2D1<ImageType extends Data2D> extends Data3D {
                 int n = 0;
                 for(int k=tok; --k >= fromk; ) {
                     final Data2D plane = getPlane(k);
-                    if(plane.isValid(i, j)) sorter[n++] = plane.get(i, j).doubleValue();
+                    if(plane.isValid(i, j)) sorter[n++] = plane.getDouble(i, j);
                 }
                 if(n > 0) sum.set(i,  j, Statistics.Inplace.median(sorter, 0, n));
             }
@@ -457,7 +474,7 @@ public abstract class Data2D1<ImageType extends Data2D> extends Data3D {
                 final double wzx = wz * splineX.coefficientAt(i);
                 for(int j=toj; --j >= fromj; ) if(slice.isValid(i, j)) {
                     final double w = wzx * splineY.coefficientAt(j);         
-                    sum += w * slice.get(i, j).doubleValue();
+                    sum += w * slice.getDouble(i, j);
                     sumw += w;
                 }
             }
@@ -104,7 +104,22 @@ public class Observation2D1 extends AbstractMap2D1<Observation2D> implements Obs
 
             @Override
             public void add(int i, int j, int k, Number value) {
-                set(i, j, k, get(i, j, k).doubleValue() + value.doubleValue());
+                set(i, j, k, getDouble(i, j, k) + value.doubleValue());
+            }
+            
+            @Override
+            public double getDouble(int i, int j, int k) {
+                return getPlane(k).noiseAt(i, j);
+            }
+
+            @Override
+            public void setDouble(int i, int j, int k, double value) {
+                super.setDouble(i, j, k, 1.0 / (value * value));
+            }    
+
+            @Override
+            public void addDouble(int i, int j, int k, double value) {
+                setDouble(i, j, k, getDouble(i, j, k) + value);
             }
 
             @Override
@@ -129,7 +144,22 @@ public class Observation2D1 extends AbstractMap2D1<Observation2D> implements Obs
 
             @Override
             public void add(int i, int j, int k, Number value) {
-                set(i, j, k, get(i, j, k).doubleValue() + value.doubleValue());
+                set(i, j, k, getDouble(i, j, k) + value.doubleValue());
+            }    
+            
+            @Override
+            public double getDouble(int i, int j, int k) {
+                return getPlane(k).significanceAt(i, j);
+            }
+
+            @Override
+            public void setDouble(int i, int j, int k, double value) {
+                super.setDouble(i, j, k, value * getPlane(k).noiseAt(i, j));
+            }  
+
+            @Override
+            public void addDouble(int i, int j, int k, double value) {
+                setDouble(i, j, k, getDouble(i, j, k) + value);
             }    
 
             @Override
@@ -241,7 +271,7 @@ public class Observation2D1 extends AbstractMap2D1<Observation2D> implements Obs
             protected void processPlane(int k) {
                 final Observation2D plane = getPlane(k);
                 for(int i=sizeX(); --i >= 0; ) for(int j=sizeY(); --j >= 0; ) if(plane.isValid(i, j))
-                    ave.accumulateAt(i, j, plane.get(i, j).doubleValue(), 1.0, plane.weightAt(i, j), plane.exposureAt(i, j));                
+                    ave.accumulateAt(i, j, plane.getDouble(i, j), 1.0, plane.weightAt(i, j), plane.exposureAt(i, j));                
             }
         }.process();
 
@@ -280,7 +310,7 @@ public class Observation2D1 extends AbstractMap2D1<Observation2D> implements Obs
                     if(!plane.isValid(i, j)) continue;
                     
                     final WeightedPoint p = sorter[m++];
-                    p.setValue(plane.get(i, j).doubleValue());
+                    p.setValue(plane.getDouble(i, j));
                     p.setWeight(plane.weightAt(i, j));
                     sumt += plane.exposureAt(i, j);
                 }
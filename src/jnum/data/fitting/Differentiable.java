@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved. 
+ * 
+ * This file is part of jnum.
+ * 
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * 
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ * 
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+
+package jnum.data.fitting;
+
+
+/**
+ * A least-squares function that can provide analytic derivatives of its residuals with respect to the parameters
+ * (i.e. its Jacobian), in place of numerical differentiation.
+ */
+public interface Differentiable extends LeastSquares {
+
+    /**
+     * Calculates the derivatives of the residuals with respect to the specified parameters, at the current 
+     * parameter values.
+     *
+     * @param parameters the parameters with respect to which to differentiate.
+     * @param J the array into which to write the derivatives, s.t. J[k][i] is the derivative of the k<sup>th</sup> residual
+     *        with respect to the i<sup>th</sup> parameter.
+     * @return true if the derivatives were calculated, or false if analytic derivatives are not available for some 
+     *        of the parameters (in which case numerical derivatives are used instead).
+     */
+    public boolean getJacobian(Parameter[] parameters, double[][] J);
+
+}
@@ -197,6 +197,30 @@ public class DownhillSimplex extends Minimizer implements Scalable {
 
     }
 
+    /* (non-Javadoc)
+     * @see jnum.data.fitting.Minimizer#fork()
+     */
+    @Override
+    protected DownhillSimplex fork() throws IllegalStateException {
+        DownhillSimplex fork = (DownhillSimplex) super.fork();
+        fork.random = new Random(random.nextLong());
+        return fork;
+    }
+
+    /* (non-Javadoc)
+     * @see jnum.data.fitting.Minimizer#adopt(jnum.data.fitting.Minimizer)
+     */
+    @Override
+    protected synchronized void adopt(Minimizer fork) {
+        DownhillSimplex simplex = (DownhillSimplex) fork;
+        point = simplex.point;
+        value = simplex.value;
+        psum = simplex.psum;
+        ilo = simplex.ilo;
+        ihi = simplex.ihi;
+        steps = simplex.steps;
+    }
+
     /* (non-Javadoc)
      * @see jnum.data.fitting.Minimizer#reset()
      */
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved. 
+ * 
+ * This file is part of jnum.
+ * 
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * 
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ * 
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+
+package jnum.data.fitting;
+
+
+/**
+ * A parametric function that can create independent instances of itself, which depend on replacement copies of the
+ * original parameters. Forks can be evaluated concurrently with one another, and with the original, e.g. for
+ * calculating numerical derivatives in parallel, or for running several minimization attempts at once.
+ *
+ * @param <Type> the generic type of the function value.
+ */
+public interface ForkableParametric<Type> extends Parametric<Type> {
+
+    /**
+     * Creates an independent instance of this function, which evaluates with the replacement parameters in place
+     * of the original ones. Evaluating the fork must not change the state of this function or that of other forks.
+     *
+     * @param parameters the original parameters, some or all of which this function depends on.
+     * @param replacements the parameters to use in the fork, each standing in for the original parameter with the same index.
+     * @return the independent instance of this function.
+     */
+    public Parametric<Type> fork(Parameter[] parameters, Parameter[] replacements);
+
+}
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved. 
+ * 
+ * This file is part of jnum.
+ * 
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * 
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ * 
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+
+package jnum.data.fitting;
+
+
+/**
+ * A chi-squared function that is the sum of squared (normalized) residuals, i.e. chi^2 = sum r<sub>k</sub><sup>2</sup>,
+ * for which {@link LevenbergMarquardt} fits can make use of the individual residuals, rather than just their sum.
+ */
+public interface LeastSquares extends ChiSquared {
+
+    /**
+     * Gets the number of residuals that make up the sum.
+     *
+     * @return the number of residuals.
+     */
+    public int residuals();
+
+    /**
+     * Calculates the normalized residuals (e.g. (data - model) / sigma) at the current parameter values, s.t. their
+     * squared sum is the value returned by {@link #evaluate()}.
+     *
+     * @param r the array into which to write the residuals.
+     */
+    public void getResiduals(double[] r);
+
+}
@@ -0,0 +1,532 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved. 
+ * 
+ * This file is part of jnum.
+ * 
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * 
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ * 
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+
+package jnum.data.fitting;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Random;
+
+import jnum.Util;
+
+
+/**
+ * An implementation of the Levenberg-Marquardt method of minimization. It iterates damped Newton steps, which it
+ * solves from the local gradient and curvature of the function, and adjusts the damping (lambda) between the 
+ * Newton (small lambda) and gradient descent (large lambda) limits, depending on whether the steps improve the fit.
+ * <p>
+ * For functions that implement {@link LeastSquares}, the curvature is estimated as J<sup>T</sup>J from the Jacobian
+ * J of the residuals, which is calculated analytically if the function is {@link Differentiable}, or else via 
+ * numerical differentiation. For other functions the gradient and curvature (Hessian) of the cost function 
+ * (see {@link #getCostFunction()}) are calculated numerically.
+ * <p>
+ * The numerical derivatives for the different parameters are calculated in parallel, when the minimizer is set 
+ * for parallel processing (see {@link #setParallel(int)}), and the function is a {@link ForkableParametric}.
+ */
+public class LevenbergMarquardt extends Minimizer {
+
+    private double[] x;         // The current parameter values...
+
+    private double[] delta;     // The parameter steps for numerical derivatives...
+
+    private double chi2 = Double.NaN;   // The cost function value at x...
+
+    private double lambda;
+
+    private int steps;
+
+    private int maxSteps = DEFAULT_MAXSTEPS;
+
+    private double stepFraction = DEFAULT_STEP_FRACTION;
+
+    private double startScatter = 0.0;
+
+    private Random random;
+
+    private ArrayList<Evaluator> idle;
+
+
+    /**
+     * Instantiates a new Levenberg-Marquardt minimizer for a specified function using a set of variable parameters.
+     *
+     * @param function the parametric function that is to be minimized
+     * @param parameters the parameters to vary during the minimization.
+     */
+    public LevenbergMarquardt(Parametric<Double> function, Collection<? extends Parameter> parameters) {
+        super(function, parameters);
+    }
+
+    /**
+     * Instantiates a new Levenberg-Marquardt minimizer for a specified function using a set of variable parameters.
+     *
+     * @param function the parametric function that is to be minimized
+     * @param parameters the parameters to vary during the minimization.
+     */
+    public LevenbergMarquardt(Parametric<Double> function, Parameter[] parameters) {
+        super(function, parameters);
+    }
+
+    /**
+     * Gets the number of iterations that were required to reach the minimum.
+     *
+     * @return the iterations taken to reach the minimum to the specified precision.
+     */
+    public int getSteps() { return steps; }
+
+    /**
+     * Sets the maximum number of iterations allowed for the minimization, after which {@link #minimize()} 
+     * will throw a {@link ConvergenceException}.
+     *
+     * @param N the maximum number of iterations.
+     */
+    public void setMaxSteps(int N) { maxSteps = N; }
+
+    public int getMaxSteps() { return maxSteps; }
+
+    /**
+     * Sets the parameter offsets used for numerical differentiation, as a fraction of the parameter step sizes
+     * (see {@link Parameter#getStepSize()}).
+     *
+     * @param x the fraction of the parameter step sizes, by which parameters are offset for numerical derivatives.
+     */
+    public void setStepFraction(double x) { stepFraction = x; }
+
+    public double getStepFraction() { return stepFraction; }
+
+    /**
+     * Sets the random scatter of the starting point of each minimization attempt, in units of the parameter step
+     * sizes (see {@link Parameter#getStepSize()}). Scatter is useful when making several attempts 
+     * (see {@link #minimize(int)}) to find the global minimum, since otherwise all attempts start from the 
+     * same point. The default is zero, i.e. the minimization starts from the current parameter values.
+     *
+     * @param x the scatter of the starting parameter values in units of their step size.
+     */
+    public void setStartScatter(double x) { startScatter = x; }
+
+    public double getStartScatter() { return startScatter; }
+
+    /* (non-Javadoc)
+     * @see jnum.data.fitting.Minimizer#init()
+     */
+    @Override
+    protected void init() {
+        super.init();
+        random = new Random();
+    }
+
+    /* (non-Javadoc)
+     * @see jnum.data.fitting.Minimizer#reset()
+     */
+    @Override
+    protected synchronized void reset() {
+        super.reset();
+        steps = 0;
+        chi2 = Double.NaN;
+        lambda = INITIAL_LAMBDA;
+    }
+
+    /* (non-Javadoc)
+     * @see jnum.data.fitting.Minimizer#arm()
+     */
+    @Override
+    protected synchronized void arm() {
+        final int n = parameters();
+
+        x = new double[n];
+        delta = new double[n];
+        idle = new ArrayList<Evaluator>();
+
+        for(int i=n; --i >= 0; ) {
+            final Parameter p = getParameter(i);
+            if(startScatter > 0.0) p.setValue(p.value() + startScatter * p.getStepSize() * random.nextGaussian());
+            x[i] = p.value();
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see jnum.data.fitting.Minimizer#fork()
+     */
+    @Override
+    protected LevenbergMarquardt fork() throws IllegalStateException {
+        LevenbergMarquardt fork = (LevenbergMarquardt) super.fork();
+        fork.random = new Random(random.nextLong());
+        fork.idle = null;
+        return fork;
+    }
+
+    /* (non-Javadoc)
+     * @see jnum.data.fitting.Minimizer#adopt(jnum.data.fitting.Minimizer)
+     */
+    @Override
+    protected synchronized void adopt(Minimizer fork) {
+        LevenbergMarquardt lm = (LevenbergMarquardt) fork;
+        x = lm.x;
+        chi2 = lm.chi2;
+        lambda = lm.lambda;
+        steps = lm.steps;
+    }
+
+    /* (non-Javadoc)
+     * @see jnum.data.fitting.Minimizer#getMinimum()
+     */
+    @Override
+    public double getMinimum() {
+        return chi2;
+    }
+
+    /**
+     * Evaluate the function that is to be minimized at the specified set of parameter values.
+     *
+     * @param values the parameter values to use for the evaluation
+     * @return the function value, including penalties, at the given point in parameter space.
+     */
+    protected double evaluate(double[] values) {
+        setValues(values);
+        return evaluate();
+    }
+
+    private void setValues(double[] values) {
+        for(int i=values.length; --i >= 0; ) getParameter(i).setValue(values[i]);
+    }
+
+    /* (non-Javadoc)
+     * @see jnum.data.fitting.Minimizer#findMinimum()
+     */
+    @Override
+    protected synchronized void findMinimum() throws ConvergenceException {
+        final int n = parameters();
+        final double[][] A = new double[n][n];
+        final double[][] M = new double[n][n];
+        final double[] g = new double[n];
+        final double[] dx = new double[n];
+        final double[] xtry = new double[n];
+
+        chi2 = evaluate(x);
+
+        if(isVerbose()) Util.info(this, "Initial --> " + Util.e6.format(chi2));
+
+        calcDerivatives(A, g);
+
+        while(true) {
+            if(steps >= maxSteps) throw new ConvergenceException("Convergence not achieved in maximum allowed steps.");
+            steps++;
+
+            double maxCurvature = 0.0;
+            for(int i=n; --i >= 0; ) maxCurvature = Math.max(maxCurvature, Math.abs(A[i][i]));
+            if(maxCurvature == 0.0) break;
+
+            // The damped system (A + lambda * diag(A)) dx = -g...
+            final double minCurvature = MIN_RELATIVE_CURVATURE * maxCurvature;
+            for(int i=n; --i >= 0; ) {
+                System.arraycopy(A[i], 0, M[i], 0, n);
+                M[i][i] += lambda * Math.max(Math.abs(A[i][i]), minCurvature);
+                dx[i] = -g[i];
+            }
+
+            if(!solve(M, dx)) {
+                lambda *= LAMBDA_FACTOR;
+                if(lambda > MAX_LAMBDA) break;
+                continue;
+            }
+
+            for(int i=n; --i >= 0; ) xtry[i] = x[i] + dx[i];
+            final double y = evaluate(xtry);
+            final boolean isConverged = isConverged(chi2, y);
+
+            if(y < chi2) {
+                System.arraycopy(xtry, 0, x, 0, n);
+                chi2 = y;
+                lambda = Math.max(MIN_LAMBDA, lambda / LAMBDA_FACTOR);
+                if(isConverged) break;
+                calcDerivatives(A, g);
+            }
+            else {
+                if(isConverged) break;
+                lambda *= LAMBDA_FACTOR;
+                if(lambda > MAX_LAMBDA) break;
+            }
+
+            if(isVerbose()) System.err.print("\r  " + steps + " --> " + Util.e6.format(chi2) + "     ");
+        }
+
+        setValues(x);
+
+        if(isVerbose()) System.err.println("\r " + steps + " --> " + Util.e6.format(chi2) + "     ");
+        if(isVerbose()) Util.info(this, "Final --> " + Util.e6.format(chi2));
+    }
+
+    private boolean isConverged(double a, double b) {
+        final double spread = 2.0 * Math.abs(a - b) / (1e-25 * getPrecision() + Math.abs(a) + Math.abs(b));
+        return spread < getPrecision();
+    }
+
+    // Solves M x = b in place of b, via Cholesky decomposition, returning false if M is not positive definite...
+    private static boolean solve(double[][] M, double[] b) {
+        final int n = b.length;
+
+        for(int i=0; i<n; i++) {
+            final double[] Mi = M[i];
+            for(int j=0; j<=i; j++) {
+                final double[] Mj = M[j];
+                double sum = Mi[j];
+                for(int k=j; --k >= 0; ) sum -= Mi[k] * Mj[k];
+                if(i > j) Mi[j] = sum / Mj[j];
+                else if(sum > 0.0) Mi[i] = Math.sqrt(sum);
+                else return false;
+            }
+        }
+
+        for(int i=0; i<n; i++) {
+            double sum = b[i];
+            for(int k=i; --k >= 0; ) sum -= M[i][k] * b[k];
+            b[i] = sum / M[i][i];
+        }
+
+        for(int i=n; --i >= 0; ) {
+            double sum = b[i];
+            for(int k=i+1; k<n; k++) sum -= M[k][i] * b[k];
+            b[i] = sum / M[i][i];
+        }
+
+        return true;
+    }
+
+    // Calculates A = 1/2 of the Hessian (or J^T J), and g = 1/2 of the gradient (or J^T r) at x...
+    private void calcDerivatives(final double[][] A, final double[] g) {
+        for(int i=parameters(); --i >= 0; ) {
+            delta[i] = stepFraction * Math.abs(getParameter(i).getStepSize());
+            if(!(delta[i] > 0.0)) delta[i] = stepFraction;
+        }
+
+        if(getFunction() instanceof LeastSquares) calcLeastSquaresDerivatives(A, g);
+        else calcCostDerivatives(A, g);
+
+        setValues(x);
+    }
+
+    private void calcLeastSquaresDerivatives(final double[][] A, final double[] g) {
+        final LeastSquares f = (LeastSquares) getFunction();
+        final int m = f.residuals();
+        final int n = parameters();
+
+        final double[] r = new double[m];
+        final double[][] J = new double[m][n];
+
+        setValues(x);
+        f.getResiduals(r);
+
+        boolean isAnalytic = false;
+        if(f instanceof Differentiable) isAnalytic = ((Differentiable) f).getJacobian(getParameters(), J);
+
+        if(!isAnalytic) new ParameterTask() {
+            private double[] rp, rm;
+
+            @Override
+            protected void process(Evaluator e, int i) {
+                if(rp == null) {
+                    rp = new double[m];
+                    rm = new double[m];
+                }
+
+                final Parameter p = e.parameters[i];
+                final double h = delta[i];
+
+                p.setValue(x[i] + h);
+                e.getResiduals(rp);
+                p.setValue(x[i] - h);
+                e.getResiduals(rm);
+                p.setValue(x[i]);
+
+                for(int k=m; --k >= 0; ) J[k][i] = 0.5 * (rp[k] - rm[k]) / h;
+            }
+        }.process();
+
+        for(int i=n; --i >= 0; ) {
+            double sum = 0.0;
+            for(int k=m; --k >= 0; ) sum += J[k][i] * r[k];
+            g[i] = sum;
+
+            for(int j=i+1; --j >= 0; ) {
+                sum = 0.0;
+                for(int k=m; --k >= 0; ) sum += J[k][i] * J[k][j];
+                A[i][j] = A[j][i] = sum;
+            }
+        }
+    }
+
+    private void calcCostDerivatives(final double[][] A, final double[] g) {
+        final double f0 = chi2;
+
+        new ParameterTask() {
+            @Override
+            protected void process(Evaluator e, int i) {
+                final Parameter pi = e.parameters[i];
+                final double hi = delta[i];
+
+                pi.setValue(x[i] + hi);
+                final double fp = e.cost();
+                pi.setValue(x[i] - hi);
+                final double fm = e.cost();
+                pi.setValue(x[i]);
+
+                g[i] = 0.25 * (fp - fm) / hi;
+                A[i][i] = 0.5 * (fp - 2.0 * f0 + fm) / (hi * hi);
+
+                for(int j=i; --j >= 0; ) {
+                    final Parameter pj = e.parameters[j];
+                    final double hj = delta[j];
+
+                    pi.setValue(x[i] + hi);
+                    pj.setValue(x[j] + hj);
+                    double d = e.cost();    // y++
+                    pj.setValue(x[j] - hj);
+                    d -= e.cost();          // y+-
+                    pi.setValue(x[i] - hi);
+                    d += e.cost();          // y--
+                    pj.setValue(x[j] + hj);
+                    d -= e.cost();          // y-+
+
+                    pi.setValue(x[i]);
+                    pj.setValue(x[j]);
+
+                    A[i][j] = A[j][i] = 0.125 * d / (hi * hj);
+                }
+            }
+        }.process();
+    }
+
+    private boolean isForkingDerivatives() {
+        return getParallel() > 1 && parameters() > 1 && isForkable();
+    }
+
+    // The evaluators are pooled under their own lock, since the minimizer is locked while workers acquire them...
+    private Evaluator acquire() {
+        synchronized(idle) { if(!idle.isEmpty()) return idle.remove(idle.size() - 1); }
+        return new Evaluator(isForkingDerivatives());
+    }
+
+    private void release(Evaluator e) {
+        synchronized(idle) { idle.add(e); }
+    }
+
+
+    /* (non-Javadoc)
+     * @see jnum.data.fitting.Minimizer#toString(java.lang.String)
+     */
+    @Override
+    public String toString(String lead) {
+        return super.toString(lead) + "\n  " + lead + (steps < maxSteps ? "converged in " + steps + " steps" : "not converged!");
+    }
+
+
+    // Evaluates the function with either the original parameters, or with a fork of the function on copies...
+    private class Evaluator {
+        private Parameter[] parameters;
+        private Parametric<Double> function;
+        private boolean isFork;
+
+        private Evaluator(boolean isFork) {
+            this.isFork = isFork;
+
+            if(!isFork) {
+                parameters = getParameters();
+                function = getFunction();
+                return;
+            }
+
+            final Parameter[] original = getParameters();
+            parameters = new Parameter[original.length];
+            for(int i=original.length; --i >= 0; ) parameters[i] = original[i].copy();
+
+            @SuppressWarnings("unchecked")
+            ForkableParametric<Double> f = (ForkableParametric<Double>) getFunction();
+            function = f.fork(original, parameters);
+        }
+
+        private void setValues(double[] values) {
+            for(int i=values.length; --i >= 0; ) parameters[i].setValue(values[i]);
+        }
+
+        private double cost() {
+            if(!isFork) return evaluate();
+
+            double penalty = 0.0;
+            for(Parameter p : parameters) penalty += p.penalty();
+            return function.evaluate() * (1.0 + penalty);
+        }
+
+        private void getResiduals(double[] r) {
+            ((LeastSquares) function).getResiduals(r);
+        }
+    }
+
+    // Processes the parameters in parallel, each worker using an evaluator of its own...
+    private abstract class ParameterTask extends Task<Void> {
+        private Evaluator evaluator;
+
+        @Override
+        protected void init() {
+            super.init();
+            evaluator = acquire();
+            evaluator.setValues(x);
+        }
+
+        @Override
+        protected void cleanup() {
+            if(evaluator != null) release(evaluator);
+            evaluator = null;
+            super.cleanup();
+        }
+
+        @Override
+        protected void processChunk(int k, int split) {
+            for(int i=k; i<x.length; i+=split) process(evaluator, i);
+        }
+
+        protected abstract void process(Evaluator e, int i);
+
+        @Override
+        public void process() {
+            if(isForkingDerivatives()) process(Math.min(getParallel(), x.length), getTaskExecutor());
+            else process(1, null);
+        }
+    }
+
+
+    /** The default maximum number of iterations. */
+    public static int DEFAULT_MAXSTEPS = 1000;
+
+    /** The default parameter offset for numerical derivatives, relative to the parameter step sizes. */
+    public static double DEFAULT_STEP_FRACTION = 1e-2;
+
+    private static final double INITIAL_LAMBDA = 1e-3;
+
+    private static final double MIN_LAMBDA = 1e-12;
+
+    private static final double MAX_LAMBDA = 1e16;
+
+    private static final double LAMBDA_FACTOR = 10.0;
+
+    private static final double MIN_RELATIVE_CURVATURE = 1e-12;
+
+}
@@ -30,10 +30,11 @@ import java.util.Collection;
 import jnum.Util;
 import jnum.Verbosity;
 import jnum.data.PrecisionControl;
+import jnum.parallel.ParallelObject;
 
 
 
-public abstract class Minimizer implements PrecisionControl, Verbosity, Penalty {
+public abstract class Minimizer extends ParallelObject implements PrecisionControl, Verbosity, Penalty {
 
     private Parametric<Double> function;
 
@@ -47,10 +48,7 @@ public abstract class Minimizer implements PrecisionControl, Verbosity, Penalty
 
     private ArrayList<Constraint> constraints = new ArrayList<Constraint>();
 
-    private Parametric<Double> costFunction = new Parametric<Double>() {
-        @Override
-        public Double evaluate() { return Minimizer.this.evaluate(); } 
-    };
+    private Parametric<Double> costFunction = createCostFunction();
       
     /**
      * Instantiates a new minimizer for a specified function using a set of variable parameters.
@@ -87,8 +85,19 @@ public abstract class Minimizer implements PrecisionControl, Verbosity, Penalty
         this.function = function;
     }  
     
+    private Parametric<Double> createCostFunction() {
+        return new Parametric<Double>() {
+            @Override
+            public Double evaluate() { return Minimizer.this.evaluate(); } 
+        };
+    }
+    
     public Parameter[] getParameters() { return parameters; }
     
+    /**
+     * Prepares for a minimization attempt, e.g. by setting the starting point. It is called once before each call to
+     * {@link #findMinimum()}, which therefore should not call it again.
+     */
     protected synchronized void arm() {}
     
     /**
@@ -121,12 +130,35 @@ public abstract class Minimizer implements PrecisionControl, Verbosity, Penalty
         minimize(1);
     }
     
+    /**
+     * Minimize using the specified number of attempts, keeping the best result. If the minimizer is set for parallel
+     * processing (see {@link #setParallel(int)}), and it is forkable (see {@link #isForkable()}), the attempts
+     * are run concurrently on independent forks of the minimizer. Either way, each attempt starts from the parameter
+     * values at the time of the call.
+     *
+     * @param attempts the number of minimization attempts
+     * @throws ConvergenceException if none of the attempts converged.
+     */
     public void minimize(int attempts) throws ConvergenceException {
+        if(attempts > 1 && getParallel() > 1 && isForkable()) findBestOf(attempts);
+        else findSequentialBestOf(attempts);
+        
+        try { calcCovarianceMatrix(); }
+        catch(IllegalArgumentException e) {}
+        
+        if(getFunction() instanceof ChiSquared) calcStandardErrors();
+    }
+    
+    private void findSequentialBestOf(int attempts) throws ConvergenceException {
         double min = Double.POSITIVE_INFINITY;
         double[] bestValues = new double[parameters()];
         int successes = 0;
         
+        final double[] startValues = new double[parameters()];
+        for(int p=parameters(); --p >= 0; ) startValues[p] = getParameter(p).value();
+        
         for(int i=0; i<attempts; i++) {
+            if(i > 0) for(int p=parameters(); --p >= 0; ) getParameter(p).setValue(startValues[p]);
             reset();
             arm();
         
@@ -148,19 +180,101 @@ public abstract class Minimizer implements PrecisionControl, Verbosity, Penalty
         if(successes == 0) throw new ConvergenceException(getClass().getSimpleName() + " has not converged in " + attempts + " attempt(s).");
         
         if(attempts > 1) for(int p=parameters(); --p >= 0; ) getParameter(p).setValue(bestValues[p]);
-            
-        try { calcCovarianceMatrix(); }
-        catch(IllegalArgumentException e) {}
+    }
+    
+    private void findBestOf(final int attempts) throws ConvergenceException {
+        final Minimizer[] attempt = new Minimizer[attempts];
+        final double[] minimum = new double[attempts];
         
-        if(getFunction() instanceof ChiSquared) calcStandardErrors();
+        for(int i=attempts; --i >= 0; ) {
+            attempt[i] = fork();
+            minimum[i] = Double.NaN;
+        }
+        
+        new Task<Void>() {
+            @Override
+            protected void processChunk(int i, int split) {
+                for(int k=i; k<attempts; k+=split) {
+                    final Minimizer m = attempt[k];
+                    m.reset();
+                    m.arm();
+                    
+                    try { 
+                        m.findMinimum(); 
+                        minimum[k] = m.getMinimum();
+                    }
+                    catch(ConvergenceException e) {}
+                }
+            }
+        }.process(Math.min(getParallel(), attempts), getTaskExecutor());
+        
+        int best = -1;
+        for(int i=0; i<attempts; i++) if(!Double.isNaN(minimum[i])) if(best < 0 || minimum[i] < minimum[best]) best = i;
+        
+        if(best < 0) throw new ConvergenceException(getClass().getSimpleName() + " has not converged in " + attempts + " attempt(s).");
+        
+        reset();
+        for(int p=parameters(); --p >= 0; ) getParameter(p).setValue(attempt[best].getParameter(p).value());
+        adopt(attempt[best]);
+    }
+    
+    /**
+     * Checks if independent forks of this minimizer (see {@link #fork()}) can be created, e.g. for running 
+     * minimization attempts concurrently. It requires a function that implements {@link ForkableParametric}, 
+     * and no explicit constraints (which refer to the original parameters).
+     *
+     * @return true if the minimizer can be forked.
+     */
+    public boolean isForkable() {
+        return function instanceof ForkableParametric && constraints.isEmpty();
     }
     
+    /**
+     * Creates an independent copy of this minimizer, which works with copies of the parameters, and a fork of the
+     * function (see {@link ForkableParametric}), s.t. it may run concurrently with this minimizer. Forks 
+     * process sequentially. Subclasses that keep references to mutable state should override this method to
+     * provide the fork with its own.
+     *
+     * @return an independent copy of this minimizer.
+     * @throws IllegalStateException if the minimizer cannot be forked.
+     * 
+     * @see #isForkable()
+     */
+    protected Minimizer fork() throws IllegalStateException {
+        if(!isForkable()) throw new IllegalStateException("Minimizer cannot be forked.");
+        
+        final Minimizer fork = (Minimizer) clone();
+        fork.parameters = new Parameter[parameters.length];
+        for(int i=parameters.length; --i >= 0; ) fork.parameters[i] = parameters[i].copy();
+        
+        @SuppressWarnings("unchecked")
+        ForkableParametric<Double> f = (ForkableParametric<Double>) function;
+        fork.function = f.fork(parameters, fork.parameters);
+        fork.constraints = new ArrayList<Constraint>();
+        fork.costFunction = fork.createCostFunction();
+        fork.C = null;
+        fork.noParallel();
+        
+        return fork;
+    }
+    
+    /**
+     * Takes over the result of a concurrent minimization attempt by a fork of this minimizer, s.t. 
+     * {@link #getMinimum()} and the like report the fork's result. The parameters have been set to
+     * the fork's values already when this method is called. Subclasses that support concurrent attempts
+     * should override it.
+     *
+     * @param fork the fork of this minimizer (see {@link #fork()}), which found the best minimum.
+     */
+    protected void adopt(Minimizer fork) {}
+    
     
     /**
      * Initializes the minimizer. This methods is called by the constructors. Subclasses can use it to prepare their
      * own initial states. It calls {@link #reset()} by default.
      */
     protected void init() {
+        setParallel(1);
         setPrecision(DEFAULT_PRECISION);
         reset();
     }
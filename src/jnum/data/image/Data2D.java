@@ -24,12 +24,15 @@
 package jnum.data.image;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import jnum.Constant;
 import jnum.PointOp;
 import jnum.Util;
 import jnum.data.DataPoint;
+import jnum.data.IndexedValues;
 import jnum.data.RegularData;
+import jnum.data.SeparableKernel;
 import jnum.data.SplineSet;
 import jnum.data.DataCrawler;
 import jnum.data.CubicSpline;
@@ -51,6 +54,15 @@ import jnum.util.HashCode;
  */
 public abstract class Data2D extends RegularData<Index2D, Vector2D> implements Values2D {
 
+    // Modification stamps are drawn from a common clock, s.t. they are ordered also among different objects...
+    private static final AtomicLong modificationClock = new AtomicLong();
+    
+    private transient InterpolationCache interpolationCache;
+    
+    private transient volatile long lastModified = modificationClock.incrementAndGet();
+    
+    private transient volatile boolean isStamped = false;
+    
 
     @Override
     public int hashCode() {
@@ -161,9 +173,39 @@ public abstract class Data2D extends RegularData<Index2D, Vector2D> implements V
     @Override
     public final void add(Index2D index, Number value) { add(index.i(), index.j(), value); }
 
+    @Override
+    public final double getDouble(Index2D index) { return getDouble(index.i(), index.j()); }
+
+    @Override
+    public final void setDouble(Index2D index, double value) { setDouble(index.i(), index.j(), value); }
+
+    @Override
+    public final void addDouble(Index2D index, double value) { addDouble(index.i(), index.j(), value); }
+
+    @Override
+    public double getDouble(int i, int j) { return get(i, j).doubleValue(); }
+
+    @Override
+    public void setDouble(int i, int j, double value) { set(i, j, value); }
+
+    @Override
+    public void addDouble(int i, int j, double value) { add(i, j, value); }
+
+    public float getFloat(int i, int j) { return (float) getDouble(i, j); }
+
+    public void setFloat(int i, int j, float value) { setDouble(i, j, value); }
+
+    public void addFloat(int i, int j, float value) { addDouble(i, j, value); }
+
+    public int getInt(int i, int j) { return get(i, j).intValue(); }
+
+    public void setInt(int i, int j, int value) { set(i, j, value); }
+
+    public void addInt(int i, int j, int value) { add(i, j, value); }
+
 
     public void scale(int i, int j, double factor) {
-        set(i, j, get(i, j).doubleValue() * factor);
+        setDouble(i, j, getDouble(i, j) * factor);
     }
 
     @Override
@@ -271,7 +313,7 @@ public abstract class Data2D extends RegularData<Index2D, Vector2D> implements V
 
                 if(r > radialRange.max()) return;
 
-                double p = get(i,j).doubleValue();
+                double p = getDouble(i,j);
 
                 values.m0 += Math.abs(p);
 
@@ -323,16 +365,16 @@ public abstract class Data2D extends RegularData<Index2D, Vector2D> implements V
 
         double a=0.0,b=0.0,c=0.0,d=0.0;
 
-        double y0 = get(i,j).doubleValue();
+        double y0 = getDouble(i,j);
 
         if(i>0) if(i<sizeX()-1) if(isValid(i+1, j)) if(isValid(i-1, j)) {
-            a = 0.5 * (get(i+1,j).doubleValue() + get(i-1,j).doubleValue()) - y0;
-            c = 0.5 * (get(i+1,j).doubleValue() - get(i-1,j).doubleValue());
+            a = 0.5 * (getDouble(i+1,j) + getDouble(i-1,j)) - y0;
+            c = 0.5 * (getDouble(i+1,j) - getDouble(i-1,j));
         }
 
         if(j>0) if(j<sizeY()-1) if(isValid(i, j+1)) if(isValid(i, j-1)) {
-            b = 0.5 * (get(i,j+1).doubleValue() + get(i,j-1).doubleValue()) - y0;
-            d = 0.5 * (get(i,j+1).doubleValue() - get(i,j-1).doubleValue());
+            b = 0.5 * (getDouble(i,j+1) + getDouble(i,j-1)) - y0;
+            d = 0.5 * (getDouble(i,j+1) - getDouble(i,j-1));
         }
 
         double di = (a == 0.0) ? 0.0 : -0.5*c/a;
@@ -361,9 +403,27 @@ public abstract class Data2D extends RegularData<Index2D, Vector2D> implements V
     public double valueAtIndex(double ic, double jc) {
         return valueAtIndex(ic, jc, null);
     }
+    
+    /**
+     * Interpolates the data at a batch of (fractional) indices, in parallel for large batches.
+     * 
+     * @param ic the fractional indices along the first dimension.
+     * @param jc the fractional indices along the second dimension.
+     * @param values the array into which to write the interpolated values (NaN outside of the valid data).
+     */
+    public void valueAtIndex(final double[] ic, final double[] jc, final double[] values) {
+        new BatchInterpolation(values.length) {
+            @Override
+            protected void process(int i, SplineSet<Vector2D> splines) {
+                values[i] = valueAtIndex(ic[i], jc[i], splines);
+            }
+        }.process();
+    }
 
 
     public double valueAtIndex(double ic, double jc, SplineSet<Vector2D> splines) {  
+        if(isInterpolationCaching()) if(getInterpolationType() == SPLINE) return getInterpolationCache().valueAtIndex(ic, jc);
+        
         // The nearest data point (i,j)
         final int i = (int) Math.round(ic);
         final int j = (int) Math.round(jc);
@@ -371,10 +431,10 @@ public abstract class Data2D extends RegularData<Index2D, Vector2D> implements V
         if(!containsIndex(i, j)) return Double.NaN;
         if(!isValid(i, j)) return Double.NaN;
 
-        if(i == ic) if(j == jc) return get(i, j).doubleValue();
+        if(i == ic) if(j == jc) return getDouble(i, j);
 
         switch(getInterpolationType()) {
-        case NEAREST : return get(i, j).doubleValue();
+        case NEAREST : return getDouble(i, j);
         case LINEAR : return linearAtIndex(ic, jc);
         case QUADRATIC : return quadraticAtIndex(ic, jc);
         case SPLINE : return splines == null ? splineAtIndex(ic, jc) : splineAtIndex(ic, jc, splines);
@@ -407,22 +467,22 @@ public abstract class Data2D extends RegularData<Index2D, Vector2D> implements V
 
         if(isValid(i, j)) {
             double w = (1.0 - di) * (1.0 - dj);
-            sum += w * get(i, j).doubleValue();
+            sum += w * getDouble(i, j);
             sumw += w;          
         }
         if(isValid(i+1, j)) {
             double w = di * (1.0 - dj);
-            sum += w * get(i+1, j).doubleValue();
+            sum += w * getDouble(i+1, j);
             sumw += w;  
         }
         if(isValid(i, j+1)) {
             double w = (1.0 - di) * dj;
-            sum += w * get(i, j+1).doubleValue();
+            sum += w * getDouble(i, j+1);
             sumw += w;  
         }
         if(isValid(i+1, j+1)) {
             double w = di * dj;
-            sum += w * get(i+1, j+1).doubleValue();
+            sum += w * getDouble(i+1, j+1);
             sumw += w;  
         }
 
@@ -451,26 +511,26 @@ public abstract class Data2D extends RegularData<Index2D, Vector2D> implements V
         final int i = (int)Math.round(ic);
         final int j = (int)Math.round(jc);
 
-        final double y0 = get(i, j).doubleValue();
+        final double y0 = getDouble(i, j);
         double ax=0.0, ay=0.0, bx=0.0, by=0.0;
 
         if(isValid(i+1,j)) {
             if(isValid(i-1, j)) {
-                ax = 0.5 * (get(i+1, j).doubleValue() + get(i-1, j).doubleValue()) - y0;
-                bx = 0.5 * (get(i+1, j).doubleValue() - get(i-1, j).doubleValue());
+                ax = 0.5 * (getDouble(i+1, j) + getDouble(i-1, j)) - y0;
+                bx = 0.5 * (getDouble(i+1, j) - getDouble(i-1, j));
             }
-            else bx = get(i+1, j).doubleValue() - y0; // Fall back to linear...
+            else bx = getDouble(i+1, j) - y0; // Fall back to linear...
         }
-        else if(isValid(i-1, j)) bx = y0 - get(i-1, j).doubleValue();
+        else if(isValid(i-1, j)) bx = y0 - getDouble(i-1, j);
 
         if(isValid(i,j+1)) {
             if(isValid(i,j-1)) {
-                ay = 0.5 * (get(i, j+1).doubleValue() + get(i, j-1).doubleValue()) - y0;
-                by = 0.5 * (get(i, j+1).doubleValue() - get(i, j-1).doubleValue());
+                ay = 0.5 * (getDouble(i, j+1) + getDouble(i, j-1)) - y0;
+                by = 0.5 * (getDouble(i, j+1) - getDouble(i, j-1));
             }
-            else by = get(i, j+1).doubleValue() - y0; // Fall back to linear...
+            else by = getDouble(i, j+1) - y0; // Fall back to linear...
         }
-        else if(isValid(i,j-1)) by = y0 - get(i, j-1).doubleValue();
+        else if(isValid(i,j-1)) by = y0 - getDouble(i, j-1);
 
         ic -= i;
         jc -= j;
@@ -482,7 +542,7 @@ public abstract class Data2D extends RegularData<Index2D, Vector2D> implements V
     
     
     public double splineAtIndex(final double ic, final double jc) {
-        synchronized(reuseIpolData) { return splineAtIndex(ic, jc, reuseIpolData); }
+        return splineAtIndex(ic, jc, getLocalSplines());
     }
 
     @Override
@@ -492,6 +552,8 @@ public abstract class Data2D extends RegularData<Index2D, Vector2D> implements V
  
     // Performs a bicubic spline interpolation...
     public double splineAtIndex(final double ic, final double jc, SplineSet<Vector2D> splines) {   
+        if(isInterpolationCaching()) return getInterpolationCache().splineAtIndex(ic, jc);
+        
         splines.centerOn(ic, jc);
 
         final CubicSpline splineX = splines.getSpline(0);
@@ -509,7 +571,7 @@ public abstract class Data2D extends RegularData<Index2D, Vector2D> implements V
             final double wx = splineX.coefficientAt(i);
             for(int j=toj; --j >= fromj; ) if(isValid(i, j)) {
                 final double w = wx * splineY.coefficientAt(j);
-                sum += w * get(i, j).doubleValue();
+                sum += w * getDouble(i, j);
                 sumw += w;
             }
         }
@@ -540,6 +602,180 @@ public abstract class Data2D extends RegularData<Index2D, Vector2D> implements V
     }
 
 
+    /**
+     * Gets the separable representation of a beam, if it has one. The beam must be sampled on the same grid as 
+     * this image, with its reference on a pixel whose value is positive, and be the product of a profile along
+     * <i>x</i> and a profile along <i>y</i> (e.g. a Gaussian whose axes are aligned to the grid).
+     * 
+     * @param beam the smoothing beam.
+     * @param refIndex the beam's reference index.
+     * @return the separable beam, or null if the beam is not separable on this grid.
+     */
+    public SeparableKernel getSeparableKernel(final RegularData<Index2D, Vector2D> beam, final Vector2D refIndex) {
+        if(!(beam instanceof Data2D)) return null;
+        final Data2D B = (Data2D) beam;
+
+        final double rx = refIndex.x();
+        final double ry = refIndex.y();
+        final int ci = (int) rx;
+        final int cj = (int) ry;
+        if(ci != rx || cj != ry) return null;
+        if(!B.containsIndex(ci, cj)) return null;
+        if(!B.isValid(ci, cj)) return null;
+
+        final double peak = B.getDouble(ci, cj);
+        if(!(peak > 0.0)) return null;
+
+        final double[] px = new double[B.sizeX()];
+        final double[] py = new double[B.sizeY()];
+
+        for(int i=px.length; --i >= 0; ) px[i] = B.getDouble(i, cj);
+        for(int j=py.length; --j >= 0; ) py[j] = B.getDouble(ci, j) / peak;
+
+        final double tolerance = SeparableKernel.GAUSSIAN_TOLERANCE * peak;
+
+        for(int i=px.length; --i >= 0; ) for(int j=py.length; --j >= 0; ) {
+            if(!B.isValid(i, j)) return null;
+            final double value = B.getDouble(i, j);
+            if(value < 0.0) return null;
+            if(Math.abs(value - px[i] * py[j]) > tolerance) return null;
+        }
+
+        return new SeparableKernel(new double[][] { px, py }, new int[] { ci, cj }, isRecursiveSmoothing());
+    }
+
+
+    @Override
+    protected Image2D getSeparableSmoothed(final RegularData<Index2D, Vector2D> beam, final Vector2D refIndex,
+            final IndexedValues<Index2D> weight, final IndexedValues<Index2D> smoothedWeights) {
+
+        if((long) sizeX() * sizeY() > Integer.MAX_VALUE) return null;
+
+        final SeparableKernel kernel = getSeparableKernel(beam, refIndex);
+        if(kernel == null) return null;
+
+        final int sizeX = sizeX();
+        final int sizeY = sizeY();
+
+        // The weighted data (u) and the weights (v), in row-major order...
+        final double[] u = new double[sizeX * sizeY];
+        final double[] v = new double[sizeX * sizeY];
+
+        final Values2D w = (weight instanceof Values2D) ? (Values2D) weight : null;
+
+        new Fork<Void>() {
+            private Index2D index;
+
+            @Override
+            protected void init() {
+                super.init();
+                if(w == null) index = new Index2D();
+            }
+
+            @Override
+            protected void process(int i, int j) {
+                if(!isValid(i, j)) return;
+
+                double wk = 1.0;
+                if(w != null) wk = w.getDouble(i, j);
+                else if(weight != null) {
+                    index.set(i, j);
+                    wk = weight.getDouble(index);
+                }
+
+                final int k = i * sizeY + j;
+                u[k] = wk * getDouble(i, j);
+                v[k] = Math.abs(wk);
+            }
+        }.process();
+
+        // Convolve along y, i.e. along the rows...
+        new Fork<Void>() {
+            private double[] buffer;
+
+            @Override
+            protected void init() {
+                super.init();
+                buffer = new double[kernel.getBufferSize(1, sizeY)];
+            }
+
+            @Override
+            protected void processX(int i) {
+                kernel.convolve(1, u, i * sizeY, 1, sizeY, buffer);
+                kernel.convolve(1, v, i * sizeY, 1, sizeY, buffer);
+            }
+
+            @Override
+            protected void process(int i, int j) {}
+
+            @Override
+            protected int getPointOps() { return 2 * kernel.getPointOps(1); }
+        }.process();
+
+        // Convolve along x, i.e. along the columns (forking over j)...
+        new Fork<Void>(new Index2D(0, 0), new Index2D(sizeY, 1)) {
+            private double[] buffer;
+
+            @Override
+            protected void init() {
+                super.init();
+                buffer = new double[kernel.getBufferSize(0, sizeX)];
+            }
+
+            @Override
+            protected void processX(int j) {
+                kernel.convolve(0, u, j, sizeY, sizeX, buffer);
+                kernel.convolve(0, v, j, sizeY, sizeX, buffer);
+            }
+
+            @Override
+            protected void process(int i, int j) {}
+
+            @Override
+            protected int getPointOps() { return 2 * kernel.getPointOps(0); }
+        }.process();
+
+        final Image2D convolved = newImage();
+
+        new Fork<Void>() {
+            private Index2D index;
+
+            @Override
+            protected void init() {
+                super.init();
+                if(smoothedWeights != null) index = new Index2D();
+            }
+
+            @Override
+            protected void process(int i, int j) {
+                if(!isValid(i, j)) return;
+                final int k = i * sizeY + j;
+                convolved.setDouble(i, j, u[k] / v[k]);
+                if(smoothedWeights != null) {
+                    index.set(i, j);
+                    smoothedWeights.setDouble(index, v[k]);
+                }
+            }
+        }.process();
+
+        convolved.addHistory("smoothed copy");
+
+        return convolved;
+    }
+
+
+    @Override
+    protected Image2D getFFTSmoothed(final RegularData<Index2D, Vector2D> beam, final Vector2D refIndex,
+            final IndexedValues<Index2D> weight, final IndexedValues<Index2D> smoothedWeights) {
+
+        final long directOps = (long) capacity() * getPointSmoothOps(beam.capacity(), NEAREST);
+        if(FFTConvolver2D.countOps(getSize(), beam.getSize()) >= directOps) return null;
+
+        try { return FFTConvolver2D.getInstance(getSize(), beam, refIndex).convolve(this, weight, smoothedWeights); }
+        catch(IllegalArgumentException e) { return null; }
+    }
+
+
 
 
     @Override
@@ -712,6 +948,137 @@ public abstract class Data2D extends RegularData<Index2D, Vector2D> implements V
 
 
 
+    @Override
+    public void invalidateInterpolationCache() { 
+        interpolationCache = null;
+        lastModified = modificationClock.incrementAndGet();
+    }
+
+    /**
+     * Gets the time stamp of the last modification of the data (or of the data they are derived from), for validating
+     * caches derived from them. Once a stamp has been handed out, the next element write takes a new stamp, which is 
+     * larger than any handed out before (by any object). Otherwise writes leave the stamp unchanged, so they cost
+     * no more than a single read of a flag.
+     * 
+     * @return the modification stamp of the data.
+     */
+    public long getModificationStamp() {
+        if(!isStamped) isStamped = true;
+        return lastModified;
+    }
+
+    /**
+     * Marks the data as modified, for invalidating caches that were derived from them. Implementations should call it 
+     * from every element write.
+     */
+    protected final void markModified() {
+        if(!isStamped) return;
+        isStamped = false;
+        lastModified = modificationClock.incrementAndGet();
+    }
+
+    // The cache is immutable once created, and so it may be published without synchronization...
+    private InterpolationCache getInterpolationCache() {
+        final long stamp = getModificationStamp();
+        InterpolationCache cache = interpolationCache;
+        if(cache == null || cache.stamp != stamp || !cache.isMatching(sizeX(), sizeY())) 
+            interpolationCache = cache = new InterpolationCache(stamp);
+        return cache;
+    }
+
+
+    /**
+     * A flat copy of the image data, with NaN in place of the invalid elements, for the repeated interpolation
+     * of the same image. The bicubic kernel used for spline interpolation is interpolating, and so the data
+     * themselves are its coefficients, with no prefiltering needed. Interpolations from the cache produce the
+     * same results as those from the image itself.
+     */
+    private final class InterpolationCache {
+        private final long stamp;
+        private final int sizeX, sizeY;
+        private final double[] data;
+
+        private InterpolationCache(long stamp) {
+            this.stamp = stamp;
+            sizeX = sizeX();
+            sizeY = sizeY();
+            data = new double[sizeX * sizeY];
+
+            new Fork<Void>() {
+                @Override
+                protected void process(int i, int j) {
+                    data[i * sizeY + j] = isValid(i, j) ? getDouble(i, j) : Double.NaN;
+                }
+            }.process();
+        }
+
+        private boolean isMatching(int sizeX, int sizeY) {
+            return sizeX == this.sizeX && sizeY == this.sizeY;
+        }
+
+        private double valueAtIndex(final double ic, final double jc) {
+            final int i = (int) Math.round(ic);
+            final int j = (int) Math.round(jc);
+
+            if(i < 0 || i >= sizeX || j < 0 || j >= sizeY) return Double.NaN;
+
+            final double value = data[i * sizeY + j];
+            if(Double.isNaN(value)) return Double.NaN;
+
+            if(i == ic) if(j == jc) return value;
+
+            return splineAtIndex(ic, jc);
+        }
+
+        // The same bicubic spline convolution as in the image, element for element...
+        private double splineAtIndex(final double ic, final double jc) {
+            final int i0 = (int) Math.floor(ic - 1.0);
+            final int j0 = (int) Math.floor(jc - 1.0);
+            final double di = ic - i0;
+            final double dj = jc - j0;
+
+            final int fromi = Math.max(0, i0);
+            final int toi = Math.min(sizeX, i0 + 4);
+
+            final int fromj = Math.max(0, j0);
+            final int toj = Math.min(sizeY, j0 + 4);
+
+            final double wy0 = CubicSpline.valueFor(-dj), wy1 = CubicSpline.valueFor(1 - dj);
+            final double wy2 = CubicSpline.valueFor(2 - dj), wy3 = CubicSpline.valueFor(3 - dj);
+
+            final boolean isInterior = fromj == j0 && toj == j0 + 4;
+
+            double sum = 0.0, sumw = 0.0;
+            for(int i=toi; --i >= fromi; ) {
+                final double wx = CubicSpline.valueFor(i - i0 - di);
+                final int offset = i * sizeY + j0;
+
+                if(isInterior) {
+                    // Unrolled, but in the same order as the loop below...
+                    double value = data[offset + 3];
+                    if(!Double.isNaN(value)) { final double w = wx * wy3; sum += w * value; sumw += w; }
+                    value = data[offset + 2];
+                    if(!Double.isNaN(value)) { final double w = wx * wy2; sum += w * value; sumw += w; }
+                    value = data[offset + 1];
+                    if(!Double.isNaN(value)) { final double w = wx * wy1; sum += w * value; sumw += w; }
+                    value = data[offset];
+                    if(!Double.isNaN(value)) { final double w = wx * wy0; sum += w * value; sumw += w; }
+                }
+                else for(int k=toj-j0; --k >= fromj-j0; ) {
+                    final double value = data[offset + k];
+                    if(!Double.isNaN(value)) {
+                        final double w = wx * (k == 0 ? wy0 : k == 1 ? wy1 : k == 2 ? wy2 : wy3);
+                        sum += w * value;
+                        sumw += w;
+                    }
+                }
+            }
+
+            return sum / sumw;
+        }
+    }
+
+
     public abstract class Fork<ReturnType> extends AbstractFork<ReturnType> {                   
         public Fork() {}
         
@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved.
+ *
+ * This file is part of jnum.
+ *
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+
+package jnum.data.image;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+
+import jnum.ExtraMath;
+import jnum.data.IndexedValues;
+import jnum.data.RegularData;
+import jnum.fft.FFT;
+import jnum.fft.MultiFFT;
+import jnum.math.Vector2D;
+
+
+/**
+ * Weighted (normalized) convolution of images of a given size with a given beam, via FFTs. The result is the same as
+ * that of {@link RegularData#getSmoothed(RegularData, jnum.math.TrueVector, IndexedValues, IndexedValues)}, i.e.
+ * sum(wBI)/sum(|wB|) over the valid pixels under the beam, to within the round-off errors of the transforms. The
+ * images are zero-padded to at least the sum of the image and beam sizes, s.t. there is no wrap-around.
+ * <p>
+ * The beam spectra are calculated once, when the convolver is created, and so the same convolver can smooth
+ * any number of images (e.g. the planes of a cube) of the same size, at the cost of just the transforms of the
+ * data and weights. The most recently used convolver is also retained by {@link #getInstance(Index2D, RegularData, Vector2D)},
+ * s.t. repeated smoothing with identical beams will reuse it automatically.
+ *
+ * @author Attila Kovacs <attila[AT]sigmyne.com>
+ *
+ */
+public class FFTConvolver2D {
+    private int sizeX, sizeY;
+    private int nx, ny;
+    private int fromi, fromj;
+    private double[][] kernel;
+    private double[][] beamSpectrum, absBeamSpectrum;
+
+
+    /**
+     * Instantiates a new convolver for images of the given size with the given beam. The kernel is the beam
+     * sampled at integer offsets from its reference index (interpolating as necessary).
+     *
+     * @param size the size of the images to smooth.
+     * @param beam the smoothing beam.
+     * @param refIndex the beam's reference index.
+     * @throws IllegalArgumentException if the beam has invalid points.
+     */
+    public FFTConvolver2D(Index2D size, RegularData<Index2D, Vector2D> beam, Vector2D refIndex) throws IllegalArgumentException {
+        this(size, sampleKernel(beam, refIndex), getKernelOffset(refIndex.x()), getKernelOffset(refIndex.y()));
+    }
+
+    private FFTConvolver2D(Index2D size, double[][] kernel, int fromi, int fromj) {
+        this.sizeX = size.i();
+        this.sizeY = size.j();
+        this.kernel = kernel;
+        this.fromi = fromi;
+        this.fromj = fromj;
+
+        nx = getPaddedSize(sizeX, kernel.length);
+        ny = getPaddedSize(sizeY, kernel[0].length);
+
+        boolean isPositive = true;
+        for(int i=kernel.length; --i >= 0; ) for(int j=kernel[0].length; --j >= 0; ) if(kernel[i][j] < 0.0) isPositive = false;
+
+        beamSpectrum = getSpectrum(false);
+        absBeamSpectrum = isPositive ? beamSpectrum : getSpectrum(true);
+    }
+
+    public final int sizeX() { return sizeX; }
+
+    public final int sizeY() { return sizeY; }
+
+    /**
+     * Checks if this convolver can be used for smoothing the specified image.
+     *
+     * @param image the image to smooth
+     * @return true if the image has the size for which this convolver was created.
+     */
+    public boolean isApplicableTo(Data2D image) {
+        return image.sizeX() == sizeX && image.sizeY() == sizeY;
+    }
+
+    // The kernel, reversed, and wrapped around the origin, transformed without normalization...
+    private double[][] getSpectrum(boolean isAbsolute) {
+        final double[][] h = new double[nx][ny + 2];
+
+        for(int i=kernel.length; --i >= 0; ) {
+            final int i1 = (nx - i - fromi) & (nx - 1);
+            for(int j=kernel[0].length; --j >= 0; ) {
+                final double value = kernel[i][j];
+                h[i1][(ny - j - fromj) & (ny - 1)] = isAbsolute ? Math.abs(value) : value;
+            }
+        }
+
+        new MultiFFT().realTransform(h, FFT.FORWARD);
+        return h;
+    }
+
+    /**
+     * Smooths an image with the beam of this convolver.
+     *
+     * @param image the image to smooth.
+     * @param weight the pixel weights, or null for uniform weights.
+     * @param smoothedWeights the values into which to write the smoothed weights, or null.
+     * @return the smoothed image.
+     * @throws IllegalArgumentException if the image does not have the size for which this convolver was created.
+     */
+    public Image2D convolve(final Data2D image, final IndexedValues<Index2D> weight, final IndexedValues<Index2D> smoothedWeights)
+            throws IllegalArgumentException {
+
+        if(!isApplicableTo(image)) throw new IllegalArgumentException("Image size mismatch: " + image.getSizeString() + " vs. " + sizeX + "x" + sizeY);
+
+        // The weighted data (u) and the weights (v)...
+        final double[][] u = new double[nx][ny + 2];
+        final double[][] v = new double[nx][ny + 2];
+
+        final Values2D w = (weight instanceof Values2D) ? (Values2D) weight : null;
+
+        image.new Fork<Void>() {
+            private Index2D index;
+
+            @Override
+            protected void init() {
+                super.init();
+                if(w == null) index = new Index2D();
+            }
+
+            @Override
+            protected void process(int i, int j) {
+                if(!image.isValid(i, j)) return;
+
+                double wk = 1.0;
+                if(w != null) wk = w.getDouble(i, j);
+                else if(weight != null) {
+                    index.set(i, j);
+                    wk = weight.getDouble(index);
+                }
+
+                u[i][j] = wk * image.getDouble(i, j);
+                v[i][j] = Math.abs(wk);
+            }
+        }.process();
+
+        final MultiFFT fft = new MultiFFT(image);
+        fft.setParallel(image.getParallel());
+
+        fft.real2Amplitude(u);
+        fft.real2Amplitude(v);
+
+        multiply(u, beamSpectrum);
+        multiply(v, absBeamSpectrum);
+
+        fft.amplitude2Real(u);
+        fft.amplitude2Real(v);
+
+        final Image2D convolved = image.newImage();
+
+        image.new Fork<Void>() {
+            private Index2D index;
+
+            @Override
+            protected void init() {
+                super.init();
+                if(smoothedWeights != null) index = new Index2D();
+            }
+
+            @Override
+            protected void process(int i, int j) {
+                if(!image.isValid(i, j)) return;
+                convolved.setDouble(i, j, u[i][j] / v[i][j]);
+                if(smoothedWeights != null) {
+                    index.set(i, j);
+                    smoothedWeights.setDouble(index, v[i][j]);
+                }
+            }
+        }.process();
+
+        convolved.addHistory("smoothed copy (FFT)");
+
+        return convolved;
+    }
+
+    // Complex multiplication of the unrolled real spectra...
+    private void multiply(final double[][] spectrum, final double[][] h) {
+        for(int i=nx; --i >= 0; ) {
+            final double[] a = spectrum[i];
+            final double[] b = h[i];
+
+            for(int j=ny; j >= 0; j -= 2) {
+                final double re = a[j] * b[j] - a[j+1] * b[j+1];
+                a[j+1] = a[j] * b[j+1] + a[j+1] * b[j];
+                a[j] = re;
+            }
+        }
+    }
+
+    private boolean isMatching(int sizeX, int sizeY, double[][] kernel, int fromi, int fromj) {
+        if(sizeX != this.sizeX || sizeY != this.sizeY) return false;
+        if(fromi != this.fromi || fromj != this.fromj) return false;
+        if(kernel.length != this.kernel.length) return false;
+        for(int i=kernel.length; --i >= 0; ) if(!Arrays.equals(kernel[i], this.kernel[i])) return false;
+        return true;
+    }
+
+
+    // The first integer offset (from the beam reference) that is inside the beam...
+    private static int getKernelOffset(double ref) {
+        return (int) Math.ceil(-ref);
+    }
+
+    private static double[][] sampleKernel(RegularData<Index2D, Vector2D> beam, Vector2D refIndex) throws IllegalArgumentException {
+        final Index2D beamSize = beam.getSize();
+        final double rx = refIndex.x();
+        final double ry = refIndex.y();
+
+        final int fromi = getKernelOffset(rx);
+        final int fromj = getKernelOffset(ry);
+        final int toi = (int) Math.floor(-rx) + beamSize.i();
+        final int toj = (int) Math.floor(-ry) + beamSize.j();
+
+        if(toi <= fromi || toj <= fromj) throw new IllegalArgumentException("Empty beam.");
+
+        final double[][] kernel = new double[toi - fromi][toj - fromj];
+        final Vector2D delta = new Vector2D();
+
+        for(int i=kernel.length; --i >= 0; ) for(int j=kernel[0].length; --j >= 0; ) {
+            delta.set(fromi + i + rx, fromj + j + ry);
+            final double value = beam.valueAtIndex(delta);
+            if(Double.isNaN(value) || Double.isInfinite(value)) throw new IllegalArgumentException("Invalid beam value at " + delta);
+            kernel[i][j] = value;
+        }
+
+        return kernel;
+    }
+
+    private static int getPaddedSize(int size, int kernelSize) {
+        return Math.max(2, ExtraMath.pow2ceil(size + kernelSize - 1));
+    }
+
+
+    /**
+     * Gets the approximate number of operations for smoothing an image via FFTs, for comparison with
+     * the operation count of direct convolution ({@link Data2D#getPointSmoothOps(int, int)} per pixel).
+     *
+     * @param size the image size
+     * @param beamSize the beam size
+     * @return the approximate operation count.
+     */
+    public static long countOps(Index2D size, Index2D beamSize) {
+        final long n = (long) getPaddedSize(size.i(), beamSize.i()) * getPaddedSize(size.j(), beamSize.j());
+        final int bits = 64 - Long.numberOfLeadingZeros(n - 1);
+
+        // 4 real transforms (~2.5 n log2(n) each), 2 spectral products, plus the filling and reading of the images...
+        return 10L * n * bits + 12L * n + 40L * size.i() * size.j();
+    }
+
+
+    /**
+     * Gets a convolver for the given image size and beam, reusing the previously returned instance if it was
+     * created for the same size and the same beam samples. The reused instance is held only softly, so it does
+     * not keep its (image-sized) buffers from being reclaimed when memory runs low.
+     *
+     * @param size the size of the images to smooth.
+     * @param beam the smoothing beam.
+     * @param refIndex the beam's reference index.
+     * @return a matching convolver.
+     * @throws IllegalArgumentException if the beam has invalid points.
+     */
+    public static FFTConvolver2D getInstance(Index2D size, RegularData<Index2D, Vector2D> beam, Vector2D refIndex) throws IllegalArgumentException {
+        final double[][] kernel = sampleKernel(beam, refIndex);
+        final int fromi = getKernelOffset(refIndex.x());
+        final int fromj = getKernelOffset(refIndex.y());
+
+        synchronized(FFTConvolver2D.class) {
+            final FFTConvolver2D last = lastUsed == null ? null : lastUsed.get();
+            if(last != null) if(last.isMatching(size.i(), size.j(), kernel, fromi, fromj)) return last;
+        }
+
+        final FFTConvolver2D convolver = new FFTConvolver2D(size, kernel, fromi, fromj);
+
+        synchronized(FFTConvolver2D.class) { lastUsed = new SoftReference<FFTConvolver2D>(convolver); }
+
+        return convolver;
+    }
+
+    private static SoftReference<FFTConvolver2D> lastUsed;
+
+}
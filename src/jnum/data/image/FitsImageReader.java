@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved.
+ *
+ * This file is part of jnum.
+ *
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+
+package jnum.data.image;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jnum.Unit;
+import jnum.fits.FitsToolkit;
+import jnum.math.Vector2D;
+import nom.tam.fits.FitsException;
+import nom.tam.fits.Header;
+import nom.tam.util.BufferedFile;
+
+
+/**
+ * Reads rectangular regions of (possibly very large) FITS images, without reading the full image into memory. The
+ * data unit of the image HDU is memory-mapped, and only the requested regions are materialized into {@link Image2D}
+ * or {@link Map2D} objects, with the coordinate grid of maps shifted to the region. Alternatively, the image may be
+ * accessed by fixed-size tiles on demand, with the most recently used tiles cached, e.g. for serving many small cutouts
+ * from the same image.
+ * <p>
+ * Like {@link Image2D#read(nom.tam.fits.Fits, int)}, the image values are read raw (without applying BZERO / BSCALE),
+ * and are scaled by the data unit specified in the header. Only the first plane is accessible in images with more than
+ * 2 dimensions. Compressed images are not supported.
+ * 
+ * @author Attila Kovacs <attila[AT]sigmyne.com>
+ *
+ */
+public class FitsImageReader {
+    private File file;
+    private int hduIndex;
+    private Header header;
+    
+    private int bitpix, bytes;
+    private int sizeX, sizeY;
+    
+    // Each segment maps whole rows of the image...
+    private ByteBuffer[] segments;
+    private int rowsPerSegment;
+    
+    private int tileSize = DEFAULT_TILE_SIZE;
+    private Map<Long, Image2D> tiles;
+    private int maxTiles = DEFAULT_CACHED_TILES;
+    
+    
+    /**
+     * Instantiates a new reader for the image in the specified HDU of a FITS file.
+     * 
+     * @param file the FITS file
+     * @param hduIndex the index of the image HDU in the file (0 for the primary HDU).
+     * @throws IOException if the file could not be read or mapped.
+     * @throws FitsException if the file does not have an uncompressed image with at least 2 dimensions in the specified HDU.
+     */
+    public FitsImageReader(File file, int hduIndex) throws IOException, FitsException {
+        this.file = file;
+        this.hduIndex = hduIndex;
+        
+        final long offset = readHeader();
+        
+        if(header.getBooleanValue("ZIMAGE", false)) throw new FitsException("Compressed images are not supported.");
+        if(header.getIntValue("NAXIS", 0) < 2) throw new FitsException("HDU " + hduIndex + " is not a 2D image.");
+        
+        bitpix = header.getIntValue("BITPIX");
+        bytes = Math.abs(bitpix) >>> 3;
+        sizeX = header.getIntValue("NAXIS1");
+        sizeY = header.getIntValue("NAXIS2");
+        
+        if(Image2D.createBitpixType(bitpix) == null) throw new FitsException("Unsupported BITPIX: " + bitpix);
+        
+        map(offset);
+        
+        tiles = new LinkedHashMap<Long, Image2D>(16, 0.75F, true) {
+            private static final long serialVersionUID = -2154780212961693409L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Image2D> eldest) { return size() > maxTiles; }
+        };
+    }
+    
+    // Reads the header of the HDU, and returns the file offset of its data unit...
+    private long readHeader() throws IOException, FitsException {
+        final BufferedFile in = new BufferedFile(file, "r");
+        
+        try {
+            for(int k=0; ; k++) {
+                header = Header.readHeader(in);
+                if(header == null) throw new FitsException("No HDU " + hduIndex + " in " + file.getName());
+                
+                final long offset = in.getFilePointer();
+                if(k == hduIndex) return offset;
+                in.seek(offset + header.getDataSize());
+            }
+        }
+        finally { in.close(); }
+    }
+    
+    private void map(long offset) throws IOException {
+        final long rowBytes = (long) sizeX * bytes;
+        rowsPerSegment = (int) Math.max(1, Math.min(sizeY, Integer.MAX_VALUE / Math.max(1, rowBytes)));
+        segments = new ByteBuffer[(sizeY + rowsPerSegment - 1) / rowsPerSegment];
+        
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        
+        // The mappings remain valid after the channel is closed...
+        try {
+            final FileChannel channel = raf.getChannel();
+            for(int k=0; k<segments.length; k++) {
+                final int rows = Math.min(rowsPerSegment, sizeY - k * rowsPerSegment);
+                segments[k] = channel.map(FileChannel.MapMode.READ_ONLY, offset + k * rowsPerSegment * rowBytes, rows * rowBytes);
+                segments[k].order(ByteOrder.BIG_ENDIAN);
+            }
+        }
+        finally { raf.close(); }
+    }
+    
+    public final File getFile() { return file; }
+    
+    public final int getHDUIndex() { return hduIndex; }
+    
+    public final Header getHeader() { return header; }
+    
+    public final int getBitpix() { return bitpix; }
+    
+    public final int sizeX() { return sizeX; }
+    
+    public final int sizeY() { return sizeY; }
+    
+    
+    /**
+     * Reads a rectangular region of the image. The region is clipped to the image bounds.
+     * 
+     * @param from the image index of the first pixel (inclusive) in the region.
+     * @param to the image index of the last pixel (exclusive) in the region.
+     * @return a new image with the contents of the region, in the element type matching the FITS BITPIX.
+     */
+    public Image2D readRegion(Index2D from, Index2D to) {
+        return readRegion(from, to, null);
+    }
+    
+    /**
+     * Reads a rectangular region of the image. The region is clipped to the image bounds.
+     * 
+     * @param from the image index of the first pixel (inclusive) in the region.
+     * @param to the image index of the last pixel (exclusive) in the region.
+     * @param extraUnits additional units, which may be used for the image data, or null.
+     * @return a new image with the contents of the region, in the element type matching the FITS BITPIX.
+     */
+    public Image2D readRegion(Index2D from, Index2D to, Map<String, Unit> extraUnits) {
+        final int fromi = Math.max(0, from.i());
+        final int fromj = Math.max(0, from.j());
+        final int toi = Math.min(sizeX, to.i());
+        final int toj = Math.min(sizeY, to.j());
+        
+        if(toi <= fromi || toj <= fromj) throw new IllegalArgumentException("Empty region " + from + " : " + to);
+        
+        final Image2D image = Image2D.createBitpixType(bitpix);
+        image.parseHeader(header, extraUnits);
+        image.setSize(toi - fromi, toj - fromj);
+        
+        // Along rows, in the order of the data in the file...
+        for(int j=fromj; j<toj; j++) {
+            final ByteBuffer buf = segments[j / rowsPerSegment];
+            final int jj = j - fromj;
+            int pos = ((j % rowsPerSegment) * sizeX + fromi) * bytes;
+            
+            switch(bitpix) {
+            case FitsToolkit.BITPIX_DOUBLE: 
+                for(int i=0; i<image.sizeX(); i++, pos += bytes) image.setDouble(i, jj, buf.getDouble(pos)); 
+                break;
+            case FitsToolkit.BITPIX_FLOAT: 
+                for(int i=0; i<image.sizeX(); i++, pos += bytes) image.setFloat(i, jj, buf.getFloat(pos)); 
+                break;
+            case FitsToolkit.BITPIX_LONG: 
+                for(int i=0; i<image.sizeX(); i++, pos += bytes) image.set(i, jj, buf.getLong(pos)); 
+                break;
+            case FitsToolkit.BITPIX_INT: 
+                for(int i=0; i<image.sizeX(); i++, pos += bytes) image.setInt(i, jj, buf.getInt(pos)); 
+                break;
+            case FitsToolkit.BITPIX_SHORT: 
+                for(int i=0; i<image.sizeX(); i++, pos += bytes) image.setDouble(i, jj, buf.getShort(pos)); 
+                break;
+            case FitsToolkit.BITPIX_BYTE: 
+                for(int i=0; i<image.sizeX(); i++, pos += bytes) image.setDouble(i, jj, buf.get(pos)); 
+                break;
+            }
+        }
+        
+        image.addHistory("read [" + fromi + ":" + toi + ", " + fromj + ":" + toj + "] from " + file.getName());
+        image.scale(image.getUnit().value());
+        
+        return image;
+    }
+    
+    /**
+     * Reads a rectangular region of the image as a map, whose coordinate grid is referenced to the region.
+     * The region is clipped to the image bounds.
+     * 
+     * @param from the image index of the first pixel (inclusive) in the region.
+     * @param to the image index of the last pixel (exclusive) in the region.
+     * @param flagType the type of the flags for the map, e.g. {@link Flag2D#TYPE_INT}.
+     * @return a new map with the contents of the region.
+     */
+    public Map2D readMap(Index2D from, Index2D to, int flagType) {
+        final Map2D map = new Map2D(readRegion(from, to), flagType);
+        map.parseHeader(header);
+        
+        final Vector2D refIndex = map.getGrid().getReferenceIndex();
+        refIndex.subtractX(Math.max(0, from.i()));
+        refIndex.subtractY(Math.max(0, from.j()));
+        
+        return map;
+    }
+    
+    
+    public final int getTileSize() { return tileSize; }
+    
+    /**
+     * Sets the size of the tiles in which the image is accessed by {@link #getTile(int, int)}. Tiles cached
+     * previously are discarded.
+     * 
+     * @param pixels the tile size (in both directions).
+     */
+    public synchronized void setTileSize(int pixels) {
+        if(pixels <= 0) throw new IllegalArgumentException("Tile size must be positive.");
+        tileSize = pixels;
+        tiles.clear();
+    }
+    
+    public final int getMaxCachedTiles() { return maxTiles; }
+    
+    public synchronized void setMaxCachedTiles(int n) {
+        maxTiles = Math.max(1, n);
+        while(tiles.size() > maxTiles) tiles.remove(tiles.keySet().iterator().next());
+    }
+    
+    public final int tilesX() { return (sizeX + tileSize - 1) / tileSize; }
+    
+    public final int tilesY() { return (sizeY + tileSize - 1) / tileSize; }
+    
+    /**
+     * Gets a tile of the image, which is read on demand, and retained for reuse until it becomes the least
+     * recently used, after the maximum number of tiles is cached. Tiles at the top and right edges of the image 
+     * may be smaller than the tile size. The returned tiles are shared, and should not be modified.
+     * 
+     * @param ti the tile index along x (i.e. the tile containing pixel indices ti * tileSize onwards).
+     * @param tj the tile index along y.
+     * @return the image tile.
+     */
+    public synchronized Image2D getTile(int ti, int tj) {
+        if(ti < 0 || ti >= tilesX() || tj < 0 || tj >= tilesY()) throw new IndexOutOfBoundsException("No tile " + ti + "," + tj);
+        
+        final Long key = (long) ti * tilesY() + tj;
+        Image2D tile = tiles.get(key);
+        
+        if(tile == null) {
+            tile = readRegion(new Index2D(ti * tileSize, tj * tileSize), new Index2D((ti + 1) * tileSize, (tj + 1) * tileSize));
+            tiles.put(key, tile);
+        }
+        
+        return tile;
+    }
+    
+    /**
+     * Gets the value of a pixel, via the cached tile containing it.
+     * 
+     * @param i the pixel index along x.
+     * @param j the pixel index along y.
+     * @return the pixel value, as stored in the image tiles (i.e. scaled by the data unit).
+     */
+    public double getDouble(int i, int j) {
+        return getTile(i / tileSize, j / tileSize).getDouble(i % tileSize, j % tileSize);
+    }
+    
+    
+    /** The default size of tiles (in both directions) for tiled access. */
+    public static final int DEFAULT_TILE_SIZE = 256;
+    
+    /** The default number of the most recently used tiles that are cached. */
+    public static final int DEFAULT_CACHED_TILES = 64;
+}
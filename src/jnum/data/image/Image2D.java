@@ -23,6 +23,7 @@
 
 package jnum.data.image;
 
+import java.io.File;
 import java.util.Hashtable;
 import java.util.Map;
 
@@ -384,6 +385,22 @@ public abstract class Image2D extends Data2D implements Image<Index2D> {
         image.read(hdu, extraUnits);
         return image;
     }
+    
+    /**
+     * Reads a rectangular region of a FITS image, without reading the rest of the image.
+     * 
+     * @param file the FITS file
+     * @param hduIndex the index of the image HDU in the file.
+     * @param from the image index of the first pixel (inclusive) in the region.
+     * @param to the image index of the last pixel (exclusive) in the region.
+     * @return the region of the image.
+     * @throws Exception if the image could not be read.
+     * 
+     * @see FitsImageReader
+     */
+    public static Image2D readRegion(File file, int hduIndex, Index2D from, Index2D to) throws Exception {
+        return new FitsImageReader(file, hduIndex).readRegion(from, to);
+    }
 
     
 
@@ -446,13 +463,41 @@ public abstract class Image2D extends Data2D implements Image<Index2D> {
 
         @Override
         public final void set(int i, int j, Number value) {
+            markModified();
             data[i][j] = value.doubleValue();
         }
         
         @Override
         public final void add(int i, int j, Number value) {
+            markModified();
            data[i][j] += value.doubleValue();
         }
+
+        @Override
+        public final double getDouble(int i, int j) {
+            return data[i][j];
+        }
+
+        @Override
+        public final void setDouble(int i, int j, double value) {
+            markModified();
+            data[i][j] = value;
+        }
+        
+        @Override
+        public final void addDouble(int i, int j, double value) {
+            markModified();
+           data[i][j] += value;
+        }
+
+        @Override
+        public final boolean isValid(int i, int j) {
+            final double value = data[i][j];
+            if(Double.isNaN(value)) return false;
+            final Number blanking = getBlankingValue();
+            if(!(blanking instanceof Double)) return true;
+            return Double.doubleToLongBits(value) != Double.doubleToLongBits(blanking.doubleValue());
+        }
             
         @Override
         public final boolean isValid(Number value) {
@@ -524,13 +569,56 @@ public abstract class Image2D extends Data2D implements Image<Index2D> {
 
         @Override
         public final void set(int i, int j, Number value) {
+            markModified();
             data[i][j] = value.floatValue();
         }
         
         @Override
         public final void add(int i, int j, Number value) {
+            markModified();
            data[i][j] += value.floatValue();
         }
+
+        @Override
+        public final double getDouble(int i, int j) {
+            return data[i][j];
+        }
+
+        @Override
+        public final void setDouble(int i, int j, double value) {
+            markModified();
+            data[i][j] = (float) value;
+        }
+        
+        @Override
+        public final void addDouble(int i, int j, double value) {
+            markModified();
+           data[i][j] += (float) value;
+        }
+
+        @Override
+        public final float getFloat(int i, int j) {
+            return data[i][j];
+        }
+
+        @Override
+        public final void setFloat(int i, int j, float value) {
+            data[i][j] = value;
+        }
+        
+        @Override
+        public final void addFloat(int i, int j, float value) {
+           data[i][j] += value;
+        }
+
+        @Override
+        public final boolean isValid(int i, int j) {
+            final float value = data[i][j];
+            if(Float.isNaN(value)) return false;
+            final Number blanking = getBlankingValue();
+            if(!(blanking instanceof Float)) return true;
+            return Float.floatToIntBits(value) != Float.floatToIntBits(blanking.floatValue());
+        }
         
            
         @Override
@@ -591,13 +679,32 @@ public abstract class Image2D extends Data2D implements Image<Index2D> {
 
         @Override
         public final void set(int i, int j, Number value) {
+            markModified();
             data[i][j] = value.longValue();
         }
         
         @Override
         public final void add(int i, int j, Number value) {
+            markModified();
            data[i][j] += value.longValue();
         }
+
+        @Override
+        public final double getDouble(int i, int j) {
+            return data[i][j];
+        }
+
+        @Override
+        public final void setDouble(int i, int j, double value) {
+            markModified();
+            data[i][j] = (long) value;
+        }
+        
+        @Override
+        public final void addDouble(int i, int j, double value) {
+            markModified();
+           data[i][j] += (long) value;
+        }
         
   
     }
@@ -650,13 +757,47 @@ public abstract class Image2D extends Data2D implements Image<Index2D> {
 
         @Override
         public final void set(int i, int j, Number value) {
+            markModified();
             data[i][j] = value.intValue();
         }
 
         @Override
         public final void add(int i, int j, Number value) {
+            markModified();
            data[i][j] += value.intValue();
         }
+
+        @Override
+        public final double getDouble(int i, int j) {
+            return data[i][j];
+        }
+
+        @Override
+        public final void setDouble(int i, int j, double value) {
+            markModified();
+            data[i][j] = (int) value;
+        }
+        
+        @Override
+        public final void addDouble(int i, int j, double value) {
+            markModified();
+           data[i][j] += (int) value;
+        }
+
+        @Override
+        public final int getInt(int i, int j) {
+            return data[i][j];
+        }
+
+        @Override
+        public final void setInt(int i, int j, int value) {
+            data[i][j] = value;
+        }
+        
+        @Override
+        public final void addInt(int i, int j, int value) {
+           data[i][j] += value;
+        }
            
  
         
@@ -710,13 +851,32 @@ public abstract class Image2D extends Data2D implements Image<Index2D> {
 
         @Override
         public final void set(int i, int j, Number value) {
+            markModified();
             data[i][j] = value.shortValue();
         }
         
         @Override
         public final void add(int i, int j, Number value) {
+            markModified();
            data[i][j] += value.shortValue();
         }
+
+        @Override
+        public final double getDouble(int i, int j) {
+            return data[i][j];
+        }
+
+        @Override
+        public final void setDouble(int i, int j, double value) {
+            markModified();
+            data[i][j] = (short) value;
+        }
+        
+        @Override
+        public final void addDouble(int i, int j, double value) {
+            markModified();
+           data[i][j] += (short) value;
+        }
         
     }
     
@@ -769,14 +929,33 @@ public abstract class Image2D extends Data2D implements Image<Index2D> {
 
         @Override
         public void set(int i, int j, Number value) {
+            markModified();
             data[i][j] = value.byteValue();
         }
         
         @Override
         public void add(int i, int j, Number value) {
+            markModified();
            data[i][j] += value.byteValue();
         }
 
+        @Override
+        public double getDouble(int i, int j) {
+            return data[i][j];
+        }
+
+        @Override
+        public void setDouble(int i, int j, double value) {
+            markModified();
+            data[i][j] = (byte) value;
+        }
+        
+        @Override
+        public void addDouble(int i, int j, double value) {
+            markModified();
+           data[i][j] += (byte) value;
+        }
+
         
     }
     
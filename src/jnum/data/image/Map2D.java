@@ -24,6 +24,7 @@
 package jnum.data.image;
 
 
+import java.io.File;
 import java.io.Serializable;
 import java.util.Hashtable;
 
@@ -41,6 +42,7 @@ import jnum.data.image.overlay.Flagged2D;
 import jnum.data.image.overlay.RangeRestricted2D;
 import jnum.data.image.overlay.Referenced2D;
 import jnum.data.image.transform.CartesianGridTransform2D;
+import jnum.data.image.transform.MeshIndexTransform2D;
 import jnum.data.image.transform.ProjectedIndexTransform2D;
 import jnum.fft.MultiFFT;
 import jnum.fits.FitsProperties;
@@ -102,6 +104,8 @@ public class Map2D extends Flagged2D implements Resizable<Index2D>, Serializable
     
     private double filterBlanking = Double.POSITIVE_INFINITY;
     
+    private double resamplingTolerance = MeshIndexTransform2D.DEFAULT_TOLERANCE;
+    
     
 
 
@@ -236,6 +240,7 @@ public class Map2D extends Flagged2D implements Resizable<Index2D>, Serializable
         filterFWHM = template.filterFWHM;
         correctingFWHM = template.correctingFWHM;
         filterBlanking = template.filterBlanking;
+        resamplingTolerance = template.resamplingTolerance;
         
         if(template.grid != null) grid = template.grid.copy();
         if(template.displayGridUnit != null) displayGridUnit = template.displayGridUnit.copy();
@@ -498,6 +503,8 @@ public class Map2D extends Flagged2D implements Resizable<Index2D>, Serializable
     }
     
     public void parseSmoothingBeam(Header header) {   
+        if(smoothingBeam == null) smoothingBeam = new Gaussian2D();
+        
         // Use old SMOOTH or new SBMAJ/SBMIN
         if(header.containsKey(smoothingBeamFitsID + "BMAJ")) 
             smoothingBeam.parseHeader(header, smoothingBeamFitsID, getDefaultGridUnit().value());  
@@ -524,6 +531,8 @@ public class Map2D extends Flagged2D implements Resizable<Index2D>, Serializable
         // Use new IBMAJ/IBMIN if available
         // Otherwise calculate it based on BMAJ, BMIN
         // Else, use old BEAM, or calculate based on old RESOLUTN
+        if(underlyingBeam == null) underlyingBeam = new Gaussian2D();
+        
         if(header.containsKey(underlyingBeamFitsID + "BMAJ")) 
             underlyingBeam.parseHeader(header, underlyingBeamFitsID, getDefaultGridUnit().value());
         else if(header.containsKey("BEAM")) 
@@ -781,7 +790,7 @@ public class Map2D extends Flagged2D implements Resizable<Index2D>, Serializable
             @Override
             protected void process(int i, int j) {
                 if(!extended.isValid(i, j)) return;
-                image.add(i, j, -extended.get(i, j).doubleValue());   // Subtract from the image directly without affecting flagging...
+                image.addDouble(i, j, -extended.getDouble(i, j));   // Subtract from the image directly without affecting flagging...
             }
         }.process();
 
@@ -815,9 +824,9 @@ public class Map2D extends Flagged2D implements Resizable<Index2D>, Serializable
                 if(!isValid(i, j)) return;  
                 if(validator != null) if(!validator.isValid(i, j)) return;
 
-                final double w = (weight == null) ? 1.0 : weight.get(i,  j).doubleValue();
+                final double w = (weight == null) ? 1.0 : weight.getDouble(i,  j);
           
-                transformer[i][j] = w * get(i, j).doubleValue();
+                transformer[i][j] = w * getDouble(i, j);
                 sumw += w*w;    // Normalize like window functions, by square sum, in line with Parseval's theorem...
                 n++;
             }
@@ -891,9 +900,23 @@ public class Map2D extends Flagged2D implements Resizable<Index2D>, Serializable
                 return new CartesianGridTransform2D(getGrid(), map.getGrid());
         }
 
-        // Otherwise, go with the full-blown reprojection...
-        return new ProjectedIndexTransform2D(getGrid(), map.getGrid());
+        // Otherwise, go with the full-blown reprojection, interpolated on a mesh over this map if allowed...
+        ProjectedIndexTransform2D<?> exact = new ProjectedIndexTransform2D(getGrid(), map.getGrid());
+        if(!(resamplingTolerance > 0.0)) return exact;
+        
+        return new MeshIndexTransform2D(exact, sizeX(), sizeY(), resamplingTolerance);
     }
+    
+    public final double getResamplingTolerance() { return resamplingTolerance; }
+    
+    /**
+     * Sets the largest acceptable error (in pixels of the source map) for approximating reprojections, when
+     * resampling other maps onto this one. Reprojections are calculated exactly only on a mesh of control points,
+     * which is refined adaptively until the interpolation between them is accurate to within the tolerance.
+     * 
+     * @param pixels the tolerance in source map pixels, or 0 to always reproject exactly.
+     */
+    public void setResamplingTolerance(double pixels) { this.resamplingTolerance = pixels; }
 
     public final Gaussian2D getAntialiasingBeamFor(Map2D map) {
         // TODO incorporate rotation at reference...
@@ -920,7 +943,7 @@ public class Map2D extends Flagged2D implements Resizable<Index2D>, Serializable
 
     public void resampleFrom(Map2D map, Values2D weight) {
         Referenced2D beam = getAntialiasingBeamImageFor(map);
-        resampleFrom(map, map.getIndexTransformTo(this), beam, weight);       
+        resampleFrom(map, getIndexTransformTo(map), beam, weight);       
         copyProcessingFrom(map);
     }
 
@@ -1077,6 +1100,23 @@ public class Map2D extends Flagged2D implements Resizable<Index2D>, Serializable
         map.parseHeader(fits.getHDU(hduIndex).getHeader());
         return map;
     }
+    
+    /**
+     * Reads a rectangular region of a FITS image as a map, without reading the rest of the image.
+     * 
+     * @param file the FITS file
+     * @param hduIndex the index of the image HDU in the file.
+     * @param from the image index of the first pixel (inclusive) in the region.
+     * @param to the image index of the last pixel (exclusive) in the region.
+     * @param flagType the type of the flags for the map, e.g. {@link Flag2D#TYPE_INT}.
+     * @return the map of the region, with its grid referenced to the region.
+     * @throws Exception if the image could not be read.
+     * 
+     * @see FitsImageReader
+     */
+    public static Map2D readRegion(File file, int hduIndex, Index2D from, Index2D to, int flagType) throws Exception {
+        return new FitsImageReader(file, hduIndex).readMap(from, to, flagType);
+    }
 
     @Override
     public RegularData<Index2D, Vector2D> getData() {
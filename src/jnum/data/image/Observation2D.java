@@ -173,6 +173,14 @@ public class Observation2D extends Map2D implements Observations<Data2D>, Indexe
     public void setWeightImage(Image2D image) { 
         weight = (image == null) ? Image2D.createType(getElementType()) : image;
         claim(weight);
+        invalidateInterpolationCache();
+    }
+    
+    @Override
+    public long getModificationStamp() {
+        // Validity depends on the weights also...
+        final long stamp = super.getModificationStamp();
+        return weight == null ? stamp : Math.max(stamp, weight.getModificationStamp());
     }
 
     @Override
@@ -211,7 +219,22 @@ public class Observation2D extends Map2D implements Observations<Data2D>, Indexe
             
             @Override
             public void add(int i, int j, Number value) {
-                set(i, j, get(i, j).doubleValue() + value.doubleValue());
+                set(i, j, getDouble(i, j) + value.doubleValue());
+            }
+            
+            @Override
+            public double getDouble(int i, int j) {
+                return noiseAt(i, j);
+            }
+
+            @Override
+            public void setDouble(int i, int j, double value) {
+                super.setDouble(i, j, 1.0 / (value * value));
+            }    
+            
+            @Override
+            public void addDouble(int i, int j, double value) {
+                setDouble(i, j, getDouble(i, j) + value);
             }
             
             @Override
@@ -235,7 +258,22 @@ public class Observation2D extends Map2D implements Observations<Data2D>, Indexe
             
             @Override
             public void add(int i, int j, Number value) {
-                set(i, j, get(i, j).doubleValue() + value.doubleValue());
+                set(i, j, getDouble(i, j) + value.doubleValue());
+            }    
+            
+            @Override
+            public double getDouble(int i, int j) {
+                return significanceAt(i, j);
+            }
+
+            @Override
+            public void setDouble(int i, int j, double value) {
+                super.setDouble(i, j, value * noiseAt(i, j));
+            }  
+            
+            @Override
+            public void addDouble(int i, int j, double value) {
+                setDouble(i, j, getDouble(i, j) + value);
             }    
         
             @Override
@@ -283,7 +321,7 @@ public class Observation2D extends Map2D implements Observations<Data2D>, Indexe
     }
 
     public final double weightAt(int i, int j) {
-        return weight.get(i, j).doubleValue();
+        return weight.getDouble(i, j);
     }
     
     @Override
@@ -301,7 +339,7 @@ public class Observation2D extends Map2D implements Observations<Data2D>, Indexe
     }
     
     public final double exposureAt(int i, int j) {
-        return exposure.get(i, j).doubleValue();
+        return exposure.getDouble(i, j);
     }
 
     public void setExposureAt(int i, int j, double value) {
@@ -332,7 +370,7 @@ public class Observation2D extends Map2D implements Observations<Data2D>, Indexe
     }
     
     public double significanceAt(int i, int j) {
-        return get(i, j).doubleValue() * Math.sqrt(weightAt(i, j));
+        return getDouble(i, j) * Math.sqrt(weightAt(i, j));
     }
 
     @Override
@@ -361,7 +399,7 @@ public class Observation2D extends Map2D implements Observations<Data2D>, Indexe
         new Fork<Void>() {
             @Override
             protected void process(int i, int j) {
-                if(image.isValid(i, j)) accumulateAt(i, j, image.get(i, j).doubleValue(), 1.0, weight * image.weightAt(i, j), image.exposureAt(i, j));
+                if(image.isValid(i, j)) accumulateAt(i, j, image.getDouble(i, j), 1.0, weight * image.weightAt(i, j), image.exposureAt(i, j));
             }
         }.process();
     }
@@ -377,7 +415,7 @@ public class Observation2D extends Map2D implements Observations<Data2D>, Indexe
 
 
     public void endAccumulation(int i, int j) {
-        super.scale(i, j, 1.0 / weight.get(i,j).doubleValue());
+        super.scale(i, j, 1.0 / weight.getDouble(i,j));
     }
 
     public final void mergeAccumulate(final Observation2D image) {
@@ -532,7 +570,7 @@ public class Observation2D extends Map2D implements Observations<Data2D>, Indexe
             @Override
             protected void process(int i, int j) {
                 if(isValid(i,j)) {
-                    set(i, j, weightAt(i, j) * (cleanS2N.get(i, j).doubleValue() + s2n.get(i, j).doubleValue()));
+                    set(i, j, weightAt(i, j) * (cleanS2N.getDouble(i, j) + s2n.getDouble(i, j)));
                 }
             }
         }.process();
@@ -642,7 +680,7 @@ public class Observation2D extends Map2D implements Observations<Data2D>, Indexe
             weight.new Fork<Void>() {
                 @Override
                 protected void process(int i, int j) {
-                    double noise = image.get(i,j).doubleValue();
+                    double noise = image.getDouble(i,j);
                     weight.set(i, j, 1.0 / (noise * noise));
                 }      
             }.process();
@@ -652,7 +690,7 @@ public class Observation2D extends Map2D implements Observations<Data2D>, Indexe
             weight.new Fork<Void>() {
                 @Override
                 protected void process(int i, int j) {
-                    weight.set(i, j, 1.0 / image.get(i,j).doubleValue());
+                    weight.set(i, j, 1.0 / image.getDouble(i,j));
                 }      
             }.process();
             return TYPE_WEIGHT;
@@ -661,7 +699,7 @@ public class Observation2D extends Map2D implements Observations<Data2D>, Indexe
             weight.new Fork<Void>() {
                 @Override
                 protected void process(int i, int j) {
-                    double noise = get(i, j).doubleValue() / image.get(i,j).doubleValue();
+                    double noise = getDouble(i, j) / image.getDouble(i,j);
                     weight.set(i, j, 1.0 / (noise * noise));
                 }      
             }.process();
@@ -0,0 +1,354 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved.
+ *
+ * This file is part of jnum.
+ *
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+
+package jnum.data.image;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+import jnum.data.OffHeapArray;
+
+
+/**
+ * A 2D image whose content is stored outside of the Java heap, in a single contiguous direct (or memory-mapped) buffer,
+ * rather than in jagged Java arrays. Elements are stored in row-major order, i.e. with index <i>j</i> running fastest,
+ * s.t. the loops over <i>i</i> then <i>j</i> of {@link Data2D} run through memory sequentially. Such images are
+ * not limited by the heap size, and do not burden the garbage collector.
+ *
+ * The core data of these images (see {@link #getCore()}) is the {@link OffHeapArray}, whose buffers may be used for
+ * bulk I/O directly.
+ *
+ * @author Attila Kovacs <attila@sigmyne.com>
+ *
+ */
+public abstract class OffHeapImage2D extends Image2D {
+    /**
+     *
+     */
+    private static final long serialVersionUID = -1380719582153853463L;
+
+    private int sizeX, sizeY;
+
+
+    @Override
+    public final int sizeX() { return sizeX; }
+
+    @Override
+    public final int sizeY() { return sizeY; }
+
+    protected final long index(int i, int j) {
+        return (long) i * sizeY + j;
+    }
+
+    @Override
+    protected synchronized void setDataSize(int sizeX, int sizeY) {
+        if(sizeX <= 0 || sizeY <= 0) {
+            this.sizeX = this.sizeY = 0;
+            setArray(null);
+        }
+        else {
+            this.sizeX = sizeX;
+            this.sizeY = sizeY;
+            setArray(createArray((long) sizeX * sizeY));
+        }
+    }
+
+    /**
+     * Maps the image content to a file region, which holds the elements in row-major order (index <i>j</i> running
+     * fastest) in the native binary representation of the element type. Changes to the image content are written to
+     * the file if the mapping is read-write.
+     *
+     * @param channel the file channel
+     * @param mode the mapping mode, e.g. read-only or read-write.
+     * @param position the byte offset of the image data in the file.
+     * @param sizeX the image size along the first index.
+     * @param sizeY the image size along the second index.
+     * @param order the byte order of the data in the file.
+     * @throws IOException if the file region could not be mapped.
+     */
+    public synchronized void map(FileChannel channel, FileChannel.MapMode mode, long position, int sizeX, int sizeY, ByteOrder order) throws IOException {
+        setArray(mapArray(channel, mode, position, (long) sizeX * sizeY, order));
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        clearHistory();
+        addHistory("mapped " + getSizeString() + " from file");
+    }
+
+    protected abstract OffHeapArray createArray(long size);
+
+    protected abstract OffHeapArray mapArray(FileChannel channel, FileChannel.MapMode mode, long position, long size, ByteOrder order) throws IOException;
+
+    protected abstract void setArray(OffHeapArray array);
+
+    @Override
+    public abstract OffHeapArray getCore();
+
+
+    @Override
+    public synchronized void transpose() {
+        // The clone holds on to the current storage, while this image gets new storage with the transposed size...
+        Image2D original = (Image2D) clone();
+        silentNextNewData();
+        setRowColData(original);
+        addHistory("transposed");
+    }
+
+    @Override
+    public synchronized Image2D getRowColImage(Class<? extends Number> dataType) {
+        Image2D result = Image2D.createType(dataType);
+        if(result == null) throw new IllegalArgumentException("Unsupported data type: " + dataType.getSimpleName());
+        result.setRowColData(this);
+        return result;
+    }
+
+
+    public static OffHeapImage2D createType(Class<? extends Number> type) {
+        if(type.equals(Double.class)) return new Double2D();
+        else if(type.equals(Float.class)) return new Float2D();
+        else return null;
+    }
+
+    public static OffHeapImage2D createType(Class<? extends Number> type, int sizeX, int sizeY) {
+        OffHeapImage2D image = createType(type);
+        if(image == null) return null;
+        image.setSize(sizeX, sizeY);
+        return image;
+    }
+
+    public static OffHeapImage2D createFrom(final Values2D values, final Number blankingValue, Class<? extends Number> elementType) {
+        final OffHeapImage2D image = createType(elementType);
+        image.setBlankingValue(blankingValue);
+        image.setData(values);
+        return image;
+    }
+
+
+
+    public static class Double2D extends OffHeapImage2D {
+        /**
+         *
+         */
+        private static final long serialVersionUID = 7432298316063596217L;
+        private OffHeapArray.Doubles data;
+
+
+        @Override
+        public Number getLowestCompareValue() { return Double.NEGATIVE_INFINITY; }
+
+        @Override
+        public Number getHighestCompareValue() { return Double.POSITIVE_INFINITY; }
+
+        @Override
+        public int compare(Number a, Number b) {
+            return Double.compare(a.doubleValue(), b.doubleValue());
+        }
+
+        @Override
+        public Class<? extends Number> getElementType() {
+            return Double.class;
+        }
+
+        @Override
+        protected OffHeapArray createArray(long size) {
+            return new OffHeapArray.Doubles(size);
+        }
+
+        @Override
+        protected OffHeapArray mapArray(FileChannel channel, FileChannel.MapMode mode, long position, long size, ByteOrder order) throws IOException {
+            return new OffHeapArray.Doubles(channel, mode, position, size, order);
+        }
+
+        @Override
+        protected void setArray(OffHeapArray array) {
+            data = (OffHeapArray.Doubles) array;
+        }
+
+        @Override
+        public synchronized OffHeapArray.Doubles getCore() {
+            return data;
+        }
+
+        @Override
+        public final Number get(int i, int j) {
+            return data.get(index(i, j));
+        }
+
+        @Override
+        public final void set(int i, int j, Number value) {
+            markModified();
+            data.set(index(i, j), value.doubleValue());
+        }
+
+        @Override
+        public final void add(int i, int j, Number value) {
+            markModified();
+            data.add(index(i, j), value.doubleValue());
+        }
+
+        @Override
+        public final double getDouble(int i, int j) {
+            return data.get(index(i, j));
+        }
+
+        @Override
+        public final void setDouble(int i, int j, double value) {
+            markModified();
+            data.set(index(i, j), value);
+        }
+
+        @Override
+        public final void addDouble(int i, int j, double value) {
+            markModified();
+            data.add(index(i, j), value);
+        }
+
+        @Override
+        public final boolean isValid(int i, int j) {
+            final double value = data.get(index(i, j));
+            if(Double.isNaN(value)) return false;
+            final Number blanking = getBlankingValue();
+            if(!(blanking instanceof Double)) return true;
+            return Double.doubleToLongBits(value) != Double.doubleToLongBits(blanking.doubleValue());
+        }
+
+        @Override
+        public final boolean isValid(Number value) {
+            if(Double.isNaN(value.doubleValue())) return false;
+            return super.isValid(value);
+        }
+
+    }
+
+
+    public static class Float2D extends OffHeapImage2D {
+        /**
+         *
+         */
+        private static final long serialVersionUID = -4711880569520349893L;
+        private OffHeapArray.Floats data;
+
+
+        @Override
+        public Number getLowestCompareValue() { return Float.NEGATIVE_INFINITY; }
+
+        @Override
+        public Number getHighestCompareValue() { return Float.POSITIVE_INFINITY; }
+
+        @Override
+        public int compare(Number a, Number b) {
+            return Float.compare(a.floatValue(), b.floatValue());
+        }
+
+        @Override
+        public Class<? extends Number> getElementType() {
+            return Float.class;
+        }
+
+        @Override
+        protected OffHeapArray createArray(long size) {
+            return new OffHeapArray.Floats(size);
+        }
+
+        @Override
+        protected OffHeapArray mapArray(FileChannel channel, FileChannel.MapMode mode, long position, long size, ByteOrder order) throws IOException {
+            return new OffHeapArray.Floats(channel, mode, position, size, order);
+        }
+
+        @Override
+        protected void setArray(OffHeapArray array) {
+            data = (OffHeapArray.Floats) array;
+        }
+
+        @Override
+        public synchronized OffHeapArray.Floats getCore() {
+            return data;
+        }
+
+        @Override
+        public final Number get(int i, int j) {
+            return data.get(index(i, j));
+        }
+
+        @Override
+        public final void set(int i, int j, Number value) {
+            markModified();
+            data.set(index(i, j), value.floatValue());
+        }
+
+        @Override
+        public final void add(int i, int j, Number value) {
+            markModified();
+            data.add(index(i, j), value.floatValue());
+        }
+
+        @Override
+        public final double getDouble(int i, int j) {
+            return data.get(index(i, j));
+        }
+
+        @Override
+        public final void setDouble(int i, int j, double value) {
+            markModified();
+            data.set(index(i, j), (float) value);
+        }
+
+        @Override
+        public final void addDouble(int i, int j, double value) {
+            markModified();
+            data.add(index(i, j), (float) value);
+        }
+
+        @Override
+        public final float getFloat(int i, int j) {
+            return data.get(index(i, j));
+        }
+
+        @Override
+        public final void setFloat(int i, int j, float value) {
+            data.set(index(i, j), value);
+        }
+
+        @Override
+        public final void addFloat(int i, int j, float value) {
+            data.add(index(i, j), value);
+        }
+
+        @Override
+        public final boolean isValid(int i, int j) {
+            final float value = data.get(index(i, j));
+            if(Float.isNaN(value)) return false;
+            final Number blanking = getBlankingValue();
+            if(!(blanking instanceof Float)) return true;
+            return Float.floatToIntBits(value) != Float.floatToIntBits(blanking.floatValue());
+        }
+
+        @Override
+        public final boolean isValid(Number value) {
+            if(Float.isNaN(value.floatValue())) return false;
+            return super.isValid(value);
+        }
+
+    }
+
+}
@@ -98,12 +98,21 @@ public class Flagged2D extends Overlay2D {
         this.flag = flag; 
         this.flag.setParallel(getParallel());
         this.flag.setExecutor(getExecutor());
+        invalidateInterpolationCache();
+    }
+    
+    @Override
+    public long getModificationStamp() {
+        final long stamp = super.getModificationStamp();
+        if(flag == null || flag.getData() == null) return stamp;
+        return Math.max(stamp, flag.getData().getModificationStamp());
     }
 
     public Flag2D getFlags() { return flag; }
 
     public void setValidatingFlags(long pattern) { 
         validatingFlags = pattern; 
+        invalidateInterpolationCache();
     }
 
     public final long getValidatingFlags() { return validatingFlags; }
@@ -138,6 +147,18 @@ public class Flagged2D extends Overlay2D {
         unflag(i, j);
     }
 
+    @Override
+    public void setDouble(int i, int j, double value) {
+        super.setDouble(i, j, value);
+        unflag(i, j);
+    }
+
+    @Override
+    public void addDouble(int i, int j, double value) {
+        super.addDouble(i, j, value);
+        unflag(i, j);
+    }
+
 
     public void flag(final long pattern) {
         new Fork<Void>() {
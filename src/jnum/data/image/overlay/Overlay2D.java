@@ -81,6 +81,14 @@ public class Overlay2D extends Data2D implements CopiableContent<Overlay2D> {
     
     public void setBasis(Values2D base) {
         this.values = base;
+        invalidateInterpolationCache();
+    }
+    
+    @Override
+    public long getModificationStamp() {
+        final long stamp = super.getModificationStamp();
+        if(!(values instanceof Data2D)) return stamp;
+        return Math.max(stamp, ((Data2D) values).getModificationStamp());
     }
     
     @Override
@@ -130,6 +138,21 @@ public class Overlay2D extends Data2D implements CopiableContent<Overlay2D> {
     public void add(int i, int j, Number value) {
         values.add(i, j, value);
     }
+
+    @Override
+    public double getDouble(int i, int j) {
+        return values.getDouble(i, j);
+    }
+
+    @Override
+    public void setDouble(int i, int j, double value) {
+        values.setDouble(i, j, value);
+    }
+
+    @Override
+    public void addDouble(int i, int j, double value) {
+        values.addDouble(i, j, value);
+    }
     
     @Override
     public final Number getLowestCompareValue() {
@@ -103,6 +103,21 @@ public class Periodic2D extends Overlay2D {
         super.add(toBaseI(i), toBaseJ(j), value);
     }
 
+    @Override
+    public double getDouble(int i, int j) {
+        return super.getDouble(toBaseI(i), toBaseJ(j));
+    }
+
+    @Override
+    public void setDouble(int i, int j, double value) {
+        super.setDouble(toBaseI(i), toBaseJ(j), value);
+    }
+
+    @Override
+    public void addDouble(int i, int j, double value) {
+        super.addDouble(toBaseI(i), toBaseJ(j), value);
+    }
+
     @Override
     public double valueAtIndex(double i, double j) {
         return super.valueAtIndex(toBaseI(i), toBaseJ(j));
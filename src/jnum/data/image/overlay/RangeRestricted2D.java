@@ -38,6 +38,7 @@ public class RangeRestricted2D extends Overlay2D {
     
     public void setValidRange(Range r) { 
         validRange = r; 
+        invalidateInterpolationCache();
     }
     
     public Range getValidRange() { return validRange; }
@@ -45,7 +46,7 @@ public class RangeRestricted2D extends Overlay2D {
     
     @Override
     public boolean isValid(int i, int j) {
-        if(!validRange.contains(get(i, j).doubleValue())) return false;
+        if(!validRange.contains(getDouble(i, j))) return false;
         return super.isValid(i, j);
     }
 
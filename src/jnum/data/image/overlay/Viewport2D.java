@@ -102,6 +102,7 @@ public class Viewport2D extends Overlay2D implements Resizable<Index2D> {
     public void move(int di, int dj) {
         i0 += di;
         j0 += dj;
+        invalidateInterpolationCache();
     }
     
     @Override
@@ -112,6 +113,7 @@ public class Viewport2D extends Overlay2D implements Resizable<Index2D> {
     public void setSize(int sizeX, int sizeY) {
         this.sizeX = sizeX;
         this.sizeY = sizeY;
+        invalidateInterpolationCache();
     }
     
     
@@ -155,6 +157,21 @@ public class Viewport2D extends Overlay2D implements Resizable<Index2D> {
         super.add(i + i0, j + j0, value);
     }
 
+    @Override
+    public final double getDouble(int i, int j) {
+        return super.getDouble(i + i0, j + j0);
+    }
+
+    @Override
+    public final void setDouble(int i, int j, double value) {
+        super.setDouble(i + i0, j + j0, value);
+    }
+
+    @Override
+    public final void addDouble(int i, int j, double value) {
+        super.addDouble(i + i0, j + j0, value);
+    }
+
    
     
  
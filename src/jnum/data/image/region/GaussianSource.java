@@ -300,6 +300,8 @@ public class GaussianSource extends CircularRegion {
         public final void subtract(final Values2D image) { addScaled(image, -1.0); }
         
         public void addScaled(final Values2D image, final double factor) {
+            if(!isOverlapping(image)) return;
+            
             final Viewport2D view = getViewer(image);
             final Vector2D center = getCenterIndex();
             final Gaussian2D shape = getGaussian2D();
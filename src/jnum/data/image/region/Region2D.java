@@ -152,6 +152,20 @@ public abstract class Region2D implements Serializable, Cloneable {
 	    
 	    public abstract IndexBounds2D getBounds();
 	    
+	    /**
+	     * Checks whether the bounding box of the region overlaps with the index range of some data, s.t.
+	     * regions entirely outside of it may be skipped without visiting any of the data.
+	     * 
+	     * @param values the data
+	     * @return true if the bounds of the region overlap with the data.
+	     */
+	    public boolean isOverlapping(Values2D values) {
+	        final IndexBounds2D bounds = getBounds();
+	        if(bounds.toi < 0 || bounds.toj < 0) return false;
+	        if(bounds.fromi >= values.sizeX() || bounds.fromj >= values.sizeY()) return false;
+	        return true;
+	    }
+	    
         @SuppressWarnings({ "unchecked", "rawtypes" })
         public Vector2D getIndex(Coordinate2D coords) throws IncompatibleTypesException {
 	        Coordinate2D gridCoords = grid.getReference().copy();
@@ -191,6 +205,7 @@ public abstract class Region2D implements Serializable, Cloneable {
 	    }
 	    
 	    public void flag(Flag2D flag, final long pattern) {
+	        if(!isOverlapping(flag.getData())) return;
 	        final Viewport2D viewer = getViewer(flag.getData());
 	        viewer.new Fork<Void>() {
                 @Override
@@ -201,6 +216,7 @@ public abstract class Region2D implements Serializable, Cloneable {
 	    }
 	    
 	    public void unflag(Flag2D flag, final long pattern) {
+	        if(!isOverlapping(flag.getData())) return;
             final Viewport2D viewer = getViewer(flag.getData());
             final long clearPattern = ~pattern;
             viewer.new Fork<Void>() {
@@ -24,12 +24,16 @@
 package jnum.data.image.region;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Vector;
 
+import jnum.IncompatibleTypesException;
 import jnum.Util;
+import jnum.data.image.Grid2D;
 import jnum.data.image.Map2D;
 import jnum.io.LineParser;
 import jnum.math.Coordinate2D;
+import jnum.math.Vector2D;
 
 
 public class SourceCatalog extends Vector<GaussianSource> {
@@ -38,31 +42,135 @@ public class SourceCatalog extends Vector<GaussianSource> {
 
 	public Class<? extends Coordinate2D> coordinateClass;
 	
+	private transient SourceIndex<GaussianSource> index;
+	
+	private transient int indexedModCount;
+	
 	public SourceCatalog(Class<? extends Coordinate2D> coordinateClass) {
 	    this.coordinateClass = coordinateClass;
 	}
 	
 	
 	public void insert(Map2D image) {
-		for(GaussianSource source : this) 
+		for(GaussianSource source : getSourcesOn(image)) 
 		    source.getRepresentation(image.getGrid()).add(image);
 	}
 	
 
 	public void remove(Map2D image) {
-		for(GaussianSource source : this) 
-		    source.getRepresentation(image.getGrid()).add(image);
+		for(GaussianSource source : getSourcesOn(image)) 
+		    source.getRepresentation(image.getGrid()).subtract(image);
 	}
 	
 	public void flag(Map2D image, long pattern) {
-        for(GaussianSource source : this) 
+        for(GaussianSource source : getSourcesOn(image)) 
             source.getRepresentation(image.getGrid()).flag(image.getFlags(), pattern);
     }
 	
 	public void unflag(Map2D image, long pattern) {
-        for(GaussianSource source : this) 
+        for(GaussianSource source : getSourcesOn(image)) 
             source.getRepresentation(image.getGrid()).unflag(image.getFlags(), pattern);
     }
+	
+	
+	/**
+	 * Gets the spatial index of the sources, (re)building it if sources were added or removed since it was last
+	 * used. Sources that are moved in place are not noticed, and require a call to {@link #reindex()}.
+	 * 
+	 * @return the current spatial index of the sources.
+	 */
+	public synchronized SourceIndex<GaussianSource> getIndex() {
+	    if(index == null || indexedModCount != modCount) {
+	        index = new SourceIndex<GaussianSource>(this, coordinateClass);
+	        indexedModCount = modCount;
+	    }
+	    return index;
+	}
+	
+	public synchronized void reindex() { index = null; }
+	
+	
+	public List<GaussianSource> getSourcesNear(Coordinate2D coords, double radius) throws IncompatibleTypesException {
+	    return getIndex().getWithin(coords, radius);
+	}
+	
+	public GaussianSource getNearest(Coordinate2D coords) throws IncompatibleTypesException {
+	    return getIndex().getNearest(coords);
+	}
+	
+	public GaussianSource getNearest(Coordinate2D coords, double maxDistance) throws IncompatibleTypesException {
+	    return getIndex().getNearest(coords, maxDistance);
+	}
+	
+	/**
+	 * Matches regions (e.g. sources from another catalog) to the nearest sources of this catalog.
+	 * 
+	 * @param regions the regions to match
+	 * @param maxDistance the largest distance between matching positions (in radians for spherical coordinates).
+	 * @return the matching sources of this catalog, in the order of the regions, or null for unmatched regions.
+	 * @throws IncompatibleTypesException if the region coordinates cannot be converted to those of the catalog.
+	 */
+	public GaussianSource[] match(List<? extends CircularRegion> regions, double maxDistance) throws IncompatibleTypesException {
+	    final SourceIndex<GaussianSource> index = getIndex();
+	    final GaussianSource[] matches = new GaussianSource[regions.size()];
+	    
+	    for(int i=matches.length; --i >= 0; ) {
+	        final Coordinate2D coords = regions.get(i).getCoordinates();
+	        if(coords != null) matches[i] = index.getNearest(coords, maxDistance);
+	    }
+	    
+	    return matches;
+	}
+	
+	
+	/**
+	 * Gets the sources, which may overlap a map, as a subset of the catalog. The sources are looked up in the
+	 * index, around the center of the map, within the largest distance to its edges (sampled along the boundary),
+	 * padded by the largest source extent.
+	 * 
+	 * @param map the map
+	 * @return the sources possibly overlapping the map.
+	 */
+	public List<GaussianSource> getSourcesOn(Map2D map) {
+	    return getSourcesOn(map.getGrid(), map.sizeX(), map.sizeY());
+	}
+	
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public List<GaussianSource> getSourcesOn(Grid2D<?> grid, int sizeX, int sizeY) {
+	    if(size() < MIN_INDEXED_SIZE) return this;
+	    
+	    // Indexing fails if sources cannot be converted to the catalog's coordinates, in which case check them all...
+	    try {
+	        final SourceIndex<GaussianSource> index = getIndex();
+	        if(index.size() < size()) return this;
+	        
+	        final Coordinate2D center = grid.getReference().copy();
+	        final Coordinate2D edge = grid.getReference().copy();
+	        
+	        ((Grid2D) grid).coordsAt(new Vector2D(0.5 * (sizeX - 1), 0.5 * (sizeY - 1)), center);
+	        
+	        final Vector2D v = new Vector2D();
+	        double r = 0.0;
+	        
+	        for(int k=0; k <= EDGE_SAMPLES; k++) {
+	            final double fx = (sizeX + 1.0) * k / EDGE_SAMPLES - 1.0;
+	            final double fy = (sizeY + 1.0) * k / EDGE_SAMPLES - 1.0;
+	            
+	            v.set(fx, -1.0); ((Grid2D) grid).coordsAt(v, edge); r = Math.max(r, index.distance(center, edge));
+	            v.set(fx, sizeY); ((Grid2D) grid).coordsAt(v, edge); r = Math.max(r, index.distance(center, edge));
+	            v.set(-1.0, fy); ((Grid2D) grid).coordsAt(v, edge); r = Math.max(r, index.distance(center, edge));
+	            v.set(sizeX, fy); ((Grid2D) grid).coordsAt(v, edge); r = Math.max(r, index.distance(center, edge));
+	        }
+	        
+	        // Beyond the edge samples, the boundary may bulge by up to a pixel or so...
+	        r += Math.hypot(grid.pixelSizeX(), grid.pixelSizeY()) + Math.sqrt(2.0) * index.getMaxRadius();
+	        
+	        if(Double.isNaN(r)) return this;
+	        
+	        return index.getWithin(center, r);
+	    }
+	    catch(IncompatibleTypesException e) { return this; }
+	}
     
 	
 	public void read(String fileName) throws IOException {
@@ -76,4 +184,11 @@ public class SourceCatalog extends Vector<GaussianSource> {
 		
 		Util.info(this, "Source catalog loaded: " + size() + " source(s).");
 	}
+	
+	
+	/** The number of boundary intervals per map edge, over which to look for the map's extent */
+	public final static int EDGE_SAMPLES = 16;
+	
+	/** The smallest catalog, for which sources on a map are looked up in the index, rather than checked one by one */
+	public final static int MIN_INDEXED_SIZE = 32;
 }
@@ -0,0 +1,344 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved.
+ *
+ * This file is part of jnum.
+ *
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+
+package jnum.data.image.region;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import jnum.IncompatibleTypesException;
+import jnum.math.Coordinate2D;
+import jnum.math.SphericalCoordinates;
+
+
+/**
+ * A static k-d tree of circular regions (e.g. sources), for finding the regions near some location, or the nearest
+ * region to it, in logarithmic rather than linear time. Regions with spherical coordinates are indexed by their
+ * 3D unit vectors, s.t. lookups behave uniformly across the entire sphere (including the poles and the wrapping of
+ * longitudes), with distances measured along great circles. Other coordinates are indexed in the plane, with
+ * Euclidean distances. Query coordinates may be in any system that is convertible to the indexed one.
+ * <p>
+ * The index is a snapshot of the region positions at the time of its creation, and it has to be recreated if
+ * regions are added, removed, or moved.
+ *
+ * @author Attila Kovacs <attila[AT]sigmyne.com>
+ *
+ * @param <RegionType> the type of regions indexed.
+ */
+public class SourceIndex<RegionType extends CircularRegion> implements Serializable {
+    /**
+     *
+     */
+    private static final long serialVersionUID = -1815094322318427516L;
+
+    private Coordinate2D template;
+    private boolean isSpherical;
+    private int k;
+
+    private ArrayList<RegionType> regions;
+    private double[] points;
+    private int[] order;
+    private byte[] splitDim;
+
+    private double maxRadius = 0.0;
+
+
+    /**
+     * Instantiates a new index of the regions, with their coordinates converted to the specified type as necessary.
+     * Regions without coordinates are not indexed.
+     *
+     * @param regions the regions to index.
+     * @param coordinateClass the type of coordinates to index in, or null to use that of the first region.
+     * @throws IncompatibleTypesException if the coordinates of a region cannot be converted to the indexed type.
+     */
+    public SourceIndex(Collection<? extends RegionType> regions, Class<? extends Coordinate2D> coordinateClass) throws IncompatibleTypesException {
+        this.regions = new ArrayList<RegionType>(regions.size());
+        for(RegionType region : regions) if(region.getCoordinates() != null) this.regions.add(region);
+
+        template = createTemplate(coordinateClass);
+        isSpherical = template instanceof SphericalCoordinates;
+        k = isSpherical ? 3 : 2;
+
+        final int n = this.regions.size();
+        points = new double[k * n];
+        order = new int[n];
+        splitDim = new byte[n];
+
+        final Coordinate2D coords = template == null ? null : template.copy();
+
+        for(int i=n; --i >= 0; ) {
+            final CircularRegion region = this.regions.get(i);
+            setPoint(convert(region.getCoordinates(), coords), points, k * i);
+            order[i] = i;
+
+            final double r = region.getRadius() == null ? Double.NaN : region.getRadius().value();
+            if(r > maxRadius) maxRadius = r;
+        }
+
+        build(0, n);
+    }
+
+    private Coordinate2D createTemplate(Class<? extends Coordinate2D> coordinateClass) {
+        if(coordinateClass != null) {
+            try { return coordinateClass.getConstructor().newInstance(); }
+            catch(Exception e) {}
+        }
+        return regions.isEmpty() ? null : regions.get(0).getCoordinates().copy();
+    }
+
+    public final int size() { return order.length; }
+
+    public final boolean isSpherical() { return isSpherical; }
+
+    /**
+     * Gets the largest radius of the indexed regions, e.g. for padding the search radius, when looking for
+     * regions that overlap an area, rather than regions centered in it.
+     *
+     * @return the largest region radius.
+     */
+    public final double getMaxRadius() { return maxRadius; }
+
+
+    /**
+     * Gets the distance between two locations, in the metric of the index (i.e. the great-circle distance for
+     * spherical coordinates, or else the Euclidean distance).
+     *
+     * @param a the first location
+     * @param b the second location
+     * @return the distance between the locations.
+     * @throws IncompatibleTypesException if either location cannot be converted to the indexed type.
+     */
+    public double distance(Coordinate2D a, Coordinate2D b) throws IncompatibleTypesException {
+        final double[] p = new double[k], q = new double[k];
+        setPoint(convert(a, null), p, 0);
+        setPoint(convert(b, null), q, 0);
+        return toDistance(distance2(p, 0, q));
+    }
+
+
+    /**
+     * Gets all regions, whose centers lie within the given distance of a location.
+     *
+     * @param center the location
+     * @param radius the search radius (in radians for spherical coordinates).
+     * @return the list of regions near the location, in no particular order.
+     * @throws IncompatibleTypesException if the location cannot be converted to the indexed type.
+     */
+    public List<RegionType> getWithin(Coordinate2D center, double radius) throws IncompatibleTypesException {
+        final ArrayList<RegionType> found = new ArrayList<RegionType>();
+        if(size() == 0 || !(radius >= 0.0)) return found;
+
+        final double[] q = new double[k];
+        setPoint(convert(center, null), q, 0);
+
+        final double r = toSearchRadius(radius);
+        search(0, size(), q, r, r * r, found);
+
+        return found;
+    }
+
+    /**
+     * Gets the region, whose center is nearest to a location.
+     *
+     * @param coords the location
+     * @return the nearest region, or null if the index is empty.
+     * @throws IncompatibleTypesException if the location cannot be converted to the indexed type.
+     */
+    public RegionType getNearest(Coordinate2D coords) throws IncompatibleTypesException {
+        return getNearest(coords, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Gets the region, whose center is nearest to a location, provided it is within some distance.
+     *
+     * @param coords the location
+     * @param maxDistance the largest distance to consider (in radians for spherical coordinates).
+     * @return the nearest region within the specified distance, or null if there is none.
+     * @throws IncompatibleTypesException if the location cannot be converted to the indexed type.
+     */
+    public RegionType getNearest(Coordinate2D coords, double maxDistance) throws IncompatibleTypesException {
+        if(size() == 0 || !(maxDistance >= 0.0)) return null;
+
+        final double[] q = new double[k];
+        setPoint(convert(coords, null), q, 0);
+
+        final double r = toSearchRadius(maxDistance);
+        final Nearest nearest = new Nearest(r * r);
+        nearest(0, size(), q, nearest);
+
+        return nearest.index < 0 ? null : regions.get(nearest.index);
+    }
+
+
+    private Coordinate2D convert(Coordinate2D coords, Coordinate2D buffer) throws IncompatibleTypesException {
+        if(template == null || coords.getClass().equals(template.getClass())) return coords;
+        if(buffer == null) buffer = template.copy();
+        buffer.convertFrom(coords);
+        return buffer;
+    }
+
+    private void setPoint(Coordinate2D coords, double[] p, int offset) {
+        if(isSpherical) {
+            final double cosLat = Math.cos(coords.y());
+            p[offset] = cosLat * Math.cos(coords.x());
+            p[offset + 1] = cosLat * Math.sin(coords.x());
+            p[offset + 2] = Math.sin(coords.y());
+        }
+        else {
+            p[offset] = coords.x();
+            p[offset + 1] = coords.y();
+        }
+    }
+
+    // The chord length for great-circle distances on the sphere...
+    private double toSearchRadius(double distance) {
+        if(!isSpherical) return distance;
+        if(distance >= Math.PI) return Double.POSITIVE_INFINITY;
+        return 2.0 * Math.sin(0.5 * distance);
+    }
+
+    private double toDistance(double d2) {
+        if(!isSpherical) return Math.sqrt(d2);
+        return 2.0 * Math.asin(Math.min(1.0, 0.5 * Math.sqrt(d2)));
+    }
+
+    private double distance2(double[] p, int offset, double[] q) {
+        double sum = 0.0;
+        for(int d=k; --d >= 0; ) {
+            final double dx = p[offset + d] - q[d];
+            sum += dx * dx;
+        }
+        return sum;
+    }
+
+    private final double coordinate(int m, int dim) {
+        return points[k * order[m] + dim];
+    }
+
+
+    // Arranges the points s.t. the median of every range is the node, splitting it along the dimension of the
+    // widest spread, with the points on the lower side (along that dimension) before, and those on the upper
+    // side after it...
+    private void build(int from, int to) {
+        if(to - from < 2) return;
+
+        final int mid = (from + to) >>> 1;
+
+        byte dim = 0;
+        double maxSpread = -1.0;
+
+        for(byte d=0; d < k; d++) {
+            double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            for(int m=from; m < to; m++) {
+                final double x = coordinate(m, d);
+                if(x < min) min = x;
+                if(x > max) max = x;
+            }
+            if(max - min > maxSpread) {
+                maxSpread = max - min;
+                dim = d;
+            }
+        }
+
+        select(from, to - 1, mid, dim);
+        splitDim[mid] = dim;
+
+        build(from, mid);
+        build(mid + 1, to);
+    }
+
+    // Quickselect of the n-th point along a dimension, in the inclusive range...
+    private void select(int left, int right, final int n, final int dim) {
+        while(right > left) {
+            final double pivot = coordinate((left + right) >>> 1, dim);
+
+            int i = left, j = right;
+            while(i <= j) {
+                while(coordinate(i, dim) < pivot) i++;
+                while(coordinate(j, dim) > pivot) j--;
+                if(i <= j) {
+                    final int temp = order[i];
+                    order[i++] = order[j];
+                    order[j--] = temp;
+                }
+            }
+
+            if(n <= j) right = j;
+            else if(n >= i) left = i;
+            else return;
+        }
+    }
+
+    private void search(int from, int to, double[] q, double r, double r2, List<RegionType> found) {
+        while(from < to) {
+            final int mid = (from + to) >>> 1;
+            final int i = order[mid];
+
+            if(distance2(points, k * i, q) <= r2) found.add(regions.get(i));
+
+            final double d = q[splitDim[mid]] - points[k * i + splitDim[mid]];
+
+            if(d <= r) {
+                if(d >= -r) search(mid + 1, to, q, r, r2, found);
+                to = mid;
+            }
+            else from = mid + 1;
+        }
+    }
+
+    private void nearest(int from, int to, double[] q, Nearest nearest) {
+        if(from >= to) return;
+
+        final int mid = (from + to) >>> 1;
+        final int i = order[mid];
+
+        final double d2 = distance2(points, k * i, q);
+        if(d2 <= nearest.distance2) {
+            nearest.distance2 = d2;
+            nearest.index = i;
+        }
+
+        final double d = q[splitDim[mid]] - points[k * i + splitDim[mid]];
+
+        // Search the side containing the location first, then the other side if it may have closer points...
+        if(d < 0.0) {
+            nearest(from, mid, q, nearest);
+            if(d * d <= nearest.distance2) nearest(mid + 1, to, q, nearest);
+        }
+        else {
+            nearest(mid + 1, to, q, nearest);
+            if(d * d <= nearest.distance2) nearest(from, mid, q, nearest);
+        }
+    }
+
+
+    private static class Nearest {
+        private double distance2;
+        private int index = -1;
+
+        private Nearest(double distance2) { this.distance2 = distance2; }
+    }
+
+}
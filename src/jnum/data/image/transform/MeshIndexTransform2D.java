@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved. 
+ * 
+ * This file is part of jnum.
+ * 
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * 
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ * 
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+
+package jnum.data.image.transform;
+
+import jnum.data.Transforming;
+import jnum.math.Vector2D;
+
+/**
+ * An approximation of an (expensive) index transform over a rectangular range of indices, by bilinear interpolation
+ * on a mesh of control points, at which the transform is evaluated exactly. The mesh starts from square cells of a
+ * given size, which are subdivided adaptively, until the interpolation matches the exact transform to within the
+ * specified tolerance at the midpoints of the cell edges and at the cell center. Cells that cannot meet the tolerance
+ * (e.g. near the singularities or boundaries of projections) down to the smallest cell size, fall back to the exact
+ * transform, as do locations outside of the meshed range.
+ * <p>
+ * The mesh is built upon construction, after which it is read-only. Thus, the approximate transform may be used
+ * concurrently from multiple threads as long as the exact transform can be also (like {@link ProjectedIndexTransform2D}).
+ * 
+ * @author Attila Kovacs <attila[AT]sigmyne.com>
+ *
+ */
+public class MeshIndexTransform2D implements Transforming<Vector2D> {
+    private Transforming<Vector2D> exact;
+    private double tolerance;
+    
+    private double fromi, fromj;
+    private double cellSize;
+    private int nx, ny;
+    private Cell[] cells;
+    
+    
+    /**
+     * Instantiates an approximation of a transform, for the indices of an image of the given size, with the default
+     * initial cell size.
+     * 
+     * @param exact the exact transform
+     * @param sizeX the image size in the first index.
+     * @param sizeY the image size in the second index.
+     * @param tolerance the largest acceptable deviation from the exact transform (in output index units).
+     */
+    public MeshIndexTransform2D(Transforming<Vector2D> exact, int sizeX, int sizeY, double tolerance) {
+        this(exact, sizeX, sizeY, tolerance, DEFAULT_CELL_SIZE);
+    }
+    
+    /**
+     * Instantiates an approximation of a transform, for the indices of an image of the given size. The mesh extends
+     * by one index beyond the image on all sides.
+     * 
+     * @param exact the exact transform
+     * @param sizeX the image size in the first index.
+     * @param sizeY the image size in the second index.
+     * @param tolerance the largest acceptable deviation from the exact transform (in output index units).
+     * @param cellSize the size of the initial (coarsest) cells in input index units.
+     */
+    public MeshIndexTransform2D(Transforming<Vector2D> exact, int sizeX, int sizeY, double tolerance, int cellSize) {
+        this.exact = exact;
+        this.tolerance = tolerance;
+        this.cellSize = Math.max(MIN_CELL_SIZE, cellSize);
+        
+        fromi = -1.0;
+        fromj = -1.0;
+        nx = Math.max(1, (int) Math.ceil((sizeX + 1.0) / this.cellSize));
+        ny = Math.max(1, (int) Math.ceil((sizeY + 1.0) / this.cellSize));
+        
+        build();
+    }
+    
+    @Override
+    public int hashCode() { return super.hashCode() ^ exact.hashCode() ^ nx ^ ny; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof MeshIndexTransform2D)) return false;
+        
+        MeshIndexTransform2D t = (MeshIndexTransform2D) o;
+        if(!exact.equals(t.exact)) return false;
+        if(nx != t.nx || ny != t.ny) return false;
+        if(cellSize != t.cellSize) return false;
+        if(tolerance != t.tolerance) return false;
+        return true;
+    }
+    
+    public final Transforming<Vector2D> getExactTransform() { return exact; }
+    
+    public final double getTolerance() { return tolerance; }
+    
+    
+    private void build() {
+        // The exact transform at the corners of the initial cells...
+        final double[][] x = new double[nx + 1][ny + 1];
+        final double[][] y = new double[nx + 1][ny + 1];
+        final Vector2D v = new Vector2D();
+        
+        for(int i=nx+1; --i >= 0; ) for(int j=ny+1; --j >= 0; ) {
+            v.set(fromi + i * cellSize, fromj + j * cellSize);
+            exact.transform(v);
+            x[i][j] = v.x();
+            y[i][j] = v.y();
+        }
+        
+        cells = new Cell[nx * ny];
+        
+        for(int i=nx; --i >= 0; ) for(int j=ny; --j >= 0; ) {
+            final Cell cell = new Cell(fromi + i * cellSize, fromj + j * cellSize, cellSize);
+            cell.setCorners(
+                    x[i][j], y[i][j], x[i+1][j], y[i+1][j], 
+                    x[i][j+1], y[i][j+1], x[i+1][j+1], y[i+1][j+1]
+            );
+            cell.refine(v);
+            cells[i * ny + j] = cell;
+        }
+    }
+    
+    /**
+     * Gets the number of cells in the mesh, which (after refinement) interpolate the transform.
+     * 
+     * @return the number of leaf cells in the mesh.
+     */
+    public int countCells() {
+        int n = 0;
+        for(Cell cell : cells) n += cell.countLeaves();
+        return n;
+    }
+    
+    
+    @Override
+    public void transform(Vector2D index) {
+        final double u = (index.x() - fromi) / cellSize;
+        final double w = (index.y() - fromj) / cellSize;
+        
+        if(!(u >= 0.0 && u <= nx && w >= 0.0 && w <= ny)) {
+            exact.transform(index);
+            return;
+        }
+        
+        Cell cell = cells[Math.min(nx - 1, (int) u) * ny + Math.min(ny - 1, (int) w)];
+        while(cell.children != null) cell = cell.getChild(index.x(), index.y());
+        
+        if(cell.isExact) exact.transform(index);
+        else cell.interpolate(index);
+    }
+    
+    
+    
+    private class Cell {
+        private double i0, j0, size;
+        // The transformed corners at (i0,j0), (i0+size,j0), (i0,j0+size), (i0+size,j0+size)
+        private double x00, y00, x10, y10, x01, y01, x11, y11;
+        private Cell[] children;
+        private boolean isExact;
+        
+        private Cell(double i0, double j0, double size) {
+            this.i0 = i0;
+            this.j0 = j0;
+            this.size = size;
+        }
+        
+        private void setCorners(double x00, double y00, double x10, double y10, double x01, double y01, double x11, double y11) {
+            this.x00 = x00; this.y00 = y00;
+            this.x10 = x10; this.y10 = y10;
+            this.x01 = x01; this.y01 = y01;
+            this.x11 = x11; this.y11 = y11;
+        }
+        
+        private final double interpolateX(double u, double w) {
+            return (1.0 - w) * ((1.0 - u) * x00 + u * x10) + w * ((1.0 - u) * x01 + u * x11);
+        }
+        
+        private final double interpolateY(double u, double w) {
+            return (1.0 - w) * ((1.0 - u) * y00 + u * y10) + w * ((1.0 - u) * y01 + u * y11);
+        }
+        
+        private void interpolate(Vector2D index) {
+            final double u = (index.x() - i0) / size;
+            final double w = (index.y() - j0) / size;
+            index.set(interpolateX(u, w), interpolateY(u, w));
+        }
+        
+        private Cell getChild(double i, double j) {
+            final double half = 0.5 * size;
+            return children[(i < i0 + half ? 0 : 1) + (j < j0 + half ? 0 : 2)];
+        }
+        
+        private int countLeaves() {
+            if(children == null) return 1;
+            int n = 0;
+            for(Cell child : children) n += child.countLeaves();
+            return n;
+        }
+        
+        // Checks the interpolation at the edge midpoints and the center, and subdivides the cell if necessary... 
+        private void refine(final Vector2D v) {
+            final double half = 0.5 * size;
+            
+            // bottom, left, center, right, top...
+            final double[] tx = new double[5], ty = new double[5];
+            final double[] su = { 0.5, 0.0, 0.5, 1.0, 0.5 };
+            final double[] sw = { 0.0, 0.5, 0.5, 0.5, 1.0 };
+            
+            boolean isAccurate = !(Double.isNaN(x00) || Double.isNaN(x10) || Double.isNaN(x01) || Double.isNaN(x11));
+            
+            for(int k=5; --k >= 0; ) {
+                v.set(i0 + su[k] * size, j0 + sw[k] * size);
+                exact.transform(v);
+                tx[k] = v.x();
+                ty[k] = v.y();
+                
+                if(isAccurate) {
+                    final double dx = interpolateX(su[k], sw[k]) - tx[k];
+                    final double dy = interpolateY(su[k], sw[k]) - ty[k];
+                    if(!(dx * dx + dy * dy <= tolerance * tolerance)) isAccurate = false;
+                }
+            }
+            
+            if(isAccurate) return;
+            
+            // Refining small cells costs more exact evaluations than it saves...
+            if(half < MIN_CELL_SIZE) {
+                isExact = true;
+                return;
+            }
+            
+            children = new Cell[4];
+            
+            children[0] = new Cell(i0, j0, half);
+            children[0].setCorners(x00, y00, tx[0], ty[0], tx[1], ty[1], tx[2], ty[2]);
+            
+            children[1] = new Cell(i0 + half, j0, half);
+            children[1].setCorners(tx[0], ty[0], x10, y10, tx[2], ty[2], tx[3], ty[3]);
+            
+            children[2] = new Cell(i0, j0 + half, half);
+            children[2].setCorners(tx[1], ty[1], tx[2], ty[2], x01, y01, tx[4], ty[4]);
+            
+            children[3] = new Cell(i0 + half, j0 + half, half);
+            children[3].setCorners(tx[2], ty[2], tx[3], ty[3], tx[4], ty[4], x11, y11);
+            
+            for(Cell child : children) child.refine(v);
+        }
+    }
+    
+    
+    /** The default size of the initial mesh cells, in pixels */
+    public static final int DEFAULT_CELL_SIZE = 32;
+    
+    /** The smallest cell size, in pixels, below which the exact transform is used instead of interpolation */
+    public static final double MIN_CELL_SIZE = 8.0;
+    
+    /** The default tolerance for approximated index transforms, in pixels */
+    public static final double DEFAULT_TOLERANCE = 1e-3;
+}
@@ -33,16 +33,23 @@ public class ProjectedIndexTransform2D<CoordinateType extends Coordinate2D> impl
     private Grid2D<CoordinateType> fromGrid;
     private Grid2D<CoordinateType> toGrid;
     
-    private Projector2D<CoordinateType> fromProjector;
-    private Projector2D<CoordinateType> toProjector;
+    // Projectors hold the intermediate state of transforms, and so each thread needs its own...
+    private ThreadLocal<Projector2D<CoordinateType>> fromProjector, toProjector;
     
     
-    public ProjectedIndexTransform2D(Grid2D<CoordinateType> from, Grid2D<CoordinateType> to) {
+    public ProjectedIndexTransform2D(final Grid2D<CoordinateType> from, final Grid2D<CoordinateType> to) {
         this.fromGrid = from;
         this.toGrid = to;
         
-        fromProjector = new Projector2D<CoordinateType>(from.getProjection());
-        toProjector = new Projector2D<CoordinateType>(to.getProjection());
+        fromProjector = new ThreadLocal<Projector2D<CoordinateType>>() {
+            @Override
+            protected Projector2D<CoordinateType> initialValue() { return new Projector2D<CoordinateType>(from.getProjection()); }
+        };
+        
+        toProjector = new ThreadLocal<Projector2D<CoordinateType>>() {
+            @Override
+            protected Projector2D<CoordinateType> initialValue() { return new Projector2D<CoordinateType>(to.getProjection()); }
+        };
     }
     
     @Override
@@ -68,13 +75,16 @@ public class ProjectedIndexTransform2D<CoordinateType extends Coordinate2D> impl
     }
     
     public void transformOffset(Vector2D offset) {
-        fromProjector.offset.copy(offset);
-        fromProjector.deproject();
+        final Projector2D<CoordinateType> from = fromProjector.get();
+        final Projector2D<CoordinateType> to = toProjector.get();
+        
+        from.offset.copy(offset);
+        from.deproject();
         
-        toProjector.getCoordinates().convertFrom(fromProjector.getCoordinates());
+        to.getCoordinates().convertFrom(from.getCoordinates());
         
-        toProjector.project();
-        offset.copy(toProjector.offset);
+        to.project();
+        offset.copy(to.offset);
     }
     
 }
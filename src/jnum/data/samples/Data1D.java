@@ -50,13 +50,9 @@ import jnum.util.HashCode;
 
 public abstract class Data1D extends RegularData<Index1D, Offset1D> implements Values1D, TableFormatter.Entries {
 
-    private CubicSpline reuseSpline;
-    
     @Override
     public Data1D clone() {
-        Data1D clone = (Data1D) super.clone();
-        clone.reuseSpline = new CubicSpline();
-        return clone;
+        return (Data1D) super.clone();
     }
     
     @Override
@@ -172,6 +168,36 @@ public abstract class Data1D extends RegularData<Index1D, Offset1D> implements V
     @Override
     public final Number get(Index1D index) { return get(index.i()); }
     
+    @Override
+    public final double getDouble(Index1D index) { return getDouble(index.i()); }
+    
+    @Override
+    public final void setDouble(Index1D index, double value) { setDouble(index.i(), value); }
+    
+    @Override
+    public final void addDouble(Index1D index, double value) { addDouble(index.i(), value); }
+    
+    @Override
+    public double getDouble(int i) { return get(i).doubleValue(); }
+    
+    @Override
+    public void setDouble(int i, double value) { set(i, value); }
+    
+    @Override
+    public void addDouble(int i, double value) { add(i, value); }
+    
+    public float getFloat(int i) { return (float) getDouble(i); }
+    
+    public void setFloat(int i, float value) { setDouble(i, value); }
+    
+    public void addFloat(int i, float value) { addDouble(i, value); }
+    
+    public int getInt(int i) { return get(i).intValue(); }
+    
+    public void setInt(int i, int value) { set(i, value); }
+    
+    public void addInt(int i, int value) { add(i, value); }
+    
     @Override
     public final void clear(Index1D index) { clear(index.i()); }
     
@@ -197,7 +223,7 @@ public abstract class Data1D extends RegularData<Index1D, Offset1D> implements V
     public void scale(Index1D index, double factor) { scale(index.i(), factor); }
     
     public void scale(int i, double factor) {
-        set(i, get(i).doubleValue() * factor);
+        setDouble(i, getDouble(i) * factor);
     }
     
     public final void paste(final Values1D source, boolean report) {
@@ -231,6 +257,21 @@ public abstract class Data1D extends RegularData<Index1D, Offset1D> implements V
     @Override
     public double valueAtIndex(double ic) { return valueAtIndex(ic, null); }
     
+    /**
+     * Interpolates the data at a batch of (fractional) indices, in parallel for large batches.
+     * 
+     * @param ic the fractional indices.
+     * @param values the array into which to write the interpolated values (NaN outside of the valid data).
+     */
+    public void valueAtIndex(final double[] ic, final double[] values) {
+        new BatchInterpolation(values.length) {
+            @Override
+            protected void process(int i, SplineSet<Offset1D> splines) {
+                values[i] = valueAtIndex(ic[i], splines.getSpline(0));
+            }
+        }.process();
+    }
+    
     
     public double valueAtIndex(double ic, CubicSpline spline) {
         // The nearest data point (i,j)
@@ -241,10 +282,10 @@ public abstract class Data1D extends RegularData<Index1D, Offset1D> implements V
         
         if(!isValid(i)) return Double.NaN;
 
-        if(i == ic) return get(i).doubleValue();
+        if(i == ic) return getDouble(i);
 
         switch(getInterpolationType()) {
-        case NEAREST : return get(i).doubleValue();
+        case NEAREST : return getDouble(i);
         case LINEAR : return linearAtIndex(ic);
         case QUADRATIC : return quadraticAtIndex(ic);
         case SPLINE : return spline == null ? splineAtIndex(ic) : splineAtIndex(ic, spline);
@@ -278,12 +319,12 @@ public abstract class Data1D extends RegularData<Index1D, Offset1D> implements V
 
         if(isValid(i)) {
             double w = (1.0 - di);
-            sum += w * get(i).doubleValue();
+            sum += w * getDouble(i);
             sumw += w;          
         }
         if(isValid(i+1)) {
             double w = di;
-            sum += w * get(i+1).doubleValue();
+            sum += w * getDouble(i+1);
             sumw += w;  
         }
         
@@ -302,14 +343,14 @@ public abstract class Data1D extends RegularData<Index1D, Offset1D> implements V
         // Find the nearest data point (i)
         final int i = (int)Math.round(ic);
      
-        final double y0 = get(i).doubleValue();
+        final double y0 = getDouble(i);
         double a=0.0, b=0.0;
 
         if(isValid(i+1)) {
-                a = 0.5 * (get(i+1).doubleValue() + get(i-1).doubleValue()) - y0;
-                b = 0.5 * (get(i+1).doubleValue() - get(i-1).doubleValue());
+                a = 0.5 * (getDouble(i+1) + getDouble(i-1)) - y0;
+                b = 0.5 * (getDouble(i+1) - getDouble(i-1));
         }
-        else if(isValid(i-1)) b = y0 - get(i-1).doubleValue();
+        else if(isValid(i-1)) b = y0 - getDouble(i-1);
 
        
         ic -= i;
@@ -326,7 +367,7 @@ public abstract class Data1D extends RegularData<Index1D, Offset1D> implements V
     }
     
     public final double splineAtIndex(final double ic) {
-        synchronized(reuseSpline) { return splineAtIndex(ic, reuseSpline); }
+        return splineAtIndex(ic, getLocalSplines().getSpline(0));
     }
 
 
@@ -342,7 +383,7 @@ public abstract class Data1D extends RegularData<Index1D, Offset1D> implements V
         double sum = 0.0, sumw = 0.0;
         for(int i=toi; --i >= fromi; ) if(isValid(i)) {
             final double w = spline.coefficientAt(i);
-            sum += w * get(i).doubleValue();
+            sum += w * getDouble(i);
             sumw += w;
         }
 
@@ -425,7 +466,7 @@ public abstract class Data1D extends RegularData<Index1D, Offset1D> implements V
     protected String getASCIITableEntry(int index, Grid1D grid, String nanValue) {
         if(grid == null) return (index+1) + "";
         
-        double value = get(index).doubleValue();        
+        double value = getDouble(index);        
         String sValue = Double.isNaN(value) ? nanValue : Util.S6.format(value / getUnit().value());
          
         return Util.S6.format(grid.coordAt(index) / grid.getAxis().unit.value()) + "\t" +
@@ -375,6 +375,30 @@ public abstract class Samples1D extends Data1D implements Serializable, Resizabl
         public final void add(int i, Number value) {
            data[i] += value.doubleValue();
         }
+
+        @Override
+        public final double getDouble(int i) {
+            return data[i];
+        }
+
+        @Override
+        public final void setDouble(int i, double value) {
+            data[i] = value;
+        }
+        
+        @Override
+        public final void addDouble(int i, double value) {
+           data[i] += value;
+        }
+
+        @Override
+        public final boolean isValid(int i) {
+            final double value = data[i];
+            if(Double.isNaN(value)) return false;
+            final Number blanking = getBlankingValue();
+            if(!(blanking instanceof Double)) return true;
+            return Double.doubleToLongBits(value) != Double.doubleToLongBits(blanking.doubleValue());
+        }
             
         @Override
         public final boolean isValid(Number value) {
@@ -452,6 +476,45 @@ public abstract class Samples1D extends Data1D implements Serializable, Resizabl
         public final void add(int i, Number value) {
            data[i] += value.floatValue();
         }
+
+        @Override
+        public final double getDouble(int i) {
+            return data[i];
+        }
+
+        @Override
+        public final void setDouble(int i, double value) {
+            data[i] = (float) value;
+        }
+        
+        @Override
+        public final void addDouble(int i, double value) {
+           data[i] += (float) value;
+        }
+
+        @Override
+        public final float getFloat(int i) {
+            return data[i];
+        }
+
+        @Override
+        public final void setFloat(int i, float value) {
+            data[i] = value;
+        }
+        
+        @Override
+        public final void addFloat(int i, float value) {
+           data[i] += value;
+        }
+
+        @Override
+        public final boolean isValid(int i) {
+            final float value = data[i];
+            if(Float.isNaN(value)) return false;
+            final Number blanking = getBlankingValue();
+            if(!(blanking instanceof Float)) return true;
+            return Float.floatToIntBits(value) != Float.floatToIntBits(blanking.floatValue());
+        }
         
            
         @Override
@@ -520,6 +583,21 @@ public abstract class Samples1D extends Data1D implements Serializable, Resizabl
         public final void add(int i, Number value) {
            data[i] += value.longValue();
         }
+
+        @Override
+        public final double getDouble(int i) {
+            return data[i];
+        }
+
+        @Override
+        public final void setDouble(int i, double value) {
+            data[i] = (long) value;
+        }
+        
+        @Override
+        public final void addDouble(int i, double value) {
+           data[i] += (long) value;
+        }
         
   
     }
@@ -580,6 +658,36 @@ public abstract class Samples1D extends Data1D implements Serializable, Resizabl
         public final void add(int i, Number value) {
            data[i] += value.intValue();
         }
+
+        @Override
+        public final double getDouble(int i) {
+            return data[i];
+        }
+
+        @Override
+        public final void setDouble(int i, double value) {
+            data[i] = (int) value;
+        }
+        
+        @Override
+        public final void addDouble(int i, double value) {
+           data[i] += (int) value;
+        }
+
+        @Override
+        public final int getInt(int i) {
+            return data[i];
+        }
+
+        @Override
+        public final void setInt(int i, int value) {
+            data[i] = value;
+        }
+        
+        @Override
+        public final void addInt(int i, int value) {
+           data[i] += value;
+        }
            
  
         
@@ -640,6 +748,21 @@ public abstract class Samples1D extends Data1D implements Serializable, Resizabl
         public final void add(int i, Number value) {
            data[i] += value.shortValue();
         }
+
+        @Override
+        public final double getDouble(int i) {
+            return data[i];
+        }
+
+        @Override
+        public final void setDouble(int i, double value) {
+            data[i] = (short) value;
+        }
+        
+        @Override
+        public final void addDouble(int i, double value) {
+           data[i] += (short) value;
+        }
         
     }
     
@@ -699,6 +822,21 @@ public abstract class Samples1D extends Data1D implements Serializable, Resizabl
            data[i] += value.byteValue();
         }
 
+        @Override
+        public double getDouble(int i) {
+            return data[i];
+        }
+
+        @Override
+        public void setDouble(int i, double value) {
+            data[i] = (byte) value;
+        }
+        
+        @Override
+        public void addDouble(int i, double value) {
+           data[i] += (byte) value;
+        }
+
        
     }
     
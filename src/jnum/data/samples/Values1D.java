@@ -36,6 +36,12 @@ public interface Values1D extends IndexedValues<Index1D>, Validating1D {
     
     public void set(int i, Number value);
     
+    public double getDouble(int i);
+    
+    public void addDouble(int i, double value);
+    
+    public void setDouble(int i, double value);
+    
     public double valueAtIndex(double ic);    
        
 }
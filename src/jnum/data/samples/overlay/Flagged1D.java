@@ -108,6 +108,18 @@ public class Flagged1D extends Overlay1D {
         super.add(i, value);
         unflag(i);
     }
+
+    @Override
+    public void setDouble(int i, double value) {
+        super.setDouble(i, value);
+        unflag(i);
+    }
+
+    @Override
+    public void addDouble(int i, double value) {
+        super.addDouble(i, value);
+        unflag(i);
+    }
     
     
     public void flag(final long pattern) {
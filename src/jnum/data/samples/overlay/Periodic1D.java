@@ -89,6 +89,21 @@ public class Periodic1D extends Overlay1D {
         super.add(toBaseIndex(i), value);
     }
 
+    @Override
+    public double getDouble(int i) {
+        return super.getDouble(toBaseIndex(i));
+    }
+
+    @Override
+    public void setDouble(int i, double value) {
+        super.setDouble(toBaseIndex(i), value);
+    }
+
+    @Override
+    public void addDouble(int i, double value) {
+        super.addDouble(toBaseIndex(i), value);
+    }
+
     @Override
     public double valueAtIndex(double i) {
         return super.valueAtIndex(toBaseIndex(i));
@@ -121,6 +121,21 @@ public class Viewport1D extends Overlay1D implements Resizable1D {
         super.add(i + i0, value);
     }
 
+    @Override
+    public final double getDouble(int i) {
+        return super.getDouble(i + i0);
+    }
+
+    @Override
+    public final void setDouble(int i, double value) {
+        super.setDouble(i + i0, value);
+    }
+
+    @Override
+    public final void addDouble(int i, double value) {
+        super.addDouble(i + i0, value);
+    }
+
     
  
 }
@@ -69,6 +69,48 @@ public class ComplexFFT extends FFT1D<Complex[]> {
     
     @Override
     public final int getPoints(Complex[] data) { return Integer.highestOneBit(data.length); }
+    
+    /* (non-Javadoc)
+     * @see jnum.fft.FFT#isMixedRadix(java.lang.Object)
+     */
+    @Override
+    final boolean isMixedRadix(Complex[] data) {
+        return data.length != getPoints(data);
+    }
+    
+    /* (non-Javadoc)
+     * @see jnum.fft.FFT#mixedRadixTransform(java.lang.Object, boolean, boolean)
+     */
+    @Override
+    final void mixedRadixTransform(final Complex[] data, final boolean isForward, final boolean isParallel) {
+        final double[] buf = InterleavedComplexFFT.Double.interleave(data);
+        complexTransform(getMixedRadixPlan(data.length), buf, isForward, isParallel);
+        InterleavedComplexFFT.Double.deinterleave(buf, data);
+    }
+    
+    // The butterflies run on an interleaved primitive copy of the data, rather than chasing the Complex references... 
+    /* (non-Javadoc)
+     * @see jnum.fft.FFT#sequentialComplexTransform(java.lang.Object, int, boolean)
+     */
+    @Override
+    void sequentialComplexTransform(final Complex[] data, final int addressBits, final boolean isForward) {
+        final double[] buf = InterleavedComplexFFT.Double.interleave(data, 1 << addressBits);
+        new InterleavedComplexFFT.Double().sequentialComplexTransform(buf, addressBits, isForward);
+        InterleavedComplexFFT.Double.deinterleave(buf, data);
+        discardFrom(data, 1 << addressBits);
+    }
+    
+    /* (non-Javadoc)
+     * @see jnum.fft.FFT#parallelComplexTransform(java.lang.Object, int, boolean)
+     */
+    @Override
+    void parallelComplexTransform(final Complex[] data, final int addressBits, final boolean isForward) {
+        final double[] buf = InterleavedComplexFFT.Double.interleave(data, 1 << addressBits);
+        new InterleavedComplexFFT.Double(this).parallelComplexTransform(buf, addressBits, isForward);
+        InterleavedComplexFFT.Double.deinterleave(buf, data);
+        discardFrom(data, 1 << addressBits);
+    }
+    
       
 
     // 8/16-byte headers (32/64-bit) + 16 byte content... 
@@ -106,9 +148,10 @@ public class ComplexFFT extends FFT1D<Complex[]> {
      * @param to the to
      * @param isForward the is forward
      * @param blkbit the blkbit
+     * @param plan the plan with the precomputed twiddle factors
      */
     @Override
-    protected void radix2(final Complex[] data, int from, int to, final boolean isForward, int blkbit) {	
+    void radix2(final Complex[] data, int from, int to, final boolean isForward, int blkbit, final SplitRadixPlan plan) {	
 
         // The Complex[] block size
         final int blk = 1 << blkbit;
@@ -124,37 +167,26 @@ public class ComplexFFT extends FFT1D<Complex[]> {
 
         // <------------------ Processing Block Starts Here ------------------------>
         // 
-        // This one calculates the twiddle factors on the fly, using generators,
-        // with precision readjustments as necessary.
-
-        final double theta = (isForward ? Math.PI : -Math.PI) / blk;
-        final Complex winc = new Complex(Math.cos(theta), Math.sin(theta));
+        // This one looks up the twiddle factors from the precomputed tables of the plan.
 
-        final Complex w = new Complex(1.0, 0.0);
+        final double[] table = plan.getTwiddles();
+        final double sign = isForward ? 1.0 : -1.0;
+        final int shift = plan.getTwiddleShift(blkbit+1);
 
-        int m = from & blkmask;
-        if(m != 0) w.setUnitVectorAt(m * theta);
+        final Complex w = new Complex();
 
         final Complex x = new Complex();
 
-        final int clcmask = getTwiddleMask();
-
         for(int i1=from; i1<to; i1++) {
             // Skip over the odd blocks...
             // These are the i2 indices...
             if((i1 & blk) != 0) {
                 i1 += blk;
                 if(i1 >= to) break;
-
-                // Reset the twiddle factors
-                m = i1 & blkmask;
-                if(m != 0) w.setUnitVectorAt(m * theta);
-                else w.set(1.0, 0.0);
             }
 
-            // To keep the twiddle precision under control
-            // recalculate every now and then...
-            if((i1 & clcmask) == 0) w.setUnitVectorAt(i1 * theta);			
+            final int k = (i1 & blkmask) << shift;
+            w.set(table[k], sign * table[k | 1]);
 
             final Complex d1 = data[i1];
             final Complex d2 = data[i1 + blk];
@@ -163,9 +195,6 @@ public class ComplexFFT extends FFT1D<Complex[]> {
 
             d2.setDifference(d1, x);
 
-            // Increment the twiddle factors...
-            w.multiplyBy(winc);
-
             // --------------------------------
             // i1
             d1.add(x);			
@@ -191,9 +220,10 @@ public class ComplexFFT extends FFT1D<Complex[]> {
      * @param to the to
      * @param isForward the is forward
      * @param blkbit the blkbit
+     * @param plan the plan with the precomputed twiddle factors
      */
     @Override
-    protected void radix4(final Complex[] data, int from, int to, final boolean isForward, int blkbit) {	
+    void radix4(final Complex[] data, int from, int to, final boolean isForward, int blkbit, final SplitRadixPlan plan) {	
 
         // The Complex[] block size
         final int blk = 1 << blkbit;
@@ -210,17 +240,13 @@ public class ComplexFFT extends FFT1D<Complex[]> {
 
         // <------------------ Processing Block Starts Here ------------------------>
         // 
-        // This one calculates the twiddle factors on the fly, using generators,
-        // with precision readjustments as necessary.
-
-        final double theta = (isForward ? Math.PI : -Math.PI) / (blk<<1);
-        final Complex winc = new Complex(Math.cos(theta), Math.sin(theta));
+        // This one looks up the twiddle factors from the precomputed tables of the plan.
 
+        final double[] table = plan.getTwiddles();
+        final double sign = isForward ? 1.0 : -1.0;
+        final int shift = plan.getTwiddleShift(blkbit+2);
 
-        final Complex w1 = new Complex(1.0, 0.0); 
-
-        int m = from & blkmask;
-        if(m != 0) w1.setUnitVectorAt(m * theta);
+        final Complex w1 = new Complex(); 
 
         final Complex w2 = new Complex();
         final Complex w3 = new Complex();
@@ -230,30 +256,21 @@ public class ComplexFFT extends FFT1D<Complex[]> {
         final Complex f3 = new Complex();
 
 
-        final int clcmask = getTwiddleMask();
-
         for(int i0=from; i0<to; i0++) {
             // Skip over the 2nd, 3rd, and 4th blocks...
             if((i0 & skip) != 0) {
                 i0 += skip;
                 if(i0 >= to) break;
-
-                // Reset the twiddle factors
-                m = i0 & blkmask;
-                if(m != 0) w1.setUnitVectorAt(m * theta);
-                else w1.set(1.0, 0.0);
             }
 
             //->0:    f0 = F0
 
             final Complex f0 = data[i0];
 
-            // To keep the twiddle precision under control
-            // recalculate every now and then...
-
-            if((i0 & clcmask) == 0) w1.setUnitVectorAt(i0 * theta);				
-
-            w2.setProduct(w1, w1);		
+            final int k = (i0 & blkmask) << shift;
+            
+            w1.set(table[k], sign * table[k | 1]);
+            w2.setProduct(w1, w1);
             w3.setProduct(w1, w2);			
 
             final int i1 = i0 + blk;
@@ -264,9 +281,6 @@ public class ComplexFFT extends FFT1D<Complex[]> {
             f1.setProduct(w1, data[i2]);
             f3.setProduct(w3, data[i3]);
 
-            // Increment the twiddle factors...
-            w1.multiplyBy(winc);
-
             w2.setDifference(f0, f2);
             w3.setDifference(f1, f3);
             w3.multiplyByI();
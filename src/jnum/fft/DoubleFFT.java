@@ -78,6 +78,34 @@ public class DoubleFFT extends FFT1D<double[]> implements RealFFT<double[]> {
         return Integer.highestOneBit(data.length);
     }
     
+    /**
+     * Gets the number of elements that are transformed in the data array. 
+     *
+     * @param data the data
+     * @return the number of (real) elements transformed.
+     */
+    int getTransformLength(double[] data) {
+        return data.length;
+    }
+    
+    /* (non-Javadoc)
+     * @see jnum.fft.FFT#isMixedRadix(java.lang.Object)
+     */
+    @Override
+    final boolean isMixedRadix(double[] data) {
+        return getTransformLength(data) != getPoints(data);
+    }
+    
+    /* (non-Javadoc)
+     * @see jnum.fft.FFT#mixedRadixTransform(java.lang.Object, boolean, boolean)
+     */
+    @Override
+    final void mixedRadixTransform(double[] data, boolean isForward, boolean isParallel) {
+        final int n = getTransformLength(data);
+        if((n & 1) != 0) throw new IllegalArgumentException("Complex data with odd number of elements (" + n + ").");
+        complexTransform(getMixedRadixPlan(n >>> 1), data, isForward, isParallel);
+    }
+    
     
     /* (non-Javadoc)
      * @see kovacs.fft.FFT#getTwiddleMask()
@@ -99,9 +127,10 @@ public class DoubleFFT extends FFT1D<double[]> implements RealFFT<double[]> {
      * @param to the to
      * @param isForward the is forward
      * @param blkbit the blkbit
+     * @param plan the plan with the precomputed twiddle factors
      */
     @Override
-    protected void radix2(final double[] data, int from, int to, final boolean isForward, final int blkbit) {	
+    void radix2(final double[] data, int from, int to, final boolean isForward, final int blkbit, final SplitRadixPlan plan) {	
 
         // The double[] block size
         final int blk = 1 << (blkbit+1);
@@ -116,18 +145,11 @@ public class DoubleFFT extends FFT1D<double[]> implements RealFFT<double[]> {
 
         // <------------------ Processing Block Starts Here ------------------------>
         // 
-        // This one calculates the twiddle factors on the fly, using generators,
-        // with precision readjustments as necessary.
-
-        final double theta = (isForward ? Constant.twoPi : -Constant.twoPi) / blk;
-        final double s = Math.sin(theta);
-        final double c = Math.cos(theta);
+        // This one looks up the twiddle factors from the precomputed tables of the plan.
 
-        int m = (from & blkmask) >>> 1;
-        double r = m == 0 ? 1.0 : Math.cos(m * theta);
-        double i = m == 0 ? 0.0 : Math.sin(m * theta);
-
-        final int clcmask = getTwiddleMask();
+        final double[] w = plan.getTwiddles();
+        final double sign = isForward ? 1.0 : -1.0;
+        final int shift = plan.getTwiddleShift(blkbit+1);
 
         for(int i1=from; i1<to; i1+=2) {
             // Skip over the odd blocks...
@@ -135,20 +157,11 @@ public class DoubleFFT extends FFT1D<double[]> implements RealFFT<double[]> {
             if((i1 & blk) != 0) {
                 i1 += blk;
                 if(i1 >= to) break;
-
-                // Reset the twiddle factors...
-                m = (i1 & blkmask) >>> 1;
-                r = m == 0 ? 1.0 : Math.cos(m * theta);
-                i = m == 0 ? 0.0 : Math.sin(m * theta);
             }
 
-            // To keep the twiddle precision under control
-            // recalculate every now and then...
-            if((i1 & clcmask) == 0) {
-                final double a = (i1 >>> 1) * theta;
-                r = Math.cos(a);
-                i = Math.sin(a);				
-            }
+            final int k = ((i1 & blkmask) >>> 1) << shift;
+            final double r = w[k];
+            final double i = sign * w[k | 1];
 
             final double d1r = data[i1];
             final double d1i = data[i1 | 1];
@@ -166,11 +179,6 @@ public class DoubleFFT extends FFT1D<double[]> implements RealFFT<double[]> {
             data[i2] = d1r - xr;
             data[i2 | 1] = d1i - xi;
 
-            // Increment the twiddle factors...
-            final double temp = r;
-            r = temp * c - i * s;
-            i = i * c + temp * s;
-
             // --------------------------------
             // i1
 
@@ -196,9 +204,10 @@ public class DoubleFFT extends FFT1D<double[]> implements RealFFT<double[]> {
      * @param to the to
      * @param isForward the is forward
      * @param blkbit the blkbit
+     * @param plan the plan with the precomputed twiddle factors
      */
     @Override
-    protected void radix4(final double[] data, int from, int to, final boolean isForward, final int blkbit) {	
+    void radix4(final double[] data, int from, int to, final boolean isForward, final int blkbit, final SplitRadixPlan plan) {	
         // The double[] block size
         final int blk = 1 << (blkbit+1);
         final int skip = 3 * blk;
@@ -214,29 +223,17 @@ public class DoubleFFT extends FFT1D<double[]> implements RealFFT<double[]> {
 
         // <------------------ Processing Block Starts Here ------------------------>
         // 
-        // This one calculates the twiddle factors on the fly, using generators,
-        // with precision readjustments as necessary.
+        // This one looks up the twiddle factors from the precomputed tables of the plan.
 
-        final double theta = (isForward ? Constant.twoPi : -Constant.twoPi) / (blk << 1);
-        final double s = Math.sin(theta);
-        final double c = Math.cos(theta);
-
-        int m = (from & blkmask) >>> 1;
-        double w1r = Math.cos(m * theta);
-        double w1i = Math.sin(m * theta);
-
-        final int clcmask = getTwiddleMask();
+        final double[] w = plan.getTwiddles();
+        final double sign = isForward ? 1.0 : -1.0;
+        final int shift = plan.getTwiddleShift(blkbit+2);
 
         for(int i0=from; i0<to; i0 += 2) {
             // Skip over the 2nd, 3rd, and 4th blocks...
             if((i0 & skip) != 0) {
                 i0 += skip;
                 if(i0 >= to) break;
-
-                // Reset the twiddle factors
-                m = (i0 & blkmask) >>> 1;
-                w1r = Math.cos(m * theta);
-                w1i = Math.sin(m * theta);
             }
 
             //->0:    f0 = F0
@@ -244,14 +241,10 @@ public class DoubleFFT extends FFT1D<double[]> implements RealFFT<double[]> {
             final double f0r = data[i0];
             final double f0i = data[i0 | 1];
 
-            // To keep the twiddle precision under control
-            // recalculate every now and then...
-
-            if((i0 & clcmask) == 0) {
-                final double a = (i0 >>> 1) * theta;
-                w1r = Math.cos(a);
-                w1i = Math.sin(a);				
-            }
+            final int k = ((i0 & blkmask) >>> 1) << shift;
+            
+            final double w1r = w[k];
+            final double w1i = sign * w[k | 1];
 
             double w2r = w1r * w1r - w1i * w1i;
             double w2i = 2.0 * w1r * w1i;
@@ -279,12 +272,6 @@ public class DoubleFFT extends FFT1D<double[]> implements RealFFT<double[]> {
             final double f3r = w3r * dr - w3i * di;
             final double f3i = w3r * di + w3i * dr;
 
-            // Increment the twiddle factors...
-            final double temp = w1r;
-            w1r = temp * c - w1i * s;
-            w1i = w1i * c + temp * s;
-
-
             w2r = f0r - f2r;
             w2i = f0i - f2i;
 
@@ -328,14 +315,15 @@ public class DoubleFFT extends FFT1D<double[]> implements RealFFT<double[]> {
      * Load real.
      *
      * @param data the data
-     * @param addressBits the address bits
+     * @param length the number of real elements
      * @param from the from
      * @param to the to
      * @param isForward the is forward
+     * @param plan the plan with precomputed twiddle factors for the length, or null to calculate them on the fly.
      */
-    private void loadReal(final double[] data, final int addressBits, int from, int to, final boolean isForward) {
-        int length = 2<<addressBits;
-        to = Math.min(to, length);
+    private void loadReal(final double[] data, final int length, int from, int to, final boolean isForward, final SplitRadixPlan plan) {
+        // (When the number of complex points is odd, the last pair is at length/2 - 1)
+        to = Math.min(to, length + 2);
 
         // Make from and to even indices 0...N/2
         from = Math.max(2, (from >>> 2) << 1);
@@ -347,6 +335,7 @@ public class DoubleFFT extends FFT1D<double[]> implements RealFFT<double[]> {
 
         final double sh = isForward ? 0.5 : -0.5;
         final int clcmask = getTwiddleMask();
+        final double[] w = plan == null ? null : plan.getTwiddles();
 
         double a = (from>>>1) * theta;
         double wr = from == 2 ? c : Math.cos(a);
@@ -359,8 +348,12 @@ public class DoubleFFT extends FFT1D<double[]> implements RealFFT<double[]> {
             double hr = sh * (data[i1] + data[i2]);
             double hi = sh * (data[r2] - data[r1]);
 
+            if(w != null) {
+                wr = w[r1];
+                wi = isForward ? w[i1] : -w[i1];
+            }
             // Recalculate the twiddle factors as needed to keep the precision under control...
-            if((r1 & clcmask) == 0) {
+            else if((r1 & clcmask) == 0) {
                 a = (r1 >>> 1) * theta;
                 wr = Math.cos(a);
                 wi = Math.sin(a);				
@@ -391,7 +384,8 @@ public class DoubleFFT extends FFT1D<double[]> implements RealFFT<double[]> {
      */
     @Override
     public final void realTransform(final double data[], final boolean isForward) {
-        realTransform(data, getAddressBits(data), isForward);
+        if(isMixedRadix(data)) mixedRadixRealTransform(data, isForward, getParallel() > 1);
+        else realTransform(data, getAddressBits(data), isForward);
     }
 
 
@@ -412,9 +406,11 @@ public class DoubleFFT extends FFT1D<double[]> implements RealFFT<double[]> {
     void parallelRealTransform(final double[] data, final int addressBits, final boolean isForward) {
         if(isForward) parallelComplexTransform(data, addressBits, FORWARD);
 
+        final SplitRadixPlan plan = getSplitRadixPlan(addressBits);
+        
         new BlockFork(data, 2<<addressBits) {
             @Override
-            public void processBlock(double[] data, int from, int to) { loadReal(data, addressBits, from, to, isForward); }
+            public void processBlock(double[] data, int from, int to) { loadReal(data, 2<<addressBits, from, to, isForward, plan); }
         }.process();
 
         final double d0 = data[0];
@@ -439,7 +435,43 @@ public class DoubleFFT extends FFT1D<double[]> implements RealFFT<double[]> {
      */
     @Override
     public final void sequentialRealTransform(final double[] data, final boolean isForward) {
-        sequentialRealTransform(data, getAddressBits(data), isForward);
+        if(isMixedRadix(data)) mixedRadixRealTransform(data, isForward, false);
+        else sequentialRealTransform(data, getAddressBits(data), isForward);
+    }
+    
+    /**
+     * Real transform of data whose size is not a power of 2, using the mixed-radix (or Bluestein) complex
+     * transform of half the size, or of the full size for an odd number of elements (see 
+     * {@link FFT#oddRealTransform(double[], int, boolean, boolean)} for the packing of odd-sized spectra).
+     *
+     * @param data the data
+     * @param isForward the is forward
+     * @param isParallel whether to process the complex transform in parallel
+     */
+    void mixedRadixRealTransform(final double[] data, final boolean isForward, final boolean isParallel) {
+        final int n = getTransformLength(data);
+        if((n & 1) != 0) {
+            oddRealTransform(data, n, isForward, isParallel);
+            return;
+        }
+        
+        final MixedRadixPlan plan = getMixedRadixPlan(n >>> 1);
+        
+        if(isForward) complexTransform(plan, data, FORWARD, isParallel);
+
+        loadReal(data, n, 0, n + 2, isForward, null);
+
+        final double d0 = data[0];
+
+        if(isForward) {
+            data[0] = d0 + data[1];
+            data[1] = d0 - data[1];
+        } 
+        else {
+            data[0] = 0.5 * (d0 + data[1]);
+            data[1] = 0.5 * (d0 - data[1]);
+            complexTransform(plan, data, BACK, isParallel);
+        }
     }
 
 
@@ -453,7 +485,7 @@ public class DoubleFFT extends FFT1D<double[]> implements RealFFT<double[]> {
     void sequentialRealTransform(final double[] data, final int addressBits, final boolean isForward) {
         if(isForward) sequentialComplexTransform(data, addressBits, FORWARD); 
 
-        loadReal(data, addressBits, 0, 2<<addressBits, isForward);
+        loadReal(data, 2<<addressBits, 0, 2<<addressBits, isForward, getSplitRadixPlan(addressBits));
 
         final double d0 = data[0];
 
@@ -497,9 +529,8 @@ public class DoubleFFT extends FFT1D<double[]> implements RealFFT<double[]> {
      */
     @Override
     public void real2Amplitude(final double[] data) {
-        final int addressBits = getAddressBits(data);
-        final int n = 2 << addressBits;
-        realTransform(data, addressBits, FFT.FORWARD);
+        final int n = getTransformLength(data);
+        realTransform(data, FFT.FORWARD);
         scale(data, n, 2.0F / n);
     }
 
@@ -650,6 +681,31 @@ public class DoubleFFT extends FFT1D<double[]> implements RealFFT<double[]> {
             return Integer.highestOneBit(data.length - 2);
         }
         
+        @Override
+        int getTransformLength(double[] data) {
+            return data.length - 2;
+        }
+        
+        /* (non-Javadoc)
+         * @see jnum.fft.DoubleFFT#mixedRadixRealTransform(double[], boolean, boolean)
+         */
+        @Override
+        void mixedRadixRealTransform(final double[] data, final boolean isForward, final boolean isParallel) {   
+            final int n = data.length - 2;
+
+            if(!isForward) {
+                data[1] = data[n];
+                data[n] = data[n+1] = 0.0;
+            }
+
+            super.mixedRadixRealTransform(data, isForward, isParallel);
+            
+            if(isForward) { 
+                data[n] = data[1];
+                data[1] = data[n+1] = 0.0;
+            }
+        }
+        
      
         /* (non-Javadoc)
          * @see jnum.fft.DoubleFFT#realTransform(double[], int, boolean, int)
@@ -83,7 +83,8 @@ public abstract class FFT<Type> extends ParallelObject implements Serializable {
 
     /**
      * Set how many error bits are tolerated in the twiddle factors. The FFT routines will guarantee that the error in the
-     * twiddle factors will never exceed this. 
+     * twiddle factors will never exceed this. Power-of-2 complex transforms use exact precomputed twiddle tables, and
+     * are not affected by this setting.
      *
      * @param value the new twiddle error bits
      */
@@ -126,7 +127,8 @@ public abstract class FFT<Type> extends ParallelObject implements Serializable {
      * @param chunks the chunks
      */
     public final void complexTransform(final Type data, final boolean isForward) {
-        complexTransform(data, getAddressBits(data), isForward);
+        if(isMixedRadix(data)) mixedRadixTransform(data, isForward, getParallel() != 1);
+        else complexTransform(data, getAddressBits(data), isForward);
     }
    
     /**
@@ -150,7 +152,8 @@ public abstract class FFT<Type> extends ParallelObject implements Serializable {
      * @param isForward the is forward
      */
     public final void sequentialComplexTransform(final Type data, final boolean isForward) {	
-        sequentialComplexTransform(data, getAddressBits(data), isForward);
+        if(isMixedRadix(data)) mixedRadixTransform(data, isForward, false);
+        else sequentialComplexTransform(data, getAddressBits(data), isForward);
     }
 
     /**
@@ -162,18 +165,16 @@ public abstract class FFT<Type> extends ParallelObject implements Serializable {
      */
     void sequentialComplexTransform(final Type data, final int addressBits, final boolean isForward) {	
         final int n = 1<<addressBits;
+        final SplitRadixPlan plan = getSplitRadixPlan(addressBits);
         
-        for(int i=n; --i >= 0; ) {
-            final int j = Integer.reverse(i<<(32-addressBits));
-            if(j > i) swap(data, i, j);
-        }
+        for(int k=plan.getSwaps(); --k >= 0; ) swap(data, plan.getSwapFrom(k), plan.getSwapTo(k));
 
         int blkbit = 0;
 
-        if((addressBits & 1) != 0) radix2(data, 0, n, isForward, blkbit++);
+        if((addressBits & 1) != 0) radix2(data, 0, n, isForward, blkbit++, plan);
 
         while(blkbit < addressBits) {	
-            radix4(data, 0, n, isForward, blkbit);
+            radix4(data, 0, n, isForward, blkbit, plan);
             blkbit += 2;
         }
         
@@ -184,25 +185,25 @@ public abstract class FFT<Type> extends ParallelObject implements Serializable {
     void parallelComplexTransform(final Type data, final int addressBits, final boolean isForward) {	
         // Don't make more chunks than there are processing blocks...
         final int n = 1<<addressBits;    
+        final SplitRadixPlan plan = getSplitRadixPlan(addressBits);
        
         // Bit reversal...
-        new PointFork(data, n) {
+        new PointFork(data, plan.getSwaps()) {
             @Override
-            public void process(final Type data, final int i) {
-                final int j = Integer.reverse(i << (32-addressBits));
-                if(j > i) swap(data, i, j);
+            public void process(final Type data, final int k) {
+                swap(data, plan.getSwapFrom(k), plan.getSwapTo(k));
             }
         }.process();
 
         int blkbit = 0;
         
         if((addressBits & 1) != 0) {
-            new Radix2(data, n, blkbit, isForward).process();
+            new Radix2(data, n, blkbit, isForward, plan).process();
             blkbit++;		
         }
         
         while(blkbit < addressBits) {
-            new Radix4(data, n, blkbit, isForward).process();
+            new Radix4(data, n, blkbit, isForward, plan).process();
             blkbit += 2;
         }
         
@@ -212,6 +213,159 @@ public abstract class FFT<Type> extends ParallelObject implements Serializable {
     
 
     abstract void swap(Type data, int i, int j);
+    
+    
+    /**
+     * Checks whether the data should be transformed by the mixed-radix (or Bluestein) algorithms, 
+     * rather than the power-of-2 algorithms. Types that support arbitrary-length transforms override this
+     * together with {@link #mixedRadixTransform(Object, boolean, boolean)}.
+     *
+     * @param data the data
+     * @return true if the data size is not a power of 2 and it should be transformed without padding.
+     */
+    boolean isMixedRadix(Type data) { return false; }
+    
+    
+    void mixedRadixTransform(Type data, boolean isForward, boolean isParallel) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " supports power-of-2 sizes only.");
+    }
+    
+   
+    /**
+     * Gets the (cached) plan for power-of-2 transforms.
+     *
+     * @param addressBits the size of the transform as a power of 2, in complex points.
+     * @return the plan for the transform size.
+     */
+    static SplitRadixPlan getSplitRadixPlan(int addressBits) {
+        return splitRadixPlans.get(addressBits);
+    }
+    
+    /**
+     * Gets the (cached) plan for mixed-radix (or Bluestein) transforms of arbitrary size.
+     *
+     * @param n the size of the transform in complex points.
+     * @return the plan for the transform size.
+     */
+    static MixedRadixPlan getMixedRadixPlan(int n) {
+        return mixedRadixPlans.get(n);
+    }
+    
+    /**
+     * Discards all cached plans, e.g. to reclaim memory after processing data of sizes that will not recur.
+     */
+    public static void clearPlans() {
+        splitRadixPlans.clear();
+        mixedRadixPlans.clear();
+    }
+    
+    /**
+     * Complex transform of interleaved (re, im) data of arbitrary size.
+     *
+     * @param plan the plan for the size of the transform.
+     * @param data the interleaved complex data.
+     * @param isForward true for the forward transform, false for the backward transform.
+     * @param isParallel whether to process in parallel, if the data is large enough to benefit from it.
+     */
+    final void complexTransform(final MixedRadixPlan plan, final double[] data, final boolean isForward, boolean isParallel) {
+        if(!isParallel || plan.size() < MIN_PARALLEL_SIZE) plan.transform(data, isForward);
+        else if(plan.isBluestein()) parallelBluestein(plan, data, isForward);
+        else parallelStockham(plan, data, isForward);
+    }
+    
+    
+    /**
+     * Real transform of an odd number of elements, via the complex transform of the same size. The spectrum is packed
+     * into the n elements as for even sizes, except that, without a Nyquist component, the last element holds the real 
+     * part of the highest frequency component (k = (n-1)/2), and element 1 its imaginary part. The backward transform 
+     * is scaled by n/2, as for even sizes.
+     *
+     * @param data the real data, or its packed spectrum.
+     * @param n the (odd) number of elements to transform, at least 3.
+     * @param isForward true for the forward transform, false for the backward transform.
+     * @param isParallel whether to process in parallel, if the data is large enough to benefit from it.
+     */
+    final void oddRealTransform(final double[] data, final int n, final boolean isForward, final boolean isParallel) {
+        final int m = n >>> 1;
+        final double[] buf = new double[n << 1];
+        
+        if(isForward) {
+            for(int i=n; --i >= 0; ) buf[i << 1] = data[i];
+            
+            complexTransform(getMixedRadixPlan(n), buf, FORWARD, isParallel);
+            
+            data[0] = buf[0];
+            for(int k=1; k < m; k++) {
+                data[k << 1] = buf[k << 1];
+                data[(k << 1) + 1] = buf[(k << 1) + 1];
+            }
+            data[n - 1] = buf[m << 1];
+            data[1] = buf[(m << 1) + 1];
+        }
+        else {
+            // Rebuild the full Hermitian spectrum...
+            buf[0] = data[0];
+            for(int k=1; k <= m; k++) {
+                final double re = k < m ? data[k << 1] : data[n - 1];
+                final double im = k < m ? data[(k << 1) + 1] : data[1];
+                buf[k << 1] = re;
+                buf[(k << 1) + 1] = im;
+                buf[(n - k) << 1] = re;
+                buf[((n - k) << 1) + 1] = -im;
+            }
+            
+            complexTransform(getMixedRadixPlan(n), buf, BACK, isParallel);
+            
+            for(int i=n; --i >= 0; ) data[i] = 0.5 * buf[i << 1];
+        }
+    }
+    
+    
+    private void parallelStockham(final MixedRadixPlan plan, final double[] data, final boolean isForward) {
+        double[] from = data;
+        double[] to = new double[plan.size() << 1];
+        
+        for(int k=0; k < plan.stages(); k++) {
+            final int stage = k;
+            final double[] x = from, y = to;
+            
+            new RangeFork(plan.getButterflies(k)) {
+                @Override
+                protected void process(int from, int to) { plan.process(stage, x, y, from, to, isForward); }
+            }.process();
+            
+            from = y;
+            to = x;
+        }
+        
+        if(from != data) System.arraycopy(from, 0, data, 0, plan.size() << 1);
+    }
+    
+    
+    private void parallelBluestein(final MixedRadixPlan plan, final double[] data, final boolean isForward) {
+        final MixedRadixPlan convolution = plan.getConvolutionPlan();
+        final double[] buf = new double[convolution.size() << 1];
+        
+        new RangeFork(plan.size()) {
+            @Override
+            protected void process(int from, int to) { plan.loadChirp(data, buf, from, to, isForward); }
+        }.process();
+        
+        parallelStockham(convolution, buf, FORWARD);
+        
+        new RangeFork(convolution.size()) {
+            @Override
+            protected void process(int from, int to) { plan.convolve(buf, from, to); }
+        }.process();
+        
+        parallelStockham(convolution, buf, BACK);
+        
+        new RangeFork(plan.size()) {
+            @Override
+            protected void process(int from, int to) { plan.unloadChirp(buf, data, from, to, isForward); }
+        }.process();
+    }
+    
  
 
     abstract void discardFrom(final Type data, final int address);
@@ -226,10 +380,10 @@ public abstract class FFT<Type> extends ParallelObject implements Serializable {
     public final void complexBack(Type data) { complexTransform(data, BACK); }
 
 
-    protected abstract void radix2(final Type data, int from, int to, final boolean isForward, int blkbit);
+    abstract void radix2(final Type data, int from, int to, final boolean isForward, int blkbit, SplitRadixPlan plan);
 
 
-    protected abstract void radix4(final Type data, int from, int to, final boolean isForward, int blkbit);
+    abstract void radix4(final Type data, int from, int to, final boolean isForward, int blkbit, SplitRadixPlan plan);
 
 
     public double getMinPrecisionFor(Type data) {
@@ -308,6 +462,25 @@ public abstract class FFT<Type> extends ParallelObject implements Serializable {
     }
     
 
+    /**
+     * Processes contiguous ranges of points, one range per thread.
+     */
+    private abstract class RangeFork extends Task<Void> {
+        private int points;
+        
+        private RangeFork(int points) {
+            this.points = points;
+        }
+        
+        @Override
+        protected void processChunk(int i, int threads) throws Exception {
+            process((int) ((long) i * points / threads), (int) ((long) (i+1) * points / threads));
+        }
+        
+        protected abstract void process(int from, int to);
+    }
+    
+
     abstract class PointFork extends BlockFork {
         public PointFork(Type data, int points) {
             super(data, points);
@@ -325,11 +498,13 @@ public abstract class FFT<Type> extends ParallelObject implements Serializable {
     private class Radix2 extends BlockFork {
         private int blkbit;
         private boolean isForward;
+        private SplitRadixPlan plan;
   
-        public Radix2(Type data, int points, int blkbit, boolean isForward) { 
+        public Radix2(Type data, int points, int blkbit, boolean isForward, SplitRadixPlan plan) { 
             super(data, points); 
             this.blkbit = blkbit;
             this.isForward = isForward;
+            this.plan = plan;
         }
         
         // 2 points per merge...
@@ -338,7 +513,7 @@ public abstract class FFT<Type> extends ParallelObject implements Serializable {
        
         @Override
         protected void processBlock(final Type data, final int from, final int to) throws Exception { 
-            radix2(data, from, to, isForward, blkbit); 
+            radix2(data, from, to, isForward, blkbit, plan); 
         }
     }
 
@@ -346,11 +521,13 @@ public abstract class FFT<Type> extends ParallelObject implements Serializable {
     private class Radix4 extends BlockFork {
         private int blkbit;
         private boolean isForward;
+        private SplitRadixPlan plan;
 
-        public Radix4(Type data, int points, int blkbit, boolean isForward) { 
+        public Radix4(Type data, int points, int blkbit, boolean isForward, SplitRadixPlan plan) { 
             super(data, points); 
             this.blkbit = blkbit;
             this.isForward = isForward;
+            this.plan = plan;
         }
         
         // 4 points per merge...
@@ -359,7 +536,7 @@ public abstract class FFT<Type> extends ParallelObject implements Serializable {
      
         @Override
         protected void processBlock(final Type data, final int from, final int to) throws Exception { 
-            radix4(data, from, to, isForward, blkbit);    
+            radix4(data, from, to, isForward, blkbit, plan);    
         }
     }
 
@@ -378,6 +555,22 @@ public abstract class FFT<Type> extends ParallelObject implements Serializable {
   
     public static final int AUTO_PARALLELISM = 0;
     
+    /** The maximum number of plans retained in each of the plan caches. */
+    public static int maxCachedPlans = 32;
+
+    /** The maximum memory (bytes) of the plans retained in each of the plan caches. The most recent plan is always kept. */
+    public static long maxPlanCacheBytes = 1L << 28;
+    
+    private static FFTPlan.Cache<SplitRadixPlan> splitRadixPlans = new FFTPlan.Cache<SplitRadixPlan>() {
+        @Override
+        SplitRadixPlan createPlan(int addressBits) { return new SplitRadixPlan(addressBits); }
+    };
+    
+    private static FFTPlan.Cache<MixedRadixPlan> mixedRadixPlans = new FFTPlan.Cache<MixedRadixPlan>() {
+        @Override
+        MixedRadixPlan createPlan(int n) { return new MixedRadixPlan(n); }
+    };
+    
     
 
     public static final boolean FORWARD = true;
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved. 
+ * 
+ * This file is part of jnum.
+ * 
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * 
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ * 
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+package jnum.fft;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Precomputed tables for transforms of a given size. Plans are immutable once created, and so they can be shared
+ * freely among threads and FFT instances. The same plan serves forward and backward transforms (which differ
+ * only in the sign of the sine terms), and both double and float data, since the tables hold exact 
+ * double-precision values. 
+ * 
+ * @author Attila Kovacs <attila[AT]sigmyne.com>
+ *
+ */
+abstract class FFTPlan implements Serializable {
+
+    private static final long serialVersionUID = -6328460474291734946L;
+
+    /**
+     * Gets the number of complex points transformed by this plan.
+     * 
+     * @return the transform size in complex points.
+     */
+    abstract int size();
+
+    /**
+     * Gets the approximate memory footprint of the precomputed tables.
+     * 
+     * @return the size of the tables in bytes.
+     */
+    abstract long getBytes();
+
+
+
+    /**
+     * A least-recently-used cache of plans, keyed by size, and bounded both by the number of plans and
+     * by the total memory they occupy. Plans are created outside of the lock, s.t. threads that need
+     * different plans do not wait for one another.
+     *
+     * @param <PlanType> the type of plans held.
+     */
+    abstract static class Cache<PlanType extends FFTPlan> {
+        private LinkedHashMap<Integer, PlanType> plans = new LinkedHashMap<Integer, PlanType>(16, 0.75F, true);
+        private long bytes = 0L;
+
+        final PlanType get(int size) {
+            PlanType plan = null;
+
+            synchronized(this) { plan = plans.get(size); }
+            if(plan != null) return plan;
+
+            plan = createPlan(size);
+
+            synchronized(this) {
+                PlanType existing = plans.get(size);
+                if(existing != null) return existing;
+
+                plans.put(size, plan);
+                bytes += plan.getBytes();
+                trim();
+            }
+
+            return plan;
+        }
+
+        private void trim() {
+            while(plans.size() > 1) {
+                if(plans.size() <= FFT.maxCachedPlans && bytes <= FFT.maxPlanCacheBytes) return;
+                
+                Map.Entry<Integer, PlanType> eldest = plans.entrySet().iterator().next();
+                bytes -= eldest.getValue().getBytes();
+                plans.remove(eldest.getKey());
+            }
+        }
+
+        synchronized void clear() {
+            plans.clear();
+            bytes = 0L;
+        }
+
+        abstract PlanType createPlan(int size);
+    }
+
+}
@@ -75,6 +75,41 @@ public class FloatFFT extends FFT1D<float[]> implements RealFFT<float[]> {
         return Integer.highestOneBit(data.length);
     }
     
+    /**
+     * Gets the number of elements that are transformed in the data array. 
+     *
+     * @param data the data
+     * @return the number of (real) elements transformed.
+     */
+    int getTransformLength(float[] data) {
+        return data.length;
+    }
+    
+    /* (non-Javadoc)
+     * @see jnum.fft.FFT#isMixedRadix(java.lang.Object)
+     */
+    @Override
+    final boolean isMixedRadix(float[] data) {
+        return getTransformLength(data) != getPoints(data);
+    }
+    
+    /* (non-Javadoc)
+     * @see jnum.fft.FFT#mixedRadixTransform(java.lang.Object, boolean, boolean)
+     */
+    @Override
+    final void mixedRadixTransform(float[] data, boolean isForward, boolean isParallel) {
+        final int n = getTransformLength(data);
+        if((n & 1) != 0) throw new IllegalArgumentException("Complex data with odd number of elements (" + n + ").");
+        
+        // Transform in double precision, s.t. the Bluestein chirps do not degrade the float precision. 
+        final double[] buf = new double[n];
+        for(int i=n; --i >= 0; ) buf[i] = data[i];
+        
+        complexTransform(getMixedRadixPlan(n >>> 1), buf, isForward, isParallel);
+        
+        for(int i=n; --i >= 0; ) data[i] = (float) buf[i];
+    }
+    
 
     @Override
     protected final int getPointSize(float[] data) { return 4; }
@@ -83,7 +118,7 @@ public class FloatFFT extends FFT1D<float[]> implements RealFFT<float[]> {
     // Blockbit is the size of a merge block in bit shifts (e.g. size 2 is bit 1, size 4 is bit 2, etc.)
     // Two consecutive blocks are merged by the algorithm into one larger block...
     @Override
-    protected void radix2(final float[] data, int from, int to, final boolean isForward, final int blkbit) {	
+    void radix2(final float[] data, int from, int to, final boolean isForward, final int blkbit, final SplitRadixPlan plan) {	
 
         // The double[] block size
         final int blk = 1 << (blkbit+1);
@@ -97,18 +132,11 @@ public class FloatFFT extends FFT1D<float[]> implements RealFFT<float[]> {
 
         // <------------------ Processing Block Starts Here ------------------------>
         // 
-        // This one calculates the twiddle factors on the fly, using generators,
-        // with precision readjustments as necessary.
-
-        final double theta = (isForward ? Constant.twoPi : -Constant.twoPi) / blk;
-
-        final double s = Math.sin(theta);
-        final double c = Math.cos(theta);
-
-        int m = (from & blkmask) >>> 1;
-        double r = m == 0 ? 1.0 : Math.cos(m * theta);
-        double i = m == 0 ? 0.0 : Math.sin(m * theta);
+        // This one looks up the twiddle factors from the precomputed tables of the plan.
 
+        final double[] w = plan.getTwiddles();
+        final double sign = isForward ? 1.0 : -1.0;
+        final int shift = plan.getTwiddleShift(blkbit+1);
 
         for(int i1=from; i1<to; i1+=2) {
             // Skip over the odd blocks...
@@ -116,16 +144,11 @@ public class FloatFFT extends FFT1D<float[]> implements RealFFT<float[]> {
             if((i1 & blk) != 0) {
                 i1 += blk;
                 if(i1 >= to) break;
-
-                // Reset the twiddle factors...
-                m = (i1 & blkmask) >>> 1;
-                r = m == 0 ? 1.0 : Math.cos(m * theta);
-                i = m == 0 ? 0.0 : Math.sin(m * theta);
             }
 
-
-            final float fr = (float) r;
-            final float fi = (float) i;
+            final int k = ((i1 & blkmask) >>> 1) << shift;
+            final float fr = (float) w[k];
+            final float fi = (float) (sign * w[k | 1]);
 
             final float d1r = data[i1];
             final float d1i = data[i1 | 1];
@@ -143,11 +166,6 @@ public class FloatFFT extends FFT1D<float[]> implements RealFFT<float[]> {
             data[i2] = d1r - xr;
             data[i2 | 1] = d1i - xi;
 
-            // Increment the twiddle factors...
-            final double temp = r;
-            r = temp * c - i * s;
-            i = i * c + temp * s;
-
             // --------------------------------
             // i1
 
@@ -168,7 +186,7 @@ public class FloatFFT extends FFT1D<float[]> implements RealFFT<float[]> {
     // Blockbit is the size of a merge block in bit shifts (e.g. size 2 is bit 1, size 4 is bit 2, etc.)
     // Four consecutive blocks are merged by the algorithm into one larger block...
     @Override
-    protected void radix4(final float[] data, int from, int to, final boolean isForward, final int blkbit) {	
+    void radix4(final float[] data, int from, int to, final boolean isForward, final int blkbit, final SplitRadixPlan plan) {	
 
         // The double[] block size
         final int blk = 1 << (blkbit+1);
@@ -185,29 +203,17 @@ public class FloatFFT extends FFT1D<float[]> implements RealFFT<float[]> {
 
         // <------------------ Processing Block Starts Here ------------------------>
         // 
-        // This one calculates the twiddle factors on the fly, using generators,
-        // with precision readjustments as necessary.
-
-        final double theta = (isForward ? Constant.twoPi : -Constant.twoPi) / (blk << 1);
-
-        final double s = Math.sin(theta);
-        final double c = Math.cos(theta);
-
-        int m = (from & blkmask) >>> 1;
-        double w1r = Math.cos(m * theta);
-        double w1i = Math.sin(m * theta);
+        // This one looks up the twiddle factors from the precomputed tables of the plan.
 
+        final double[] w = plan.getTwiddles();
+        final double sign = isForward ? 1.0 : -1.0;
+        final int shift = plan.getTwiddleShift(blkbit+2);
 
         for(int i0=from; i0<to; i0 += 2) {
             // Skip over the 2nd, 3rd, and 4th blocks...
             if((i0 & skip) != 0) {
                 i0 += skip;
                 if(i0 >= to) break;
-
-                // Reset the twiddle factors
-                m = (i0 & blkmask) >>> 1;
-                w1r = Math.cos(m * theta);
-                w1i = Math.sin(m * theta);
             }
 
             //->0:    f0 = F0
@@ -215,19 +221,22 @@ public class FloatFFT extends FFT1D<float[]> implements RealFFT<float[]> {
             final float f0r = data[i0];
             final float f0i = data[i0 | 1];
 
+            final int k = ((i0 & blkmask) >>> 1) << shift;
+            
+            final double w1r = w[k];
+            final double w1i = sign * w[k | 1];
+            
+            final double w2r = w1r * w1r - w1i * w1i;
+            final double w2i = 2.0 * w1r * w1i;
+            
             final float fw1r = (float) w1r;
             final float fw1i = (float) w1i;
 
-            float fw2r = fw1r * fw1r - fw1i * fw1i;
-            float fw2i = 2.0F * fw1r * fw1i;
+            float fw2r = (float) w2r;
+            float fw2i = (float) w2i;
 
-            float fw3r = fw1r * fw2r - fw1i * fw2i;
-            float fw3i = fw1r * fw2i + fw1i * fw2r;
-
-            // Increment the twiddle factors...
-            final double temp = w1r;
-            w1r = temp * c - w1i * s;
-            w1i = w1i * c + temp * s;
+            float fw3r = (float) (w1r * w2r - w1i * w2i);
+            float fw3i = (float) (w1r * w2i + w1i * w2r);
 
             final int i1 = i0 + blk;
             final int i2 = i1 + blk;
@@ -291,8 +300,10 @@ public class FloatFFT extends FFT1D<float[]> implements RealFFT<float[]> {
     }
 
 
-    private void loadReal(final float[] data, final int addressBits, int from, int to, final boolean isForward) {	
-        final int length = 2<<addressBits;
+    private void loadReal(final float[] data, final int length, int from, int to, final boolean isForward, final SplitRadixPlan plan) {	
+        // (When the number of complex points is odd, the last pair is at length/2 - 1)
+        to = Math.min(to, length + 2);
+        
         // Make from and to even indices 0...N/2
         from = Math.max(2, (from >>> 2) << 1);
         to = (to >>> 2) << 1;
@@ -302,6 +313,7 @@ public class FloatFFT extends FFT1D<float[]> implements RealFFT<float[]> {
         final double c = Math.cos(theta);
 
         final float sh = isForward ? 0.5F : -0.5F;
+        final double[] w = plan == null ? null : plan.getTwiddles();
 
         double a = (from>>>1) * theta;
         double wr = from == 2 ? c : Math.cos(a);
@@ -314,6 +326,11 @@ public class FloatFFT extends FFT1D<float[]> implements RealFFT<float[]> {
             float hr = sh * (data[i1] + data[i2]);
             float hi = sh * (data[r2] - data[r1]);
 
+            if(w != null) {
+                wr = w[r1];
+                wi = isForward ? w[i1] : -w[i1];
+            }
+            
             final float fwr = (float) wr;
             final float fwi = (float) wi;
 
@@ -343,7 +360,8 @@ public class FloatFFT extends FFT1D<float[]> implements RealFFT<float[]> {
      */
     @Override
     public void realTransform(final float[] data, final boolean isForward) {
-        realTransform(data, getAddressBits(data), isForward);
+        if(isMixedRadix(data)) mixedRadixRealTransform(data, isForward, getParallel() > 1);
+        else realTransform(data, getAddressBits(data), isForward);
     }
 
 
@@ -355,9 +373,11 @@ public class FloatFFT extends FFT1D<float[]> implements RealFFT<float[]> {
     void parallelRealTransform(final float[] data, final int addressBits, final boolean isForward) {
         if(isForward) parallelComplexTransform(data, addressBits, FORWARD);
 
+        final SplitRadixPlan plan = getSplitRadixPlan(addressBits);
+        
         new BlockFork(data, 2<<addressBits) {
             @Override
-            public void processBlock(final float[] data, final int from, final int to) { loadReal(data, addressBits, from, to, isForward); }
+            public void processBlock(final float[] data, final int from, final int to) { loadReal(data, 2<<addressBits, from, to, isForward, plan); }
         }.process();
 
         final float d0 = data[0];
@@ -376,7 +396,45 @@ public class FloatFFT extends FFT1D<float[]> implements RealFFT<float[]> {
 
     @Override
     public void sequentialRealTransform(final float[] data, final boolean isForward) {
+        if(isMixedRadix(data)) mixedRadixRealTransform(data, isForward, false);
+        else sequentialRealTransform(data, getAddressBits(data), isForward);
+    }
+    
+    /**
+     * Real transform of data whose size is not a power of 2, using the mixed-radix (or Bluestein) complex
+     * transform of half the size, or of the full size for an odd number of elements (see 
+     * {@link FFT#oddRealTransform(double[], int, boolean, boolean)} for the packing of odd-sized spectra).
+     *
+     * @param data the data
+     * @param isForward the is forward
+     * @param isParallel whether to process the complex transform in parallel
+     */
+    void mixedRadixRealTransform(final float[] data, final boolean isForward, final boolean isParallel) {
+        final int n = getTransformLength(data);
+        if((n & 1) != 0) {
+            // In double precision, as the complex transforms...
+            final double[] buf = new double[n];
+            for(int i=n; --i >= 0; ) buf[i] = data[i];
+            oddRealTransform(buf, n, isForward, isParallel);
+            for(int i=n; --i >= 0; ) data[i] = (float) buf[i];
+            return;
+        }
+        
+        if(isForward) mixedRadixTransform(data, FORWARD, isParallel);
+
+        loadReal(data, n, 0, n + 2, isForward, null);
+
+        final float d0 = data[0];
 
+        if(isForward) {
+            data[0] = d0 + data[1];
+            data[1] = d0 - data[1];
+        } 
+        else {
+            data[0] = 0.5F * (d0 + data[1]);
+            data[1] = 0.5F * (d0 - data[1]);
+            mixedRadixTransform(data, BACK, isParallel);
+        }
     }
 
 
@@ -384,7 +442,7 @@ public class FloatFFT extends FFT1D<float[]> implements RealFFT<float[]> {
         if(isForward) sequentialComplexTransform(data, addressBits, FORWARD);
 
         final int n = 2<<addressBits;
-        loadReal(data, addressBits, 0, n, isForward);
+        loadReal(data, n, 0, n, isForward, getSplitRadixPlan(addressBits));
 
         final float d0 = data[0];
 
@@ -420,9 +478,8 @@ public class FloatFFT extends FFT1D<float[]> implements RealFFT<float[]> {
      */	
     @Override
     public void real2Amplitude(final float[] data) {
-        final int addressBits = getAddressBits(data);
-        final int n = 2 << addressBits;
-        realTransform(data, addressBits, true);
+        final int n = getTransformLength(data);
+        realTransform(data, true);
         scale(data, n, 2.0F / n);
     }
 
@@ -567,6 +624,31 @@ public class FloatFFT extends FFT1D<float[]> implements RealFFT<float[]> {
             return Integer.highestOneBit(data.length - 2);
         }
         
+        @Override
+        int getTransformLength(float[] data) {
+            return data.length - 2;
+        }
+        
+        /* (non-Javadoc)
+         * @see jnum.fft.FloatFFT#mixedRadixRealTransform(float[], boolean, boolean)
+         */
+        @Override
+        void mixedRadixRealTransform(final float[] data, final boolean isForward, final boolean isParallel) {
+            final int n = data.length - 2;
+
+            if(!isForward) {
+                data[1] = data[n];
+                data[n] = data[n+1] = 0.0F;
+            }
+
+            super.mixedRadixRealTransform(data, isForward, isParallel);
+
+            if(isForward) {
+                data[n] = data[1];
+                data[1] = data[n+1] = 0.0F;
+            }
+        }
+        
        
         /* (non-Javadoc)
          * @see jnum.fft.FloatFFT#realTransform(float[], int, boolean, int)
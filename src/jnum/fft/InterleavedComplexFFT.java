@@ -0,0 +1,489 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved. 
+ * 
+ * This file is part of jnum.
+ * 
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * 
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ * 
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+
+package jnum.fft;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+
+import jnum.ExtraMath;
+import jnum.data.mesh.ComplexMesh;
+import jnum.math.Complex;
+import jnum.parallel.Parallelizable;
+
+
+/**
+ * Complex FFTs of data stored in primitive arrays, as interleaved (re, im) pairs, i.e. the real and imaginary parts of
+ * complex point <i>k</i> are array elements <i>2k</i> and <i>2k+1</i>. Unlike {@link ComplexFFT}, which operates on
+ * arrays of separate {@link Complex} objects, the butterflies run on contiguous memory, and the transforms do not
+ * create any objects, s.t. large transforms are cache friendly and do not burden the garbage collector. Sizes
+ * (as in {@link #sizeOf(Object)} and {@link #getPadded(Object, int)}) are in complex points, i.e. half the number of
+ * array elements.
+ * <p>
+ * The double-precision implementation ({@link InterleavedComplexFFT.Double}) also provides adapters for {@link Complex}
+ * arrays and for (multi-dimensional) {@link ComplexMesh} data.
+ * 
+ * @author Attila Kovacs <attila[AT]sigmyne.com>
+ *
+ * @param <Type> the primitive array type (e.g. double[] or float[]).
+ */
+public abstract class InterleavedComplexFFT<Type> extends FFT1D<Type> {
+    /**
+     * 
+     */
+    private static final long serialVersionUID = 2296493165405736712L;
+    
+    // The engine providing the butterflies on the primitive array type...
+    private FFT1D<Type> engine;
+    
+    
+    InterleavedComplexFFT(FFT1D<Type> engine) {
+        super();
+        this.engine = engine;
+    }
+    
+    InterleavedComplexFFT(FFT1D<Type> engine, ExecutorService executor) {
+        super(executor);
+        this.engine = engine;
+    }
+    
+    InterleavedComplexFFT(FFT1D<Type> engine, Parallelizable processing) {
+        super(processing);
+        this.engine = engine;
+    }
+    
+    
+    @Override
+    final void swap(Type data, int i, int j) { engine.swap(data, i, j); }
+    
+    @Override
+    final void discardFrom(Type data, int address) { engine.discardFrom(data, address); }
+    
+    @Override
+    final void radix2(Type data, int from, int to, boolean isForward, int blkbit, SplitRadixPlan plan) {
+        engine.radix2(data, from, to, isForward, blkbit, plan);
+    }
+    
+    @Override
+    final void radix4(Type data, int from, int to, boolean isForward, int blkbit, SplitRadixPlan plan) {
+        engine.radix4(data, from, to, isForward, blkbit, plan);
+    }
+    
+    /* (non-Javadoc)
+     * @see jnum.fft.FFT#isMixedRadix(java.lang.Object)
+     */
+    @Override
+    final boolean isMixedRadix(Type data) { return engine.isMixedRadix(data); }
+    
+    /* (non-Javadoc)
+     * @see jnum.fft.FFT#mixedRadixTransform(java.lang.Object, boolean, boolean)
+     */
+    @Override
+    final void mixedRadixTransform(Type data, boolean isForward, boolean isParallel) {
+        engine.copyParallel(this);
+        engine.mixedRadixTransform(data, isForward, isParallel);
+    }
+    
+    @Override
+    final int addressSizeOf(Type data) { return engine.addressSizeOf(data); }
+    
+    @Override
+    public final int getPoints(Type data) { return engine.getPoints(data); }
+    
+    @Override
+    protected final int getPointSize(Type data) { return engine.getPointSize(data); }
+    
+    /* (non-Javadoc)
+     * @see jnum.fft.FFT#countFlops(java.lang.Object)
+     */
+    @Override
+    protected final int countFlops(Type data) { return engine.countFlops(data); }
+    
+    /* (non-Javadoc)
+     * @see jnum.fft.FFT#getMaxSignificantBitsFor(java.lang.Object)
+     */
+    @Override
+    final int getMaxSignificantBitsFor(Type data) { return engine.getMaxSignificantBitsFor(data); }
+    
+    /* (non-Javadoc)
+     * @see jnum.fft.FFT1D#sizeOf(java.lang.Object)
+     */
+    @Override
+    public final int sizeOf(Type data) { return engine.sizeOf(data) >>> 1; }
+    
+    
+    public final void forward(Type data) { complexTransform(data, FORWARD); }
+    
+    public final void back(Type data) { complexTransform(data, BACK); }
+    
+    /**
+     * Forward transform, normalized to amplitudes (by 2/N), like {@link ComplexFFT#toAmplitudes(Complex[])}.
+     *
+     * @param data the interleaved complex data
+     */
+    public void toAmplitudes(Type data) {
+        complexTransform(data, FORWARD);
+        scale(data, 2.0 / sizeOf(data));
+    }
+    
+    /**
+     * Backward transform of amplitudes.
+     *
+     * @param data the interleaved complex amplitudes.
+     */
+    public void fromAmplitudes(Type data) {
+        complexTransform(data, BACK);
+    }
+    
+    abstract void scale(Type data, double factor);
+    
+    
+    
+    /**
+     * Complex FFTs of interleaved double-precision data, with adapters for {@link Complex} arrays and {@link ComplexMesh} data.
+     */
+    public static class Double extends InterleavedComplexFFT<double[]> {
+        /**
+         * 
+         */
+        private static final long serialVersionUID = -3314727290185301465L;
+
+        public Double() {
+            super(new DoubleFFT());
+        }
+        
+        public Double(ExecutorService executor) {
+            super(new DoubleFFT(), executor);
+        }
+        
+        public Double(Parallelizable processing) {
+            super(new DoubleFFT(), processing);
+        }
+        
+        @Override
+        void scale(final double[] data, final double factor) {
+            if(getParallel() < 2) {
+                for(int i=data.length; --i >= 0; ) data[i] *= factor;
+                return;
+            }
+            
+            new PointFork(data, data.length) {
+                @Override
+                protected final void process(final double[] data, final int i) { data[i] *= factor; }
+            }.process();
+        }
+        
+        /* (non-Javadoc)
+         * @see jnum.fft.FFT1D#averagePower(java.lang.Object, double[])
+         */
+        @Override
+        public double[] averagePower(final double[] data, final double[] w) {
+            final int windowSize = w.length;
+            final int stepSize = windowSize >>> 1;
+            final int points = sizeOf(data);
+
+            final double[] block = new double[ExtraMath.pow2ceil(windowSize) << 1];
+            final int nF = block.length >>> 2;
+
+            double[] spectrum = null;
+            int start = 0, N = 0;
+            
+            while(start + windowSize <= points) {
+                for(int i=windowSize; --i >= 0; ) {
+                    final int k = (i + start) << 1;
+                    block[i << 1] = w[i] * data[k];
+                    block[(i << 1) + 1] = w[i] * data[k + 1];
+                }
+                Arrays.fill(block, windowSize << 1, block.length, 0.0);
+
+                complexTransform(block, FORWARD);
+
+                if(spectrum == null) spectrum = new double[nF];
+
+                for(int i=nF; --i >= 0; ) {
+                    final double re = block[i << 1], im = block[(i << 1) + 1];
+                    spectrum[i] += re * re + im * im;
+                }
+
+                start += stepSize;
+                N++;
+            }
+
+            // The spectral power per frequency component.
+            final double norm = 1.0 / N;
+            if(spectrum != null) for(int i=spectrum.length; --i >= 0; ) spectrum[i] *= norm;
+
+            return spectrum;
+        }
+
+        /* (non-Javadoc)
+         * @see jnum.fft.FFT1D#getPadded(java.lang.Object, int)
+         */
+        @Override
+        public double[] getPadded(final double[] data, final int n) {
+            if(data.length == n << 1) return data;
+            return Arrays.copyOf(data, n << 1);
+        }
+        
+        /**
+         * Transforms an array of complex values, via an interleaved copy of the data.
+         *
+         * @param data the complex data
+         * @param isForward true for the forward transform, false for the backward transform.
+         */
+        public void complexTransform(final Complex[] data, final boolean isForward) {
+            final double[] buf = interleave(data);
+            complexTransform(buf, isForward);
+            deinterleave(buf, data);
+        }
+        
+        /**
+         * Transforms complex mesh data along all of its dimensions, via an interleaved copy of the data.
+         *
+         * @param mesh the complex mesh
+         * @param isForward true for the forward transform, false for the backward transform.
+         */
+        public void complexTransform(final ComplexMesh mesh, final boolean isForward) {
+            final double[] buf = interleave(mesh);
+            complexTransform(buf, mesh.getSize(), isForward);
+            deinterleave(buf, mesh);
+        }
+        
+        /**
+         * Multi-dimensional transform of interleaved complex data, stored in row-major order (i.e. with the last index
+         * running fastest). The data are transformed along each dimension in turn, one line of data at a time.
+         *
+         * @param data the interleaved complex data.
+         * @param size the size of the data along each dimension, in complex points.
+         * @param isForward true for the forward transform, false for the backward transform.
+         */
+        public void complexTransform(final double[] data, final int[] size, final boolean isForward) {
+            int points = 1;
+            for(int n : size) points *= n;
+            if(data.length < points << 1) throw new IllegalArgumentException("Data array is smaller than the specified size.");
+            
+            final int total = points;
+            int stride = 1;
+            
+            for(int d=size.length; --d >= 0; ) {
+                final int n = size[d];
+                final int step = stride;
+                final int lines = total / n;
+                
+                if(n > 1) new Task<Void>() {
+                    @Override
+                    protected void processChunk(int i, int threads) throws Exception {
+                        final double[] line = new double[n << 1];
+                        
+                        for(int l=i; l < lines; l += threads) {
+                            // The complex point index of the first element on the line...
+                            final int from = (l / step) * n * step + (l % step);
+
+                            for(int k=0, p=from << 1; k < n; k++, p += step << 1) {
+                                line[k << 1] = data[p];
+                                line[(k << 1) + 1] = data[p + 1];
+                            }
+                            
+                            sequentialComplexTransform(line, isForward);
+                            
+                            for(int k=0, p=from << 1; k < n; k++, p += step << 1) {
+                                data[p] = line[k << 1];
+                                data[p + 1] = line[(k << 1) + 1];
+                            }
+                        }
+                    }
+                }.process(Math.min(lines, getParallel(data)), getTaskExecutor());
+                
+                stride *= n;
+            }
+        }
+        
+        
+        /**
+         * Creates an interleaved copy of complex values.
+         *
+         * @param data the complex values
+         * @return a new array with the interleaved (re, im) components of the values.
+         */
+        public static double[] interleave(final Complex[] data) {
+            return interleave(data, data.length);
+        }
+        
+        /**
+         * Creates an interleaved copy of the leading complex values in an array.
+         *
+         * @param data the complex values
+         * @param n the number of leading values to copy.
+         * @return a new array with the interleaved (re, im) components of the first n values.
+         */
+        public static double[] interleave(final Complex[] data, final int n) {
+            final double[] buf = new double[n << 1];
+            for(int i=n, j=buf.length; --i >= 0; ) {
+                buf[--j] = data[i].im();
+                buf[--j] = data[i].re();
+            }
+            return buf;
+        }
+        
+        /**
+         * Sets complex values from interleaved components. Only as many values are set as there are in the buffer.
+         *
+         * @param buf the interleaved (re, im) components
+         * @param data the complex values to set.
+         */
+        public static void deinterleave(final double[] buf, final Complex[] data) {
+            for(int i=buf.length >>> 1, j=buf.length; --i >= 0; j -= 2) data[i].set(buf[j-2], buf[j-1]);
+        }
+        
+        /**
+         * Creates an interleaved copy of complex mesh data, in row-major order (last index running fastest).
+         *
+         * @param mesh the complex mesh
+         * @return a new array with the interleaved (re, im) components of the mesh elements.
+         */
+        public static double[] interleave(final ComplexMesh mesh) {
+            int points = 1;
+            for(int n : mesh.getSize()) points *= n;
+            final double[] buf = new double[points << 1];
+            copy(mesh.getData(), buf, 0, true);
+            return buf;
+        }
+        
+        /**
+         * Sets the elements of a complex mesh from interleaved components in row-major order.
+         *
+         * @param buf the interleaved (re, im) components.
+         * @param mesh the complex mesh to set.
+         */
+        public static void deinterleave(final double[] buf, final ComplexMesh mesh) {
+            copy(mesh.getData(), buf, 0, false);
+        }
+        
+        // Copies between the nested arrays of a mesh and interleaved components, returning the next offset...
+        private static int copy(final Object data, final double[] buf, int offset, final boolean toBuffer) {
+            if(data instanceof Complex[]) {
+                final Complex[] c = (Complex[]) data;
+                if(toBuffer) for(int i=0; i<c.length; i++, offset += 2) {
+                    buf[offset] = c[i].re();
+                    buf[offset + 1] = c[i].im();
+                }
+                else for(int i=0; i<c.length; i++, offset += 2) c[i].set(buf[offset], buf[offset + 1]);
+                return offset;
+            }
+            
+            for(Object element : (Object[]) data) offset = copy(element, buf, offset, toBuffer);
+            return offset;
+        }
+    }
+    
+    
+    /**
+     * Complex FFTs of interleaved single-precision data.
+     */
+    public static class Float extends InterleavedComplexFFT<float[]> {
+        /**
+         * 
+         */
+        private static final long serialVersionUID = 5412826734016289770L;
+
+        public Float() {
+            super(new FloatFFT());
+        }
+        
+        public Float(ExecutorService executor) {
+            super(new FloatFFT(), executor);
+        }
+        
+        public Float(Parallelizable processing) {
+            super(new FloatFFT(), processing);
+        }
+        
+        @Override
+        void scale(final float[] data, final double factor) {
+            final float f = (float) factor;
+            
+            if(getParallel() < 2) {
+                for(int i=data.length; --i >= 0; ) data[i] *= f;
+                return;
+            }
+            
+            new PointFork(data, data.length) {
+                @Override
+                protected final void process(final float[] data, final int i) { data[i] *= f; }
+            }.process();
+        }
+        
+        /* (non-Javadoc)
+         * @see jnum.fft.FFT1D#averagePower(java.lang.Object, double[])
+         */
+        @Override
+        public double[] averagePower(final float[] data, final double[] w) {
+            final int windowSize = w.length;
+            final int stepSize = windowSize >>> 1;
+            final int points = sizeOf(data);
+
+            final float[] block = new float[ExtraMath.pow2ceil(windowSize) << 1];
+            final int nF = block.length >>> 2;
+
+            double[] spectrum = null;
+            int start = 0, N = 0;
+            
+            while(start + windowSize <= points) {
+                for(int i=windowSize; --i >= 0; ) {
+                    final int k = (i + start) << 1;
+                    block[i << 1] = (float) (w[i] * data[k]);
+                    block[(i << 1) + 1] = (float) (w[i] * data[k + 1]);
+                }
+                Arrays.fill(block, windowSize << 1, block.length, 0.0F);
+
+                complexTransform(block, FORWARD);
+
+                if(spectrum == null) spectrum = new double[nF];
+
+                for(int i=nF; --i >= 0; ) {
+                    final double re = block[i << 1], im = block[(i << 1) + 1];
+                    spectrum[i] += re * re + im * im;
+                }
+
+                start += stepSize;
+                N++;
+            }
+
+            // The spectral power per frequency component.
+            final double norm = 1.0 / N;
+            if(spectrum != null) for(int i=spectrum.length; --i >= 0; ) spectrum[i] *= norm;
+
+            return spectrum;
+        }
+
+        /* (non-Javadoc)
+         * @see jnum.fft.FFT1D#getPadded(java.lang.Object, int)
+         */
+        @Override
+        public float[] getPadded(final float[] data, final int n) {
+            if(data.length == n << 1) return data;
+            return Arrays.copyOf(data, n << 1);
+        }
+    }
+
+}
@@ -0,0 +1,469 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved. 
+ * 
+ * This file is part of jnum.
+ * 
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * 
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ * 
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+package jnum.fft;
+
+import java.io.Serializable;
+
+import jnum.Constant;
+import jnum.ExtraMath;
+
+/**
+ * Precomputed factorization and twiddle factors for complex transforms of arbitrary length on interleaved
+ * (re, im) double[] data. Lengths that factor into 2, 3, 4, 5 and 7 are transformed by self-sorting 
+ * (Stockham) mixed-radix passes. Lengths with any larger prime factor are transformed via Bluestein's 
+ * algorithm, i.e. as a chirp convolution carried out by power-of-2 transforms. 
+ * 
+ * The transforms follow the
+ * same conventions as the power-of-2 transforms in {@link FFT}, i.e. the forward transform uses the kernel
+ * exp(2 pi i jk / n), and neither direction is normalized.
+ * 
+ * @author Attila Kovacs <attila[AT]sigmyne.com>
+ *
+ */
+final class MixedRadixPlan extends FFTPlan {
+
+    private static final long serialVersionUID = -4190467618338218372L;
+
+    private int n;
+
+    private Stage[] stages;
+
+    // Bluestein's algorithm...
+    private MixedRadixPlan convolution;
+    private double[] chirp;
+    private double[] kernel;
+
+
+    MixedRadixPlan(int n) {
+        if(n < 1) throw new IllegalArgumentException("Invalid FFT size: " + n);
+        this.n = n;
+
+        int[] radix = factorize(n);
+
+        if(radix == null) createBluestein();
+        else createStages(radix);
+    }
+
+    /* (non-Javadoc)
+     * @see jnum.fft.FFTPlan#size()
+     */
+    @Override
+    final int size() { return n; }
+    
+    /* (non-Javadoc)
+     * @see jnum.fft.FFTPlan#getBytes()
+     */
+    @Override
+    final long getBytes() {
+        if(isBluestein()) return 8L * (chirp.length + kernel.length) + convolution.getBytes();
+        
+        long bytes = 0L;
+        for(Stage stage : stages) bytes += 8L * stage.twiddles.length;
+        return bytes;
+    }
+
+    final boolean isBluestein() { return convolution != null; }
+
+    final int stages() { return stages.length; }
+
+    final int getRadix(int stage) { return stages[stage].radix; }
+
+    /**
+     * The number of butterflies in a given stage, each of which combines radix points.
+     * 
+     * @param stage the stage index
+     * @return the number of butterflies in the stage.
+     */
+    final int getButterflies(int stage) { return n / stages[stage].radix; }
+
+    final MixedRadixPlan getConvolutionPlan() { return convolution; }
+
+
+    private static int[] factorize(int n) {
+        int[] radix = new int[32];
+        int k = 0;
+
+        while((n & 3) == 0) { radix[k++] = 4; n >>>= 2; }
+        if((n & 1) == 0) { radix[k++] = 2; n >>>= 1; }
+
+        for(int p=3; p <= MAX_RADIX; p += 2) while(n % p == 0) {
+            radix[k++] = p;
+            n /= p;
+        }
+
+        if(n != 1) return null;
+
+        int[] factors = new int[k];
+        System.arraycopy(radix, 0, factors, 0, k);
+        return factors;
+    }
+
+
+    private void createStages(final int[] radix) {
+        stages = new Stage[radix.length];
+
+        int stride = 1;
+        int span = n;
+
+        for(int k=0; k < radix.length; k++) {
+            stages[k] = new Stage(radix[k], span, stride);
+            span /= radix[k];
+            stride *= radix[k];
+        }
+    }
+
+
+    private void createBluestein() {
+        final int m = ExtraMath.pow2ceil((n << 1) - 1);
+        final long n2 = (long) n << 1;
+
+        convolution = new MixedRadixPlan(m);
+
+        // chirp[k] = exp(i pi k^2 / n), with k^2 taken modulo 2n to preserve precision for large k.
+        chirp = new double[n << 1];
+        for(int k=n; --k >= 0; ) {
+            final double theta = Math.PI * (((long) k * k) % n2) / n;
+            chirp[k<<1] = Math.cos(theta);
+            chirp[(k<<1)+1] = Math.sin(theta);
+        }
+
+        // The convolution kernel is the conjugate chirp, wrapped around for negative offsets...
+        kernel = new double[m << 1];
+        kernel[0] = chirp[0];
+        kernel[1] = -chirp[1];
+
+        for(int k=1; k < n; k++) {
+            final int i = k << 1, j = (m - k) << 1;
+            kernel[i] = kernel[j] = chirp[i];
+            kernel[i+1] = kernel[j+1] = -chirp[i+1];
+        }
+
+        convolution.transform(kernel, FFT.FORWARD);
+    }
+
+
+    /**
+     * Sequential complex transform of the interleaved (re, im) data.
+     * 
+     * @param data the interleaved complex data, containing at least 2n elements.
+     * @param isForward true for the forward transform, false for the backward transform.
+     */
+    final void transform(final double[] data, final boolean isForward) {
+        if(isBluestein()) {
+            final double[] buf = new double[convolution.n << 1];
+            loadChirp(data, buf, 0, n, isForward);
+            convolution.transform(buf, FFT.FORWARD);
+            convolve(buf, 0, convolution.n);
+            convolution.transform(buf, FFT.BACK);
+            unloadChirp(buf, data, 0, n, isForward);
+            return;
+        }
+
+        double[] from = data;
+        double[] to = new double[n << 1];
+
+        for(int k=0; k < stages.length; k++) {
+            process(k, from, to, 0, getButterflies(k), isForward);
+            final double[] temp = from;
+            from = to;
+            to = temp;
+        }
+
+        if(from != data) System.arraycopy(from, 0, data, 0, n << 1);
+    }
+
+
+    /**
+     * Chirps the input for Bluestein's algorithm into the zero-padded convolution buffer. Backward transforms are
+     * calculated as the conjugate of the forward transform of the conjugate input. 
+     * 
+     * @param data the input data
+     * @param buf the convolution buffer.
+     * @param from the first complex point (inclusive)
+     * @param to the last complex point (exclusive)
+     * @param isForward true for the forward transform, false for the backward transform.
+     */
+    final void loadChirp(final double[] data, final double[] buf, int from, final int to, final boolean isForward) {
+        final double sign = isForward ? 1.0 : -1.0;
+
+        for(; from < to; from++) {
+            final int i = from << 1, j = i + 1;
+            final double im = sign * data[j];
+            buf[i] = data[i] * chirp[i] - im * chirp[j];
+            buf[j] = data[i] * chirp[j] + im * chirp[i];
+        }
+
+        if(to == n) for(int i=buf.length; --i >= (n << 1); ) buf[i] = 0.0;
+    }
+
+    /**
+     * Multiplies the spectrum of the chirped data with the spectrum of the convolution kernel, including the
+     * normalization of the inverse convolution transform.
+     * 
+     * @param buf the transformed convolution buffer
+     * @param from the first complex point (inclusive)
+     * @param to the last complex point (exclusive)
+     */
+    final void convolve(final double[] buf, int from, final int to) {
+        final double norm = 1.0 / convolution.n;
+
+        for(; from < to; from++) {
+            final int i = from << 1, j = i + 1;
+            final double re = buf[i] * kernel[i] - buf[j] * kernel[j];
+            buf[j] = norm * (buf[i] * kernel[j] + buf[j] * kernel[i]);
+            buf[i] = norm * re;
+        }
+    }
+
+    /**
+     * Dechirps the result of the convolution into the output.
+     * 
+     * @param buf the convolution buffer, after the backward transform. 
+     * @param data the array in which to store the transformed data.
+     * @param from the first complex point (inclusive)
+     * @param to the last complex point (exclusive)
+     * @param isForward true for the forward transform, false for the backward transform.
+     */
+    final void unloadChirp(final double[] buf, final double[] data, int from, final int to, final boolean isForward) {
+        final double sign = isForward ? 1.0 : -1.0;
+
+        for(; from < to; from++) {
+            final int i = from << 1, j = i + 1;
+            data[i] = buf[i] * chirp[i] - buf[j] * chirp[j];
+            data[j] = sign * (buf[i] * chirp[j] + buf[j] * chirp[i]);
+        }
+    }
+
+
+    /**
+     * Processes a range of butterflies of a mixed-radix stage, reading from one array and writing into another.
+     * 
+     * @param stage the stage index
+     * @param x the input of the stage
+     * @param y the output of the stage.
+     * @param from the first butterfly (inclusive)
+     * @param to the last butterfly (exclusive)
+     * @param isForward true for the forward transform, false for the backward transform.
+     */
+    final void process(final int stage, final double[] x, final double[] y, final int from, final int to, final boolean isForward) {
+        final Stage s = stages[stage];
+        final double sign = isForward ? 1.0 : -1.0;
+
+        switch(s.radix) {
+        case 2: s.radix2(x, y, from, to, sign); break;
+        case 3: s.radix3(x, y, from, to, sign); break;
+        case 4: s.radix4(x, y, from, to, sign); break;
+        default: s.radixOdd(x, y, from, to, sign);
+        }
+    }
+
+
+
+    /**
+     * A single self-sorting pass, combining radix points, spaced span / radix apart, for each of stride 
+     * interleaved sub-transforms.
+     */
+    private static class Stage implements Serializable {
+        private static final long serialVersionUID = 2250734137834432829L;
+
+        private int radix, m, stride;
+        private double[] twiddles;
+
+        // cos/sin(2 pi jk / radix) for the odd radices...
+        private double[] c, s;
+
+        private Stage(int radix, int span, int stride) {
+            this.radix = radix;
+            this.stride = stride;
+            m = span / radix;
+
+            final int p1 = radix - 1;
+            twiddles = new double[(m * p1) << 1];
+
+            for(int q=m; --q >= 0; ) for(int j=p1; j > 0; j--) {
+                final double theta = Constant.twoPi * ((long) j * q % span) / span;
+                final int k = (q * p1 + j - 1) << 1;
+                twiddles[k] = Math.cos(theta);
+                twiddles[k+1] = Math.sin(theta);
+            }
+
+            if(radix > 4) {
+                c = new double[radix];
+                s = new double[radix];
+                for(int k=radix; --k >= 0; ) {
+                    final double theta = Constant.twoPi * k / radix;
+                    c[k] = Math.cos(theta);
+                    s[k] = Math.sin(theta);
+                }
+            }
+        }
+
+
+        private void radix2(final double[] x, final double[] y, final int from, final int to, final double sign) {
+            final int dx = (stride * m) << 1;
+            final int dy = stride << 1;
+
+            int q = from / stride, r = from - q * stride;
+
+            for(int b=from; b < to; b++) {
+                final int i0 = (r + stride * q) << 1, i1 = i0 + dx;
+                final int o0 = (r + stride * (q << 1)) << 1, o1 = o0 + dy;
+                final int w = q << 1;
+
+                final double wr = twiddles[w], wi = sign * twiddles[w+1];
+
+                final double dr = x[i0] - x[i1], di = x[i0+1] - x[i1+1];
+
+                y[o0] = x[i0] + x[i1];
+                y[o0+1] = x[i0+1] + x[i1+1];
+                y[o1] = wr * dr - wi * di;
+                y[o1+1] = wr * di + wi * dr;
+
+                if(++r == stride) { r = 0; q++; }
+            }
+        }
+
+        private void radix3(final double[] x, final double[] y, final int from, final int to, final double sign) {
+            final int dx = (stride * m) << 1;
+            final int dy = stride << 1;
+            final double h = sign * 0.5 * Math.sqrt(3.0);
+
+            int q = from / stride, r = from - q * stride;
+
+            for(int b=from; b < to; b++) {
+                final int i0 = (r + stride * q) << 1, i1 = i0 + dx, i2 = i1 + dx;
+                final int o0 = (r + stride * 3 * q) << 1, o1 = o0 + dy, o2 = o1 + dy;
+                final int w = (q << 1) << 1;
+
+                final double tr = x[i1] + x[i2], ti = x[i1+1] + x[i2+1];
+                final double ur = h * (x[i1] - x[i2]), ui = h * (x[i1+1] - x[i2+1]);
+                final double sr = x[i0] - 0.5 * tr, si = x[i0+1] - 0.5 * ti;
+
+                y[o0] = x[i0] + tr;
+                y[o0+1] = x[i0+1] + ti;
+
+                // b1 = s + i u, b2 = s - i u
+                twiddle(sr - ui, si + ur, twiddles[w], sign * twiddles[w+1], y, o1);
+                twiddle(sr + ui, si - ur, twiddles[w+2], sign * twiddles[w+3], y, o2);
+
+                if(++r == stride) { r = 0; q++; }
+            }
+        }
+
+        private void radix4(final double[] x, final double[] y, final int from, final int to, final double sign) {
+            final int dx = (stride * m) << 1;
+            final int dy = stride << 1;
+
+            int q = from / stride, r = from - q * stride;
+
+            for(int b=from; b < to; b++) {
+                final int i0 = (r + stride * q) << 1, i1 = i0 + dx, i2 = i1 + dx, i3 = i2 + dx;
+                final int o0 = (r + stride * (q << 2)) << 1, o1 = o0 + dy, o2 = o1 + dy, o3 = o2 + dy;
+                final int w = 6 * q;
+
+                final double ar = x[i0] + x[i2], ai = x[i0+1] + x[i2+1];
+                final double br = x[i0] - x[i2], bi = x[i0+1] - x[i2+1];
+                final double cr = x[i1] + x[i3], ci = x[i1+1] + x[i3+1];
+
+                // d = sign * i * (x1 - x3)
+                final double dr = -sign * (x[i1+1] - x[i3+1]), di = sign * (x[i1] - x[i3]);
+
+                y[o0] = ar + cr;
+                y[o0+1] = ai + ci;
+
+                twiddle(br + dr, bi + di, twiddles[w], sign * twiddles[w+1], y, o1);
+                twiddle(ar - cr, ai - ci, twiddles[w+2], sign * twiddles[w+3], y, o2);
+                twiddle(br - dr, bi - di, twiddles[w+4], sign * twiddles[w+5], y, o3);
+
+                if(++r == stride) { r = 0; q++; }
+            }
+        }
+
+        private void radixOdd(final double[] x, final double[] y, final int from, final int to, final double sign) {
+            final int p = radix;
+            final int h = p >>> 1;
+            final int p1 = p - 1;
+            final int dx = (stride * m) << 1;
+            final int dy = stride << 1;
+
+            final double[] tr = new double[h+1], ti = new double[h+1];
+            final double[] ur = new double[h+1], ui = new double[h+1];
+
+            int q = from / stride, r = from - q * stride;
+
+            for(int b=from; b < to; b++) {
+                final int i0 = (r + stride * q) << 1;
+                final int o0 = (r + stride * p * q) << 1;
+                final int w = (q * p1) << 1;
+
+                final double x0r = x[i0], x0i = x[i0+1];
+                double sumr = x0r, sumi = x0i;
+
+                for(int k=1; k <= h; k++) {
+                    final int ik = i0 + k * dx, jk = i0 + (p - k) * dx;
+                    tr[k] = x[ik] + x[jk];
+                    ti[k] = x[ik+1] + x[jk+1];
+                    ur[k] = x[ik] - x[jk];
+                    ui[k] = x[ik+1] - x[jk+1];
+                    sumr += tr[k];
+                    sumi += ti[k];
+                }
+
+                y[o0] = sumr;
+                y[o0+1] = sumi;
+
+                for(int j=1; j <= h; j++) {
+                    double sr = x0r, si = x0i, vr = 0.0, vi = 0.0;
+
+                    for(int k=1, jk=j; k <= h; k++, jk += j) {
+                        if(jk >= p) jk -= p;
+                        sr += c[jk] * tr[k];
+                        si += c[jk] * ti[k];
+                        vr += s[jk] * ur[k];
+                        vi += s[jk] * ui[k];
+                    }
+
+                    vr *= sign;
+                    vi *= sign;
+
+                    final int wj = w + ((j - 1) << 1), wk = w + ((p - j - 1) << 1);
+
+                    twiddle(sr - vi, si + vr, twiddles[wj], sign * twiddles[wj+1], y, o0 + j * dy);
+                    twiddle(sr + vi, si - vr, twiddles[wk], sign * twiddles[wk+1], y, o0 + (p - j) * dy);
+                }
+
+                if(++r == stride) { r = 0; q++; }
+            }
+        }
+
+        private static void twiddle(final double re, final double im, final double wr, final double wi, final double[] y, final int i) {
+            y[i] = wr * re - wi * im;
+            y[i+1] = wr * im + wi * re;
+        }
+    }
+
+
+    /** The largest radix of the mixed-radix kernels. Lengths with larger prime factors use Bluestein's algorithm. */
+    static final int MAX_RADIX = 7;
+
+}
@@ -234,7 +234,7 @@ public class MultiFFT extends FFT<Object[]> implements RealFFT<Object[]> {
     // Blockbit is the size of a merge block in bit shifts (e.g. size 2 is bit 1, size 4 is bit 2, etc.)
     // Two consecutive blocks are merged by the algorithm into one larger block...
     @Override
-    protected void radix2(final Object[] data, int from, int to, final boolean isForward, int blkbit) {	
+    void radix2(final Object[] data, int from, int to, final boolean isForward, int blkbit, final SplitRadixPlan plan) {	
 
         // The Complex[] block size
         final int blk = 1 << blkbit;
@@ -251,37 +251,26 @@ public class MultiFFT extends FFT<Object[]> implements RealFFT<Object[]> {
 
         // <------------------ Processing Block Starts Here ------------------------>
         // 
-        // This one calculates the twiddle factors on the fly, using generators,
-        // with precision readjustments as necessary.
+        // This one looks up the twiddle factors from the precomputed tables of the plan.
 
-        final double theta = (isForward ? Math.PI : -Math.PI) / blk;
-        final Complex winc = new Complex(Math.cos(theta), Math.sin(theta));
+        final double[] table = plan.getTwiddles();
+        final double sign = isForward ? 1.0 : -1.0;
+        final int shift = plan.getTwiddleShift(blkbit+1);
 
-        final Complex w = new Complex(1.0, 0.0);
-
-        int m = from & blkmask;
-        if(m != 0) w.setUnitVectorAt(m * theta);
+        final Complex w = new Complex();
 
         final Object x = getMatching(data[0]);
 
-        final int clcmask = getTwiddleMask();
-
         for(int i1=from; i1<to; i1++) {
             // Skip over the odd blocks...
             // These are the i2 indices...
             if((i1 & blk) != 0) {
                 i1 += blk;
                 if(i1 >= to) break;
-
-                // Reset the twiddle factors
-                m = i1 & blkmask;
-                if(m != 0) w.setUnitVectorAt(m * theta);
-                else w.set(1.0, 0.0);
             }
 
-            // To keep the twiddle precision under control
-            // recalculate every now and then...
-            if((i1 & clcmask) == 0) w.setUnitVectorAt(i1 * theta);			
+            final int k = (i1 & blkmask) << shift;
+            w.set(table[k], sign * table[k | 1]);
 
             final Object d1 = data[i1];
             final Object d2 = data[i1 + blk];
@@ -292,9 +281,6 @@ public class MultiFFT extends FFT<Object[]> implements RealFFT<Object[]> {
             // d2 = d1 - x
             setDifference(d2, d1, x);
 
-            // Increment the twiddle factors...
-            w.multiplyBy(winc);
-
             // --------------------------------
             // i1
 
@@ -313,7 +299,7 @@ public class MultiFFT extends FFT<Object[]> implements RealFFT<Object[]> {
     // Blockbit is the size of a merge block in bit shifts (e.g. size 2 is bit 1, size 4 is bit 2, etc.)
     // Four consecutive blocks are merged by the algorithm into one larger block...
     @Override
-    protected void radix4(final Object[] data, int from, int to, final boolean isForward, int blkbit) {
+    void radix4(final Object[] data, int from, int to, final boolean isForward, int blkbit, final SplitRadixPlan plan) {
 
         /*
 		merge2(data, from, to, isForward, blkbit);
@@ -336,16 +322,13 @@ public class MultiFFT extends FFT<Object[]> implements RealFFT<Object[]> {
 
         // <------------------ Processing Block Starts Here ------------------------>
         // 
-        // This one calculates the twiddle factors on the fly, using generators,
-        // with precision readjustments as necessary.
-
-        final double theta = (isForward ? Math.PI : -Math.PI) / (blk<<1);
-        final Complex winc = new Complex(Math.cos(theta), Math.sin(theta));
+        // This one looks up the twiddle factors from the precomputed tables of the plan.
 
-        final Complex w1 = new Complex(1.0, 0.0); 
+        final double[] table = plan.getTwiddles();
+        final double sign = isForward ? 1.0 : -1.0;
+        final int shift = plan.getTwiddleShift(blkbit+2);
 
-        int m = from & blkmask;
-        if(m != 0) w1.setUnitVectorAt(m * theta);
+        final Complex w1 = new Complex(); 
 
         final Complex w2 = new Complex();
         final Complex w3 = new Complex();
@@ -357,30 +340,21 @@ public class MultiFFT extends FFT<Object[]> implements RealFFT<Object[]> {
         final Object x2 = getMatching(data[0]);
         final Object x3 = getMatching(data[0]);
 
-        final int clcmask = getTwiddleMask();
-
         for(int i0=from; i0<to; i0++) {
             // Skip over the 2nd, 3rd, and 4th blocks...
             if((i0 & skip) != 0) {
                 i0 += skip;
                 if(i0 >= to) break;
-
-                // Reset the twiddle factors
-                m = i0 & blkmask;
-                if(m != 0) w1.setUnitVectorAt(m * theta);
-                else w1.set(1.0, 0.0);
             }
 
             //->0:    f0 = F0
 
             final Object f0 = data[i0];
 
-            // To keep the twiddle precision under control
-            // recalculate every now and then...
-
-            if((i0 & clcmask) == 0) w1.setUnitVectorAt(i0 * theta);				
-
-            w2.setProduct(w1, w1);		
+            final int k = (i0 & blkmask) << shift;
+            
+            w1.set(table[k], sign * table[k | 1]);
+            w2.setProduct(w1, w1);
             w3.setProduct(w1, w2);			
 
             final int i1 = i0 + blk;
@@ -392,9 +366,6 @@ public class MultiFFT extends FFT<Object[]> implements RealFFT<Object[]> {
             setProduct(f1, w1, data[i2]);
             setProduct(f3, w3, data[i3]);
 
-            // Increment the twiddle factors...
-            w1.multiplyBy(winc);
-
             // x2 = f0 - f2
             // x3 = i * (f1 - f3) 
             setDifference(x2, f0, f2);
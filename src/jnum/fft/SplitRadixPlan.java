@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved. 
+ * 
+ * This file is part of jnum.
+ * 
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * 
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ * 
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+package jnum.fft;
+
+import jnum.Constant;
+
+/**
+ * Precomputed bit-reversal permutation and twiddle factors for the power-of-2 (radix 2 and 4) transforms.
+ * The twiddle table holds exp(2 pi i k / N) for the half circle at the resolution N = 2n of the real-valued 
+ * transform of n complex points, s.t. the same plan also serves the real-to-complex post-processing. The 
+ * values are stored as interleaved (cos, sin) pairs, s.t. the kernels read them in a single stream.
+ * 
+ * @author Attila Kovacs <attila[AT]sigmyne.com>
+ *
+ */
+final class SplitRadixPlan extends FFTPlan {
+
+    private static final long serialVersionUID = 5367373000271087290L;
+
+    private int addressBits;
+
+    /** Interleaved cos(2 pi k / N), sin(2 pi k / N) for k = 0...N/2-1 */
+    private double[] w;
+
+    /** Pairs of indices (i, j) with j > i, which are swapped for the bit-reversal permutation. */
+    private int[] swaps;
+
+
+    SplitRadixPlan(int addressBits) {
+        this.addressBits = addressBits;
+
+        final int n = 1 << addressBits;
+        final double theta = Constant.twoPi / (n << 1);
+
+        final int quarter = n >>> 1;
+        final double[] c = new double[quarter + 1];
+
+        // cos(2 pi k / N) for k = 0...N/4, using whichever of sine and cosine is more precise in each octant...
+        for(int k=quarter; k >= 0; k--) {
+            final int l = quarter - k;
+            c[k] = k <= l ? Math.cos(k * theta) : Math.sin(l * theta);
+        }
+
+        // The other quadrant follows by symmetry...
+        w = new double[n << 1];
+        for(int k=n; --k >= 0; ) {
+            final int i = k << 1;
+            if(k <= quarter) {
+                w[i] = c[k];
+                w[i | 1] = c[quarter - k];
+            }
+            else {
+                w[i] = -c[n - k];
+                w[i | 1] = c[k - quarter];
+            }
+        }
+
+        int pairs = 0;
+        for(int i=n; --i >= 0; ) if(reverse(i) > i) pairs++;
+
+        swaps = new int[pairs << 1];
+
+        for(int i=n, k=0; --i >= 0; ) {
+            final int j = reverse(i);
+            if(j <= i) continue;
+            swaps[k++] = i;
+            swaps[k++] = j;
+        }
+    }
+
+    private int reverse(int i) {
+        return addressBits == 0 ? i : Integer.reverse(i << (32 - addressBits));
+    }
+
+    /* (non-Javadoc)
+     * @see jnum.fft.FFTPlan#size()
+     */
+    @Override
+    int size() { return 1 << addressBits; }
+
+    /* (non-Javadoc)
+     * @see jnum.fft.FFTPlan#getBytes()
+     */
+    @Override
+    long getBytes() { return 8L * w.length + 4L * swaps.length; }
+
+    final int getAddressBits() { return addressBits; }
+
+    /**
+     * Gets the number of index pairs that are swapped in the bit-reversal permutation.
+     * 
+     * @return the number of swaps.
+     */
+    final int getSwaps() { return swaps.length >>> 1; }
+
+    final int getSwapFrom(int k) { return swaps[k << 1]; }
+
+    final int getSwapTo(int k) { return swaps[(k << 1) + 1]; }
+
+    /**
+     * Gets the shift that converts point indices within a merged block of 2^blkbits points into offsets of
+     * the (cosine) elements in the twiddle table.
+     * 
+     * @param blkbits the size of the merged block, as a power of 2.
+     * @return the bit shift for the twiddle table offset. 
+     */
+    final int getTwiddleShift(int blkbits) { return addressBits + 2 - blkbits; }
+
+    /**
+     * Gets the twiddle table, with cos(2 pi k / N) at index 2k, and sin(2 pi k / N) at index 2k+1, for 
+     * 0 &lt;= k &lt; N/2. The table must not be modified.
+     * 
+     * @return the interleaved twiddle table.
+     */
+    final double[] getTwiddles() { return w; }
+
+}
@@ -85,6 +85,31 @@ public class BitStore extends DataStore<Long> {
 		return (container.get(n).longValue() & mask) >>> shift;
 	}
 
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.DataStore#read(long, long[], int, int)
+	 */
+	@Override
+	public void read(long from, long[] data, int offset, int count) throws IOException {
+		container.read(from, data, offset, count);
+		for(int i=offset + count; --i >= offset; ) data[i] = (data[i] & mask) >>> shift;
+	}
+
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.DataStore#read(long, double[], int, int)
+	 */
+	@Override
+	public void read(long from, double[] data, int offset, int count) throws IOException {
+		final long[] bits = new long[Math.min(count, blockSize)];
+		
+		while(count > 0) {
+			final int n = Math.min(count, bits.length);
+			read(from, bits, 0, n);
+			for(int i=0; i<n; i++) data[offset++] = bits[i];
+			from += n;
+			count -= n;
+		}
+	}
+	
 	/* (non-Javadoc)
 	 * @see jnum.dirfile.DataStore#getSamples()
 	 */
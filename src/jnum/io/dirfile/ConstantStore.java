@@ -25,6 +25,7 @@
 package jnum.io.dirfile;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import jnum.util.HashCode;
 
@@ -86,6 +87,22 @@ public class ConstantStore extends DataStore<Number> {
 		return isFloating ? fValue : iValue;
 	}
 	
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.DataStore#read(long, double[], int, int)
+	 */
+	@Override
+	public void read(long from, double[] data, int offset, int count) throws IOException {
+		Arrays.fill(data, offset, offset + count, isFloating ? fValue : iValue);
+	}
+	
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.DataStore#read(long, long[], int, int)
+	 */
+	@Override
+	public void read(long from, long[] data, int offset, int count) throws IOException {
+		Arrays.fill(data, offset, offset + count, isFloating ? (long) fValue : iValue);
+	}
+	
 	/* (non-Javadoc)
 	 * @see jnum.dirfile.DataStore#getSamples()
 	 */
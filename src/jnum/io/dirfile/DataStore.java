@@ -34,6 +34,8 @@ public abstract class DataStore<Type extends Number> implements Serializable {
 
 	String name;
 	
+	public static int blockSize = 8192;
+	
 
 	public DataStore(String name) {
 		this.name = name; 
@@ -63,7 +65,71 @@ public abstract class DataStore<Type extends Number> implements Serializable {
 	
 
 	public abstract Type get(long n) throws IOException;
+	
 
+	public void read(long from, double[] data) throws IOException {
+		read(from, data, 0, data.length);
+	}
+	
+
+	public void read(long from, double[] data, int offset, int count) throws IOException {
+		for(int i=0; i<count; i++) data[offset + i] = get(from + i).doubleValue();
+	}
+	
+
+	public void read(long from, float[] data) throws IOException {
+		read(from, data, 0, data.length);
+	}
+	
+
+	public void read(long from, float[] data, int offset, int count) throws IOException {
+		final double[] block = new double[Math.min(count, blockSize)];
+		
+		while(count > 0) {
+			final int n = Math.min(count, block.length);
+			read(from, block, 0, n);
+			for(int i=0; i<n; i++) data[offset++] = (float) block[i];
+			from += n;
+			count -= n;
+		}
+	}
+	
+
+	public void read(long from, long[] data) throws IOException {
+		read(from, data, 0, data.length);
+	}
+	
+
+	public void read(long from, long[] data, int offset, int count) throws IOException {
+		for(int i=0; i<count; i++) data[offset + i] = get(from + i).longValue();
+	}
+
+
+	// Reads the values at indices round((from + i) * indexScale), i.e. from a field sampled
+	// at a different rate, through contiguous bulk reads of the underlying store.
+	protected static void read(DataStore<?> store, long from, double indexScale, double[] data, int offset, int count) throws IOException {
+		if(indexScale == 1.0) {
+			store.read(from, data, offset, count);
+			return;
+		}
+		
+		double[] block = null;
+		
+		while(count > 0) {
+			final int n = Math.min(count, blockSize);
+			final long i0 = Math.round(from * indexScale);
+			final int span = (int) (Math.round((from + n - 1) * indexScale) - i0) + 1;
+			
+			if(block == null || block.length < span) block = new double[span];
+			store.read(i0, block, 0, span);
+			
+			for(int i=0; i<n; i++) data[offset++] = block[(int) (Math.round((from + i) * indexScale) - i0)];
+			
+			from += n;
+			count -= n;
+		}
+	}
+	
 
 	public abstract int getSamples();
 	
@@ -190,7 +190,7 @@ public class DirFile extends Hashtable<String, DataStore<?>> {
 		
 		do {
 			initialSize = pending.size();		
-			for(int i=pending.size(); i>=0; i--) {
+			for(int i=pending.size(); --i >= 0; ) {
 				try { 
 					add(getDataStore(pending.get(i))); 
 					pending.remove(i);
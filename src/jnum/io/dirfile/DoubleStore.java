@@ -25,6 +25,7 @@
 package jnum.io.dirfile;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 
 public class DoubleStore extends RawStore<Double> {
@@ -45,4 +46,21 @@ public class DoubleStore extends RawStore<Double> {
 		return getDouble(n);
 	}
 
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.RawStore#decode(java.nio.ByteBuffer, double[], int, int)
+	 */
+	@Override
+	protected void decode(ByteBuffer buffer, double[] data, int offset, int count) {
+		buffer.asDoubleBuffer().get(data, offset, count);
+		buffer.position(buffer.position() + (count << 3));
+	}
+	
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.RawStore#decode(java.nio.ByteBuffer, long[], int, int)
+	 */
+	@Override
+	protected void decode(ByteBuffer buffer, long[] data, int offset, int count) {
+		for(int i=0; i<count; i++) data[offset++] = (long) buffer.getDouble();
+	}
+
 }
@@ -25,6 +25,7 @@
 package jnum.io.dirfile;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 
 public class FloatStore extends RawStore<Float> {
@@ -44,4 +45,29 @@ public class FloatStore extends RawStore<Float> {
 		return getFloat(n);
 	}
 
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.RawStore#decode(java.nio.ByteBuffer, double[], int, int)
+	 */
+	@Override
+	protected void decode(ByteBuffer buffer, double[] data, int offset, int count) {
+		for(int i=0; i<count; i++) data[offset++] = buffer.getFloat();
+	}
+	
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.RawStore#decode(java.nio.ByteBuffer, long[], int, int)
+	 */
+	@Override
+	protected void decode(ByteBuffer buffer, long[] data, int offset, int count) {
+		for(int i=0; i<count; i++) data[offset++] = (long) buffer.getFloat();
+	}
+
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.RawStore#decode(java.nio.ByteBuffer, float[], int, int)
+	 */
+	@Override
+	protected void decode(ByteBuffer buffer, float[] data, int offset, int count) {
+		buffer.asFloatBuffer().get(data, offset, count);
+		buffer.position(buffer.position() + (count << 2));
+	}
+
 }
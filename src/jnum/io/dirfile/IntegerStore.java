@@ -25,6 +25,7 @@
 package jnum.io.dirfile;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 
 public class IntegerStore extends RawStore<Integer> {
@@ -44,4 +45,20 @@ public class IntegerStore extends RawStore<Integer> {
 		return getInt(n);
 	}
 
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.RawStore#decode(java.nio.ByteBuffer, double[], int, int)
+	 */
+	@Override
+	protected void decode(ByteBuffer buffer, double[] data, int offset, int count) {
+		for(int i=0; i<count; i++) data[offset++] = buffer.getInt();
+	}
+	
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.RawStore#decode(java.nio.ByteBuffer, long[], int, int)
+	 */
+	@Override
+	protected void decode(ByteBuffer buffer, long[] data, int offset, int count) {
+		for(int i=0; i<count; i++) data[offset++] = buffer.getInt();
+	}
+
 }
@@ -79,6 +79,14 @@ public class InterpolatedStore extends DataStore<Double> implements Serializable
 		return values.get(n).doubleValue();
 	}
 
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.DataStore#read(long, double[], int, int)
+	 */
+	@Override
+	public void read(long from, double[] data, int offset, int count) throws IOException {
+		values.read(from, data, offset, count);
+	}
+
 	/* (non-Javadoc)
 	 * @see jnum.io.dirfile.DataStore#getSamples()
 	 */
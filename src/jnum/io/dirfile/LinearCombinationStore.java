@@ -26,6 +26,7 @@ package jnum.io.dirfile;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import jnum.math.Vector2D;
 import jnum.util.HashCode;
@@ -102,6 +103,32 @@ public class LinearCombinationStore extends DataStore<Double> {
 		return value;
 	}
 	
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.DataStore#read(long, double[], int, int)
+	 */
+	@Override
+	public void read(long from, double[] data, int offset, int count) throws IOException {
+		final double[] term = new double[Math.min(count, blockSize)];
+		
+		Arrays.fill(data, offset, offset + count, 0.0);
+		
+		while(count > 0) {
+			final int n = Math.min(count, term.length);
+			
+			for(int k=0; k<terms.size(); k++) {
+				final Vector2D coeff = coeffs.get(k);
+				final double a = coeff.x(), b = coeff.y();
+				
+				read(terms.get(k), from, indexScale.get(k), term, 0, n);
+				for(int i=n; --i >= 0; ) data[offset + i] += a * term[i] + b;
+			}
+			
+			from += n;
+			offset += n;
+			count -= n;
+		}
+	}
+	
 	/* (non-Javadoc)
 	 * @see jnum.dirfile.DataStore#getSamples()
 	 */
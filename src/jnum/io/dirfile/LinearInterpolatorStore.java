@@ -80,6 +80,17 @@ public class LinearInterpolatorStore extends DataStore<Double> {
 	}
 	
 
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.DataStore#read(long, double[], int, int)
+	 */
+	@Override
+	public void read(long from, double[] data, int offset, int count) throws IOException {
+		if(table == null) load();
+		raw.read(from, data, offset, count);
+		for(int i=offset + count; --i >= offset; ) data[i] = table.getValue(data[i]);
+	}
+	
+
 	public void load() throws IOException {
 		table = new SimpleInterpolator(fileName);
 	}
@@ -25,6 +25,7 @@
 package jnum.io.dirfile;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 
 public class LongStore extends RawStore<Long> {
@@ -45,4 +46,21 @@ public class LongStore extends RawStore<Long> {
 		return getLong(n);
 	}
 
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.RawStore#decode(java.nio.ByteBuffer, double[], int, int)
+	 */
+	@Override
+	protected void decode(ByteBuffer buffer, double[] data, int offset, int count) {
+		for(int i=0; i<count; i++) data[offset++] = buffer.getLong();
+	}
+	
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.RawStore#decode(java.nio.ByteBuffer, long[], int, int)
+	 */
+	@Override
+	protected void decode(ByteBuffer buffer, long[] data, int offset, int count) {
+		buffer.asLongBuffer().get(data, offset, count);
+		buffer.position(buffer.position() + (count << 3));
+	}
+
 }
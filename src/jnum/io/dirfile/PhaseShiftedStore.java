@@ -74,6 +74,30 @@ public class PhaseShiftedStore<Type extends Number> extends DataStore<Type> {
 		return data.get(n + shift);
 	}
 
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.DataStore#read(long, double[], int, int)
+	 */
+	@Override
+	public void read(long from, double[] buffer, int offset, int count) throws IOException {
+		data.read(from + shift, buffer, offset, count);
+	}
+	
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.DataStore#read(long, float[], int, int)
+	 */
+	@Override
+	public void read(long from, float[] buffer, int offset, int count) throws IOException {
+		data.read(from + shift, buffer, offset, count);
+	}
+	
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.DataStore#read(long, long[], int, int)
+	 */
+	@Override
+	public void read(long from, long[] buffer, int offset, int count) throws IOException {
+		data.read(from + shift, buffer, offset, count);
+	}
+
 	/* (non-Javadoc)
 	 * @see jnum.dirfile.DataStore#getSamples()
 	 */
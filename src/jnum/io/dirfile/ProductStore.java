@@ -42,7 +42,7 @@ public class ProductStore extends DataStore<Double> {
 		super(name);
 		this.a = a;
 		this.b = b;
-		indexScale = b.getSamples() / a.getSamples();
+		indexScale = (double) b.getSamples() / a.getSamples();
 	}
 	
 	/* (non-Javadoc)
@@ -76,6 +76,26 @@ public class ProductStore extends DataStore<Double> {
 		return a.get(n).doubleValue() * b.get(Math.round(indexScale * n)).doubleValue();
 	}
 
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.DataStore#read(long, double[], int, int)
+	 */
+	@Override
+	public void read(long from, double[] data, int offset, int count) throws IOException {
+		final double[] factor = new double[Math.min(count, blockSize)];
+		
+		while(count > 0) {
+			final int n = Math.min(count, factor.length);
+			
+			a.read(from, data, offset, n);
+			read(b, from, indexScale, factor, 0, n);
+			for(int i=n; --i >= 0; ) data[offset + i] *= factor[i];
+			
+			from += n;
+			offset += n;
+			count -= n;
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see jnum.dirfile.DataStore#getSamples()
 	 */
@@ -24,9 +24,14 @@
 
 package jnum.io.dirfile;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 
 import jnum.Util;
 
@@ -38,6 +43,12 @@ public abstract class RawStore<Type extends Number> extends DataStore<Type> {
 
 	RandomAccessFile file;
 
+	private transient FileChannel channel;
+
+	private transient MappedByteBuffer map;
+
+	private transient long mapOffset;
+
 	String path;
 
 	protected int bytes;
@@ -46,6 +57,8 @@ public abstract class RawStore<Type extends Number> extends DataStore<Type> {
 
 	boolean isBigEndian = false;
 	
+	public static int maxMapBytes = 1 << 28;
+	
 
 	public RawStore(String path, String name, int arraySize) {
 		super(name);
@@ -79,10 +92,14 @@ public abstract class RawStore<Type extends Number> extends DataStore<Type> {
 	
 
 	public void open() throws IOException {
-		file = new RandomAccessFile(getFile(), "r");		
+		file = new RandomAccessFile(getFile(), "r");
+		channel = file.getChannel();
 	}
 
 	public void close() throws IOException {
+		map = null;
+		channel = null;
+		if(file == null) return;
 		file.close();
 		file = null;
 	}
@@ -110,10 +127,56 @@ public abstract class RawStore<Type extends Number> extends DataStore<Type> {
 	}
 	
 
-	protected byte getByte(long n) throws IOException {
+	public ByteOrder getByteOrder() {
+		return isBigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+	}
+	
+	// Returns the byte offset of sample n inside the current mapping, (re)mapping
+	// the file as necessary so that the next count samples are all covered by it.
+	private int offsetOf(long n, int count) throws IOException {
 		if(file == null) open();
-		file.seek(n);
-		return file.readByte();
+		
+		final long from = n * bytes;
+		final long to = from + (long) count * bytes;
+		
+		if(map == null || from < mapOffset || to > mapOffset + map.limit()) map(from, to);
+		
+		return (int) (from - mapOffset);
+	}
+	
+	private void map(long from, long to) throws IOException {
+		final long size = channel.size();
+		if(to > size) throw new EOFException("Attempted read beyond the end of " + getFile().getName() + ".");
+		
+		// Keep some of the preceding data mapped also, so that stepping back a little does not remap... 
+		final long lead = maxMapBytes >>> 2;
+		final long window = Math.max(to - from + lead, maxMapBytes);
+		
+		long start = Math.max(0L, from - lead);
+		start -= start % bytes;
+		
+		// The mapping must always reach the end of the requested range (to <= size here)...
+		final long end = Math.min(size, Math.max(start + window, to));
+		
+		mapOffset = start;
+		map = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+		map.order(getByteOrder());
+	}
+	
+
+	protected ByteBuffer getBuffer(long n, int count) throws IOException {
+		final int offset = offsetOf(n, count);
+		
+		final ByteBuffer buffer = map.duplicate();
+		buffer.limit(offset + count * bytes);
+		buffer.position(offset);
+		
+		return buffer.slice().order(getByteOrder());
+	}
+	
+
+	protected byte getByte(long n) throws IOException {
+		return map.get(offsetOf(n, 1));
 	}
 	
 
@@ -123,22 +186,21 @@ public abstract class RawStore<Type extends Number> extends DataStore<Type> {
 	
 
 	protected short getShort(long n) throws IOException {
-		if(isBigEndian) return file.readShort();
-		return (short) getUnsignedShort(n);
+		final int i = offsetOf(n, 1);
+		if(map.order() != getByteOrder()) map.order(getByteOrder());
+		return map.getShort(i);
 	}
 	
 
 	protected int getUnsignedShort(long n) throws IOException {
-		if(file == null) open();
-		file.seek(n<<1);	
-		return isBigEndian ? Util.unsigned(file.readShort()) : Util.unsigned(Short.reverseBytes(file.readShort()));
+		return Util.unsigned(getShort(n));
 	}
 	
 
 	protected int getInt(long n) throws IOException {
-		if(file == null) open();
-		file.seek(n << 2);
-		return isBigEndian ? file.readInt() : Integer.reverseBytes(file.readInt());
+		final int i = offsetOf(n, 1);
+		if(map.order() != getByteOrder()) map.order(getByteOrder());
+		return map.getInt(i);
 	}
 	
 
@@ -148,9 +210,9 @@ public abstract class RawStore<Type extends Number> extends DataStore<Type> {
 
 
 	protected long getLong(long n) throws IOException {
-		if(file == null) open();
-		file.seek(n << 3);
-		return isBigEndian ? file.readLong() : Long.reverseBytes(file.readLong());	
+		final int i = offsetOf(n, 1);
+		if(map.order() != getByteOrder()) map.order(getByteOrder());
+		return map.getLong(i);
 	}
 	
 
@@ -170,9 +232,73 @@ public abstract class RawStore<Type extends Number> extends DataStore<Type> {
 	
 
 	protected char getChar(long n) throws IOException {
-		if(file == null) open();
-		file.seek(n << 1);
-		return isBigEndian ? file.readChar() : (char) Short.reverseBytes(file.readShort());
+		return (char) getShort(n);
+	}
+	
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.DataStore#read(long, double[], int, int)
+	 */
+	@Override
+	public void read(long from, double[] data, int offset, int count) throws IOException {
+		final int chunk = maxMapBytes / bytes;
+		
+		while(count > 0) {
+			final int n = Math.min(count, chunk);
+			decode(getBuffer(from, n), data, offset, n);
+			from += n;
+			offset += n;
+			count -= n;
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.DataStore#read(long, float[], int, int)
+	 */
+	@Override
+	public void read(long from, float[] data, int offset, int count) throws IOException {
+		final int chunk = maxMapBytes / bytes;
+		
+		while(count > 0) {
+			final int n = Math.min(count, chunk);
+			decode(getBuffer(from, n), data, offset, n);
+			from += n;
+			offset += n;
+			count -= n;
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.DataStore#read(long, long[], int, int)
+	 */
+	@Override
+	public void read(long from, long[] data, int offset, int count) throws IOException {
+		final int chunk = maxMapBytes / bytes;
+		
+		while(count > 0) {
+			final int n = Math.min(count, chunk);
+			decode(getBuffer(from, n), data, offset, n);
+			from += n;
+			offset += n;
+			count -= n;
+		}
+	}
+	
+
+	protected abstract void decode(ByteBuffer buffer, double[] data, int offset, int count);
+	
+
+	protected abstract void decode(ByteBuffer buffer, long[] data, int offset, int count);
+	
+
+	protected void decode(ByteBuffer buffer, float[] data, int offset, int count) {
+		final double[] temp = new double[Math.min(count, 1024)];
+		
+		while(count > 0) {
+			final int n = Math.min(count, temp.length);
+			decode(buffer, temp, 0, n);
+			for(int i=0; i<n; i++) data[offset++] = (float) temp[i];
+			count -= n;
+		}
 	}
 	
 
@@ -25,6 +25,9 @@
 package jnum.io.dirfile;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import jnum.Util;
 
 
 public class ULongStore extends RawStore<Long> {
@@ -45,4 +48,20 @@ public class ULongStore extends RawStore<Long> {
 		return getUnsignedLong(n);
 	}
 
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.RawStore#decode(java.nio.ByteBuffer, double[], int, int)
+	 */
+	@Override
+	protected void decode(ByteBuffer buffer, double[] data, int offset, int count) {
+		for(int i=0; i<count; i++) data[offset++] = Util.pseudoUnsigned(buffer.getLong());
+	}
+	
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.RawStore#decode(java.nio.ByteBuffer, long[], int, int)
+	 */
+	@Override
+	protected void decode(ByteBuffer buffer, long[] data, int offset, int count) {
+		for(int i=0; i<count; i++) data[offset++] = Util.pseudoUnsigned(buffer.getLong());
+	}
+
 }
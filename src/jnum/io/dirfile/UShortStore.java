@@ -25,6 +25,9 @@
 package jnum.io.dirfile;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import jnum.Util;
 
 
 public class UShortStore extends RawStore<Integer> {
@@ -45,4 +48,20 @@ public class UShortStore extends RawStore<Integer> {
 		return getUnsignedShort(n);
 	}
 
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.RawStore#decode(java.nio.ByteBuffer, double[], int, int)
+	 */
+	@Override
+	protected void decode(ByteBuffer buffer, double[] data, int offset, int count) {
+		for(int i=0; i<count; i++) data[offset++] = Util.unsigned(buffer.getShort());
+	}
+	
+	/* (non-Javadoc)
+	 * @see jnum.io.dirfile.RawStore#decode(java.nio.ByteBuffer, long[], int, int)
+	 */
+	@Override
+	protected void decode(ByteBuffer buffer, long[] data, int offset, int count) {
+		for(int i=0; i<count; i++) data[offset++] = Util.unsigned(buffer.getShort());
+	}
+
 }
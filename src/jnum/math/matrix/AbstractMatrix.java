@@ -166,6 +166,8 @@ public abstract class AbstractMatrix<T> implements MatrixAlgebra<AbstractMatrix<
 	@Override
 	public AbstractMatrix<T> dot(AbstractMatrix<? extends T> B) {
 		AbstractMatrix<T> product = clone();
+		// The clone shares the data with this matrix, which must not be overwritten...
+		product.noData();
 		product.setProduct(this, B);
 		return product;
 	}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved. 
+ * 
+ * This file is part of jnum.
+ * 
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * 
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ * 
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+package jnum.math.matrix;
+
+import java.util.Arrays;
+
+/**
+ * Cholesky decomposition A = L L<sup>T</sup> of a symmetric positive-definite matrix, such as a covariance matrix,
+ * for solving linear systems and inversion at about half the cost of {@link LUDecomposition}. Only the lower 
+ * triangle of the matrix is used.
+ */
+public class CholeskyDecomposition {
+
+	SquareMatrix L;
+
+	
+	public CholeskyDecomposition() {}
+	
+
+	public CholeskyDecomposition(SquareMatrix M) throws IllegalStateException {
+		decompose(M);
+	}
+	
+
+	public SquareMatrix getL() { return L; }
+	
+
+	public void decompose(SquareMatrix M) throws IllegalStateException {
+		L = (SquareMatrix) M.copy();
+		if(!L.decomposeCholesky()) {
+			L = null;
+			throw new IllegalStateException("Matrix is not positive definite.");
+		}
+	}
+	
+
+	public void solve(double b[]) {
+		DenseLinearAlgebra.solveCholesky(L.entry, b);
+	}
+
+
+	public SquareMatrix getInverse() {
+		SquareMatrix inverse = new SquareMatrix(L.size());
+		getInverseTo(inverse);
+		return inverse;
+	}
+	
+
+	public void getInverseTo(final SquareMatrix inverse) {
+		final int n = L.size();
+		
+		if(inverse.size() != n) throw new IllegalArgumentException("mismatched inverse matrix size.");
+		
+		new DenseLinearAlgebra.ColumnTask(n) {
+			@Override
+			protected void solveColumn(int i, double[] v) {
+				Arrays.fill(v, 0.0);
+				v[i] = 1.0;
+				solve(v);
+				for(int j=n; --j >= 0; ) inverse.entry[j][i] = v[j];
+			}
+		}.process(L.getParallel(), L.getTaskExecutor());
+	}
+	
+}
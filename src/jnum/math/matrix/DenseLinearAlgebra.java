@@ -0,0 +1,412 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Attila Kovacs <attila[AT]sigmyne.com>.
+ * All rights reserved. 
+ * 
+ * This file is part of jnum.
+ * 
+ *     jnum is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ * 
+ *     jnum is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ * 
+ *     You should have received a copy of the GNU General Public License
+ *     along with jnum.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * Contributors:
+ *     Attila Kovacs <attila[AT]sigmyne.com> - initial API and implementation
+ ******************************************************************************/
+
+package jnum.math.matrix;
+
+import java.util.concurrent.ExecutorService;
+
+import jnum.Util;
+import jnum.parallel.ParallelTask;
+
+
+/**
+ * Cache-blocked kernels for dense linear algebra on row-major <code>double[][]</code> arrays, such as the entries of
+ * {@link Matrix}. Matrix products are calculated over blocks of the inner and column dimensions, which are small 
+ * enough to stay in cache while all rows of the result are updated with them. The blocks of the right-hand factor
+ * are first packed into a flat row-major buffer, s.t. the innermost loops run through contiguous memory. The LU and
+ * Cholesky decompositions are blocked s.t. the bulk of their work is done by the same product kernel (or by row dot
+ * products). Rows of the results are processed in parallel, if more than one thread is requested.
+ *
+ * @author Attila Kovacs <attila[AT]sigmyne.com>
+ *
+ */
+public final class DenseLinearAlgebra {
+
+    private DenseLinearAlgebra() {}
+
+
+    /**
+     * Calculates C += alpha * A * B.
+     *
+     * @param alpha the scaling of the product
+     * @param A the left-hand factor (n x p).
+     * @param B the right-hand factor (p x m).
+     * @param C the matrix (n x m) to which the scaled product is added. It must not share rows with A or B.
+     * @param threads the number of threads to use.
+     * @param executor the executor to use for parallel processing, or null to create threads as needed.
+     */
+    public static void multiply(double alpha, double[][] A, double[][] B, double[][] C, int threads, ExecutorService executor) {
+        if(C.length == 0 || B.length == 0) return;
+        multiply(alpha, A, 0, 0, B, 0, 0, C, 0, 0, C.length, B.length, C[0].length, threads, executor);
+    }
+
+    /**
+     * Calculates C[ci+i][cj+j] += alpha * sum<sub>k</sub> A[ai+i][ak+k] * B[bk+k][bj+j] for i &lt; n, j &lt; m, and k &lt; p,
+     * i.e. adds the scaled product of the specified blocks of A and B to the specified block of C. The blocks of A and B
+     * may be in the same arrays as C, as long as they do not overlap with the block of C.
+     *
+     * @param alpha the scaling of the product
+     * @param A the array containing the left-hand factor
+     * @param ai the starting row of the left-hand factor
+     * @param ak the starting column of the left-hand factor
+     * @param B the array containing the right-hand factor
+     * @param bk the starting row of the right-hand factor
+     * @param bj the starting column of the right-hand factor
+     * @param C the array containing the block to which to add the product.
+     * @param ci the starting row of the result block
+     * @param cj the starting column of the result block
+     * @param n the number of rows in the product
+     * @param p the inner dimension of the product
+     * @param m the number of columns in the product
+     * @param threads the number of threads to use.
+     * @param executor the executor to use for parallel processing, or null to create threads as needed.
+     */
+    public static void multiply(final double alpha, final double[][] A, final int ai, final int ak, 
+            final double[][] B, final int bk, final int bj, final double[][] C, final int ci, final int cj,
+            final int n, final int p, final int m, int threads, ExecutorService executor) {
+
+        if(n <= 0 || p <= 0 || m <= 0 || alpha == 0.0) return;
+
+        final long ops = (long) n * p * m;
+
+        if(ops < MIN_BLOCKED_OPS) {
+            multiplyDirect(alpha, A, ai, ak, B, bk, bj, C, ci, cj, 0, n, p, m);
+            return;
+        }
+
+        // Pack the right-hand factor into a flat row-major buffer...
+        final double[] b = new double[p * m];
+        for(int k=p; --k >= 0; ) System.arraycopy(B[bk + k], bj, b, k * m, m);
+
+        threads = getThreads(threads, n, ops);
+
+        if(threads <= 1) {
+            multiplyBlocked(alpha, A, ai, ak, b, C, ci, cj, 0, n, p, m);
+            return;
+        }
+
+        new RowTask(n) {
+            @Override
+            protected void process(int from, int to) {
+                multiplyBlocked(alpha, A, ai, ak, b, C, ci, cj, from, to, p, m);
+            }
+        }.process(threads, executor);
+    }
+
+    private static void multiplyDirect(final double alpha, final double[][] A, final int ai, final int ak, 
+            final double[][] B, final int bk, final int bj, final double[][] C, final int ci, final int cj,
+            final int from, final int to, final int p, final int m) {
+
+        for(int i=from; i<to; i++) {
+            final double[] a = A[ai + i];
+            final double[] c = C[ci + i];
+
+            for(int k=0; k<p; k++) {
+                final double aik = alpha * a[ak + k];
+                if(aik == 0.0) continue;
+                final double[] bRow = B[bk + k];
+                for(int j=m; --j >= 0; ) c[cj + j] += aik * bRow[bj + j];
+            }
+        }
+    }
+
+    private static void multiplyBlocked(final double alpha, final double[][] A, final int ai, final int ak, 
+            final double[] b, final double[][] C, final int ci, final int cj,
+            final int from, final int to, final int p, final int m) {
+
+        for(int k0=0; k0<p; k0+=INNER_BLOCK) {
+            final int k1 = Math.min(p, k0 + INNER_BLOCK);
+
+            for(int j0=0; j0<m; j0+=COL_BLOCK) {
+                final int j1 = Math.min(m, j0 + COL_BLOCK);
+                final int c0 = cj + j0;
+                final int len = j1 - j0;
+
+                for(int i=from; i<to; i++) {
+                    final double[] a = A[ai + i];
+                    final double[] c = C[ci + i];
+
+                    for(int k=k0; k<k1; k++) {
+                        final double aik = alpha * a[ak + k];
+                        if(aik == 0.0) continue;
+                        final int offset = k * m + j0;
+                        for(int j=len; --j >= 0; ) c[c0 + j] += aik * b[offset + j];
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Decomposes a square matrix in place as P A = L U, with partial pivoting (scaled by the largest element in each
+     * row, as in Numerical Recipes). L is unit lower triangular, and stored below the diagonal, while U occupies the
+     * diagonal and above. The decomposition proceeds in column panels, with the trailing submatrix updated via
+     * {@link #multiply(double, double[][], int, int, double[][], int, int, double[][], int, int, int, int, int, int, ExecutorService)}.
+     *
+     * @param a the square array to decompose in place.
+     * @param index the array in which to store the row interchanges: row j was swapped with row index[j] at step j.
+     * @param tinyValue the value that replaces zero pivots.
+     * @param threads the number of threads to use.
+     * @param executor the executor to use for parallel processing, or null to create threads as needed.
+     * @return true if the number of row interchanges is even, otherwise false.
+     * @throws IllegalStateException if the matrix has an all-zero row.
+     */
+    public static boolean decomposeLU(final double[][] a, final int[] index, final double tinyValue, int threads, ExecutorService executor) 
+            throws IllegalStateException {
+        final int n = a.length;
+        final double[] v = new double[n];
+        boolean evenChanges = true;
+
+        for(int i=n; --i >= 0; ) {
+            final double[] row = a[i];
+            double big = 0.0;
+            for(int j=n; --j >= 0; ) {
+                final double temp = Math.abs(row[j]);
+                if(temp > big) big = temp;
+            }
+            if(big == 0.0) throw new IllegalStateException("Singular matrix in LU decomposition.");
+            v[i] = 1.0 / big;
+        }
+
+        for(int k0=0; k0<n; k0+=LU_BLOCK) {
+            final int k1 = Math.min(n, k0 + LU_BLOCK);
+
+            // Factor the panel of columns k0:k1, with pivoting...
+            for(int j=k0; j<k1; j++) {
+                int imax = j;
+                double big = -1.0;
+                for(int i=j; i<n; i++) {
+                    final double temp = v[i] * Math.abs(a[i][j]);
+                    if(temp > big) {
+                        big = temp;
+                        imax = i;
+                    }
+                }
+
+                if(imax != j) {
+                    // Rows are swapped whole, including the parts left and right of the panel...
+                    final double[] temp = a[imax];
+                    a[imax] = a[j];
+                    a[j] = temp;
+                    v[imax] = v[j];
+                    evenChanges = !evenChanges;
+                }
+                index[j] = imax;
+
+                final double[] pivotRow = a[j];
+                if(pivotRow[j] == 0.0) pivotRow[j] = tinyValue;
+                final double scale = 1.0 / pivotRow[j];
+
+                for(int i=j+1; i<n; i++) {
+                    final double[] row = a[i];
+                    final double l = (row[j] *= scale);
+                    if(l != 0.0) for(int c=j+1; c<k1; c++) row[c] -= l * pivotRow[c];
+                }
+            }
+
+            if(k1 == n) break;
+
+            // U12 = L11^-1 A12...
+            for(int r=k0+1; r<k1; r++) {
+                final double[] row = a[r];
+                for(int q=k0; q<r; q++) {
+                    final double l = row[q];
+                    if(l == 0.0) continue;
+                    final double[] upper = a[q];
+                    for(int c=k1; c<n; c++) row[c] -= l * upper[c];
+                }
+            }
+
+            // A22 -= L21 U12
+            multiply(-1.0, a, k1, k0, a, k0, k1, a, k1, k1, n - k1, k1 - k0, n - k1, threads, executor);
+        }
+
+        return evenChanges;
+    }
+
+
+    /**
+     * Decomposes a symmetric positive-definite matrix in place as A = L L<sup>T</sup>, where L is lower triangular. 
+     * Only the lower triangle (incl. the diagonal) of the input is used, and it is replaced by L. The elements above 
+     * the diagonal are set to zero. The rows are processed in blocks: the parts of the rows in a block, left of the 
+     * block, depend only on the preceding rows, and so are calculated in parallel (as dot products of contiguous
+     * rows).
+     *
+     * @param a the square array to decompose in place.
+     * @param threads the number of threads to use.
+     * @param executor the executor to use for parallel processing, or null to create threads as needed.
+     * @return true if successful, or false if the matrix is not positive definite (in which case the contents
+     *         of the array are undefined).
+     */
+    public static boolean decomposeCholesky(final double[][] a, int threads, ExecutorService executor) {
+        final int n = a.length;
+
+        for(int k0=0; k0<n; k0+=CHOLESKY_BLOCK) {
+            final int i0 = k0;
+            final int i1 = Math.min(n, i0 + CHOLESKY_BLOCK);
+
+            // The diagonal block, sequentially...
+            for(int i=i0; i<i1; i++) if(!choleskyRow(a, i, i0, i + 1)) return false;
+
+            if(i1 == n) break;
+
+            // Then columns i0:i1 of all rows below, which depend only on the rows above i1 and on their own
+            // elements left of i0 (already calculated), so they can be processed in parallel...
+            final int rows = n - i1;
+            final int t = getThreads(threads, rows, (long) rows * (i1 - i0) * i1);
+
+            if(t <= 1) {
+                for(int i=i1; i<n; i++) choleskyRow(a, i, i0, i1);
+            }
+            else new RowTask(rows) {
+                @Override
+                protected void process(int from, int to) {
+                    for(int i=i1+from; i<i1+to; i++) choleskyRow(a, i, i0, i1);
+                }
+            }.process(t, executor);
+        }
+
+        for(int i=n; --i >= 0; ) for(int j=i+1; j<n; j++) a[i][j] = 0.0;
+
+        return true;
+    }
+
+    // Calculates L[i][j] for j in [from, to), given L[i][k] for k < from, and all of L for rows below j.
+    private static boolean choleskyRow(final double[][] a, final int i, final int from, final int to) {
+        final double[] row = a[i];
+
+        for(int j=from; j<to; j++) {
+            final double[] lj = a[j];
+            double sum = row[j];
+            for(int k=j; --k >= 0; ) sum -= row[k] * lj[k];
+
+            if(j < i) row[j] = sum / lj[j];
+            else if(sum > 0.0) row[j] = Math.sqrt(sum);
+            else return false;
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Solves L L<sup>T</sup> x = b in place of b, for a lower triangular L, such as one obtained from 
+     * {@link #decomposeCholesky(double[][], int, ExecutorService)}.
+     *
+     * @param L the lower triangular array.
+     * @param b the right-hand side, which is replaced by the solution.
+     */
+    public static void solveCholesky(final double[][] L, final double[] b) {
+        final int n = b.length;
+
+        for(int i=0; i<n; i++) {
+            final double[] row = L[i];
+            double sum = b[i];
+            for(int k=i; --k >= 0; ) sum -= row[k] * b[k];
+            b[i] = sum / row[i];
+        }
+
+        // Back substitution with L^T, accessing L by rows...
+        for(int i=n; --i >= 0; ) {
+            final double[] row = L[i];
+            final double x = (b[i] /= row[i]);
+            for(int k=i; --k >= 0; ) b[k] -= row[k] * x;
+        }
+    }
+
+
+    private static int getThreads(int threads, int rows, long ops) {
+        return Math.max(1, Math.min(threads, Math.min(rows, (int) Math.min(Integer.MAX_VALUE, ops / MIN_PARALLEL_OPS))));
+    }
+
+
+    // Processes contiguous ranges of rows, in parallel...
+    private abstract static class RowTask extends ParallelTask<Void> {
+        private int rows;
+
+        private RowTask(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        protected void processChunk(int i, int split) {
+            final int from = (int) ((long) rows * i / split);
+            final int to = (int) ((long) rows * (i + 1) / split);
+            if(to > from) process(from, to);
+        }
+
+        protected abstract void process(int from, int to);
+
+        public void process(int threads, ExecutorService executor) {
+            try { super.process(threads, executor); }
+            catch(Exception e) { Util.error(this, e); }
+        }
+    }
+
+
+    // Solves for the columns of a matrix (e.g. an inverse) in parallel, each thread with its own work vector...
+    abstract static class ColumnTask extends ParallelTask<Void> {
+        private int n;
+
+        ColumnTask(int n) { this.n = n; }
+
+        @Override
+        protected void processChunk(int k, int split) {
+            final double[] v = new double[n];
+            for(int i=k; i<n; i+=split) solveColumn(i, v);
+        }
+
+        protected abstract void solveColumn(int i, double[] v);
+
+        @Override
+        public void process(int threads, ExecutorService executor) {
+            // Each column costs ~n^2 operations...
+            threads = getThreads(threads, n, (long) n * n * n);
+
+            try { 
+                if(threads > 1) super.process(threads, executor); 
+                else super.process(1, null);
+            }
+            catch(Exception e) { Util.error(this, e); }
+        }
+    }
+
+
+    /** The number of inner-dimension elements in product blocks */
+    public static int INNER_BLOCK = 64;
+
+    /** The number of columns in product blocks */
+    public static int COL_BLOCK = 256;
+
+    /** The number of columns in LU panels */
+    public static int LU_BLOCK = 64;
+
+    /** The number of rows in Cholesky blocks */
+    public static int CHOLESKY_BLOCK = 64;
+
+    private static final long MIN_BLOCKED_OPS = 32L * 32L * 32L;
+
+    private static final long MIN_PARALLEL_OPS = 1L << 18;
+
+}
@@ -76,19 +76,20 @@ public class LUDecomposition {
 	}
 	
 
-	public void getInverseTo(SquareMatrix inverse) {
+	public void getInverseTo(final SquareMatrix inverse) {
 		final int n = LU.size();
 		
 		if(inverse.size() != n) throw new IllegalArgumentException("mismatched inverse matrix size.");
 		
-		double[] v = new double[n];
-		
-		for(int i=0; i<n; i++) {
-			if(i > 0) Arrays.fill(v, 0.0);
-			v[i] = 1.0;
-			solve(v);
-			for(int j=n; --j >= 0; ) inverse.entry[j][i] = v[j];
-		}
+		new DenseLinearAlgebra.ColumnTask(n) {
+			@Override
+			protected void solveColumn(int i, double[] v) {
+				Arrays.fill(v, 0.0);
+				v[i] = 1.0;
+				solve(v);
+				for(int j=n; --j >= 0; ) inverse.entry[j][i] = v[j];
+			}
+		}.process(LU.getParallel(), LU.getTaskExecutor());
 	}
 	
 }
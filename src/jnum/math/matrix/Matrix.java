@@ -26,10 +26,14 @@ package jnum.math.matrix;
 
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 import jnum.ExtraMath;
 import jnum.data.ArrayUtil;
 import jnum.data.fitting.ConvergenceException;
+import jnum.parallel.ParallelTask;
+import jnum.parallel.Parallelizable;
 import jnum.util.HashCode;
 
 import java.text.*;
@@ -38,12 +42,18 @@ import java.text.*;
 //TODO Various decompositions.
 // TODO implement fast multiplication?
 
-public class Matrix extends AbstractMatrix<Double> {
+public class Matrix extends AbstractMatrix<Double> implements Parallelizable {
 
 	private static final long serialVersionUID = 1648081664701964671L;
 
 	public double[][] entry; 
 
+	private transient ExecutorService executor;
+	
+	private transient int parallelism;
+	
+	private transient boolean isWorkStealing;
+
 
 	public Matrix() {}
 
@@ -79,6 +89,64 @@ public class Matrix extends AbstractMatrix<Double> {
 		return Arrays.equals(entry, ((Matrix) o).entry);
 	}
 	
+	/* (non-Javadoc)
+	 * @see jnum.parallel.Parallelizable#getExecutor()
+	 */
+	@Override
+	public final ExecutorService getExecutor() { return executor; }
+	
+	/* (non-Javadoc)
+	 * @see jnum.parallel.Parallelizable#setExecutor(java.util.concurrent.ExecutorService)
+	 */
+	@Override
+	public void setExecutor(ExecutorService executor) { this.executor = executor; }
+	
+	/* (non-Javadoc)
+	 * @see jnum.parallel.Parallelizable#getParallel()
+	 */
+	@Override
+	public final int getParallel() { return Math.max(1, parallelism); }
+	
+	/* (non-Javadoc)
+	 * @see jnum.parallel.Parallelizable#setParallel(int)
+	 */
+	@Override
+	public void setParallel(int n) { parallelism = n; }
+	
+	/* (non-Javadoc)
+	 * @see jnum.parallel.Parallelizable#noParallel()
+	 */
+	@Override
+	public void noParallel() { setParallel(1); }
+	
+	/* (non-Javadoc)
+	 * @see jnum.parallel.Parallelizable#isWorkStealing()
+	 */
+	@Override
+	public final boolean isWorkStealing() { return isWorkStealing || executor instanceof ForkJoinPool; }
+	
+	/* (non-Javadoc)
+	 * @see jnum.parallel.Parallelizable#setWorkStealing(boolean)
+	 */
+	@Override
+	public void setWorkStealing(boolean value) { isWorkStealing = value; }
+	
+	/**
+	 * Copies the parallel processing settings from another object.
+	 *
+	 * @param processor the object whose parallel processing settings to use.
+	 */
+	public void copyParallel(Parallelizable processor) {
+		setExecutor(processor.getExecutor());
+		setParallel(processor.getParallel());
+		setWorkStealing(processor.isWorkStealing());
+	}
+	
+	protected ExecutorService getTaskExecutor() {
+		if(!isWorkStealing || executor instanceof ForkJoinPool) return executor;
+		return ParallelTask.getDefaultWorkStealingExecutor();
+	}
+	
 	/* (non-Javadoc)
 	 * @see kovacs.math.AbstractMatrix#getType()
 	 */
@@ -149,6 +217,11 @@ public class Matrix extends AbstractMatrix<Double> {
 	protected void calcProduct(AbstractMatrix<? extends Double> A, AbstractMatrix<? extends Double> B, boolean clearFirst) {				
 		if(clearFirst) zero();	
 		
+		if(A instanceof Matrix && B instanceof Matrix) {
+			DenseLinearAlgebra.multiply(1.0, ((Matrix) A).entry, ((Matrix) B).entry, entry, getParallel(), getTaskExecutor());
+			return;
+		}
+		
 		for(int i=A.rows(); --i >= 0; ) for(int j=B.cols(); --j >= 0; ) for(int k=A.cols(); --k >= 0; ) 
 			entry[i][j] += A.getValue(i, k) * B.getValue(k, j);
 	}
@@ -217,7 +290,15 @@ public class Matrix extends AbstractMatrix<Double> {
 
 		Matrix M = new Matrix(m, n);
 
-		for(int i=n; --i >= 0; ) for(int j=m; --j >= 0; ) M.entry[j][i] = entry[i][j];
+		// Transpose in tiles, s.t. both the source and destination rows stay in cache...
+		for(int i0=0; i0<n; i0+=TRANSPOSE_BLOCK) for(int j0=0; j0<m; j0+=TRANSPOSE_BLOCK) {
+			final int i1 = Math.min(n, i0 + TRANSPOSE_BLOCK);
+			final int j1 = Math.min(m, j0 + TRANSPOSE_BLOCK);
+			for(int i=i0; i<i1; i++) {
+				final double[] row = entry[i];
+				for(int j=j0; j<j1; j++) M.entry[j][i] = row[j];
+			}
+		}
 
 		return M;
 	}
@@ -829,4 +910,6 @@ public class Matrix extends AbstractMatrix<Double> {
 	}
 	
 	
+	private static final int TRANSPOSE_BLOCK = 32;
+	
 }
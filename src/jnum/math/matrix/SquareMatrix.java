@@ -82,6 +82,18 @@ public class SquareMatrix extends Matrix implements SquareMatrixAlgebra<Double>
 	}
 	
 
+	/**
+	 * Gets the inverse of a symmetric positive-definite matrix (such as a covariance matrix) via Cholesky decomposition,
+	 * which is about twice as fast as LU decomposition. Only the lower triangle of the matrix is used. 
+	 *
+	 * @return the inverse matrix.
+	 * @throws IllegalStateException if the matrix is not positive definite.
+	 */
+	public SquareMatrix getCholeskyInverse() throws IllegalStateException {
+		return new CholeskyDecomposition(this).getInverse();
+	}
+	
+
 	public SquareMatrix getSVDInverse() {
 		return new SquareMatrix(new SVD(this).getInverse());
 	}
@@ -104,57 +116,12 @@ public class SquareMatrix extends Matrix implements SquareMatrixAlgebra<Double>
 	
 
 	protected boolean decomposeLU(int[] index, double tinyValue) {
-		final int n = size();
-
-		double[] v = new double[n];
-		boolean evenChanges = true;
-		
-		for(int i=n; --i >= 0; ) {
-			double big = 0.0;
-			for(int j=n; --j >= 0; ) {
-				final double temp = Math.abs(entry[i][j]);
-				if(temp > big) big = temp;
-			}
-			if(big == 0.0) throw new IllegalStateException("Singular matrix in LU decomposition.");
-			v[i] = 1.0 / big;
-		}
-		for(int j=0; j<n; j++) {
-			int imax = -1;
-			
-			for(int i=j; --i >= 0; ) {
-				double sum = entry[i][j];
-				for(int k=i; --k >= 0; ) sum -= entry[i][k] * entry[k][j];
-				entry[i][j] = sum;
-			}
-			double big = 0.0;
-			for(int i=n; --i >= j; ) {
-				double sum = entry[i][j];
-				for(int k=j; --k >= 0; ) sum -= entry[i][k] * entry[k][j];
-				entry[i][j] = sum;
-				final double temp = v[i] * Math.abs(sum);
-				if (temp >= big) {
-					big=temp;
-					imax=i;
-				}
-			}
-			if(j != imax) {
-				for(int k=n; --k >= 0; ) {
-					double temp = entry[imax][k];
-					entry[imax][k] = entry[j][k];
-					entry[j][k] = temp;
-				}
-				evenChanges = !evenChanges;
-				v[imax] = v[j];
-			}
-			index[j] = imax;
-			if(entry[j][j] == 0.0) entry[j][j] = tinyValue;
-			
-			if(j != n-1) {
-				double temp = 1.0 / entry[j][j];
-				for(int i=n; --i > j; ) entry[i][j] *= temp;
-			}
-		}
-		return evenChanges;
+		return DenseLinearAlgebra.decomposeLU(entry, index, tinyValue, getParallel(), getTaskExecutor());
+	}
+	
+	// Returns false if the matrix is not positive definite...
+	protected boolean decomposeCholesky() { 
+		return DenseLinearAlgebra.decomposeCholesky(entry, getParallel(), getTaskExecutor());
 	}
 	
 	// TODO Solving with and without inversion...
@@ -162,6 +129,16 @@ public class SquareMatrix extends Matrix implements SquareMatrixAlgebra<Double>
 		new LUDecomposition(this).solve(b);
 	}
 	
+	/**
+	 * Solves A x = b for a symmetric positive-definite matrix A, via Cholesky decomposition.
+	 *
+	 * @param b the right-hand side, which is replaced by the solution.
+	 * @throws IllegalStateException if the matrix is not positive definite.
+	 */
+	public void solveSymmetric(double[] b) throws IllegalStateException {
+		new CholeskyDecomposition(this).solve(b);
+	}
+	
 
 	public void invertAndSolve(double[] b) {	
 		
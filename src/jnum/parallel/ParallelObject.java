@@ -24,12 +24,14 @@
 package jnum.parallel;
 
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 import jnum.Util;
 
 public abstract class ParallelObject implements Cloneable, Parallelizable {
     private ExecutorService executor;
     private int parallelism;
+    private boolean isWorkStealing;
     
     
     @Override
@@ -77,9 +79,31 @@ public abstract class ParallelObject implements Cloneable, Parallelizable {
         setParallel(1);
     }
     
+    @Override
+    public final boolean isWorkStealing() {
+        return isWorkStealing || executor instanceof ForkJoinPool;
+    }
+    
+    @Override
+    public void setWorkStealing(boolean value) {
+        isWorkStealing = value;
+    }
+    
+    /**
+     * Gets the executor to which parallel tasks are submitted. In work-stealing mode, this is the
+     * ForkJoinPool executor if one is set, or else the shared default work-stealing pool.
+     * 
+     * @return the executor service for processing tasks, or null to process on newly created threads.
+     */
+    protected ExecutorService getTaskExecutor() {
+        if(!isWorkStealing || executor instanceof ForkJoinPool) return executor;
+        return ParallelTask.getDefaultWorkStealingExecutor();
+    }
+    
     public void copyParallel(Parallelizable processor) {
         setExecutor(processor.getExecutor());
         setParallel(processor.getParallel());
+        setWorkStealing(processor.isWorkStealing());
     }
     
     
@@ -93,7 +117,7 @@ public abstract class ParallelObject implements Cloneable, Parallelizable {
     public abstract class Task<ReturnType> extends ParallelTask<ReturnType> {           
 
         public void process() {
-            process(getParallel(), getExecutor());
+            process(getParallel(), getTaskExecutor());
         }
         
         @Override
@@ -25,6 +25,8 @@ package jnum.parallel;
 
 
 import jnum.PointOp;
+import jnum.data.Histogram;
+import jnum.data.QuantileSketch;
 import jnum.data.WeightedPoint;
 
 public abstract class ParallelPointOp<PointType, ReturnType> extends PointOp<PointType, ReturnType> {
@@ -154,4 +156,74 @@ public abstract class ParallelPointOp<PointType, ReturnType> extends PointOp<Poi
 
     }
     
+    public abstract static class Quantiles<PointType> extends ParallelPointOp<PointType, QuantileSketch> {
+        private int capacity;
+        private QuantileSketch sketch;
+        
+        public Quantiles() {}
+        
+        public Quantiles(int capacity) {
+            this.capacity = capacity;
+            reset();
+        }
+       
+        @Override
+        protected void init() {
+            sketch = capacity > 0 ? new QuantileSketch(capacity) : new QuantileSketch();
+        }
+        
+        public abstract double getValue(PointType point);
+        
+        @Override
+        public final void process(PointType point) {
+            sketch.add(getValue(point));
+        }
+        
+        @Override
+        public final void mergeResult(QuantileSketch localSketch) {
+            sketch.merge(localSketch);
+        }
+        
+        @Override
+        public final QuantileSketch getResult() {
+           return sketch;
+        }
+
+    }
+    
+    
+    public abstract static class Histogramming<PointType> extends ParallelPointOp<PointType, Histogram> {
+        private double resolution;
+        private Histogram histogram;
+        
+        public Histogramming(double resolution) {
+            this.resolution = resolution;
+            reset();
+        }
+        
+        @Override
+        protected void init() {
+            // Called by the super constructor also, before the resolution is set...
+            histogram = resolution == 0.0 ? null : new Histogram(resolution);
+        }
+        
+        public abstract double getValue(PointType point);
+        
+        @Override
+        public final void process(PointType point) {
+            histogram.add(getValue(point));
+        }
+        
+        @Override
+        public final void mergeResult(Histogram localHistogram) {
+            histogram.add(localHistogram);
+        }
+        
+        @Override
+        public final Histogram getResult() {
+           return histogram;
+        }
+
+    }
+    
 }
@@ -29,6 +29,8 @@ import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.ThreadPoolExecutor;
 
 import jnum.ExtraMath;
@@ -100,7 +102,11 @@ public abstract class ParallelTask<ReturnType> implements Runnable, Cloneable {
         */
                 
         
-        if(chunks <= 1 && executor == null) {
+        if(chunks != 1 && executor instanceof ForkJoinPool) {
+            processor = new Processor();
+            processor.fork(chunks, (ForkJoinPool) executor);
+        }
+        else if(chunks <= 1 && executor == null) {
             processor = new Processor();
             processor.processSequential();
         }
@@ -212,7 +218,9 @@ public abstract class ParallelTask<ReturnType> implements Runnable, Cloneable {
 
 	/**
 	 * Create synchronization among the worker threads. A call to synchronize() will wait 
-	 * until all worker threads reach this point.
+	 * until all worker threads reach this point. Work-stealing (ForkJoinPool) execution
+	 * does not guarantee that all chunks run concurrently, so there the call returns
+	 * immediately.
 	 * 
 	 * @return the arrival index of this thread's call to the synchronization point.
 	 * @throws InterruptedException
@@ -264,15 +272,44 @@ public abstract class ParallelTask<ReturnType> implements Runnable, Cloneable {
         return Executors.newFixedThreadPool(threads);
     }
     
+    public static ForkJoinPool newDefaultWorkStealingExecutor() {
+        return newDefaultWorkStealingExecutor(Runtime.getRuntime().availableProcessors());
+    }
+    
+    public static ForkJoinPool newDefaultWorkStealingExecutor(int threads) {
+        return new ForkJoinPool(threads);
+    }
+    
+    /**
+     * Returns the shared work-stealing pool, which is created on first use with one thread per available
+     * processor.
+     * 
+     * @return the shared ForkJoinPool.
+     */
+    public static synchronized ForkJoinPool getDefaultWorkStealingExecutor() {
+        if(defaultWorkStealingExecutor == null) defaultWorkStealingExecutor = newDefaultWorkStealingExecutor();
+        return defaultWorkStealingExecutor;
+    }
+    
+    private static ForkJoinPool defaultWorkStealingExecutor;
+    
  
     public static int minExecutorBlockSize = 100;
     
+    /**
+     * The number of chunks per requested thread when processing on a ForkJoinPool. Finer chunks
+     * let idle threads steal work from the ones stuck with costlier regions. 
+     */
+    public static int workStealingSplit = 8;
+    
 
 	public class Processor {
 
-		private Vector<ParallelTask<ReturnType>> workers;
+		private volatile Vector<ParallelTask<ReturnType>> workers;
 		
 		private CyclicBarrier barrier;
+		
+		private volatile boolean isCancelled = false;
 			
 
 		private Processor() {}
@@ -310,6 +347,31 @@ public abstract class ParallelTask<ReturnType> implements Runnable, Cloneable {
 		   
 		}
 		
+		/**
+		 * Processes the task on a work-stealing pool. The work is oversubscribed into 
+		 * workStealingSplit chunks per thread, and the chunks are split recursively s.t. idle threads
+		 * can steal the remaining halves from busy ones. The call returns when all chunks are done, or
+		 * when the remaining chunks are skipped after a failure (see {@link #interruptAll()}).
+		 * <p>
+		 * Since the chunks may run in any order, and not necessarily concurrently, there is no barrier
+		 * among them, and so {@link ParallelTask#synchronize()} returns immediately on this path.
+		 * 
+		 * @param split the number of threads to split the work for, or 0 or negative to use the pool's parallelism.
+		 * @param pool the fork-join pool on which to process.
+		 */
+		private void fork(int split, ForkJoinPool pool) {
+		    if(split <= 0) split = pool.getParallelism();
+		    
+		    synchronized(this) {
+		        createProcesses(split * Math.max(1, workStealingSplit));
+		        barrier = null;
+		        isCancelled = false;
+		    }
+		    
+		    // Not holding the lock while the chunks run, s.t. failing chunks can interrupt the others...
+		    pool.invoke(new Branch(0, workers.size()));
+		}
+		
 		/**
          * Runs a clone of the ParallelTask in the current Thread, thus bypassing thread creation
          * or executor queueing...
@@ -347,8 +409,40 @@ public abstract class ParallelTask<ReturnType> implements Runnable, Cloneable {
 		}
 		
 
-	    public synchronized void interruptAll() {
-	        for(ParallelTask<?> worker : workers) worker.interrupt();
+	    /**
+	     * Interrupts all workers, and skips the chunks that have not yet started on a work-stealing pool.
+	     * It does not lock the processor, since it is called by the workers themselves (on failure), 
+	     * while the processor may be waiting for them.
+	     */
+	    public void interruptAll() {
+	        isCancelled = true;
+	        for(ParallelTask<?> worker : workers.toArray(new ParallelTask<?>[0])) worker.interrupt();
+	    }
+	    
+	    
+	    private class Branch extends RecursiveAction {
+	        private static final long serialVersionUID = -2863381407217150146L;
+	        
+	        private int from, to;
+	        
+	        private Branch(int from, int to) {
+	            this.from = from;
+	            this.to = to;
+	        }
+	        
+	        /* (non-Javadoc)
+	         * @see java.util.concurrent.RecursiveAction#compute()
+	         */
+	        @Override
+	        protected void compute() {
+	            if(isCancelled) return;
+	            if(to - from == 1) {
+	                workers.get(from).run();
+	                return;
+	            }
+	            final int mid = (from + to) >>> 1;
+	            invokeAll(new Branch(from, mid), new Branch(mid, to));
+	        }
 	    }
 		
 	}
@@ -36,5 +36,16 @@ public interface Parallelizable {
     public void setParallel(int n);
     
     public void noParallel();
+    
+    public boolean isWorkStealing();
+    
+    /**
+     * Selects work-stealing execution on a ForkJoinPool. When enabled, parallel tasks are split into finer
+     * chunks than threads, and idle threads take over chunks from busy ones. This helps when the cost of
+     * processing varies across the data. If the executor is not a ForkJoinPool, the shared default pool is used.
+     * 
+     * @param value true to use work-stealing execution, or false to use the executor (if any) as is.
+     */
+    public void setWorkStealing(boolean value);
   
 }
@@ -32,13 +32,31 @@ import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 import jnum.Util;
 import jnum.data.image.Values2D;
 import jnum.math.Range;
-
-
-public class BufferedImageLayer extends ImageLayer {
+import jnum.parallel.ParallelTask;
+import jnum.parallel.Parallelizable;
+
+
+/**
+ * An image layer, which renders its data into a buffered image. The buffer is rendered in square tiles, which are
+ * processed in parallel, writing directly into the integer raster of the image whenever possible. The layer keeps
+ * track of what each tile was rendered with, s.t. {@link #updateChangedTiles()} re-renders only the tiles that may have
+ * changed: all tiles after a change of the color scheme or scaling, but after a change of range only those tiles,
+ * whose data are not saturated in the same direction before and after the change. Changes to the underlying data
+ * should be signaled by {@link #invalidate()} or {@link #invalidate(int, int, int, int)}, whereas 
+ * {@link #updateBuffer()} always re-renders the entire buffer.
+ *
+ */
+public class BufferedImageLayer extends ImageLayer implements Parallelizable {
 
 	private static final long serialVersionUID = -5659356933524758138L;
 
@@ -52,6 +70,25 @@ public class BufferedImageLayer extends ImageLayer {
 
 	private AffineTransform coordsToIndex = new AffineTransform();
 
+	private int tileSize = DEFAULT_TILE_SIZE;
+	
+	private transient int tilesX, tilesY;
+	
+	private transient boolean[] isDirty;
+	
+	// The data extremes in each tile, and their scaled values when rendered...
+	private transient double[] tileMin, tileMax, tileLow, tileHigh;
+	
+	private transient ColorScheme renderedScheme;
+	
+	private transient int renderedScaling, renderedMapping;
+	
+	private transient ExecutorService executor;
+	
+	private transient int parallelism = Runtime.getRuntime().availableProcessors();
+	
+	private transient boolean isWorkStealing;
+
 
 	public BufferedImageLayer(Values2D data) {
 	    setData(data);
@@ -75,7 +112,7 @@ public class BufferedImageLayer extends ImageLayer {
 	}
 	
 
-	public final double getValue(int i, int j) { return data.isValid(i, j) ? data.get(i, j).doubleValue() : Double.NaN; }
+	public final double getValue(int i, int j) { return data.isValid(i, j) ? data.getDouble(i, j) : Double.NaN; }
 
 
 	public AffineTransform indexToCoords() {
@@ -90,6 +127,59 @@ public class BufferedImageLayer extends ImageLayer {
 
 	public void createBuffer(int width, int height) {
 		buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		createTiles();
+	}
+	
+	
+	public final int getTileSize() { return tileSize; }
+	
+	public void setTileSize(int size) {
+		if(size < 1) throw new IllegalArgumentException("Illegal tile size: " + size);
+		tileSize = size;
+		createTiles();
+	}
+	
+	private synchronized void createTiles() {
+		tilesX = buffer == null ? 0 : (buffer.getWidth() + tileSize - 1) / tileSize;
+		tilesY = buffer == null ? 0 : (buffer.getHeight() + tileSize - 1) / tileSize;
+		
+		final int n = tilesX * tilesY;
+		isDirty = new boolean[n];
+		tileMin = new double[n];
+		tileMax = new double[n];
+		tileLow = new double[n];
+		tileHigh = new double[n];
+		
+		Arrays.fill(isDirty, true);
+		renderedScheme = null;
+	}
+	
+
+	/**
+	 * Marks the entire buffer for re-rendering, e.g. after the data have changed.
+	 */
+	public synchronized void invalidate() {
+		if(isDirty != null) Arrays.fill(isDirty, true);
+	}
+	
+	/**
+	 * Marks the tiles overlapping the specified data region for re-rendering, e.g. after the data in that
+	 * region have changed.
+	 * 
+	 * @param fromi the first data index in x (inclusive).
+	 * @param fromj the first data index in y (inclusive).
+	 * @param toi the last data index in x (exclusive).
+	 * @param toj the last data index in y (exclusive).
+	 */
+	public synchronized void invalidate(int fromi, int fromj, int toi, int toj) {
+		if(isDirty == null) return;
+		
+		fromi = Math.max(0, fromi) / tileSize;
+		fromj = Math.max(0, fromj) / tileSize;
+		toi = Math.min(tilesX, (toi + tileSize - 1) / tileSize);
+		toj = Math.min(tilesY, (toj + tileSize - 1) / tileSize);
+		
+		for(int tj=fromj; tj < toj; tj++) for(int ti=fromi; ti < toi; ti++) isDirty[tj * tilesX + ti] = true;
 	}
 
 
@@ -116,9 +206,119 @@ public class BufferedImageLayer extends ImageLayer {
     }
 
 
-	public void updateBuffer() {	
-		for(int i=buffer.getWidth(); --i >= 0; ) for(int j=buffer.getHeight(); --j >= 0; ) 
-			buffer.setRGB(i, j, getRGB(getValue(i, j)));
+	/**
+	 * Re-renders the entire buffer from the current data. 
+	 * 
+	 * @see #updateChangedTiles()
+	 */
+	public synchronized void updateBuffer() {
+		invalidate();
+		updateChangedTiles();
+	}
+	
+	/**
+	 * Re-renders only the tiles of the buffer that may have changed since they were last rendered. Changes of the color
+	 * scheme, scaling or range are picked up automatically, but changes to the data values are not: call
+	 * {@link #invalidate()} or {@link #invalidate(int, int, int, int)} after modifying the data, or else the modified 
+	 * tiles keep showing the prior values. Use {@link #updateBuffer()} instead to re-render everything.
+	 * 
+	 * @see #invalidate()
+	 * @see #invalidate(int, int, int, int)
+	 */
+	public synchronized void updateChangedTiles() {
+		if(tileMin == null || tilesX * tilesY != tileMin.length) createTiles();
+		
+		final boolean isRestyled = getColorScheme() != renderedScheme || getScaling() != renderedScaling;
+		final boolean isRescaled = getMappingVersion() != renderedMapping;
+		
+		final int[] tiles = new int[tilesX * tilesY];
+		int n = 0;
+		
+		for(int t=0; t < tiles.length; t++) {
+			if(isDirty[t] || isRestyled || (isRescaled && isRescaled(t))) tiles[n++] = t;
+			else if(isRescaled) {
+				tileLow[t] = getScaled(tileMin[t]);
+				tileHigh[t] = getScaled(tileMax[t]);
+			}
+		}
+		
+		if(n > 0) render(tiles, n);
+		
+		renderedScheme = getColorScheme();
+		renderedScaling = getScaling();
+		renderedMapping = getMappingVersion();
+	}
+	
+	// Whether a tile might render differently under the current mapping, than it was rendered. Since the scaling
+	// is monotonic, a tile is unaffected if all its data remain saturated at the same end of the color scale...
+	private boolean isRescaled(int t) {
+		if(Double.isNaN(tileMin[t])) return false;
+		if(tileLow[t] >= 1.0 && getScaled(tileMin[t]) >= 1.0) return false;
+		if(tileHigh[t] <= 0.0 && getScaled(tileMax[t]) <= 0.0) return false;
+		return true;
+	}
+	
+	private void render(final int[] tiles, final int n) {
+		final WritableRaster raster = buffer.getRaster();
+		final int type = buffer.getType();
+		
+		final boolean isDirect = (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB) 
+				&& raster.getDataBuffer() instanceof DataBufferInt && raster.getSampleModel() instanceof SinglePixelPackedSampleModel;
+		
+		final int[] pixels = isDirect ? ((DataBufferInt) raster.getDataBuffer()).getData() : null;
+		final int stride = isDirect ? ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride() : 0;
+		final int offset = isDirect ? raster.getDataBuffer().getOffset() 
+				- raster.getSampleModelTranslateY() * stride - raster.getSampleModelTranslateX() : 0;
+		
+		final int width = buffer.getWidth();
+		final int height = buffer.getHeight();
+		
+		// Build the lookup table ahead of the parallel processing...
+		getColorScheme().getLookupTable();
+		
+		final int chunks = Math.max(1, Math.min(getParallel(), n));
+		
+		ParallelTask<Void> task = new ParallelTask<Void>() {
+			@Override
+			protected void processChunk(int k, int split) {
+				final int from = (int) ((long) n * k / split);
+				final int to = (int) ((long) n * (k + 1) / split);
+				for(int m=from; m < to; m++) renderTile(tiles[m]);
+			}
+			
+			private void renderTile(final int t) {
+				final int fromi = (t % tilesX) * tileSize;
+				final int fromj = (t / tilesX) * tileSize;
+				final int toi = Math.min(width, fromi + tileSize);
+				final int toj = Math.min(height, fromj + tileSize);
+				
+				double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+				
+				for(int j=fromj; j < toj; j++) {
+					final int row = offset + j * stride;
+					for(int i=fromi; i < toi; i++) {
+						final double value = getValue(i, j);
+						if(!Double.isNaN(value)) {
+							if(value < min) min = value;
+							if(value > max) max = value;
+						}
+						if(isDirect) pixels[row + i] = getRGB(value);
+						else buffer.setRGB(i, j, getRGB(value));
+					}
+				}
+				
+				if(min > max) min = max = Double.NaN;
+				
+				tileMin[t] = min;
+				tileMax[t] = max;
+				tileLow[t] = getScaled(min);
+				tileHigh[t] = getScaled(max);
+				isDirty[t] = false;
+			}
+		};
+		
+		try { task.process(chunks, chunks > 1 ? getTaskExecutor() : null); }
+		catch(Exception e) { Util.error(this, e); }
 	}
 
 	@Override
@@ -172,7 +372,10 @@ public class BufferedImageLayer extends ImageLayer {
 	public BufferedImage getBufferedImage() { return buffer; }
 	
 
-	public void setBufferedImage(BufferedImage im) { this.buffer = im; }
+	public void setBufferedImage(BufferedImage im) { 
+		this.buffer = im; 
+		createTiles();
+	}
 	
 
 	public int getInterpolationType() { return interpolationType; }
@@ -185,6 +388,57 @@ public class BufferedImageLayer extends ImageLayer {
 	public void setSpline() { setInterpolationType(AffineTransformOp.TYPE_BICUBIC); }
 	
 	
+	/* (non-Javadoc)
+	 * @see jnum.parallel.Parallelizable#getExecutor()
+	 */
+	@Override
+	public final ExecutorService getExecutor() { return executor; }
+
+	/* (non-Javadoc)
+	 * @see jnum.parallel.Parallelizable#setExecutor(java.util.concurrent.ExecutorService)
+	 */
+	@Override
+	public void setExecutor(ExecutorService executor) { this.executor = executor; }
+
+	/* (non-Javadoc)
+	 * @see jnum.parallel.Parallelizable#getParallel()
+	 */
+	@Override
+	public final int getParallel() { return Math.max(1, parallelism); }
+
+	/* (non-Javadoc)
+	 * @see jnum.parallel.Parallelizable#setParallel(int)
+	 */
+	@Override
+	public void setParallel(int n) { parallelism = n; }
+
+	/* (non-Javadoc)
+	 * @see jnum.parallel.Parallelizable#noParallel()
+	 */
+	@Override
+	public void noParallel() { setParallel(1); }
+
+	/* (non-Javadoc)
+	 * @see jnum.parallel.Parallelizable#isWorkStealing()
+	 */
+	@Override
+	public final boolean isWorkStealing() { return isWorkStealing || executor instanceof ForkJoinPool; }
+
+	/* (non-Javadoc)
+	 * @see jnum.parallel.Parallelizable#setWorkStealing(boolean)
+	 */
+	@Override
+	public void setWorkStealing(boolean value) { isWorkStealing = value; }
+	
+	protected ExecutorService getTaskExecutor() {
+		if(!isWorkStealing || executor instanceof ForkJoinPool) return executor;
+		return ParallelTask.getDefaultWorkStealingExecutor();
+	}
+	
+	
+	public final static int DEFAULT_TILE_SIZE = 256;
+	
+	
 	
 	
 	
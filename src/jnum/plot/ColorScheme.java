@@ -46,12 +46,46 @@ public abstract class ColorScheme {
 
 	public int noData = Color.TRANSLUCENT;
 
+	private transient volatile int[] lookup;
+
 	public ColorScheme() {}
 	
 
 	public abstract int getRGB(double scaledintensity);
 
 
+	/**
+	 * Gets the color for a scaled intensity from a precomputed table, which samples {@link #getRGB(double)}
+	 * uniformly between 0 and 1. Intensities outside that interval are clamped, as by all schemes, while
+	 * NaN values are mapped to {@link #noData}.
+	 * 
+	 * @param scaledintensity the scaled intensity, normally between 0 and 1.
+	 * @return the ARGB color from the lookup table.
+	 */
+	public final int getLookupRGB(final double scaledintensity) {
+		if(Double.isNaN(scaledintensity)) return noData;
+		final int[] table = getLookupTable();
+		if(scaledintensity <= 0.0) return table[0];
+		if(scaledintensity >= 1.0) return table[LOOKUP_SIZE - 1];
+		return table[(int) (scaledintensity * (LOOKUP_SIZE - 1) + 0.5)];
+	}
+	
+
+	public final int[] getLookupTable() {
+		int[] table = lookup;
+		if(table == null) {
+			table = new int[LOOKUP_SIZE];
+			for(int i=LOOKUP_SIZE; --i >= 0; ) table[i] = getRGB((double) i / (LOOKUP_SIZE - 1));
+			lookup = table;
+		}
+		return table;
+	}
+	
+	
+	// Subclasses whose colors depend on adjustable settings should call this when those change...
+	protected void updateLookupTable() { lookup = null; }
+
+
 	public abstract Color getHighlight();
 	
 
@@ -73,6 +107,9 @@ public abstract class ColorScheme {
 		final int B = (Math.min(255, (int)Math.floor(256.0F * b)));
 		return getRGB(R, G, B);
 	}
+
+	public final static int LOOKUP_SIZE = 4096;
+	
 	static {
 		schemes.put("grayscale", GreyScale.class);
 		schemes.put("greyscale", GreyScale.class);
@@ -24,6 +24,7 @@ package jnum.plot;
 
 import java.awt.Graphics;
 
+import jnum.ExtraMath;
 import jnum.Util;
 import jnum.math.CartesianSystem;
 import jnum.math.Range;
@@ -37,10 +38,14 @@ public abstract class ImageLayer extends ContentLayer {
 
 	private ColorScheme colorScheme = new GreyScale();
 
-	private Range range, logRange, sqrtRange;
+	private Range range, logRange, sqrtRange, asinhRange;
+
+	private double asinhSoftening = DEFAULT_ASINH_SOFTENING, asinhScale = 1.0;
 
 	private int scaling = SCALE_LINEAR;
 	
+	private transient int mappingVersion = 0;
+	
 	protected boolean verbose = false;	
 	
 	
@@ -48,6 +53,7 @@ public abstract class ImageLayer extends ContentLayer {
 	    range = new Range();
 	    logRange = new Range();
 	    sqrtRange = new Range();
+	    asinhRange = new Range();
 	}
 	
 	/* (non-Javadoc)
@@ -60,7 +66,10 @@ public abstract class ImageLayer extends ContentLayer {
 	}
 	
 	
-	public void setScaling(int value) { scaling = value; }
+	public void setScaling(int value) { 
+		scaling = value; 
+		mappingVersion++;
+	}
 	
 	public int getScaling() { return scaling; }
 	
@@ -72,13 +81,14 @@ public abstract class ImageLayer extends ContentLayer {
 			return logValue > logRange.min() ? (Math.log(value) - logRange.min()) / logRange.span() : 0.0;
 		}
 		case SCALE_SQRT : return (Math.signum(value) * Math.sqrt(Math.abs(value)) - sqrtRange.min()) / sqrtRange.span();
+		case SCALE_ASINH : return (ExtraMath.asinh(value / asinhScale) - asinhRange.min()) / asinhRange.span();
 		}
 		return (value - range.min()) / range.span();	
 	}
 	
 
 	public int getRGB(double value) {
-		return Double.isNaN(value) ? colorScheme.noData : colorScheme.getRGB(getScaled(value));
+		return Double.isNaN(value) ? colorScheme.noData : colorScheme.getLookupRGB(getScaled(value));
 	}
 	
 	
@@ -117,7 +127,10 @@ public abstract class ImageLayer extends ContentLayer {
 	public ColorScheme getColorScheme() { return colorScheme; }
 	
 
-	public void setColorScheme(ColorScheme scheme) { this.colorScheme = scheme; }
+	public void setColorScheme(ColorScheme scheme) { 
+		this.colorScheme = scheme; 
+		mappingVersion++;
+	}
 	
 
 	public Range getRange() { return range; }
@@ -126,7 +139,35 @@ public abstract class ImageLayer extends ContentLayer {
 	public void setRange(Range r) {
 		this.range.setRange(r.min(), r.max()); 
 		logRange.setRange(0.1 * Math.log(Math.abs(r.min())), Math.log(Math.abs(r.max())));
-		sqrtRange.setRange(Math.signum(r.min()) * Math.sqrt(Math.abs(r.min())), Math.signum(r.max()) * Math.log(Math.abs(r.max())));
+		sqrtRange.setRange(Math.signum(r.min()) * Math.sqrt(Math.abs(r.min())), Math.signum(r.max()) * Math.sqrt(Math.abs(r.max())));
+		
+		asinhScale = asinhSoftening * Math.max(Math.abs(r.min()), Math.abs(r.max()));
+		if(!(asinhScale > 0.0)) asinhScale = 1.0;
+		asinhRange.setRange(ExtraMath.asinh(r.min() / asinhScale), ExtraMath.asinh(r.max() / asinhScale));
+		
+		mappingVersion++;
+	}
+	
+	/**
+	 * Gets a counter of the changes to the mapping of data values to colors (i.e. the range, scaling, or color scheme),
+	 * with which one may check whether previously rendered colors are still current.
+	 * 
+	 * @return the number of changes to the color mapping.
+	 */
+	protected final int getMappingVersion() { return mappingVersion; }
+	
+	
+	public double getAsinhSoftening() { return asinhSoftening; }
+	
+	/**
+	 * Sets the scale, below which the asinh scaling is approximately linear, relative to the largest absolute
+	 * value in the range. Smaller values compress the bright end more.
+	 * 
+	 * @param value the relative softening scale, e.g. 0.01.
+	 */
+	public void setAsinhSoftening(double value) { 
+		asinhSoftening = value;
+		setRange(range);
 	}
 	
 
@@ -142,5 +183,9 @@ public abstract class ImageLayer extends ContentLayer {
 	public final static int SCALE_LOG = 1;
 
 	public final static int SCALE_SQRT = 2;
+
+	public final static int SCALE_ASINH = 3;
+	
+	public final static double DEFAULT_ASINH_SOFTENING = 0.01;
 	
 }
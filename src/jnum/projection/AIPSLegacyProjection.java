@@ -105,6 +105,43 @@ public class AIPSLegacyProjection extends SphericalProjection {
 	}
 	
 	
+	/* (non-Javadoc)
+	 * @see jnum.projection.SphericalProjection#project(double[], double[], double[], double[], int, int)
+	 */
+	@Override
+	public final void project(final double[] lon, final double[] lat, final double[] x, final double[] y, final int from, final int to) {
+	    if(referenceOffsets == null) throw new IllegalStateException("null reference in " + getClass().getSimpleName());
+		baseProjection.project(lon, lat, x, y, from, to);
+		
+		final double x0 = referenceOffsets.x();
+		final double y0 = referenceOffsets.y();
+		for(int k=from; k<to; k++) {
+			x[k] -= x0;
+			y[k] -= y0;
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see jnum.projection.SphericalProjection#deproject(double[], double[], double[], double[], int, int)
+	 */
+	@Override
+	public final void deproject(final double[] x, final double[] y, final double[] lon, final double[] lat, final int from, final int to) {
+	    if(referenceOffsets == null) throw new IllegalStateException("null reference in " + getClass().getSimpleName());
+	    
+	    
+	    final double x0 = referenceOffsets.x();
+	    final double y0 = referenceOffsets.y();
+	    
+	    // The shifted offsets go in the output arrays, which are then deprojected in place...
+	    for(int k=from; k<to; k++) {
+	    	lon[k] = x[k] + x0;
+	    	lat[k] = y[k] + y0;
+	    }
+	    
+	    baseProjection.deproject(lon, lat, lon, lat, from, to);
+	}
+	
+	
 	/* (non-Javadoc)
 	 * @see jnum.SphericalProjection#getOffsets(double, double, jnum.Coordinate2D)
 	 */
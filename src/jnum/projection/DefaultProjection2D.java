@@ -66,6 +66,24 @@ public class DefaultProjection2D extends Projection2D<Coordinate2D> {
 		toCoords.copy(projected);
 	}
 
+	/* (non-Javadoc)
+	 * @see jnum.projection.Projection2D#project(double[], double[], double[], double[], int, int)
+	 */
+	@Override
+	public void project(double[] cx, double[] cy, double[] x, double[] y, int from, int to) {
+		System.arraycopy(cx, from, x, from, to - from);
+		System.arraycopy(cy, from, y, from, to - from);
+	}
+
+	/* (non-Javadoc)
+	 * @see jnum.projection.Projection2D#deproject(double[], double[], double[], double[], int, int)
+	 */
+	@Override
+	public void deproject(double[] x, double[] y, double[] cx, double[] cy, int from, int to) {
+		System.arraycopy(x, from, cx, from, to - from);
+		System.arraycopy(y, from, cy, from, to - from);
+	}
+
 	/* (non-Javadoc)
 	 * @see jnum.Projection2D#getFitsID()
 	 */
@@ -68,6 +68,36 @@ public class GlobalSinusoidal extends SphericalProjection {
 	}
 	
 	
+	/* (non-Javadoc)
+	 * @see jnum.projection.SphericalProjection#project(double[], double[], double[], double[], int, int)
+	 */
+	@Override
+	public final void project(final double[] lon, final double[] lat, final double[] x, final double[] y, final int from, final int to) {
+		final double lon0 = getReference().x();
+		final double lat0 = getReference().y();
+		
+		for(int k=from; k<to; k++) {
+			x[k] = Math.IEEEremainder(lon[k] - lon0, twoPI) * Math.cos(lat[k]);
+			y[k] = lat[k] - lat0;
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see jnum.projection.SphericalProjection#deproject(double[], double[], double[], double[], int, int)
+	 */
+	@Override
+	public final void deproject(final double[] x, final double[] y, final double[] lon, final double[] lat, final int from, final int to) {
+		final double lon0 = getReference().x();
+		final double lat0 = getReference().y();
+		
+		for(int k=from; k<to; k++) {
+			final double theta = Math.IEEEremainder(lat0 + y[k], Math.PI);
+			lon[k] = lon0 + x[k] / Math.cos(theta);
+			lat[k] = theta;
+		}
+	}
+	
+	
 	// These are not used thanks to the overriding of the projection equations...
 	/* (non-Javadoc)
 	 * @see jnum.SphericalProjection#getOffsets(double, double, jnum.Coordinate2D)
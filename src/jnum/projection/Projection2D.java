@@ -24,12 +24,16 @@
 package jnum.projection;
 
 import java.io.Serializable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 import jnum.Util;
 import jnum.fits.FitsHeaderEditing;
 import jnum.fits.FitsHeaderParsing;
 import jnum.math.Coordinate2D;
 import jnum.math.Vector2D;
+import jnum.parallel.ParallelTask;
+import jnum.parallel.Parallelizable;
 import nom.tam.fits.Header;
 import nom.tam.fits.HeaderCardException;
 
@@ -99,6 +103,80 @@ public abstract class Projection2D<CoordinateType extends Coordinate2D> implemen
 	public abstract void deproject(Coordinate2D projected, CoordinateType toCoords);
 	
 
+	/**
+	 * Projects a range of coordinates, given as arrays of their components, to the corresponding arrays of projected
+	 * offsets. Subclasses may override this, to take calculations that are common to all points out of the loop.
+	 *
+	 * @param cx the array of first coordinate components (e.g. longitudes in radians, as in {@link Coordinate2D#x()}).
+	 * @param cy the array of second coordinate components (e.g. latitudes in radians, as in {@link Coordinate2D#y()}).
+	 * @param x the array into which to write the projected x offsets.
+	 * @param y the array into which to write the projected y offsets.
+	 * @param from the index of the first point to project.
+	 * @param to the index after the last point to project.
+	 */
+	public void project(final double[] cx, final double[] cy, final double[] x, final double[] y, final int from, final int to) {
+		final CoordinateType coords = getCoordinateInstance();
+		final Coordinate2D projected = new Coordinate2D();
+		
+		for(int k=from; k<to; k++) {
+			coords.setX(cx[k]);
+			coords.setY(cy[k]);
+			project(coords, projected);
+			x[k] = projected.x();
+			y[k] = projected.y();
+		}
+	}
+	
+	/**
+	 * Deprojects a range of projected offsets, given as arrays of their components, to the corresponding arrays of coordinates.
+	 * Subclasses may override this, to take calculations that are common to all points out of the loop.
+	 *
+	 * @param x the array of projected x offsets.
+	 * @param y the array of projected y offsets.
+	 * @param cx the array into which to write the first coordinate components (e.g. longitudes in radians).
+	 * @param cy the array into which to write the second coordinate components (e.g. latitudes in radians).
+	 * @param from the index of the first point to deproject.
+	 * @param to the index after the last point to deproject.
+	 */
+	public void deproject(final double[] x, final double[] y, final double[] cx, final double[] cy, final int from, final int to) {
+		final CoordinateType coords = getCoordinateInstance();
+		final Coordinate2D projected = new Coordinate2D();
+		
+		for(int k=from; k<to; k++) {
+			projected.set(x[k], y[k]);
+			deproject(projected, coords);
+			cx[k] = coords.x();
+			cy[k] = coords.y();
+		}
+	}
+	
+	/**
+	 * Projects a range of coordinates in parallel, on the threads (and executor) of the specified processor.
+	 * 
+	 * @see #project(double[], double[], double[], double[], int, int)
+	 */
+	public void project(final double[] cx, final double[] cy, final double[] x, final double[] y, final int from, final int to, 
+			final Parallelizable processor) {
+		new BlockTask(from, to) {
+			@Override
+			protected void processBlock(int start, int end) { project(cx, cy, x, y, start, end); }
+		}.process(processor);
+	}
+	
+	/**
+	 * Deprojects a range of projected offsets in parallel, on the threads (and executor) of the specified processor.
+	 * 
+	 * @see #deproject(double[], double[], double[], double[], int, int)
+	 */
+	public void deproject(final double[] x, final double[] y, final double[] cx, final double[] cy, final int from, final int to, 
+			final Parallelizable processor) {
+		new BlockTask(from, to) {
+			@Override
+			protected void processBlock(int start, int end) { deproject(x, y, cx, cy, start, end); }
+		}.process(processor);
+	}
+	
+
 	public abstract String getFitsID();
 	
 
@@ -141,4 +219,42 @@ public abstract class Projection2D<CoordinateType extends Coordinate2D> implemen
 	public abstract void editHeader(Header header, String alt) throws HeaderCardException;
 	
 	
+	
+	// Processes a range of points in contiguous blocks, one block per chunk...
+	private abstract class BlockTask extends ParallelTask<Void> {
+		private int from, to;
+		
+		private BlockTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected void processChunk(int i, int split) {
+			final long n = to - from;
+			processBlock(from + (int) (n * i / split), from + (int) (n * (i + 1) / split));
+		}
+		
+		protected abstract void processBlock(int start, int end);
+		
+		public void process(Parallelizable processor) {
+			final int chunks = Math.max(1, Math.min(processor.getParallel(), (to - from) / MIN_PARALLEL_BLOCK));
+			
+			if(chunks == 1) {
+				processBlock(from, to);
+				return;
+			}
+			
+			ExecutorService executor = processor.getExecutor();
+			if(processor.isWorkStealing() && !(executor instanceof ForkJoinPool)) executor = ParallelTask.getDefaultWorkStealingExecutor();
+			
+			try { process(chunks, executor); }
+			catch(Exception e) { Util.error(this, e); }
+		}
+	}
+	
+	
+	/** The smallest number of points per thread, for which projecting in parallel is worth it. */
+	public static final int MIN_PARALLEL_BLOCK = 1000;
+	
 }
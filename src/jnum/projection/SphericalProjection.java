@@ -201,6 +201,102 @@ public abstract class SphericalProjection extends Projection2D<SphericalCoordina
 	}
 	
 	
+	/**
+	 * Projects a range of spherical coordinates, with the rotation to native coordinates (i.e. the trigonometry of the 
+	 * celestial pole) set up once for all points.
+	 *
+	 * @param lon the array of (native) longitudes in radians, as in {@link SphericalCoordinates#x()}.
+	 * @param lat the array of (native) latitudes in radians, as in {@link SphericalCoordinates#y()}.
+	 * 
+	 * @see Projection2D#project(double[], double[], double[], double[], int, int)
+	 */
+	@Override
+	public void project(final double[] lon, final double[] lat, final double[] x, final double[] y, final int from, final int to) {
+		final Coordinate2D offset = new Coordinate2D();
+		
+		final double lon0 = celestialPole.x();
+		final double phi0 = nativePole.x();
+		
+		if(isRightAnglePole()) {
+			final boolean isNorth = celestialPole.y() > 0.0;
+			
+			for(int k=from; k<to; k++) {
+				final double dLON = lon[k] - lon0;
+				if(isNorth) getOffsets(lat[k], Math.IEEEremainder(phi0 + dLON + Math.PI, twoPI), offset);
+				else getOffsets(-lat[k], Math.IEEEremainder(phi0 - dLON, twoPI), offset);
+				x[k] = offset.x();
+				y[k] = offset.y();
+			}
+			return;
+		}
+		
+		final double sinLat0 = celestialPole.sinLat();
+		final double cosLat0 = celestialPole.cosLat();
+		
+		for(int k=from; k<to; k++) {
+			final double dLON = lon[k] - lon0;
+			final double cosdLON = Math.cos(dLON);
+			final double sinLat = Math.sin(lat[k]);
+			final double cosLat = Math.cos(lat[k]);
+			
+			final double phi = phi0 + Math.atan2(-cosLat * Math.sin(dLON), sinLat * cosLat0 - cosLat * sinLat0 * cosdLON);
+			final double theta = asin(sinLat * sinLat0 + cosLat * cosLat0 * cosdLON);
+			
+			getOffsets(theta, Math.IEEEremainder(phi, twoPI), offset);
+			x[k] = offset.x();
+			y[k] = offset.y();
+		}
+	}
+	
+	/**
+	 * Deprojects a range of projected offsets to spherical coordinates, with the rotation from native coordinates (i.e. 
+	 * the trigonometry of the celestial pole) set up once for all points.
+	 *
+	 * @param lon the array into which to write the (native) longitudes in radians, as in {@link SphericalCoordinates#x()}.
+	 * @param lat the array into which to write the (native) latitudes in radians, as in {@link SphericalCoordinates#y()}.
+	 * 
+	 * @see Projection2D#deproject(double[], double[], double[], double[], int, int)
+	 */
+	@Override
+	public void deproject(final double[] x, final double[] y, final double[] lon, final double[] lat, final int from, final int to) {
+		final Coordinate2D offset = new Coordinate2D();
+		final SphericalCoordinates phiTheta = new SphericalCoordinates();
+		
+		final double lon0 = celestialPole.x();
+		final double phi0 = nativePole.x();
+		
+		if(isRightAnglePole()) {
+			final boolean isNorth = celestialPole.y() > 0.0;
+			
+			for(int k=from; k<to; k++) {
+				offset.set(x[k], y[k]);
+				getPhiTheta(offset, phiTheta);
+				
+				final double dPhi = phiTheta.x() - phi0;
+				lon[k] = Math.IEEEremainder(isNorth ? lon0 + dPhi - Math.PI : lon0 - dPhi, twoPI);
+				lat[k] = Math.IEEEremainder(isNorth ? phiTheta.y() : -phiTheta.y(), Math.PI);
+			}
+			return;
+		}
+		
+		final double sinLat0 = celestialPole.sinLat();
+		final double cosLat0 = celestialPole.cosLat();
+		
+		for(int k=from; k<to; k++) {
+			offset.set(x[k], y[k]);
+			getPhiTheta(offset, phiTheta);
+			
+			final double dPhi = phiTheta.x() - phi0;
+			final double cosTheta = phiTheta.cosLat();
+			final double sinTheta = phiTheta.sinLat();	
+			final double cosdPhi = Math.cos(dPhi);
+			
+			lon[k] = Math.IEEEremainder(lon0 + Math.atan2(-cosTheta * Math.sin(dPhi), sinTheta * cosLat0 - cosTheta * sinLat0 * cosdPhi), twoPI);
+			lat[k] = Math.IEEEremainder(asin(sinTheta * sinLat0 + cosTheta * cosLat0 * cosdPhi), Math.PI);
+		}
+	}
+	
+	
 	/**
 	 * Convert offsets to phi, theta.
 	 *
@@ -0,0 +1,98 @@
+package test;
+
+import jnum.Unit;
+import jnum.astro.CelestialCoordinates;
+import jnum.astro.CelestialRotation;
+import jnum.astro.CoordinateEpoch;
+import jnum.astro.EclipticCoordinates;
+import jnum.astro.EquatorialCoordinates;
+import jnum.astro.GalacticCoordinates;
+
+// Bulk rotations must agree with the per-point conversions, including ecliptic coordinates of other epochs...
+public class CelestialRotationTest {
+
+    private static final double tolerance = 1e-3 * Unit.arcsec;
+
+    private static final CoordinateEpoch B1950 = CoordinateEpoch.B1950, J2000 = CoordinateEpoch.J2000;
+
+    public static void main(String[] args) {
+        for(int i=0; i<20; i++) {
+            final double lon = 0.3 * i, lat = 1.4 * Math.sin(0.7 * i);
+
+            checkConvert(new EclipticCoordinates(lon, lat, B1950), new EquatorialCoordinates(J2000));
+            checkConvert(new EclipticCoordinates(lon, lat, B1950), new EquatorialCoordinates(B1950));
+            checkConvert(new EclipticCoordinates(lon, lat, J2000), new EquatorialCoordinates(B1950));
+            checkConvert(new EquatorialCoordinates(lon, lat, B1950), new EclipticCoordinates(J2000));
+            checkConvert(new EquatorialCoordinates(lon, lat, J2000), new EclipticCoordinates(B1950));
+
+            EquatorialCoordinates equatorial = new EquatorialCoordinates(lon, lat, B1950);
+            EquatorialCoordinates precessedEquatorial = (EquatorialCoordinates) equatorial.copy();
+            precessedEquatorial.precess(J2000);
+            check(equatorial, precessedEquatorial, CelestialRotation.getInstance(equatorial, precessedEquatorial));
+
+            EclipticCoordinates ecliptic = new EclipticCoordinates(lon, lat, J2000);
+            EclipticCoordinates precessed = (EclipticCoordinates) ecliptic.copy();
+            precessed.precess(B1950);
+            check(ecliptic, precessed, CelestialRotation.getInstance(ecliptic, precessed));
+
+            // Via equatorial coordinates, which keep the epoch of their values...
+            ecliptic.setEpoch(B1950);
+            equatorial = new EquatorialCoordinates(J2000);
+            ecliptic.toEquatorial(equatorial);
+            equatorial.setEpoch(J2000);
+            GalacticCoordinates galactic = new GalacticCoordinates();
+            galactic.fromEquatorial(equatorial);
+            check(ecliptic, galactic, CelestialRotation.getInstance(ecliptic, galactic));
+
+            galactic.toEquatorial(equatorial);
+            ecliptic.fromEquatorial(equatorial);
+            ecliptic.setEpoch(B1950);
+            check(galactic, ecliptic, CelestialRotation.getInstance(galactic, ecliptic));
+        }
+
+        checkBulk(EclipticCoordinates.class, B1950, EquatorialCoordinates.class, J2000);
+        checkBulk(EquatorialCoordinates.class, J2000, EclipticCoordinates.class, B1950);
+
+        System.out.println("OK");
+    }
+
+    private static void checkConvert(CelestialCoordinates from, CelestialCoordinates to) {
+        CelestialCoordinates expected = (CelestialCoordinates) to.copy();
+        CelestialCoordinates.convert(from, expected);
+        check(from, expected, CelestialRotation.getInstance(from, to));
+    }
+
+    private static void check(CelestialCoordinates from, CelestialCoordinates expected, CelestialRotation rotation) {
+        CelestialCoordinates result = (CelestialCoordinates) expected.copy();
+        rotation.convert(from, result);
+        double d = result.distanceTo(expected);
+        if(!(d < tolerance)) throw new IllegalStateException(rotation + ": off by " + (d / Unit.arcsec) + " arcsec at " + from);
+    }
+
+    private static void checkBulk(Class<? extends CelestialCoordinates> fromType, CoordinateEpoch fromEpoch, 
+            Class<? extends CelestialCoordinates> toType, CoordinateEpoch toEpoch) {
+        CelestialRotation rotation = CelestialRotation.getInstance(fromType, fromEpoch, toType, toEpoch);
+        final int n = 50;
+        double[] lon = new double[n], lat = new double[n];
+        for(int i=n; --i >= 0; ) {
+            lon[i] = 0.13 * i - 3.0;
+            lat[i] = 1.5 * Math.cos(0.9 * i);
+        }
+
+        double[] toLon = new double[n], toLat = new double[n];
+        rotation.convert(lon, lat, toLon, toLat, 0, n);
+
+        CelestialCoordinates from = newInstance(fromType), to = newInstance(toType);
+        for(int i=n; --i >= 0; ) {
+            from.setNative(lon[i], lat[i]);
+            rotation.convert(from, to);
+            if(Math.abs(Math.IEEEremainder(to.x() - toLon[i], 2.0 * Math.PI)) > tolerance || Math.abs(to.y() - toLat[i]) > tolerance)
+                throw new IllegalStateException(rotation + ": bulk conversion differs at index " + i);
+        }
+    }
+
+    private static CelestialCoordinates newInstance(Class<? extends CelestialCoordinates> type) {
+        try { return type.getConstructor().newInstance(); }
+        catch(Exception e) { throw new IllegalStateException(e); }
+    }
+}
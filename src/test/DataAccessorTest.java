@@ -0,0 +1,76 @@
+package test;
+
+import jnum.data.cube.Data3D;
+import jnum.data.image.Data2D;
+import jnum.data.samples.Data1D;
+
+// Data implementations that supply only the boxed accessors must get working primitive getters...
+public class DataAccessorTest {
+
+    public static void main(String[] args) {
+        Data1D samples = new Data1D() {
+            @Override
+            public Object getCore() { return null; }
+            @Override
+            public Class<? extends Number> getElementType() { return Double.class; }
+            @Override
+            public int size() { return 5; }
+            @Override
+            public Number get(int i) { return 0.5 * i; }
+            @Override
+            public void set(int i, Number value) {}
+            @Override
+            public void add(int i, Number value) {}
+        };
+        
+        Data2D image = new Data2D() {
+            @Override
+            public Object getCore() { return null; }
+            @Override
+            public Class<? extends Number> getElementType() { return Double.class; }
+            @Override
+            public int sizeX() { return 3; }
+            @Override
+            public int sizeY() { return 4; }
+            @Override
+            public Number get(int i, int j) { return i + 0.25 * j; }
+            @Override
+            public void set(int i, int j, Number value) {}
+            @Override
+            public void add(int i, int j, Number value) {}
+        };
+        
+        Data3D cube = new Data3D() {
+            @Override
+            public Object getCore() { return null; }
+            @Override
+            public Class<? extends Number> getElementType() { return Double.class; }
+            @Override
+            public int sizeX() { return 2; }
+            @Override
+            public int sizeY() { return 3; }
+            @Override
+            public int sizeZ() { return 4; }
+            @Override
+            public Number get(int i, int j, int k) { return i + 0.5 * j + 0.25 * k; }
+            @Override
+            public void set(int i, int j, int k, Number value) {}
+            @Override
+            public void add(int i, int j, int k, Number value) {}
+        };
+        
+        for(int i=samples.size(); --i >= 0; ) check(samples.getDouble(i), 0.5 * i);
+        
+        for(int i=image.sizeX(); --i >= 0; ) for(int j=image.sizeY(); --j >= 0; ) 
+            check(image.getDouble(i, j), i + 0.25 * j);
+        
+        for(int i=cube.sizeX(); --i >= 0; ) for(int j=cube.sizeY(); --j >= 0; ) for(int k=cube.sizeZ(); --k >= 0; ) 
+            check(cube.getDouble(i, j, k), i + 0.5 * j + 0.25 * k);
+        
+        System.out.println("OK");
+    }
+    
+    private static void check(double value, double expected) {
+        if(value != expected) throw new IllegalStateException("Expected " + expected + ", got " + value);
+    }
+}
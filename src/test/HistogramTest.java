@@ -0,0 +1,48 @@
+package test;
+
+import jnum.data.Histogram;
+import jnum.data.image.Image2D;
+
+// Histograms must keep all counts when merged, including the partial histograms of parallel processing...
+public class HistogramTest {
+
+    public static void main(String[] args) {
+        // Bins 1..100 fill the initial dense range exactly...
+        Histogram partial = new Histogram(1.0);
+        for(int bin=1; bin <= 100; bin++) partial.add(bin, bin);
+        
+        Histogram merged = new Histogram(1.0);
+        merged.add(partial);
+        
+        Histogram scaled = new Histogram(1.0);
+        scaled.addMultipleOf(partial, 2.0);
+        
+        for(int bin=1; bin <= 100; bin++) {
+            check("merged bin " + bin, merged.countsFor(bin), bin);
+            check("scaled bin " + bin, scaled.countsFor(bin), 2.0 * bin);
+        }
+        
+        // Parallel histogramming of an image, against a serial reference...
+        final int size = 1000;
+        Image2D image = Image2D.createType(Double.class, size, size);
+        Histogram reference = new Histogram(1.0);
+        
+        for(int i=size; --i >= 0; ) for(int j=size; --j >= 0; ) {
+            double value = ((i * 7919L + j * 104729L) % 2001) - 1000.0;
+            image.set(i, j, value);
+            reference.add(value);
+        }
+        
+        image.setParallel(4);
+        Histogram histogram = image.getHistogram(1.0);
+        
+        check("total counts", histogram.totalCounts(), (double) size * size);
+        for(int bin=-1000; bin <= 1000; bin++) check("image bin " + bin, histogram.countsFor(bin), reference.countsFor(bin));
+        
+        System.out.println("OK");
+    }
+    
+    private static void check(String what, double value, double expected) {
+        if(value != expected) throw new IllegalStateException(what + ": expected " + expected + ", got " + value);
+    }
+}
@@ -0,0 +1,105 @@
+package test;
+
+import jnum.data.FlagCompanion;
+import jnum.data.RegularData;
+import jnum.data.image.Data2D;
+import jnum.data.image.Image2D;
+import jnum.data.image.Map2D;
+import jnum.data.image.Observation2D;
+import jnum.data.image.overlay.Viewport2D;
+
+// Cached interpolation must follow every change to the data, including changes underneath overlays...
+public class InterpolationCacheTest {
+    
+    private static final int size = 20;
+
+    public static void main(String[] args) {
+        Map2D map = new Map2D(Double.class, FlagCompanion.TYPE_INT);
+        map.setSize(size, size);
+        fill(map.getImage(), 1.0);
+        map.setInterpolationType(RegularData.SPLINE);
+        map.setInterpolationCaching(true);
+        
+        sample(map);
+        map.setSize(size, size);
+        fill(map.getImage(), 2.0);
+        check(map, "setSize() at the same size");
+        
+        sample(map);
+        Image2D image = Image2D.createType(Double.class, size, size);
+        fill(image, 3.0);
+        map.setImage(image);
+        check(map, "setImage()");
+        
+        sample(map);
+        map.getImage().add(1.5);
+        check(map, "image add()");
+        
+        sample(map);
+        map.getImage().scale(-0.5);
+        check(map, "image scale()");
+        
+        sample(map);
+        map.getImage().setDouble(8, 8, 100.0);
+        check(map, "image element write");
+        
+        sample(map);
+        Viewport2D view = new Viewport2D(map, 5, 5, 12, 12);
+        for(int i=view.sizeX(); --i >= 0; ) for(int j=view.sizeY(); --j >= 0; ) view.add(i, j, -0.25 * (i + j));
+        check(map, "viewport add()");
+        
+        sample(map);
+        map.getFlags().set(9, 9, 1L);
+        map.setValidatingFlags(~0L);
+        check(map, "flagging");
+        
+        sample(map);
+        map.noData();
+        check(map, "noData()");
+        
+        Observation2D obs = new Observation2D(Double.class, FlagCompanion.TYPE_INT);
+        obs.setSize(size, size);
+        obs.setInterpolationType(RegularData.SPLINE);
+        obs.setInterpolationCaching(true);
+        
+        Observation2D frame = new Observation2D(Double.class, FlagCompanion.TYPE_INT);
+        frame.setSize(size, size);
+        fill(frame.getImage(), 1.0);
+        frame.getWeightImage().fill(1.0);
+        frame.getExposureImage().fill(1.0);
+        
+        sample(obs);
+        obs.accumulate(frame, 2.0);
+        obs.endAccumulation();
+        check(obs, "accumulate() + endAccumulation()");
+        
+        System.out.println("OK");
+    }
+    
+    private static void fill(Data2D image, double scale) {
+        for(int i=size; --i >= 0; ) for(int j=size; --j >= 0; ) image.setDouble(i, j, scale * (Math.sin(0.3 * i) + Math.cos(0.2 * j) + 0.01 * i * j));
+    }
+    
+    // Builds the cache (if not already)...
+    private static void sample(Data2D data) {
+        data.valueAtIndex(7.3, 8.6);
+    }
+    
+    // Compares the cached values to those interpolated from the data directly...
+    private static void check(Data2D data, String what) {
+        final double[] ic = { 7.3, 8.5, 9.25, 3.7, 0.4, 18.9 };
+        final double[] jc = { 8.6, 8.5, 9.75, 11.2, 0.3, 12.1 };
+        final double[] cached = new double[ic.length];
+        
+        for(int k=ic.length; --k >= 0; ) cached[k] = data.valueAtIndex(ic[k], jc[k]);
+        
+        data.setInterpolationCaching(false);
+        for(int k=ic.length; --k >= 0; ) {
+            final double expected = data.valueAtIndex(ic[k], jc[k]);
+            if(Double.doubleToLongBits(cached[k]) != Double.doubleToLongBits(expected)) throw new IllegalStateException(
+                    "Stale interpolation after " + what + " at (" + ic[k] + ", " + jc[k] + "): " + cached[k] + " vs. " + expected
+            );
+        }
+        data.setInterpolationCaching(true);
+    }
+}
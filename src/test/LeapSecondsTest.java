@@ -0,0 +1,47 @@
+package test;
+
+import java.io.File;
+import java.io.PrintWriter;
+
+import jnum.astro.LeapSeconds;
+
+// A leap-seconds data file set after the first lookups must still be read when it is needed...
+public class LeapSecondsTest {
+
+    public static void main(String[] args) throws Exception {
+        File file = File.createTempFile("leap-seconds", ".list");
+        file.deleteOnExit();
+        
+        PrintWriter out = new PrintWriter(file);
+        out.println("#$ 3676924800");
+        out.println("#@ 5000000000");   // expires in 2058
+        out.println("2272060800  10  # 1 Jan 1972");
+        out.println("2524521600  19  # 1 Jan 1980");
+        out.println("3692217600  37  # 1 Jan 2017");
+        out.close();
+        
+        LeapSeconds.setVerbose(false);
+        
+        final long y1975 = 157766400000L, y1985 = 473385600000L;
+        final long now = System.currentTimeMillis();
+        
+        // Lookups without a data file fall back to the built-in default...
+        check("1985 without data", LeapSeconds.get(y1985), LeapSeconds.getCurrentLeap());
+        check("current without data", LeapSeconds.get(now), 37);
+        
+        LeapSeconds.dataFile = file.getPath();
+        
+        // A current lookup past the expiry of the defaults reads the newly set file...
+        check("current with data", LeapSeconds.get(now), 37);
+        if(!LeapSeconds.isCurrent()) throw new IllegalStateException("Leap data from " + file + " not in use.");
+        
+        check("1975", LeapSeconds.get(y1975), 10);
+        check("1985", LeapSeconds.get(y1985), 19);
+        
+        System.out.println("OK");
+    }
+    
+    private static void check(String what, int leap, int expected) {
+        if(leap != expected) throw new IllegalStateException(what + ": expected " + expected + " s, got " + leap + " s");
+    }
+}
@@ -0,0 +1,103 @@
+package test;
+
+import java.util.Random;
+
+import jnum.fft.DoubleFFT;
+import jnum.fft.FloatFFT;
+
+// Real transforms of odd sizes (e.g. 2^n + 1) must match the direct DFT, and invert (scaled by n/2)...
+public class OddRealFFTTest {
+
+    public static void main(String[] args) {
+        final int[] sizes = { 3, 5, 9, 15, 21, 1025, 1031, 4097 };
+        Random random = new Random(1025);
+        
+        for(int n : sizes) for(int threads = 1; threads <= 4; threads += 3) {
+            double[] x = new double[n];
+            for(int i=n; --i >= 0; ) x[i] = random.nextGaussian();
+            
+            final double[] spectrum = dft(x);
+            
+            DoubleFFT fft = new DoubleFFT();
+            fft.setParallel(threads);
+            double[] d = x.clone();
+            fft.realTransform(d, true);
+            compare("double forward n=" + n, d, spectrum, 1e-10 * n);
+            fft.realTransform(d, false);
+            compare("double inverse n=" + n, d, scaled(x, 0.5 * n), 1e-10 * n);
+            
+            FloatFFT ffft = new FloatFFT();
+            ffft.setParallel(threads);
+            float[] f = new float[n];
+            for(int i=n; --i >= 0; ) f[i] = (float) x[i];
+            ffft.realTransform(f, true);
+            compare("float forward n=" + n, toDouble(f), spectrum, 1e-5 * n);
+            ffft.realTransform(f, false);
+            compare("float inverse n=" + n, toDouble(f), scaled(x, 0.5 * n), 1e-5 * n);
+            
+            // With the highest frequency component unrolled into the extra 2 elements...
+            DoubleFFT.NyquistUnrolledReal unrolled = new DoubleFFT.NyquistUnrolledReal();
+            unrolled.setParallel(threads);
+            double[] u = new double[n + 2];
+            System.arraycopy(x, 0, u, 0, n);
+            unrolled.realTransform(u, true);
+            
+            double[] expected = new double[n + 2];
+            System.arraycopy(spectrum, 0, expected, 0, n);
+            if(n > 1) {
+                expected[n - 1] = spectrum[n - 1];
+                expected[n] = spectrum[1];
+                expected[1] = 0.0;
+            }
+            compare("unrolled forward n=" + n, u, expected, 1e-10 * n);
+            unrolled.realTransform(u, false);
+            double[] back = new double[n];
+            System.arraycopy(u, 0, back, 0, n);
+            compare("unrolled inverse n=" + n, back, scaled(x, 0.5 * n), 1e-10 * n);
+        }
+        
+        System.out.println("OK");
+    }
+    
+    // The packed spectrum with the exp(+2 pi i jk/n) kernel...
+    private static double[] dft(double[] x) {
+        final int n = x.length, m = n >>> 1;
+        double[] spectrum = new double[n];
+        
+        for(int k=0; k <= m; k++) {
+            double re = 0.0, im = 0.0;
+            for(int j=n; --j >= 0; ) {
+                final double phi = 2.0 * Math.PI * (((long) j * k) % n) / n;
+                re += x[j] * Math.cos(phi);
+                im += x[j] * Math.sin(phi);
+            }
+            if(k == 0) spectrum[0] = re;
+            else if(k < m) {
+                spectrum[2 * k] = re;
+                spectrum[2 * k + 1] = im;
+            }
+            else {
+                spectrum[n - 1] = re;
+                spectrum[1] = im;
+            }
+        }
+        return spectrum;
+    }
+    
+    private static double[] scaled(double[] x, double factor) {
+        double[] y = new double[x.length];
+        for(int i=x.length; --i >= 0; ) y[i] = factor * x[i];
+        return y;
+    }
+    
+    private static double[] toDouble(float[] f) {
+        double[] d = new double[f.length];
+        for(int i=f.length; --i >= 0; ) d[i] = f[i];
+        return d;
+    }
+    
+    private static void compare(String what, double[] value, double[] expected, double tolerance) {
+        for(int i=expected.length; --i >= 0; ) if(!(Math.abs(value[i] - expected[i]) <= tolerance)) 
+            throw new IllegalStateException(what + ": element " + i + " is " + value[i] + ", expected " + expected[i]);
+    }
+}
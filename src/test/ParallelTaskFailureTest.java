@@ -0,0 +1,41 @@
+package test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import jnum.parallel.ParallelTask;
+
+// A chunk failing on a work-stealing pool must abort the processing with its exception, not hang it...
+public class ParallelTaskFailureTest {
+
+    public static void main(String[] args) throws Exception {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        final Exception[] thrown = new Exception[1];
+        
+        Thread caller = new Thread() {
+            @Override
+            public void run() {
+                ParallelTask<Void> task = new ParallelTask<Void>() {
+                    @Override
+                    protected void processChunk(int i, int split) throws Exception {
+                        if(i == 3) throw new IllegalStateException("failing chunk " + i);
+                        Thread.sleep(10);
+                    }
+                };
+                
+                try { task.process(4, pool); }
+                catch(Exception e) { thrown[0] = e; }
+            }
+        };
+        
+        caller.setDaemon(true);
+        caller.start();
+        caller.join(10000);
+        pool.shutdownNow();
+        
+        if(caller.isAlive()) throw new IllegalStateException("Parallel processing is deadlocked after a failed chunk.");
+        if(!(thrown[0] instanceof IllegalStateException)) throw new IllegalStateException("Expected the chunk's exception, got " + thrown[0]);
+        
+        System.out.println("OK");
+    }
+    
+}
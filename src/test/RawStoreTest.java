@@ -0,0 +1,55 @@
+package test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import jnum.io.dirfile.DoubleStore;
+import jnum.io.dirfile.RawStore;
+
+// Reads spanning a full mapping window (or more) must be covered by the mapped region...
+public class RawStoreTest {
+
+    public static void main(String[] args) throws Exception {
+        final int samples = 1000;
+        
+        File dir = new File(System.getProperty("java.io.tmpdir"));
+        File file = File.createTempFile("rawstore", ".dat", dir);
+        file.deleteOnExit();
+        
+        ByteBuffer buffer = ByteBuffer.allocate(samples << 3).order(ByteOrder.LITTLE_ENDIAN);
+        for(int i=0; i<samples; i++) buffer.putDouble(i);
+        
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(buffer.array());
+        out.close();
+        
+        RawStore.maxMapBytes = 256;
+        
+        DoubleStore store = new DoubleStore(dir.getPath(), file.getName(), 1);
+        
+        // exactly maxMapBytes, away from the file start...
+        check(store, 100, 32);
+        // more than maxMapBytes...
+        check(store, 200, 300);
+        check(store, 5, 77);
+        // the whole file...
+        check(store, 0, samples);
+        // the tail, ending at the end of file...
+        check(store, samples - 32, 32);
+        
+        for(int i=0; i<samples; i+=37) if(store.get(i) != i) throw new IllegalStateException("Sample " + i + " is " + store.get(i));
+        
+        store.close();
+        
+        System.out.println("OK");
+    }
+    
+    private static void check(DoubleStore store, int from, int count) throws Exception {
+        double[] data = new double[count];
+        store.read(from, data, 0, count);
+        for(int i=0; i<count; i++) if(data[i] != from + i) 
+            throw new IllegalStateException("Sample " + (from + i) + " read as " + data[i]);
+    }
+}
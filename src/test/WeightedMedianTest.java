@@ -0,0 +1,93 @@
+package test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import jnum.data.Statistics;
+import jnum.data.WeightedPoint;
+
+// The selection-based weighted median must agree with walking up the sorted data, also when values are tied...
+public class WeightedMedianTest {
+
+    public static void main(String[] args) {
+        check(new double[] { 1, 0, 0, 1, 0, 0, 2, 0 }, new double[] { 0.6, 0.4, 0.7, 0.3, 0.1, 0.2, 0.9, 0.1 }, 1e-12);
+        check(new double[] { 2, 1, 2, 1, 0 }, new double[] { 0.9, 0.8, 0.4, 0.5, 0.1 }, 1e-12);
+        
+        Random random = new Random(2017);
+        
+        for(int k=0; k<1000; k++) {
+            final int n = 2 + random.nextInt(100);
+            final int levels = 1 + random.nextInt(10);
+            double[] value = new double[n], weight = new double[n];
+            
+            for(int i=n; --i >= 0; ) {
+                value[i] = random.nextInt(levels);
+                weight[i] = random.nextInt(5) == 0 ? 0.0 : random.nextDouble();
+            }
+            check(value, weight, 1e-12);
+            
+            for(int i=n; --i >= 0; ) value[i] = random.nextGaussian();
+            check(value, weight, 1e-12);
+            
+            // Unit and decimal weights, whose cumulative sums may land exactly on the midpoint...
+            for(int i=n; --i >= 0; ) {
+                value[i] = random.nextInt(levels);
+                weight[i] = 1.0;
+            }
+            check(value, weight, 1e-12);
+            
+            for(int i=n; --i >= 0; ) weight[i] = 0.1 * random.nextInt(10);
+            check(value, weight, 1e-12);
+        }
+        
+        System.out.println("OK");
+    }
+    
+    private static void check(double[] value, double[] weight, double tolerance) {
+        final double expected = sortedMedian(points(value, weight));
+        final double median = Statistics.Inplace.median(points(value, weight)).value();
+        
+        if(Double.isNaN(expected) && Double.isNaN(median)) return;
+        if(!(Math.abs(median - expected) <= tolerance)) throw new IllegalStateException(
+                "Median of " + Arrays.toString(value) + " with weights " + Arrays.toString(weight) + 
+                ": expected " + expected + ", got " + median
+        );
+    }
+    
+    private static WeightedPoint[] points(double[] value, double[] weight) {
+        WeightedPoint[] points = new WeightedPoint[value.length];
+        for(int i=points.length; --i >= 0; ) points[i] = new WeightedPoint(value[i], weight[i]);
+        return points;
+    }
+    
+    // The reference: walking up the sorted data to half the total weight...
+    private static double sortedMedian(WeightedPoint[] data) {
+        Arrays.sort(data);
+        
+        double wt = 0.0, wmax = 0.0;
+        for(int i=data.length; --i >= 0; ) if(!data[i].isNaN()) {
+            wt += data[i].weight();
+            wmax = Math.max(wmax, data[i].weight());
+        }
+        
+        // A single point carrying all the weight...
+        if(wmax >= wt) return Statistics.mean(data).value();
+        
+        final double midw = 0.5 * wt;
+        
+        int ig = 0;
+        WeightedPoint last = WeightedPoint.NaN;
+        WeightedPoint point = data[0];
+        double wi = point.weight();
+        
+        while(wi < midw) if(data[++ig].weight() > 0.0) {
+            last = point;
+            point = data[ig];
+            wi += 0.5 * (last.weight() + point.weight());
+        }
+        
+        final double wminus = wi - 0.5 * (last.weight() + point.weight());
+        final double w1 = (wi - midw) / (wi + wminus);
+        return w1 * last.value() + (1.0 - w1) * point.value();
+    }
+}